@@ -0,0 +1,125 @@
+/*****************************************************************************
+ * File:    Datasets.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order.benchmarks;
+
+
+// Imports
+///////////////
+
+import java.util.Random;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Generates repeatable synthetic datasets for the benchmarks. The data is
+ * shaped like a typical published dataset: a few thousand subjects, many of them
+ * in one namespace, a small vocabulary of predicates, and objects which are a mix
+ * of resources, language-tagged strings, numbers, dates and booleans.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class Datasets
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    public static final String NS = "http://data.example.com/id/";
+
+    public static final String VOCAB = "http://data.example.com/def/";
+
+    /** Seed for all generated data, so that every run sees the same input */
+    public static final long SEED = 20261016L;
+
+    private static final String[] LANGS = {"en", "cy", "fr", "de"};
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    private Datasets() {
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Create a model containing the given number of statements
+     * @param size The number of statements to generate
+     * @return A new model
+     */
+    public static Model statements( int size ) {
+        Model m = ModelFactory.createDefaultModel();
+        Random rand = new Random( SEED );
+        int subjects = Math.max( 1, size / 8 );
+        while (m.size() < size) {
+            Resource s = subject( m, rand, subjects );
+            Property p = m.createProperty( VOCAB + "p" + rand.nextInt( 24 ) );
+            m.add( s, p, object( m, rand, subjects ) );
+        }
+        return m;
+    }
+
+    /**
+     * Create an array of mixed nodes, as found in the object position of statements
+     * @param size The number of nodes
+     * @return A new array of nodes, which may contain repeats
+     */
+    public static RDFNode[] nodes( int size ) {
+        Model m = ModelFactory.createDefaultModel();
+        Random rand = new Random( SEED );
+        int subjects = Math.max( 1, size / 8 );
+        RDFNode[] nodes = new RDFNode[size];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = object( m, rand, subjects );
+        }
+        return nodes;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private static Resource subject( Model m, Random rand, int subjects ) {
+        int i = rand.nextInt( subjects );
+        return (i % 10 == 0) ? m.createResource( new AnonId( "b" + i ) ) : m.createResource( NS + "item/" + i );
+    }
+
+    private static RDFNode object( Model m, Random rand, int subjects ) {
+        switch (rand.nextInt( 10 )) {
+            case 0:
+            case 1:
+                return m.createResource( NS + "item/" + rand.nextInt( subjects ) );
+            case 2:
+            case 3:
+                return m.createLiteral( "label " + rand.nextInt( 5000 ), LANGS[rand.nextInt( LANGS.length )] );
+            case 4:
+                return m.createLiteral( "note " + rand.nextInt( 5000 ) );
+            case 5:
+                return m.createTypedLiteral( Integer.toString( rand.nextInt( 100000 ) ), XSDDatatype.XSDinteger );
+            case 6:
+                return m.createTypedLiteral( (rand.nextInt( 100000 ) / 100.0) + "", XSDDatatype.XSDdecimal );
+            case 7:
+                return m.createTypedLiteral( rand.nextGaussian() * 1000.0 );
+            case 8:
+                return m.createTypedLiteral( String.format( "20%02d-%02d-%02d", rand.nextInt( 30 ), 1 + rand.nextInt( 12 ), 1 + rand.nextInt( 28 ) ),
+                                             XSDDatatype.XSDdate );
+            default:
+                return m.createTypedLiteral( rand.nextBoolean() );
+        }
+    }
+
+}
+
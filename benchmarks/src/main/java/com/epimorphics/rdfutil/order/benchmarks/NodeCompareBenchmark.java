@@ -0,0 +1,161 @@
+/*****************************************************************************
+ * File:    NodeCompareBenchmark.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order.benchmarks;
+
+
+// Imports
+///////////////
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.epimorphics.rdfutil.order.*;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Measures a single call to {@link RDFNodeStandardOrder#compare(RDFNode, RDFNode)}
+ * for each branch of the standard order. The <code>branch</code> parameter selects
+ * a pair of distinct nodes which exercise that branch. The same pair is also compared
+ * with the {@link CompiledNodeOrder} built from a default {@link NodeOrderSpec}, which
+ * makes the same comparisons without virtual calls between the branches.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class NodeCompareBenchmark
+{
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    @Param( {"uri", "bnode", "resourceLiteral", "plain", "lang", "datatypes",
+             "boolean", "byte", "short", "int", "long", "integer", "bigInteger", "decimal",
+             "float", "double", "time", "date", "dateTime", "other"} )
+    public String branch;
+
+    private RDFNodeStandardOrder order;
+    private RDFNode n0, n1;
+
+    private CompiledNodeOrder compiled;
+    private Node g0, g1;
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Setup
+    public void setUp() {
+        order = new RDFNodeStandardOrder();
+        Model m = ModelFactory.createDefaultModel();
+
+        if (branch.equals( "uri" )) {
+            n0 = m.createResource( Datasets.NS + "item/12345" );
+            n1 = m.createResource( Datasets.NS + "item/12346" );
+        }
+        else if (branch.equals( "bnode" )) {
+            n0 = m.createResource( new AnonId( "b12345" ) );
+            n1 = m.createResource( new AnonId( "b12346" ) );
+        }
+        else if (branch.equals( "resourceLiteral" )) {
+            n0 = m.createResource( Datasets.NS + "item/12345" );
+            n1 = m.createLiteral( "item" );
+        }
+        else if (branch.equals( "plain" )) {
+            n0 = m.createLiteral( "a label" );
+            n1 = m.createLiteral( "a label too" );
+        }
+        else if (branch.equals( "lang" )) {
+            n0 = m.createLiteral( "a label", "en" );
+            n1 = m.createLiteral( "a label", "cy" );
+        }
+        else if (branch.equals( "datatypes" )) {
+            n0 = m.createTypedLiteral( "1", XSDDatatype.XSDint );
+            n1 = m.createTypedLiteral( "1", XSDDatatype.XSDlong );
+        }
+        else if (branch.equals( "boolean" )) {
+            pair( m, "true", "false", XSDDatatype.XSDboolean );
+        }
+        else if (branch.equals( "byte" )) {
+            pair( m, "12", "-12", XSDDatatype.XSDbyte );
+        }
+        else if (branch.equals( "short" )) {
+            pair( m, "1234", "-1234", XSDDatatype.XSDshort );
+        }
+        else if (branch.equals( "int" )) {
+            pair( m, "123456", "-123456", XSDDatatype.XSDint );
+        }
+        else if (branch.equals( "long" )) {
+            pair( m, "12345678901", "-12345678901", XSDDatatype.XSDlong );
+        }
+        else if (branch.equals( "integer" )) {
+            pair( m, "123456", "123457", XSDDatatype.XSDinteger );
+        }
+        else if (branch.equals( "bigInteger" )) {
+            pair( m, "123456789012345678901234567890", "123456789012345678901234567891", XSDDatatype.XSDinteger );
+        }
+        else if (branch.equals( "decimal" )) {
+            pair( m, "1234.5", "1234.25", XSDDatatype.XSDdecimal );
+        }
+        else if (branch.equals( "float" )) {
+            pair( m, "1.5", "-1.5E3", XSDDatatype.XSDfloat );
+        }
+        else if (branch.equals( "double" )) {
+            pair( m, "1.5", "-1.5E3", XSDDatatype.XSDdouble );
+        }
+        else if (branch.equals( "time" )) {
+            pair( m, "12:00:00Z", "13:30:00Z", XSDDatatype.XSDtime );
+        }
+        else if (branch.equals( "date" )) {
+            pair( m, "2009-01-17", "2009-01-18", XSDDatatype.XSDdate );
+        }
+        else if (branch.equals( "dateTime" )) {
+            pair( m, "2009-01-18T12:00:00Z", "2009-01-18T12:00:01Z", XSDDatatype.XSDdateTime );
+        }
+        else {
+            pair( m, "arthur", "bedevere", XSDDatatype.XSDNCName );
+        }
+
+        compiled = new NodeOrderSpec().build();
+        g0 = n0.asNode();
+        g1 = n1.asNode();
+    }
+
+    @Benchmark
+    public int compare() {
+        return order.compare( n0, n1 );
+    }
+
+    @Benchmark
+    public int compareCompiled() {
+        return compiled.compare( g0, g1 );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private void pair( Model m, String lex0, String lex1, XSDDatatype dt ) {
+        n0 = m.createTypedLiteral( lex0, dt );
+        n1 = m.createTypedLiteral( lex1, dt );
+    }
+
+}
+
@@ -0,0 +1,126 @@
+/*****************************************************************************
+ * File:    SortBenchmark.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order.benchmarks;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.epimorphics.rdfutil.order.*;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Measures complete sorts of mixed nodes, statements and triples, generated
+ * by {@link Datasets}, at several sizes. Each invocation sorts a fresh copy
+ * of the same unsorted input.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class SortBenchmark
+{
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    @Param( {"1000", "10000", "100000"} )
+    public int size;
+
+    private RDFNode[] nodes;
+    private Statement[] statements;
+    private Triple[] triples;
+
+    private RDFNodeOrder nodeOrder;
+    private RDFStatementOrder statementOrder;
+    private RDFStatementOrder compiledStatementOrder;
+    private TripleOrder tripleOrder;
+
+    private RadixSorter radixSorter;
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Setup
+    public void setUp() {
+        nodes = Datasets.nodes( size );
+
+        List<Statement> stmts = Datasets.statements( size ).listStatements().toList();
+        Collections.shuffle( stmts, new Random( Datasets.SEED ) );
+        statements = stmts.toArray( new Statement[stmts.size()] );
+        triples = new Triple[statements.length];
+        for (int i = 0; i < statements.length; i++) {
+            triples[i] = statements[i].asTriple();
+        }
+
+        nodeOrder = new RDFNodeStandardOrder();
+        statementOrder = new RDFStatementStandardOrder();
+        compiledStatementOrder = new NodeOrderSpec().buildStatementOrder( TripleLayout.SPO );
+        tripleOrder = new TripleStandardOrder();
+        radixSorter = new RadixSorter();
+    }
+
+    @Benchmark
+    public RDFNode[] sortNodes() {
+        RDFNode[] a = nodes.clone();
+        Arrays.sort( a, nodeOrder );
+        return a;
+    }
+
+    @Benchmark
+    public Statement[] sortStatements() {
+        Statement[] a = statements.clone();
+        Arrays.sort( a, statementOrder );
+        return a;
+    }
+
+    @Benchmark
+    public Statement[] sortStatementsCompiled() {
+        Statement[] a = statements.clone();
+        Arrays.sort( a, compiledStatementOrder );
+        return a;
+    }
+
+    @Benchmark
+    public Triple[] sortTriples() {
+        Triple[] a = triples.clone();
+        Arrays.sort( a, tripleOrder );
+        return a;
+    }
+
+    @Benchmark
+    public List<Statement> radixSortStatements() {
+        List<Statement> l = new ArrayList<Statement>( Arrays.asList( statements ) );
+        radixSorter.sortStatements( l, TripleLayout.SPO );
+        return l;
+    }
+
+    @Benchmark
+    public List<Triple> radixSortTriples() {
+        List<Triple> l = new ArrayList<Triple>( Arrays.asList( triples ) );
+        radixSorter.sortTriples( l, TripleLayout.SPO );
+        return l;
+    }
+
+}
@@ -0,0 +1,277 @@
+/*****************************************************************************
+ * File:    CollatingNodeOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
+
+/**
+ * <p>A variant of the {@link NodeStandardOrder} which orders untyped literals, with or
+ * without language tags, by a locale-sensitive {@link Collator} rather than by comparing
+ * UTF-16 code units, so that accented and mixed-case text appears in the order a reader
+ * would expect. All other nodes are ordered as in the standard order.</p>
+ * <p>Untyped literals are grouped by language tag, compared without regard to case,
+ * with tagged literals before untagged ones as in the standard order. Within a group,
+ * literals are compared with a collator for that language, or for the default locale
+ * if they have no tag. Choosing the collator by group rather than by pair keeps the
+ * order transitive, as sorting requires. Literals which the collator treats as equal
+ * are then ordered as in the standard order, so that only equal literals compare as
+ * zero.</p>
+ * <p>Building a {@link CollationKey} is much more expensive than a string comparison, so
+ * each literal's key is built once and kept in a bounded cache for each collator.
+ * Sorting a list of literals then builds roughly one key per distinct literal, as long
+ * as the cache is at least as large as the number of distinct literals. The caches are
+ * shared by all threads using the order. Like {@link DecodedValueCache}, each cache is
+ * split into segments, each of which evicts its least recently used key when it is
+ * full, so that threads sorting in parallel rarely wait for each other.</p>
+ * <p>{@link RDFNodeKeyEncoder} keys do not follow this order.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class CollatingNodeOrder
+    extends NodeStandardOrder
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Default maximum number of collation keys cached for each collator */
+    public static final int DEFAULT_CACHE_SIZE = 100000;
+
+    /** Number of independently locked segments in each key cache */
+    private static final int SEGMENTS = 16;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** Locale for literals with no language tag, or with different tags */
+    private final Locale defaultLocale;
+
+    /** Collator strength, such as {@link Collator#TERTIARY} */
+    private final int strength;
+
+    /** Maximum number of keys in each cache */
+    private final int cacheSize;
+
+    /** Key caches by lower-case language tag, where "" is the default locale */
+    private final ConcurrentMap<String, KeyCache> caches = new ConcurrentHashMap<String, KeyCache>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a collating order for the given default locale, which distinguishes
+     * accents and case
+     * @param defaultLocale The locale for literals with no language tag
+     */
+    public CollatingNodeOrder( Locale defaultLocale ) {
+        this( defaultLocale, Collator.TERTIARY, DEFAULT_CACHE_SIZE, DatatypeComparatorRegistry.createStandardRegistry() );
+    }
+
+    /**
+     * Construct a collating order
+     * @param defaultLocale The locale for literals with no language tag
+     * @param strength The collator strength: {@link Collator#PRIMARY}, {@link Collator#SECONDARY},
+     * {@link Collator#TERTIARY} or {@link Collator#IDENTICAL}
+     * @param cacheSize The maximum number of collation keys cached for each collator
+     * @param registry The datatype comparators
+     */
+    public CollatingNodeOrder( Locale defaultLocale, int strength, int cacheSize, DatatypeComparatorRegistry registry ) {
+        super( registry );
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException( "Cache size must be positive" );
+        }
+        this.defaultLocale = defaultLocale;
+        this.strength = strength;
+        this.cacheSize = cacheSize;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The locale used for literals with no language tag */
+    public Locale getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    /** @return The number of comparisons which found a literal's collation key in the cache */
+    public long getCacheHits() {
+        return hits.get();
+    }
+
+    /** @return The number of collation keys which have been built */
+    public long getCacheMisses() {
+        return misses.get();
+    }
+
+    /** @return The number of collation keys held in the caches of all collators */
+    public int getCachedKeys() {
+        int n = 0;
+        for (KeyCache cache : caches.values()) {
+            n += cache.size();
+        }
+        return n;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    @Override
+    protected int compareUntypedLiterals( LiteralLabel l1, LiteralLabel l2 ) {
+        String lang1 = hasLangTag( l1 ) ? l1.language().toLowerCase( Locale.ENGLISH ) : "";
+        String lang2 = hasLangTag( l2 ) ? l2.language().toLowerCase( Locale.ENGLISH ) : "";
+        if (!lang1.equals( lang2 )) {
+            // group by tag, with untagged literals last
+            if (lang1.length() == 0 || lang2.length() == 0) {
+                return (lang1.length() == 0) ? 1 : -1;
+            }
+            return lang1.compareTo( lang2 );
+        }
+
+        KeyCache cache = cacheFor( lang1 );
+        int c = key( cache, l1.getLexicalForm() ).compareTo( key( cache, l2.getLexicalForm() ) );
+        return (c != 0) ? c : super.compareUntypedLiterals( l1, l2 );
+    }
+
+    /** @return The collation key for a string, from the cache if possible */
+    private CollationKey key( KeyCache cache, String s ) {
+        Segment segment = cache.segmentFor( s );
+        CollationKey k;
+        synchronized (segment) {
+            k = segment.get( s );
+        }
+        if (k != null) {
+            hits.incrementAndGet();
+            return k;
+        }
+
+        misses.incrementAndGet();
+        synchronized (cache.collator) {
+            // collators are not thread safe
+            k = cache.collator.getCollationKey( s );
+        }
+        synchronized (segment) {
+            segment.put( s, k );
+        }
+        return k;
+    }
+
+    /** @return The key cache for a lower-case language tag */
+    private KeyCache cacheFor( String lang ) {
+        KeyCache cache = caches.get( lang );
+        if (cache == null) {
+            Collator collator = Collator.getInstance( (lang.length() == 0) ? defaultLocale : toLocale( lang ) );
+            collator.setStrength( strength );
+            KeyCache existing = caches.putIfAbsent( lang, new KeyCache( collator, cacheSize ) );
+            cache = (existing != null) ? existing : caches.get( lang );
+        }
+        return cache;
+    }
+
+    /**
+     * Convert a language tag such as <code>en-gb</code> to a locale
+     * @param lang A non-empty language tag
+     * @return The locale for the language and country of the tag
+     */
+    protected Locale toLocale( String lang ) {
+        String[] parts = lang.split( "-" );
+        return (parts.length > 1) ? new Locale( parts[0], parts[1] ) : new Locale( parts[0] );
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * A bounded cache of the collation keys for one collator
+     */
+    private static class KeyCache
+    {
+        final Collator collator;
+        final Segment[] segments;
+
+        KeyCache( Collator collator, int maxSize ) {
+            this.collator = collator;
+
+            int n = Math.min( SEGMENTS, Integer.highestOneBit( maxSize ) );
+            segments = new Segment[n];
+            for (int i = 0; i < n; i++) {
+                // share out the capacity so that the segments hold no more than the total
+                segments[i] = new Segment( maxSize / n + ((i < maxSize % n) ? 1 : 0) );
+            }
+        }
+
+        /** @return The segment holding the key for a string */
+        Segment segmentFor( String s ) {
+            int h = s.hashCode();
+            h ^= (h >>> 16);
+            return segments[h & (segments.length - 1)];
+        }
+
+        /** @return The number of keys held */
+        int size() {
+            int n = 0;
+            for (Segment s : segments) {
+                synchronized (s) {
+                    n += s.size();
+                }
+            }
+            return n;
+        }
+    }
+
+    /**
+     * One segment of a key cache: a map in least recently used order, which evicts
+     * its eldest entry when it is full. Callers synchronize on the segment.
+     */
+    private static class Segment
+        extends LinkedHashMap<String, CollationKey>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int max;
+
+        Segment( int max ) {
+            super( 16, 0.75f, true );
+            this.max = max;
+        }
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<String, CollationKey> eldest ) {
+            return size() > max;
+        }
+    }
+
+}
+
@@ -0,0 +1,295 @@
+/*****************************************************************************
+ * File:    ComparatorMetrics.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * <p>Counters and sampled timings for an instrumented order, such as an
+ * {@link InstrumentedNodeOrder} or an {@link InstrumentedStatementOrder}. The counters
+ * can be read directly, or through JMX once the metrics have been
+ * {@link #register(String) registered} with the platform MBean server.</p>
+ * <p>Every comparison is counted, but only one in every {@link #getSampleInterval()}
+ * comparisons is timed, to keep the cost of calling {@link System#nanoTime()} out of
+ * most comparisons. All counters are safe to update from several threads.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class ComparatorMetrics
+    implements ComparatorMetricsMXBean
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Default number of comparisons for each one that is timed */
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+
+    /** JMX domain for registered metrics */
+    public static final String JMX_DOMAIN = "com.epimorphics.rdfutil.order";
+
+    /**
+     * The branches of the standard node order
+     */
+    public static enum Branch
+    {
+        /** The two nodes are the same object */
+        IDENTICAL,
+        /** A resource and a literal */
+        RESOURCE_LITERAL,
+        /** A bNode and a URI resource */
+        ANON_URI,
+        /** Two bNodes */
+        ANON,
+        /** Two URI resources */
+        URI,
+        /** A typed and an untyped literal */
+        TYPED_UNTYPED,
+        /** Two typed literals with different datatypes */
+        DIFFERENT_DATATYPES,
+        /** Two typed literals with the same datatype, compared by value */
+        SAME_DATATYPE_VALUE,
+        /** Two typed literals with the same datatype, compared by lexical form */
+        SAME_DATATYPE_LEXICAL,
+        /** Two untyped literals */
+        UNTYPED,
+        /** Two untyped literals with the same lexical form, ordered by language tag. Also counted as {@link #UNTYPED} */
+        LANG_TAG
+    }
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** Number of comparisons for each one that is timed */
+    private final int sampleInterval;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLongArray branches = new AtomicLongArray( Branch.values().length );
+    private final Map<String, AtomicLong> datatypes = new ConcurrentHashMap<String, AtomicLong>();
+    private final AtomicLong decodes = new AtomicLong();
+    private final AtomicLong sampledCalls = new AtomicLong();
+    private final AtomicLong sampledNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct metrics which time one comparison in every {@link #DEFAULT_SAMPLE_INTERVAL}
+     */
+    public ComparatorMetrics() {
+        this( DEFAULT_SAMPLE_INTERVAL );
+    }
+
+    /**
+     * Construct metrics which time one comparison in every <code>sampleInterval</code>
+     * @param sampleInterval A positive number; 1 times every comparison
+     */
+    public ComparatorMetrics( int sampleInterval ) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException( "Sample interval must be positive" );
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The number of comparisons for each one that is timed */
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Record the start of a comparison
+     * @return A start time to pass to {@link #endCall(long)}, or -1 if
+     * this comparison is not being timed
+     */
+    public long startCall() {
+        long n = calls.getAndIncrement();
+        return (n % sampleInterval == 0) ? System.nanoTime() : -1;
+    }
+
+    /**
+     * Record the end of a comparison
+     * @param start The value returned by {@link #startCall()}
+     */
+    public void endCall( long start ) {
+        if (start != -1) {
+            long elapsed = System.nanoTime() - start;
+            sampledCalls.incrementAndGet();
+            sampledNanos.addAndGet( elapsed );
+            long max;
+            while (elapsed > (max = maxNanos.get()) && !maxNanos.compareAndSet( max, elapsed )) {
+                // retry
+            }
+        }
+    }
+
+    /**
+     * Count one comparison that took the given branch
+     * @param b A branch of the order
+     */
+    public void count( Branch b ) {
+        branches.incrementAndGet( b.ordinal() );
+    }
+
+    /**
+     * Count one comparison of two literals with the given datatype
+     * @param datatypeURI A datatype URI
+     */
+    public void countDatatype( String datatypeURI ) {
+        AtomicLong c = datatypes.get( datatypeURI );
+        if (c == null) {
+            synchronized (datatypes) {
+                c = datatypes.get( datatypeURI );
+                if (c == null) {
+                    c = new AtomicLong();
+                    datatypes.put( datatypeURI, c );
+                }
+            }
+        }
+        c.incrementAndGet();
+    }
+
+    /**
+     * Count literal values decoded during a comparison
+     * @param n The number of values decoded
+     */
+    public void countDecodes( int n ) {
+        decodes.addAndGet( n );
+    }
+
+    /**
+     * @param b A branch
+     * @return The number of comparisons that took that branch
+     */
+    public long getCount( Branch b ) {
+        return branches.get( b.ordinal() );
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    public Map<String, Long> getBranchCounts() {
+        Map<String, Long> m = new LinkedHashMap<String, Long>();
+        for (Branch b : Branch.values()) {
+            m.put( b.name(), getCount( b ) );
+        }
+        return m;
+    }
+
+    @Override
+    public Map<String, Long> getDatatypeCounts() {
+        Map<String, Long> m = new TreeMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> e : datatypes.entrySet()) {
+            m.put( e.getKey(), e.getValue().get() );
+        }
+        return m;
+    }
+
+    @Override
+    public long getDecodes() {
+        return decodes.get();
+    }
+
+    @Override
+    public long getSampledCalls() {
+        return sampledCalls.get();
+    }
+
+    @Override
+    public double getMeanLatencyNanos() {
+        long n = sampledCalls.get();
+        return (n == 0) ? 0.0 : ((double) sampledNanos.get()) / n;
+    }
+
+    @Override
+    public long getMaxLatencyNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public void reset() {
+        calls.set( 0 );
+        for (int i = 0; i < branches.length(); i++) {
+            branches.set( i, 0 );
+        }
+        datatypes.clear();
+        decodes.set( 0 );
+        sampledCalls.set( 0 );
+        sampledNanos.set( 0 );
+        maxNanos.set( 0 );
+    }
+
+    /**
+     * Register these metrics with the platform MBean server
+     * @param name The name of the instrumented order, used in the object name
+     * @return The object name that the metrics were registered under
+     * @exception IllegalStateException if the metrics could not be registered
+     */
+    public ObjectName register( String name ) {
+        try {
+            ObjectName on = new ObjectName( JMX_DOMAIN + ":type=ComparatorMetrics,name=" + ObjectName.quote( name ) );
+            ManagementFactory.getPlatformMBeanServer().registerMBean( this, on );
+            return on;
+        }
+        catch (JMException e) {
+            throw new IllegalStateException( "Could not register comparator metrics " + name, e );
+        }
+    }
+
+    /**
+     * Remove registered metrics from the platform MBean server
+     * @param on The object name returned by {@link #register(String)}
+     */
+    public static void unregister( ObjectName on ) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean( on );
+        }
+        catch (JMException e) {
+            throw new IllegalStateException( "Could not unregister comparator metrics " + on, e );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,61 @@
+/*****************************************************************************
+ * File:    ComparatorMetricsMXBean.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.Map;
+
+/**
+ * <p>The JMX management interface of {@link ComparatorMetrics}.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public interface ComparatorMetricsMXBean
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The number of comparisons made */
+    public long getCalls();
+
+    /** @return The number of comparisons that took each branch of the order, by branch name */
+    public Map<String, Long> getBranchCounts();
+
+    /** @return The number of comparisons of two literals with the same datatype, by datatype URI */
+    public Map<String, Long> getDatatypeCounts();
+
+    /** @return The number of literal values decoded by value comparators */
+    public long getDecodes();
+
+    /** @return The number of comparisons whose latency was measured */
+    public long getSampledCalls();
+
+    /** @return The mean latency of the sampled comparisons, in nanoseconds */
+    public double getMeanLatencyNanos();
+
+    /** @return The greatest latency of the sampled comparisons, in nanoseconds */
+    public long getMaxLatencyNanos();
+
+    /** Set all of the counters back to zero */
+    public void reset();
+
+}
+
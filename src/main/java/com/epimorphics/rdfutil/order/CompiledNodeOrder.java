@@ -0,0 +1,277 @@
+/*****************************************************************************
+ * File:    CompiledNodeOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+
+import com.epimorphics.rdfutil.order.NodeOrderSpec.*;
+import com.hp.hpl.jena.datatypes.RDFDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
+
+/**
+ * <p>A node order built from a {@link NodeOrderSpec}. The rules of the specification
+ * are copied into final fields when the order is built, and the whole comparison is
+ * made by {@link #compare(Node, Node)} and a few private methods, so the JIT sees a
+ * single monomorphic call which it can inline. The only calls which depend on the
+ * nodes being compared are to the {@link DatatypeComparatorRegistry datatype comparator}
+ * for pairs of typed literals with the same datatype, or to the
+ * {@link DecodedValueCache} if the specification gave one.</p>
+ * <p>Datatypes in the specification's precedence list come first, in the order given;
+ * a descending {@link Level#DATATYPE} level reverses the order of the remaining
+ * datatypes by URI, but not the precedence list. Likewise, a descending
+ * {@link Level#LANG_TAG} level reverses the order of tags, but untagged literals
+ * stay where the {@link LangTags} setting puts them.</p>
+ * <p>Only URI nodes, blank nodes and literals can be compared. Variables and
+ * other special nodes are rejected with an {@link IllegalArgumentException}.
+ * Orders may be shared between threads.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public final class CompiledNodeOrder
+    implements NodeOrder
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /* Kinds of node, as returned by kind() */
+    private static final int BNODE = 0;
+    private static final int URI = 1;
+    private static final int TYPED = 2;
+    private static final int UNTYPED = 3;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /* The rank of each kind of node */
+    private final int bNodeRank;
+    private final int uriRank;
+    private final int typedRank;
+    private final int untypedRank;
+
+    /* The descending levels */
+    private final boolean kindDescending;
+    private final boolean uriDescending;
+    private final boolean bNodeDescending;
+    private final boolean datatypeDescending;
+    private final boolean valueDescending;
+    private final boolean lexicalDescending;
+    private final boolean langTagDescending;
+
+    /** The position of each datatype URI in the precedence list */
+    private final Map<String, Integer> precedence;
+
+    /** The rank of datatypes which are not in the precedence list */
+    private final int unlisted;
+
+    /* The handling of language tags */
+    private final boolean tagsFirst;
+    private final boolean untaggedFirst;
+    private final boolean tagsIgnored;
+    private final boolean tagCaseIgnored;
+
+    /** Comparators for pairs of typed literals with the same datatype */
+    private final DatatypeComparatorRegistry registry;
+
+    /** Optional cache of decoded literal values, or null */
+    private final DecodedValueCache valueCache;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct an order from the current state of a specification. Use
+     * {@link NodeOrderSpec#build()}.
+     * @param spec The specification
+     * @param registry The datatype comparators
+     */
+    CompiledNodeOrder( NodeOrderSpec spec, DatatypeComparatorRegistry registry ) {
+        int[] ranks = spec.ranks();
+        bNodeRank = ranks[Kind.BNODE.ordinal()];
+        uriRank = ranks[Kind.URI.ordinal()];
+        typedRank = ranks[Kind.TYPED_LITERAL.ordinal()];
+        untypedRank = ranks[Kind.UNTYPED_LITERAL.ordinal()];
+
+        kindDescending = spec.isDescending( Level.KIND );
+        uriDescending = spec.isDescending( Level.URI );
+        bNodeDescending = spec.isDescending( Level.BNODE );
+        datatypeDescending = spec.isDescending( Level.DATATYPE );
+        valueDescending = spec.isDescending( Level.VALUE );
+        lexicalDescending = spec.isDescending( Level.LEXICAL );
+        langTagDescending = spec.isDescending( Level.LANG_TAG );
+
+        List<String> datatypes = spec.getDatatypeURIs();
+        precedence = new HashMap<String, Integer>();
+        for (int i = 0; i < datatypes.size(); i++) {
+            precedence.put( datatypes.get( i ), i );
+        }
+        unlisted = datatypes.size();
+
+        LangTags langTags = spec.getLangTags();
+        tagsFirst = (langTags == LangTags.LANGUAGE_FIRST);
+        untaggedFirst = (langTags != LangTags.TAGGED_FIRST);
+        tagsIgnored = (langTags == LangTags.IGNORED);
+        tagCaseIgnored = spec.isIgnoreTagCase();
+
+        this.registry = registry;
+        this.valueCache = spec.getValueCache();
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Return the registry of comparators used for typed literals with the same
+     * datatype. Comparators for additional datatypes may be registered with it.
+     * @return The datatype comparator registry
+     */
+    public DatatypeComparatorRegistry getRegistry() {
+        return registry;
+    }
+
+    /** @return The cache of decoded literal values, or null if this order has no cache */
+    public DecodedValueCache getValueCache() {
+        return valueCache;
+    }
+
+    @Override
+    public int compare( Node n1, Node n2 ) {
+        if (n1 == n2) {
+            return 0;
+        }
+        int k1 = kind( n1 );
+        int k2 = kind( n2 );
+        if (k1 != k2) {
+            return direction( rank( k1 ) - rank( k2 ), kindDescending );
+        }
+
+        switch (k1) {
+            case BNODE:
+                return direction( n1.getBlankNodeLabel().compareTo( n2.getBlankNodeLabel() ), bNodeDescending );
+            case URI:
+                return direction( n1.getURI().compareTo( n2.getURI() ), uriDescending );
+            case TYPED:
+                return compareTyped( n1.getLiteral(), n2.getLiteral() );
+            default:
+                return compareUntyped( n1.getLiteral(), n2.getLiteral() );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /** @return The kind of a node */
+    private static int kind( Node n ) {
+        if (n.isLiteral()) {
+            return (n.getLiteral().getDatatype() != null) ? TYPED : UNTYPED;
+        }
+        else if (n.isURI()) {
+            return URI;
+        }
+        else if (n.isBlank()) {
+            return BNODE;
+        }
+        throw new IllegalArgumentException( "Cannot order node: " + n );
+    }
+
+    /** @return The rank of a kind of node */
+    private int rank( int kind ) {
+        switch (kind) {
+            case BNODE: return bNodeRank;
+            case URI:   return uriRank;
+            case TYPED: return typedRank;
+            default:    return untypedRank;
+        }
+    }
+
+    /** @return The comparison <code>c</code>, reversed if <code>descending</code> */
+    private static int direction( int c, boolean descending ) {
+        // negating Integer.MIN_VALUE would not change its sign
+        return descending ? -Integer.signum( c ) : c;
+    }
+
+    /** Compare two typed literals, with the same or different datatypes */
+    private int compareTyped( LiteralLabel l1, LiteralLabel l2 ) {
+        RDFDatatype d1 = l1.getDatatype();
+        RDFDatatype d2 = l2.getDatatype();
+        if (d1 == d2 || d1.equals( d2 )) {
+            Comparator<LiteralLabel> c = registry.getComparator( d1 );
+            return direction( (valueCache != null) ? valueCache.compare( c, l1, l2 ) : c.compare( l1, l2 ), valueDescending );
+        }
+
+        String uri1 = l1.getDatatypeURI();
+        String uri2 = l2.getDatatypeURI();
+        if (unlisted > 0) {
+            int p1 = position( uri1 );
+            int p2 = position( uri2 );
+            if (p1 != p2 || p1 < unlisted) {
+                // distinct datatypes in the list are at distinct positions
+                return p1 - p2;
+            }
+        }
+        return direction( uri1.compareTo( uri2 ), datatypeDescending );
+    }
+
+    /** @return The position of a datatype in the precedence list, or {@link #unlisted} */
+    private int position( String uri ) {
+        Integer p = precedence.get( uri );
+        return (p != null) ? p : unlisted;
+    }
+
+    /** Compare two untyped literals, which may or may not have language tags */
+    private int compareUntyped( LiteralLabel l1, LiteralLabel l2 ) {
+        if (tagsFirst) {
+            int c = compareTags( l1.language(), l2.language() );
+            if (c != 0) {
+                return c;
+            }
+        }
+
+        int c = direction( l1.getLexicalForm().compareTo( l2.getLexicalForm() ), lexicalDescending );
+        if (c != 0 || tagsFirst || tagsIgnored) {
+            return c;
+        }
+        return compareTags( l1.language(), l2.language() );
+    }
+
+    /** Compare two language tags, either of which may be null or empty */
+    private int compareTags( String t1, String t2 ) {
+        boolean tagged1 = t1 != null && t1.length() > 0;
+        boolean tagged2 = t2 != null && t2.length() > 0;
+        if (tagged1 && tagged2) {
+            return direction( tagCaseIgnored ? t1.compareToIgnoreCase( t2 ) : t1.compareTo( t2 ), langTagDescending );
+        }
+        else if (tagged1 == tagged2) {
+            return 0;
+        }
+        return (tagged1 == untaggedFirst) ? 1 : -1;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
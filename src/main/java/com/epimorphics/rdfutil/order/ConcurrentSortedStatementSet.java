@@ -0,0 +1,430 @@
+/*****************************************************************************
+ * File:    ConcurrentSortedStatementSet.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.hp.hpl.jena.rdf.model.*;
+import com.hp.hpl.jena.rdf.model.impl.StatementImpl;
+import com.hp.hpl.jena.vocabulary.RDF;
+
+/**
+ * <p>A thread-safe set of statements which is kept sorted as statements are added and
+ * removed, so that an ordered view is always available without re-sorting. The
+ * statements are held in a lock-free skip list: any number of threads may add and
+ * remove statements while other threads iterate, and iterations never block writers.</p>
+ * <p>Iterators are weakly consistent, as for {@link ConcurrentSkipListSet}: they
+ * return statements in order, reflect the state of the set at some point at or since
+ * the creation of the iterator, and never throw
+ * {@link ConcurrentModificationException}.</p>
+ * <p>Statements are sorted with an {@link RDFStatementStandardOrder}. Statements that
+ * the order treats as equal, such as two statements whose objects are the decimals
+ * <code>"2"</code> and <code>"2.0"</code>, are ordered by the lexical forms of their
+ * nodes, so both are kept. Statements with equal subjects, predicates and objects are
+ * only kept once.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class ConcurrentSortedStatementSet
+    implements Iterable<Statement>
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order to keep statements in */
+    private final RDFStatementStandardOrder order;
+
+    /** The statements, sorted by the order with tie-breaks */
+    private final ConcurrentSkipListSet<Statement> statements;
+
+    /** The number of statements, since the skip list can only count by traversal */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct an empty set which keeps statements in SPO order, using the standard node order.
+     */
+    public ConcurrentSortedStatementSet() {
+        this( new RDFStatementStandardOrder() );
+    }
+
+    /**
+     * Construct an empty set which keeps statements in the given order.
+     * @param order The statement order
+     */
+    public ConcurrentSortedStatementSet( RDFStatementStandardOrder order ) {
+        this.order = order;
+        this.statements = new ConcurrentSkipListSet<Statement>( new BoundedOrder( order ) );
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The statement order used by this set */
+    public RDFStatementStandardOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * Add a statement to the set
+     * @param s A statement
+     * @return True if the statement was not already in the set
+     */
+    public boolean add( Statement s ) {
+        checkStatement( s );
+        if (statements.add( s )) {
+            count.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Add all of the given statements to the set
+     * @param i An iterator over statements
+     * @return The number of statements which were not already in the set
+     */
+    public int addAll( Iterator<? extends Statement> i ) {
+        int added = 0;
+        while (i.hasNext()) {
+            if (add( i.next() )) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Remove a statement from the set
+     * @param s A statement
+     * @return True if the statement was in the set
+     */
+    public boolean remove( Statement s ) {
+        checkStatement( s );
+        if (statements.remove( s )) {
+            count.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param s A statement
+     * @return True if the set contains a statement equal to <code>s</code>
+     */
+    public boolean contains( Statement s ) {
+        checkStatement( s );
+        return statements.contains( s );
+    }
+
+    /**
+     * Return the number of statements in the set. While other threads are adding or
+     * removing statements, the result may not reflect the most recent changes.
+     * @return The number of statements
+     */
+    public int size() {
+        return count.get();
+    }
+
+    /** @return True if the set contains no statements */
+    public boolean isEmpty() {
+        return statements.isEmpty();
+    }
+
+    /** @return The first statement in the order, or null if the set is empty */
+    public Statement first() {
+        try {
+            return statements.first();
+        }
+        catch (NoSuchElementException e) {
+            // the set was empty, or was emptied by another thread
+            return null;
+        }
+    }
+
+    /**
+     * Return a weakly consistent iterator over all of the statements in order.
+     * Removing statements through the iterator removes them from the set.
+     * @return An iterator
+     */
+    @Override
+    public Iterator<Statement> iterator() {
+        return new CountingIterator( statements.iterator() );
+    }
+
+    /**
+     * Return a weakly consistent iterator over the statements between two statements
+     * in the order. The bounds need not be in the set.
+     * @param from The lower bound
+     * @param fromInclusive If true, a statement equal to <code>from</code> is included
+     * @param to The upper bound
+     * @param toInclusive If true, a statement equal to <code>to</code> is included
+     * @return An iterator over the statements in the range, in order
+     * @exception IllegalArgumentException if <code>from</code> is after <code>to</code>
+     */
+    public Iterator<Statement> range( Statement from, boolean fromInclusive, Statement to, boolean toInclusive ) {
+        checkStatement( from );
+        checkStatement( to );
+        return new CountingIterator( statements.subSet( from, fromInclusive, to, toInclusive ).iterator() );
+    }
+
+    /**
+     * Return a weakly consistent iterator over the statements with the given subject
+     * @param subject A subject
+     * @return An iterator over the matching statements, in order
+     */
+    public Iterator<Statement> withSubject( Resource subject ) {
+        return matching( subject, null, null );
+    }
+
+    /**
+     * Return a weakly consistent iterator over the statements which match a pattern.
+     * If the bound positions of the pattern include the first positions of the order's
+     * {@link TripleLayout}, only the range of the set which holds matching statements is
+     * visited; otherwise the set is scanned from the start.
+     * @param subject A subject, or null to match any subject
+     * @param predicate A predicate, or null to match any predicate
+     * @param object An object, or null to match any object
+     * @return An iterator over the matching statements, in order
+     */
+    public Iterator<Statement> matching( Resource subject, Property predicate, RDFNode object ) {
+        RDFNode[] pattern = new RDFNode[] {subject, predicate, object};
+
+        // the number of leading positions in the layout that are bound
+        TripleLayout layout = order.getLayout();
+        int prefix = 0;
+        while (prefix < 3 && pattern[layout.position( prefix )] != null) {
+            prefix++;
+        }
+
+        Iterator<Statement> candidates;
+        if (prefix == 0) {
+            candidates = statements.iterator();
+        }
+        else {
+            Bound low = new Bound( pattern, prefix, true );
+            Bound high = new Bound( pattern, prefix, false );
+            candidates = statements.subSet( low, high ).iterator();
+        }
+        return new MatchIterator( candidates, pattern );
+    }
+
+    /** Remove all of the statements from the set */
+    public void clear() {
+        Iterator<Statement> i = iterator();
+        while (i.hasNext()) {
+            i.next();
+            i.remove();
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /** Check that a statement is a real statement and not a range bound */
+    protected void checkStatement( Statement s ) {
+        if (s == null || s instanceof Bound) {
+            throw new IllegalArgumentException( "Not a statement: " + s );
+        }
+    }
+
+    /** @return The node at the given triple position of a statement */
+    protected static RDFNode node( Statement s, int position ) {
+        switch (position) {
+            case TripleLayout.SUBJECT:   return s.getSubject();
+            case TripleLayout.PREDICATE: return s.getPredicate();
+            default:                     return s.getObject();
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * A probe statement which is used as a range bound. It sorts immediately before
+     * (if <code>low</code>) or immediately after all of the statements whose first
+     * <code>prefix</code> positions, in layout order, are equal to the pattern.
+     * It is never added to the set.
+     */
+    protected static class Bound
+        extends StatementImpl
+    {
+        final RDFNode[] pattern;
+        final int prefix;
+        final boolean low;
+
+        Bound( RDFNode[] pattern, int prefix, boolean low ) {
+            // the statement's own nodes are never compared, but Jena does not allow them to be null
+            super( RDF.nil, RDF.type, RDF.nil );
+            this.pattern = pattern;
+            this.prefix = prefix;
+            this.low = low;
+        }
+    }
+
+    /**
+     * The order of the skip list: the statement order, with ties between distinct
+     * statements broken by the lexical forms of their nodes, and with {@link Bound}s
+     * placed at the edges of the ranges they match
+     */
+    protected static class BoundedOrder
+        implements Comparator<Statement>
+    {
+        private final RDFStatementStandardOrder order;
+        private final SortedNTriplesWriter.CanonicalOrder canonical;
+
+        BoundedOrder( RDFStatementStandardOrder order ) {
+            this.order = order;
+            this.canonical = new SortedNTriplesWriter.CanonicalOrder( order );
+        }
+
+        @Override
+        public int compare( Statement s1, Statement s2 ) {
+            if (s2 instanceof Bound) {
+                return compareToBound( s1, (Bound) s2 );
+            }
+            else if (s1 instanceof Bound) {
+                return -compareToBound( s2, (Bound) s1 );
+            }
+            return canonical.compare( s1, s2 );
+        }
+
+        /** Compare a statement to a bound, which never compares as equal */
+        private int compareToBound( Statement s, Bound b ) {
+            if (s instanceof Bound) {
+                // only bounds over the same pattern are compared in one range
+                return (((Bound) s).low == b.low) ? 0 : (b.low ? 1 : -1);
+            }
+            RDFNodeOrder nodeOrder = order.getNodeOrder();
+            TripleLayout layout = order.getLayout();
+            for (int level = 0; level < b.prefix; level++) {
+                int position = layout.position( level );
+                int c = nodeOrder.compare( node( s, position ), b.pattern[position] );
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return b.low ? 1 : -1;
+        }
+    }
+
+    /**
+     * Wraps a skip list iterator, keeping the statement count up to date
+     * when statements are removed through the iterator
+     */
+    private class CountingIterator
+        implements Iterator<Statement>
+    {
+        private final Iterator<Statement> base;
+        private Statement last;
+
+        CountingIterator( Iterator<Statement> base ) {
+            this.base = base;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return base.hasNext();
+        }
+
+        @Override
+        public Statement next() {
+            last = base.next();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException( "No statement to remove" );
+            }
+            ConcurrentSortedStatementSet.this.remove( last );
+            last = null;
+        }
+    }
+
+    /**
+     * Filters an iterator to the statements whose nodes are equal to the
+     * non-null positions of a pattern
+     */
+    private static class MatchIterator
+        implements Iterator<Statement>
+    {
+        private final Iterator<Statement> base;
+        private final RDFNode[] pattern;
+        private Statement next;
+
+        MatchIterator( Iterator<Statement> base, RDFNode[] pattern ) {
+            this.base = base;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && base.hasNext()) {
+                Statement s = base.next();
+                if (matches( s )) {
+                    next = s;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Statement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Statement s = next;
+            next = null;
+            return s;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private boolean matches( Statement s ) {
+            for (int position = 0; position < 3; position++) {
+                RDFNode n = pattern[position];
+                if (n != null && !n.asNode().equals( node( s, position ).asNode() )) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
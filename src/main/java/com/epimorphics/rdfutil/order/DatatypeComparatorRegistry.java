@@ -0,0 +1,385 @@
+/*****************************************************************************
+ * File:    DatatypeComparatorRegistry.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+import com.hp.hpl.jena.datatypes.RDFDatatype;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.datatypes.xsd.XSDDateTime;
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
+
+/**
+ * <p>A registry of the comparators used to order two typed literals which have the
+ * same datatype. Each datatype is mapped to its own comparator, so finding the
+ * comparator for a pair of literals is a single hash lookup, however many datatypes
+ * are registered. Datatypes with no registered comparator are ordered by
+ * {@link #LEXICAL_ORDER}.</p>
+ * <p>The {@link #createStandardRegistry() standard registry} contains the value
+ * orders described in {@link RDFNodeStandardOrder}. Comparators for further datatypes,
+ * such as <code>xsd:unsignedLong</code>, can be added with {@link #register(String, Comparator)}.
+ * Registration is thread safe, but is expected to be rare compared to lookup.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class DatatypeComparatorRegistry
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Orders literals by a lexical comparison of their lexical forms */
+    public static final Comparator<LiteralLabel> LEXICAL_ORDER = new Comparator<LiteralLabel>() {
+        @Override
+        public int compare( LiteralLabel l1, LiteralLabel l2 ) {
+            return l1.getLexicalForm().compareTo( l2.getLexicalForm() );
+        }
+    };
+
+    /** Orders <code>xsd:boolean</code> values, <code>false</code> before <code>true</code> */
+    public static final Comparator<LiteralLabel> BOOLEAN_ORDER = new ValueComparator() {
+        @Override
+        public int compare( LiteralLabel l1, LiteralLabel l2, ComparatorMetrics metrics ) {
+            return ((Boolean) value( l1, metrics )).compareTo( (Boolean) value( l2, metrics ) );
+        }
+    };
+
+    /**
+     * Orders integer and decimal values numerically. Well-formed lexical forms are compared
+     * directly, without decoding their values
+     */
+    public static final Comparator<LiteralLabel> NON_FP_NUMBER_ORDER = new ValueComparator() {
+        @Override
+        public int compare( LiteralLabel l1, LiteralLabel l2, ComparatorMetrics metrics ) {
+            if (l1.isWellFormed() && l2.isWellFormed()) {
+                int c = LexicalNumbers.compareDecimals( l1.getLexicalForm(), l2.getLexicalForm() );
+                if (c != LexicalNumbers.NOT_COMPARABLE) {
+                    return c;
+                }
+            }
+            return compareNonFPNumbers( (Number) value( l1, metrics ), (Number) value( l2, metrics ) );
+        }
+    };
+
+    /**
+     * Orders <code>xsd:float</code> and <code>xsd:double</code> values numerically. Well-formed
+     * lexical forms with few significant digits are compared directly, without decoding
+     * their values
+     */
+    public static final Comparator<LiteralLabel> FP_NUMBER_ORDER = new ValueComparator() {
+        @Override
+        public int compare( LiteralLabel l1, LiteralLabel l2, ComparatorMetrics metrics ) {
+            if (l1.isWellFormed() && l2.isWellFormed()) {
+                int c = XSDDatatype.XSDfloat.equals( l1.getDatatype() )
+                            ? LexicalNumbers.compareFloats( l1.getLexicalForm(), l2.getLexicalForm() )
+                            : LexicalNumbers.compareDoubles( l1.getLexicalForm(), l2.getLexicalForm() );
+                if (c != LexicalNumbers.NOT_COMPARABLE) {
+                    return c;
+                }
+            }
+            return compareFPNumbers( (Number) value( l1, metrics ), (Number) value( l2, metrics ) );
+        }
+    };
+
+    /** Orders <code>xsd:time</code>, <code>xsd:date</code> and <code>xsd:dateTime</code> values chronologically */
+    public static final Comparator<LiteralLabel> DATE_TIME_ORDER = new ValueComparator() {
+        @Override
+        public int compare( LiteralLabel l1, LiteralLabel l2, ComparatorMetrics metrics ) {
+            return ((XSDDateTime) value( l1, metrics )).compareTo( (XSDDateTime) value( l2, metrics ) );
+        }
+    };
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** Comparators by datatype URI. Replaced, never modified, on registration */
+    private volatile Map<String, Comparator<LiteralLabel>> byURI = new HashMap<String, Comparator<LiteralLabel>>();
+
+    /**
+     * Comparators by datatype object identity, filled in as datatypes are looked up.
+     * Replaced, never modified, when a new datatype is seen
+     */
+    private volatile Map<RDFDatatype, Comparator<LiteralLabel>> byType = new IdentityHashMap<RDFDatatype, Comparator<LiteralLabel>>();
+
+    /** Comparator for datatypes with no registered comparator */
+    private volatile Comparator<LiteralLabel> defaultComparator = LEXICAL_ORDER;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct an empty registry, in which every datatype is ordered lexically
+     */
+    public DatatypeComparatorRegistry() {
+    }
+
+    /**
+     * Construct a registry containing the same comparators as another registry
+     * @param other The registry to copy
+     */
+    public DatatypeComparatorRegistry( DatatypeComparatorRegistry other ) {
+        byURI = new HashMap<String, Comparator<LiteralLabel>>( other.byURI );
+        defaultComparator = other.defaultComparator;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Create a new registry containing the value orders used by {@link RDFNodeStandardOrder}
+     * @return A new registry, which may be extended by the caller
+     */
+    public static DatatypeComparatorRegistry createStandardRegistry() {
+        DatatypeComparatorRegistry r = new DatatypeComparatorRegistry();
+        r.register( XSDDatatype.XSDboolean, BOOLEAN_ORDER );
+
+        r.register( XSDDatatype.XSDbyte, NON_FP_NUMBER_ORDER );
+        r.register( XSDDatatype.XSDshort, NON_FP_NUMBER_ORDER );
+        r.register( XSDDatatype.XSDint, NON_FP_NUMBER_ORDER );
+        r.register( XSDDatatype.XSDlong, NON_FP_NUMBER_ORDER );
+        r.register( XSDDatatype.XSDinteger, NON_FP_NUMBER_ORDER );
+        r.register( XSDDatatype.XSDdecimal, NON_FP_NUMBER_ORDER );
+
+        r.register( XSDDatatype.XSDfloat, FP_NUMBER_ORDER );
+        r.register( XSDDatatype.XSDdouble, FP_NUMBER_ORDER );
+
+        r.register( XSDDatatype.XSDtime, DATE_TIME_ORDER );
+        r.register( XSDDatatype.XSDdate, DATE_TIME_ORDER );
+        r.register( XSDDatatype.XSDdateTime, DATE_TIME_ORDER );
+        return r;
+    }
+
+    /**
+     * Register the comparator for a datatype, replacing any existing comparator
+     * @param dt The datatype
+     * @param comparator The comparator for two literals of datatype <code>dt</code>
+     */
+    public void register( RDFDatatype dt, Comparator<LiteralLabel> comparator ) {
+        register( dt.getURI(), comparator );
+    }
+
+    /**
+     * Register the comparator for a datatype URI, replacing any existing comparator
+     * @param datatypeURI The datatype URI
+     * @param comparator The comparator for two literals with this datatype
+     */
+    public synchronized void register( String datatypeURI, Comparator<LiteralLabel> comparator ) {
+        if (comparator == null) {
+            throw new IllegalArgumentException( "Comparator must not be null" );
+        }
+        Map<String, Comparator<LiteralLabel>> m = new HashMap<String, Comparator<LiteralLabel>>( byURI );
+        m.put( datatypeURI, comparator );
+        byURI = m;
+        byType = new IdentityHashMap<RDFDatatype, Comparator<LiteralLabel>>();
+    }
+
+    /**
+     * Remove the comparator for a datatype URI, so that the datatype is ordered
+     * by the default comparator
+     * @param datatypeURI The datatype URI
+     */
+    public synchronized void unregister( String datatypeURI ) {
+        Map<String, Comparator<LiteralLabel>> m = new HashMap<String, Comparator<LiteralLabel>>( byURI );
+        m.remove( datatypeURI );
+        byURI = m;
+        byType = new IdentityHashMap<RDFDatatype, Comparator<LiteralLabel>>();
+    }
+
+    /**
+     * Set the comparator used for datatypes with no registered comparator
+     * @param comparator The default comparator, {@link #LEXICAL_ORDER} unless changed
+     */
+    public synchronized void setDefaultComparator( Comparator<LiteralLabel> comparator ) {
+        if (comparator == null) {
+            throw new IllegalArgumentException( "Comparator must not be null" );
+        }
+        defaultComparator = comparator;
+        byType = new IdentityHashMap<RDFDatatype, Comparator<LiteralLabel>>();
+    }
+
+    /** @return The comparator used for datatypes with no registered comparator */
+    public Comparator<LiteralLabel> getDefaultComparator() {
+        return defaultComparator;
+    }
+
+    /**
+     * Return true if a comparator has been registered for the given datatype URI
+     * @param datatypeURI A datatype URI
+     * @return True if the datatype has its own comparator
+     */
+    public boolean isRegistered( String datatypeURI ) {
+        return byURI.containsKey( datatypeURI );
+    }
+
+    /**
+     * Return the comparator for literals of the given datatype. This is the
+     * registered comparator, or the default comparator if none is registered.
+     * @param dt A datatype
+     * @return The comparator to use, not null
+     */
+    public Comparator<LiteralLabel> getComparator( RDFDatatype dt ) {
+        Comparator<LiteralLabel> c = byType.get( dt );
+        return (c != null) ? c : resolve( dt );
+    }
+
+    /**
+     * Compare two literals which have the same datatype
+     * @param l1 A typed literal
+     * @param l2 A typed literal with the same datatype as <code>l1</code>
+     * @return Less than zero if l1 precedes l2 in the order
+     */
+    public int compare( LiteralLabel l1, LiteralLabel l2 ) {
+        return getComparator( l1.getDatatype() ).compare( l1, l2 );
+    }
+
+    /**
+     * Determine the order between two non-floating point numbers, which
+     * may be integers, longs, big-integers or big-decimals.
+     * @param n1 A non-FP number object
+     * @param n2 A non-FP number object
+     * @return Less than one if n1 is less than n2
+     */
+    public static int compareNonFPNumbers( Number n1, Number n2 ) {
+        if (isBigNumber( n1 ) || isBigNumber( n2 )) {
+            return toBigDecimal( n1 ).compareTo( toBigDecimal( n2 ) );
+        }
+        else {
+            long v1 = n1.longValue();
+            long v2 = n2.longValue();
+            return (v1 < v2) ? -1 : ((v1 == v2) ? 0 : 1);
+        }
+    }
+
+    /**
+     * Determine the order between two floating point numbers, which
+     * may be floats or doubles
+     * @param n1 An FP number object
+     * @param n2 An FP number object
+     * @return Less than one if n1 is less than n2
+     */
+    public static int compareFPNumbers( Number n1, Number n2 ) {
+        if (n1 instanceof Float && n2 instanceof Float) {
+            return Float.compare( n1.floatValue(), n2.floatValue() );
+        }
+        else {
+            return Double.compare( n1.doubleValue(), n2.doubleValue() );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Find the comparator for a datatype that has not been looked up by identity
+     * before, and remember it for next time
+     */
+    protected synchronized Comparator<LiteralLabel> resolve( RDFDatatype dt ) {
+        Comparator<LiteralLabel> c = byURI.get( dt.getURI() );
+        if (c == null) {
+            c = defaultComparator;
+        }
+        Map<RDFDatatype, Comparator<LiteralLabel>> m = new IdentityHashMap<RDFDatatype, Comparator<LiteralLabel>>( byType );
+        m.put( dt, c );
+        byType = m;
+        return c;
+    }
+
+    /**
+     * Return true if the given number cannot be represented exactly as a long
+     */
+    protected static boolean isBigNumber( Number n ) {
+        return n instanceof BigDecimal || n instanceof BigInteger;
+    }
+
+    /**
+     * Convert a non-FP number to a big-decimal
+     */
+    protected static BigDecimal toBigDecimal( Number n ) {
+        if (n instanceof BigDecimal) {
+            return (BigDecimal) n;
+        }
+        else if (n instanceof BigInteger) {
+            return new BigDecimal( (BigInteger) n );
+        }
+        else {
+            return new BigDecimal( n.longValue() );
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * A comparator which decodes the values of literals, and can count each
+     * decode in a {@link ComparatorMetrics}
+     */
+    public static abstract class ValueComparator
+        implements Comparator<LiteralLabel>
+    {
+        @Override
+        public int compare( LiteralLabel l1, LiteralLabel l2 ) {
+            return compare( l1, l2, null );
+        }
+
+        /**
+         * Compare two literals with the same datatype
+         * @param l1 A typed literal
+         * @param l2 A typed literal with the same datatype as <code>l1</code>
+         * @param metrics The metrics to count decoded values in, or null
+         * @return Less than zero if l1 precedes l2 in the order
+         */
+        public abstract int compare( LiteralLabel l1, LiteralLabel l2, ComparatorMetrics metrics );
+
+        /**
+         * Return the value of a literal, counting the decode
+         * @param l A typed literal
+         * @param metrics The metrics to count the decode in, or null
+         * @return The value of <code>l</code>
+         */
+        protected static Object value( LiteralLabel l, ComparatorMetrics metrics ) {
+            if (metrics != null) {
+                metrics.countDecodes( 1 );
+            }
+            return l.getValue();
+        }
+
+        /**
+         * Compare two literals with any comparator, counting the values decoded
+         * if the comparator is a value comparator
+         * @param c A comparator
+         * @param l1 A typed literal
+         * @param l2 A typed literal with the same datatype as <code>l1</code>
+         * @param metrics The metrics to count decoded values in, or null
+         * @return Less than zero if l1 precedes l2 in the order
+         */
+        public static int compare( Comparator<LiteralLabel> c, LiteralLabel l1, LiteralLabel l2, ComparatorMetrics metrics ) {
+            return (c instanceof ValueComparator) ? ((ValueComparator) c).compare( l1, l2, metrics ) : c.compare( l1, l2 );
+        }
+    }
+
+}
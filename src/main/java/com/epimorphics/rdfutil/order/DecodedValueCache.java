@@ -0,0 +1,369 @@
+/*****************************************************************************
+ * File:    DecodedValueCache.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.hp.hpl.jena.datatypes.DatatypeFormatException;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.datatypes.xsd.XSDDateTime;
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
+
+/**
+ * <p>A bounded cache of the comparison values of typed literals, which an order can
+ * use to compare two literals with the same datatype. During a sort each literal is
+ * compared about log n times; with the cache, the work of turning the literal into a
+ * value that can be compared cheaply is done once, and the later comparisons are
+ * between the cached values. Date-time values are cached as their normalised
+ * {@link RDFNodeKeyEncoder sort keys}, so comparing two values with the same timezone
+ * status is a byte comparison rather than a call to
+ * {@link XSDDateTime#compareTo(Object)}, which normalises both values each time.
+ * Integers and decimals are cached as a <code>Long</code>, or a <code>BigDecimal</code>
+ * when they are too large for a long.</p>
+ * <p>Only literals whose datatype is compared by one of the standard value
+ * comparators of {@link DatatypeComparatorRegistry} are cached. Other datatypes, and
+ * ill-formed literals, are compared by their registered comparators as usual, so an
+ * order gives the same results with and without a cache.</p>
+ * <p>The cache holds at most {@link #getCapacity()} values. It is split into segments,
+ * each of which evicts its least recently used value when it is full, so that threads
+ * sorting in parallel rarely wait for each other. Hit, miss and eviction counts are
+ * kept for tuning the capacity.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class DecodedValueCache
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Default maximum number of cached values */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** Number of independently locked segments */
+    private static final int SEGMENTS = 16;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The maximum number of decoded values held */
+    private final int capacity;
+
+    /** The cached values, in segments selected by hash code */
+    private final Segment[] segments;
+
+    /** Encodes date-time values as sort keys */
+    private final RDFNodeKeyEncoder encoder = new RDFNodeKeyEncoder();
+
+    /** The number of lookups which found a cached value */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** The number of lookups which had to decode the value */
+    private final AtomicLong misses = new AtomicLong();
+
+    /** The number of values evicted to make room for new ones */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a cache with the {@link #DEFAULT_CAPACITY default capacity}
+     */
+    public DecodedValueCache() {
+        this( DEFAULT_CAPACITY );
+    }
+
+    /**
+     * Construct a cache which holds at most the given number of values
+     * @param capacity The maximum number of values
+     * @exception IllegalArgumentException if <code>capacity</code> is less than one
+     */
+    public DecodedValueCache( int capacity ) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException( "Cache capacity must be at least one: " + capacity );
+        }
+        this.capacity = capacity;
+
+        int n = Math.min( SEGMENTS, Integer.highestOneBit( capacity ) );
+        segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            // share out the capacity so that the segments hold no more than the total
+            segments[i] = new Segment( capacity / n + ((i < capacity % n) ? 1 : 0) );
+        }
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Compare two typed literals with the same datatype, using cached values where
+     * possible. The result is the same as <code>comparator.compare( l1, l2 )</code>.
+     * @param comparator The comparator registered for the datatype of the literals
+     * @param l1 A typed literal
+     * @param l2 A typed literal with the same datatype as <code>l1</code>
+     * @return Less than zero if l1 precedes l2 in the order
+     */
+    public int compare( Comparator<LiteralLabel> comparator, LiteralLabel l1, LiteralLabel l2 ) {
+        return compare( comparator, l1, l2, null );
+    }
+
+    /**
+     * Compare two typed literals with the same datatype, using cached values where
+     * possible, and counting the literal values decoded
+     * @param comparator The comparator registered for the datatype of the literals
+     * @param l1 A typed literal
+     * @param l2 A typed literal with the same datatype as <code>l1</code>
+     * @param metrics The metrics to count decoded values in, or null
+     * @return Less than zero if l1 precedes l2 in the order
+     */
+    public int compare( Comparator<LiteralLabel> comparator, LiteralLabel l1, LiteralLabel l2, ComparatorMetrics metrics ) {
+        if (!isCacheable( comparator )) {
+            return DatatypeComparatorRegistry.ValueComparator.compare( comparator, l1, l2, metrics );
+        }
+        Decoded d1 = get( comparator, l1, metrics );
+        Decoded d2 = get( comparator, l2, metrics );
+        if (d1 == null || d2 == null) {
+            // leave ill-formed literals to the comparator
+            return DatatypeComparatorRegistry.ValueComparator.compare( comparator, l1, l2, metrics );
+        }
+        return d1.compareTo( d2 );
+    }
+
+    /** @return The maximum number of values held */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** @return The number of values held */
+    public int size() {
+        int n = 0;
+        for (Segment s : segments) {
+            synchronized (s) {
+                n += s.size();
+            }
+        }
+        return n;
+    }
+
+    /** @return The number of lookups which found a cached value */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** @return The number of lookups which had to decode the literal */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** @return The number of values evicted to make room for others */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /** @return The proportion of lookups which found a cached value, or zero if there have been none */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return (total == 0) ? 0.0 : (double) h / total;
+    }
+
+    /** Remove all of the cached values. The counters are not changed. */
+    public void clear() {
+        for (Segment s : segments) {
+            synchronized (s) {
+                s.clear();
+            }
+        }
+    }
+
+    /** Reset the hit, miss and eviction counters to zero */
+    public void reset() {
+        hits.set( 0 );
+        misses.set( 0 );
+        evictions.set( 0 );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /** @return True for the standard comparators whose values can be cached */
+    protected boolean isCacheable( Comparator<LiteralLabel> c ) {
+        return c == DatatypeComparatorRegistry.NON_FP_NUMBER_ORDER ||
+               c == DatatypeComparatorRegistry.FP_NUMBER_ORDER ||
+               c == DatatypeComparatorRegistry.DATE_TIME_ORDER ||
+               c == DatatypeComparatorRegistry.BOOLEAN_ORDER;
+    }
+
+    /**
+     * Return the cached value of a literal, decoding it if it is not in the cache,
+     * or was cached for a different comparator. Decodes are counted in <code>metrics</code>
+     * if it is not null
+     * @return The value, or null if the literal is ill-formed
+     */
+    protected Decoded get( Comparator<LiteralLabel> c, LiteralLabel l, ComparatorMetrics metrics ) {
+        Segment s = segments[segmentIndex( l.hashCode() )];
+        Decoded d;
+        synchronized (s) {
+            d = s.get( l );
+        }
+        if (d != null && d.comparator == c) {
+            hits.incrementAndGet();
+            return d;
+        }
+
+        misses.incrementAndGet();
+        if (metrics != null) {
+            metrics.countDecodes( 1 );
+        }
+        d = decode( c, l );
+        if (d != null) {
+            synchronized (s) {
+                s.put( l, d );
+            }
+        }
+        return d;
+    }
+
+    /** @return The segment for a hash code */
+    private int segmentIndex( int h ) {
+        h ^= (h >>> 16);
+        return h & (segments.length - 1);
+    }
+
+    /**
+     * Decode a literal into the value used by a standard comparator
+     * @return The decoded value, or null if the literal is ill-formed or its
+     * value is not of the type the comparator expects
+     */
+    protected Decoded decode( Comparator<LiteralLabel> c, LiteralLabel l ) {
+        Object v;
+        try {
+            v = l.getValue();
+        }
+        catch (DatatypeFormatException e) {
+            return null;
+        }
+
+        if (c == DatatypeComparatorRegistry.NON_FP_NUMBER_ORDER && v instanceof Number) {
+            Number n = (Number) v;
+            return new Decoded( c, DatatypeComparatorRegistry.isBigNumber( n ) ? DatatypeComparatorRegistry.toBigDecimal( n ) : (Object) n.longValue(), null );
+        }
+        else if (c == DatatypeComparatorRegistry.FP_NUMBER_ORDER && v instanceof Number) {
+            return new Decoded( c, v, null );
+        }
+        else if (c == DatatypeComparatorRegistry.DATE_TIME_ORDER && v instanceof XSDDateTime) {
+            RDFNodeKeyEncoder.KeySink sink = new RDFNodeKeyEncoder.KeySink( 32 );
+            boolean isTime = XSDDatatype.XSDtime.getURI().equals( l.getDatatypeURI() );
+            byte[] key = encoder.encodeDateTime( l.getLexicalForm(), isTime, sink ) ? sink.toByteArray() : null;
+            return new Decoded( c, v, key );
+        }
+        else if (c == DatatypeComparatorRegistry.BOOLEAN_ORDER && v instanceof Boolean) {
+            return new Decoded( c, v, null );
+        }
+        return null;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * The cached comparison value of a literal
+     */
+    protected static class Decoded
+    {
+        /** The comparator the value was decoded for */
+        final Comparator<LiteralLabel> comparator;
+
+        /** The value: a Long or BigDecimal, a Float or Double, an XSDDateTime or a Boolean */
+        final Object value;
+
+        /** For date-times, the sort key, or null if the lexical form could not be parsed */
+        final byte[] key;
+
+        Decoded( Comparator<LiteralLabel> comparator, Object value, byte[] key ) {
+            this.comparator = comparator;
+            this.value = value;
+            this.key = key;
+        }
+
+        /** Compare with the value of another literal decoded for the same comparator */
+        int compareTo( Decoded other ) {
+            Object v1 = value;
+            Object v2 = other.value;
+            if (v1 instanceof Long && v2 instanceof Long) {
+                long x1 = ((Long) v1).longValue();
+                long x2 = ((Long) v2).longValue();
+                return (x1 < x2) ? -1 : ((x1 == x2) ? 0 : 1);
+            }
+            else if (comparator == DatatypeComparatorRegistry.NON_FP_NUMBER_ORDER) {
+                return DatatypeComparatorRegistry.compareNonFPNumbers( (Number) v1, (Number) v2 );
+            }
+            else if (comparator == DatatypeComparatorRegistry.FP_NUMBER_ORDER) {
+                return DatatypeComparatorRegistry.compareFPNumbers( (Number) v1, (Number) v2 );
+            }
+            else if (comparator == DatatypeComparatorRegistry.DATE_TIME_ORDER) {
+                byte[] k1 = key;
+                byte[] k2 = other.key;
+                if (k1 != null && k2 != null && k1[k1.length - 1] == k2[k2.length - 1]) {
+                    // the last byte of the key is the timezone flag: when both or neither
+                    // have a timezone, the key order is the value order
+                    return RDFNodeKeyEncoder.compareKeys( k1, k2 );
+                }
+                return ((XSDDateTime) v1).compareTo( (XSDDateTime) v2 );
+            }
+            return ((Boolean) v1).compareTo( (Boolean) v2 );
+        }
+    }
+
+    /**
+     * One segment of the cache: a map in least recently used order, which evicts
+     * its eldest entry when it is full. Callers synchronize on the segment.
+     */
+    private class Segment
+        extends LinkedHashMap<LiteralLabel, Decoded>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int max;
+
+        Segment( int max ) {
+            super( 16, 0.75f, true );
+            this.max = max;
+        }
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<LiteralLabel, Decoded> eldest ) {
+            if (size() > max) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
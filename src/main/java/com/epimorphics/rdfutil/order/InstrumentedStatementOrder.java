@@ -0,0 +1,106 @@
+/*****************************************************************************
+ * File:    InstrumentedStatementOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import com.hp.hpl.jena.rdf.model.Statement;
+
+/**
+ * <p>Wraps any {@link RDFStatementOrder}, counting comparisons and timing a sample of
+ * them in a {@link ComparatorMetrics}. To see which node comparisons a statement
+ * comparison spends its time in, build the wrapped order on an
+ * {@link InstrumentedNodeOrder} as well.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class InstrumentedStatementOrder
+    implements RDFStatementOrder
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order being instrumented */
+    private final RDFStatementOrder order;
+
+    /** The metrics that comparisons are recorded in */
+    private final ComparatorMetrics metrics;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Instrument an order with new metrics
+     * @param order The order to instrument
+     */
+    public InstrumentedStatementOrder( RDFStatementOrder order ) {
+        this( order, new ComparatorMetrics() );
+    }
+
+    /**
+     * Instrument an order
+     * @param order The order to instrument
+     * @param metrics The metrics to record comparisons in
+     */
+    public InstrumentedStatementOrder( RDFStatementOrder order, ComparatorMetrics metrics ) {
+        this.order = order;
+        this.metrics = metrics;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The order being instrumented */
+    public RDFStatementOrder getOrder() {
+        return order;
+    }
+
+    /** @return The metrics that comparisons are recorded in */
+    public ComparatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public int compare( Statement s1, Statement s2 ) {
+        long start = metrics.startCall();
+        try {
+            return order.compare( s1, s2 );
+        }
+        finally {
+            metrics.endCall( start );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
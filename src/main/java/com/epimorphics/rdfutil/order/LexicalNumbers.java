@@ -0,0 +1,305 @@
+/*****************************************************************************
+ * File:    LexicalNumbers.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+/**
+ * <p>Compares the lexical forms of numeric literals directly, without parsing them into
+ * number objects. Each method either returns the same result as comparing the parsed
+ * values, or {@link #NOT_COMPARABLE} if the lexical forms are outside the simple cases
+ * that it handles, in which case the caller should compare the values instead. No
+ * objects are allocated.</p>
+ * <p>Decimal forms (<code>xsd:integer</code>, <code>xsd:decimal</code> and their subtypes) are
+ * compared exactly, whatever their length. Floating point forms are only compared when
+ * both have few enough significant digits, and a small enough exponent, that distinct
+ * forms are certain to parse to distinct <code>double</code> (or <code>float</code>) values
+ * in the same order; other forms, and the special values <code>INF</code>, <code>-INF</code>
+ * and <code>NaN</code>, are left to the caller.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class LexicalNumbers
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Returned when two lexical forms cannot be compared without parsing them */
+    public static final int NOT_COMPARABLE = Integer.MIN_VALUE;
+
+    /** Significant digits that always round-trip through a <code>double</code> */
+    public static final int DOUBLE_DIGITS = 15;
+
+    /** Largest decimal exponent handled for <code>double</code>, well inside the normal range */
+    public static final int DOUBLE_EXPONENT = 300;
+
+    /** Significant digits that always round-trip through a <code>float</code> */
+    public static final int FLOAT_DIGITS = 6;
+
+    /** Largest decimal exponent handled for <code>float</code>, well inside the normal range */
+    public static final int FLOAT_EXPONENT = 36;
+
+    /** Result of scanning a form that is not handled */
+    private static final long UNHANDLED = -1L;
+
+    /* Layout of a scanned form, packed into a non-negative long */
+    private static final long NEGATIVE = 1L << 62;
+    private static final long ZERO = 1L << 61;
+    private static final int EXPONENT_SHIFT = 40;
+    private static final int EXPONENT_OFFSET = 1 << 20;
+    private static final int FIRST_SHIFT = 20;
+    private static final int POSITION_MASK = (1 << 20) - 1;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    private LexicalNumbers() {
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Compare two decimal lexical forms, such as <code>-12</code> or <code>003.140</code>, by value
+     * @param lex1 A lexical form
+     * @param lex2 A lexical form
+     * @return Less than zero, zero or greater than zero as the value of <code>lex1</code> is
+     * less than, equal to or greater than the value of <code>lex2</code>; or {@link #NOT_COMPARABLE}
+     */
+    public static int compareDecimals( String lex1, String lex2 ) {
+        long s1 = scan( lex1, false, Integer.MAX_VALUE, Integer.MAX_VALUE );
+        if (s1 == UNHANDLED) {
+            return NOT_COMPARABLE;
+        }
+        long s2 = scan( lex2, false, Integer.MAX_VALUE, Integer.MAX_VALUE );
+        if (s2 == UNHANDLED) {
+            return NOT_COMPARABLE;
+        }
+
+        // zero has no sign: negative < zero < positive
+        int r1 = ((s1 & ZERO) != 0) ? 1 : (((s1 & NEGATIVE) != 0) ? 0 : 2);
+        int r2 = ((s2 & ZERO) != 0) ? 1 : (((s2 & NEGATIVE) != 0) ? 0 : 2);
+        if (r1 != r2) {
+            return r1 - r2;
+        }
+        else if (r1 == 1) {
+            return 0;
+        }
+        int c = compareMagnitudes( lex1, s1, lex2, s2 );
+        return (r1 == 0) ? -c : c;
+    }
+
+    /**
+     * Compare two <code>xsd:double</code> lexical forms, such as <code>1.5E3</code>, with the same
+     * result as {@link Double#compare(double, double)} on the parsed values
+     * @param lex1 A lexical form
+     * @param lex2 A lexical form
+     * @return The result of the comparison, or {@link #NOT_COMPARABLE}
+     */
+    public static int compareDoubles( String lex1, String lex2 ) {
+        return compareFloatingPoint( lex1, lex2, DOUBLE_DIGITS, DOUBLE_EXPONENT );
+    }
+
+    /**
+     * Compare two <code>xsd:float</code> lexical forms with the same result as
+     * {@link Float#compare(float, float)} on the parsed values
+     * @param lex1 A lexical form
+     * @param lex2 A lexical form
+     * @return The result of the comparison, or {@link #NOT_COMPARABLE}
+     */
+    public static int compareFloats( String lex1, String lex2 ) {
+        return compareFloatingPoint( lex1, lex2, FLOAT_DIGITS, FLOAT_EXPONENT );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Compare floating point forms with at most <code>maxDigits</code> significant digits
+     * and decimal exponents of at most <code>maxExponent</code> in magnitude
+     */
+    protected static int compareFloatingPoint( String lex1, String lex2, int maxDigits, int maxExponent ) {
+        long s1 = scan( lex1, true, maxDigits, maxExponent );
+        if (s1 == UNHANDLED) {
+            return NOT_COMPARABLE;
+        }
+        long s2 = scan( lex2, true, maxDigits, maxExponent );
+        if (s2 == UNHANDLED) {
+            return NOT_COMPARABLE;
+        }
+
+        // as Double.compare: negative < -0.0 < 0.0 < positive
+        int r1 = rankFP( s1 );
+        int r2 = rankFP( s2 );
+        if (r1 != r2) {
+            return r1 - r2;
+        }
+        else if (r1 == 1 || r1 == 2) {
+            return 0;
+        }
+        int c = compareMagnitudes( lex1, s1, lex2, s2 );
+        return (r1 == 0) ? -c : c;
+    }
+
+    private static int rankFP( long s ) {
+        boolean negative = (s & NEGATIVE) != 0;
+        if ((s & ZERO) != 0) {
+            return negative ? 1 : 2;
+        }
+        return negative ? 0 : 3;
+    }
+
+    /**
+     * Compare the magnitudes of two non-zero scanned forms: first by the exponent of
+     * the leading significant digit, then by the significant digits themselves
+     */
+    private static int compareMagnitudes( String lex1, long s1, String lex2, long s2 ) {
+        int e1 = exponent( s1 );
+        int e2 = exponent( s2 );
+        if (e1 != e2) {
+            return (e1 < e2) ? -1 : 1;
+        }
+
+        int i = first( s1 ), end1 = last( s1 );
+        int j = first( s2 ), end2 = last( s2 );
+        while (true) {
+            if (i <= end1 && lex1.charAt( i ) == '.') {
+                i++;
+            }
+            if (j <= end2 && lex2.charAt( j ) == '.') {
+                j++;
+            }
+            if (i > end1 || j > end2) {
+                // the last significant digit is never zero, so any remaining digits make a larger number
+                return (i > end1) ? ((j > end2) ? 0 : -1) : 1;
+            }
+            char c1 = lex1.charAt( i++ );
+            char c2 = lex2.charAt( j++ );
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+    }
+
+    /**
+     * Scan a numeric lexical form: an optional sign, digits with an optional decimal point,
+     * and, if <code>allowExponent</code>, an optional exponent
+     * @return The sign, whether the value is zero, the decimal exponent of the first
+     * significant digit, and the positions of the first and last significant digits,
+     * packed into a long; or {@link #UNHANDLED}
+     */
+    private static long scan( String lex, boolean allowExponent, int maxDigits, int maxExponent ) {
+        int len = lex.length();
+        if (len == 0 || len > POSITION_MASK) {
+            return UNHANDLED;
+        }
+
+        int i = 0;
+        boolean negative = false;
+        char c = lex.charAt( 0 );
+        if (c == '-' || c == '+') {
+            negative = (c == '-');
+            i++;
+        }
+
+        int firstSig = -1, lastSig = -1;
+        int point = -1;
+        int digits = 0;
+        for (; i < len; i++) {
+            c = lex.charAt( i );
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (c != '0') {
+                    if (firstSig < 0) {
+                        firstSig = i;
+                    }
+                    lastSig = i;
+                }
+            }
+            else if (c == '.' && point < 0) {
+                point = i;
+            }
+            else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return UNHANDLED;
+        }
+        int mantissaEnd = i;
+
+        int explicitExponent = 0;
+        if (i < len) {
+            if (!allowExponent || (lex.charAt( i ) != 'e' && lex.charAt( i ) != 'E')) {
+                return UNHANDLED;
+            }
+            i++;
+            boolean expNegative = false;
+            if (i < len && (lex.charAt( i ) == '-' || lex.charAt( i ) == '+')) {
+                expNegative = lex.charAt( i ) == '-';
+                i++;
+            }
+            int expDigits = 0;
+            for (; i < len; i++) {
+                c = lex.charAt( i );
+                if (c < '0' || c > '9' || ++expDigits > 6) {
+                    return UNHANDLED;
+                }
+                explicitExponent = explicitExponent * 10 + (c - '0');
+            }
+            if (expDigits == 0) {
+                return UNHANDLED;
+            }
+            if (expNegative) {
+                explicitExponent = -explicitExponent;
+            }
+        }
+
+        long packed = negative ? NEGATIVE : 0;
+        if (firstSig < 0) {
+            return packed | ZERO;
+        }
+
+        // value = 0.d1d2d3... x 10^exponent, where d1 is the first significant digit
+        int pointPos = (point < 0) ? mantissaEnd : point;
+        int exponent = (firstSig < pointPos) ? (pointPos - firstSig) : -(firstSig - pointPos - 1);
+        exponent += explicitExponent;
+
+        int sigDigits = lastSig - firstSig + 1 - ((point > firstSig && point < lastSig) ? 1 : 0);
+        if (sigDigits > maxDigits || exponent > maxExponent || exponent < -maxExponent
+            || exponent >= EXPONENT_OFFSET || exponent < -EXPONENT_OFFSET) {
+            return UNHANDLED;
+        }
+        return packed | ((long) (exponent + EXPONENT_OFFSET) << EXPONENT_SHIFT) | ((long) firstSig << FIRST_SHIFT) | lastSig;
+    }
+
+    private static int exponent( long s ) {
+        return (int) ((s >>> EXPONENT_SHIFT) & ((1L << 21) - 1)) - EXPONENT_OFFSET;
+    }
+
+    private static int first( long s ) {
+        return (int) ((s >>> FIRST_SHIFT) & POSITION_MASK);
+    }
+
+    private static int last( long s ) {
+        return (int) (s & POSITION_MASK);
+    }
+
+}
+
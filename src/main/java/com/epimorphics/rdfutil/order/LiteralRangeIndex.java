@@ -0,0 +1,361 @@
+/*****************************************************************************
+ * File:    LiteralRangeIndex.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+
+import com.hp.hpl.jena.datatypes.RDFDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+import com.hp.hpl.jena.rdf.model.impl.ModelCom;
+
+/**
+ * <p>An immutable index of the statements in a model whose objects are literals, sorted
+ * into {@link RDFNodeStandardOrder} order of their objects. Since the standard order groups
+ * typed literals by datatype and then orders them by value, the statements for one datatype
+ * are contiguous in the index, and a range query such as "all <code>xsd:dateTime</code>
+ * values between X and Y" or "all <code>xsd:decimal</code> values greater than 100" is
+ * answered by two binary searches, without calling {@link Literal#getValue()}.</p>
+ * <p>The index holds the {@link RDFNodeKeyEncoder sort key} of each object, packed end to
+ * end in a single byte array with an array of offsets. The statements are held in the
+ * same order as an array of <code>int</code>s, three for each statement, which index a
+ * table of the distinct nodes, so each node is held once however many statements it
+ * occurs in. The statements in the result of a query are created as they are read.
+ * Queries compare keys as bytes, so, like the keys, the index distinguishes date and
+ * time values with and without timezones which Jena reports as equal.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class LiteralRangeIndex
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** Encoder used for the keys, and for the bounds of queries */
+    private final RDFNodeKeyEncoder encoder;
+
+    /** The model that the statements returned by queries belong to */
+    private final ModelCom model;
+
+    /** The distinct nodes of the indexed statements */
+    private final Node[] nodes;
+
+    /** Subject, predicate and object of each indexed statement, as indexes into {@link #nodes}, in key order */
+    private final int[] triples;
+
+    /** Keys of the objects of the statements, end to end */
+    private final byte[] keys;
+
+    /** Start of the key of each statement, followed by the end of the last key */
+    private final int[] offsets;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct an index from arrays which are already in key order
+     */
+    protected LiteralRangeIndex( RDFNodeKeyEncoder encoder, ModelCom model, Node[] nodes, int[] triples, byte[] keys, int[] offsets ) {
+        this.encoder = encoder;
+        this.model = model;
+        this.nodes = nodes;
+        this.triples = triples;
+        this.keys = keys;
+        this.offsets = offsets;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Build an index of the statements in a model which have literal objects,
+     * using the standard datatype comparators
+     * @param m A model
+     * @return A new index
+     */
+    public static LiteralRangeIndex build( Model m ) {
+        return build( m.listStatements(), new RDFNodeKeyEncoder() );
+    }
+
+    /**
+     * Build an index of the statements with literal objects from an iterator.
+     * Statements with resource objects are skipped. Query results belong to the
+     * model of the first statement.
+     * @param stmts The statements to index
+     * @param encoder The key encoder, which determines the order of values
+     * @return A new index
+     */
+    public static LiteralRangeIndex build( Iterator<? extends Statement> stmts, RDFNodeKeyEncoder encoder ) {
+        List<Entry> entries = new ArrayList<Entry>();
+        Map<Node, Integer> nodeIndex = new HashMap<Node, Integer>();
+        List<Node> nodes = new ArrayList<Node>();
+        ModelCom model = null;
+        long total = 0;
+        while (stmts.hasNext()) {
+            Statement s = stmts.next();
+            if (model == null && s.getModel() instanceof ModelCom) {
+                model = (ModelCom) s.getModel();
+            }
+            if (s.getObject().isLiteral()) {
+                byte[] key = encoder.encode( s.getObject() );
+                Triple t = s.asTriple();
+                entries.add( new Entry( key, index( t.getSubject(), nodeIndex, nodes ),
+                                        index( t.getPredicate(), nodeIndex, nodes ),
+                                        index( t.getObject(), nodeIndex, nodes ) ) );
+                total += key.length;
+            }
+        }
+        nodeIndex = null;
+        if (model == null) {
+            model = (ModelCom) ModelFactory.createDefaultModel();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException( "Too many literals to index: " + total + " bytes of keys" );
+        }
+
+        Entry[] sorted = entries.toArray( new Entry[entries.size()] );
+        entries = null;
+        Arrays.sort( sorted );
+
+        int[] triples = new int[sorted.length * 3];
+        byte[] keys = new byte[(int) total];
+        int[] offsets = new int[sorted.length + 1];
+        int pos = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            System.arraycopy( sorted[i].spo, 0, triples, i * 3, 3 );
+            offsets[i] = pos;
+            System.arraycopy( sorted[i].key, 0, keys, pos, sorted[i].key.length );
+            pos += sorted[i].key.length;
+        }
+        offsets[sorted.length] = pos;
+        return new LiteralRangeIndex( encoder, model, nodes.toArray( new Node[nodes.size()] ), triples, keys, offsets );
+    }
+
+    /** @return The number of statements in the index */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Return the statements whose objects are literals of the given datatype, with values
+     * in the given range
+     * @param dt The datatype
+     * @param min The lower bound, which must have datatype <code>dt</code>,
+     * or null for no lower bound
+     * @param minInclusive If true, include values equal to <code>min</code>
+     * @param max The upper bound, which must have datatype <code>dt</code>,
+     * or null for no upper bound
+     * @param maxInclusive If true, include values equal to <code>max</code>
+     * @return An unmodifiable list of the matching statements, in order of their objects
+     */
+    public List<Statement> range( RDFDatatype dt, Literal min, boolean minInclusive, Literal max, boolean maxInclusive ) {
+        int from = (min == null) ? lowerBound( datatypeBound( dt, RDFNodeKeyEncoder.VALUE_WELL_FORMED ) )
+                                 : (minInclusive ? lowerBound( boundKey( dt, min ) ) : upperBound( boundKey( dt, min ) ));
+        int to = (max == null) ? lowerBound( datatypeBound( dt, RDFNodeKeyEncoder.VALUE_ILL_FORMED ) )
+                               : (maxInclusive ? upperBound( boundKey( dt, max ) ) : lowerBound( boundKey( dt, max ) ));
+        return slice( from, to );
+    }
+
+    /**
+     * Return the statements whose objects are literals with values greater than the given literal
+     * @param min The exclusive lower bound
+     * @return An unmodifiable list of the matching statements
+     */
+    public List<Statement> greaterThan( Literal min ) {
+        return range( min.getDatatype(), min, false, null, false );
+    }
+
+    /**
+     * Return the statements whose objects are literals with values less than the given literal
+     * @param max The exclusive upper bound
+     * @return An unmodifiable list of the matching statements
+     */
+    public List<Statement> lessThan( Literal max ) {
+        return range( max.getDatatype(), null, false, max, false );
+    }
+
+    /**
+     * Return the statements whose objects are equal to the given literal in the
+     * standard order. For example, an <code>xsd:decimal</code> literal <code>2</code> will
+     * also match <code>2.0</code>.
+     * @param l A literal, which may be typed or untyped
+     * @return An unmodifiable list of the matching statements
+     */
+    public List<Statement> equalTo( Literal l ) {
+        byte[] key = encoder.encode( l );
+        return slice( lowerBound( key ), upperBound( key ) );
+    }
+
+    /**
+     * Return all of the statements whose objects are well-formed literals of the given datatype
+     * @param dt A datatype
+     * @return An unmodifiable list of the matching statements, in order of their objects
+     */
+    public List<Statement> all( RDFDatatype dt ) {
+        return range( dt, null, false, null, false );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /** @return The statements in the index between two positions, or none if the range is empty */
+    protected List<Statement> slice( int from, int to ) {
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+        return new StatementList( from, to );
+    }
+
+    /** @return The statement at a position in the index */
+    protected Statement statement( int i ) {
+        int t = i * 3;
+        return model.asStatement( Triple.create( nodes[triples[t]], nodes[triples[t + 1]], nodes[triples[t + 2]] ) );
+    }
+
+    /** @return The index of a node in the node table, adding it if it is new */
+    private static int index( Node n, Map<Node, Integer> nodeIndex, List<Node> nodes ) {
+        Integer i = nodeIndex.get( n );
+        if (i == null) {
+            i = nodes.size();
+            nodeIndex.put( n, i );
+            nodes.add( n );
+        }
+        return i;
+    }
+
+    /** @return The key for a range bound, which must have the given datatype */
+    protected byte[] boundKey( RDFDatatype dt, Literal bound ) {
+        if (bound.getDatatype() == null || !bound.getDatatype().getURI().equals( dt.getURI() )) {
+            throw new IllegalArgumentException( "Range bound " + bound + " does not have datatype " + dt.getURI() );
+        }
+        return encoder.encode( bound );
+    }
+
+    /**
+     * Return a key which sorts before every key of the given datatype with the given
+     * marker byte, and after every key of the datatype with a smaller marker
+     */
+    protected byte[] datatypeBound( RDFDatatype dt, byte marker ) {
+        RDFNodeKeyEncoder.KeySink sink = new RDFNodeKeyEncoder.KeySink();
+        sink.put( RDFNodeKeyEncoder.TAG_TYPED_LITERAL );
+        sink.putString( dt.getURI() );
+        sink.put( marker );
+        return sink.toByteArray();
+    }
+
+    /** @return The first position whose key is not less than <code>key</code> */
+    protected int lowerBound( byte[] key ) {
+        int lo = 0, hi = size();
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (compareAt( m, key ) < 0) {
+                lo = m + 1;
+            }
+            else {
+                hi = m;
+            }
+        }
+        return lo;
+    }
+
+    /** @return The first position whose key is greater than <code>key</code> */
+    protected int upperBound( byte[] key ) {
+        int lo = 0, hi = size();
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (compareAt( m, key ) <= 0) {
+                lo = m + 1;
+            }
+            else {
+                hi = m;
+            }
+        }
+        return lo;
+    }
+
+    private int compareAt( int i, byte[] key ) {
+        return RDFNodeKeyEncoder.compareKeys( keys, offsets[i], offsets[i + 1] - offsets[i], key, 0, key.length );
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * An unmodifiable list of the statements between two positions in the index
+     */
+    private class StatementList
+        extends AbstractList<Statement>
+        implements RandomAccess
+    {
+        private final int from, to;
+
+        StatementList( int from, int to ) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Statement get( int i ) {
+            if (i < 0 || i >= to - from) {
+                throw new IndexOutOfBoundsException( "Index: " + i + ", size: " + (to - from) );
+            }
+            return statement( from + i );
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * The node table indexes of a statement and the key of its object, used while
+     * building the index
+     */
+    private static class Entry
+        implements Comparable<Entry>
+    {
+        final byte[] key;
+        final int[] spo;
+
+        Entry( byte[] key, int s, int p, int o ) {
+            this.key = key;
+            this.spo = new int[] {s, p, o};
+        }
+
+        @Override
+        public int compareTo( Entry other ) {
+            return RDFNodeKeyEncoder.compareKeys( key, other.key );
+        }
+    }
+
+}
+
@@ -0,0 +1,481 @@
+/*****************************************************************************
+ * File:    NTriplesCodec.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.io.IOException;
+
+import com.hp.hpl.jena.datatypes.RDFDatatype;
+import com.hp.hpl.jena.datatypes.TypeMapper;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.shared.SyntaxError;
+
+/**
+ * <p>Reads and writes single lines of N-Triples. Unlike Jena's N-Triples reader,
+ * which allocates a fresh bNode for each label it reads, this codec preserves
+ * bNode labels, so that a bNode written to one file and read back from another
+ * is the same node, and has the same position in the {@link RDFNodeStandardOrder}.</p>
+ * <p>Output is written in ASCII: non-ASCII characters in URIs and literals are
+ * written as <code>&#92;u</code> or <code>&#92;U</code> escapes. bNode labels which are
+ * not legal N-Triples labels, such as the labels Jena allocates itself, are escaped
+ * using <code>X</code> as the escape character, and the escapes are undone when the
+ * label is read, so every label is read back exactly as it was written.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NTriplesCodec
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Parse one line of N-Triples
+     * @param line A line of text, without the line terminator
+     * @return The triple on the line, or null if the line is blank or a comment
+     * @exception SyntaxError if the line is not a legal N-Triples statement
+     */
+    public Triple parse( String line ) {
+        Scanner sc = new Scanner( line );
+        sc.skipWhitespace();
+        if (sc.atEnd() || sc.peek() == '#') {
+            return null;
+        }
+
+        Node s = parseNode( sc );
+        sc.skipWhitespace();
+        Node p = parseNode( sc );
+        sc.skipWhitespace();
+        Node o = parseNode( sc );
+        sc.skipWhitespace();
+        sc.expect( '.' );
+        sc.skipWhitespace();
+        if (!sc.atEnd() && sc.peek() != '#') {
+            throw sc.error( "unexpected content after end of statement" );
+        }
+        if (s.isLiteral() || !p.isURI()) {
+            throw sc.error( "illegal subject or predicate" );
+        }
+        return Triple.create( s, p, o );
+    }
+
+    /**
+     * Write a statement as a line of N-Triples, including the line terminator
+     * @param s The statement to write
+     * @param out The destination
+     * @exception IOException if the destination cannot be written to
+     */
+    public void write( Statement s, Appendable out )
+        throws IOException
+    {
+        write( s.getSubject().asNode(), s.getPredicate().asNode(), s.getObject().asNode(), out );
+    }
+
+    /**
+     * Write a triple as a line of N-Triples, including the line terminator
+     * @param t The triple to write
+     * @param out The destination
+     * @exception IOException if the destination cannot be written to
+     */
+    public void write( Triple t, Appendable out )
+        throws IOException
+    {
+        write( t.getSubject(), t.getPredicate(), t.getObject(), out );
+    }
+
+    /**
+     * Write three nodes as a line of N-Triples, including the line terminator
+     * @exception IOException if the destination cannot be written to
+     */
+    public void write( Node s, Node p, Node o, Appendable out )
+        throws IOException
+    {
+        write( s, out );
+        out.append( ' ' );
+        write( p, out );
+        out.append( ' ' );
+        write( o, out );
+        out.append( ' ' ).append( '.' ).append( '\n' );
+    }
+
+    /**
+     * Write a single node in N-Triples syntax
+     * @param n A URI, bNode or literal node
+     * @param out The destination
+     * @exception IOException if the destination cannot be written to
+     */
+    public void write( Node n, Appendable out )
+        throws IOException
+    {
+        if (n.isURI()) {
+            out.append( '<' );
+            writeEscaped( n.getURI(), false, out );
+            out.append( '>' );
+        }
+        else if (n.isBlank()) {
+            out.append( '_' ).append( ':' );
+            writeLabel( n.getBlankNodeLabel(), out );
+        }
+        else if (n.isLiteral()) {
+            LiteralLabel l = n.getLiteral();
+            out.append( '"' );
+            writeEscaped( l.getLexicalForm(), true, out );
+            out.append( '"' );
+
+            String lang = l.language();
+            if (lang != null && lang.length() > 0) {
+                out.append( '@' ).append( lang );
+            }
+            else if (l.getDatatypeURI() != null) {
+                out.append( '^' ).append( '^' ).append( '<' );
+                writeEscaped( l.getDatatypeURI(), false, out );
+                out.append( '>' );
+            }
+        }
+        else {
+            throw new IllegalArgumentException( "Cannot write node in N-Triples: " + n );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    protected Node parseNode( Scanner sc ) {
+        char c = sc.peek();
+        if (c == '<') {
+            return Node.createURI( parseURI( sc ) );
+        }
+        else if (c == '_') {
+            sc.expect( '_' );
+            sc.expect( ':' );
+            int start = sc.pos;
+            while (!sc.atEnd() && !isWhitespace( sc.peek() )) {
+                sc.pos++;
+            }
+            if (sc.pos == start) {
+                throw sc.error( "empty bNode label" );
+            }
+            return Node.createAnon( new AnonId( unescapeLabel( sc.s.substring( start, sc.pos ) ) ) );
+        }
+        else if (c == '"') {
+            String lex = parseString( sc );
+            if (sc.accept( '@' )) {
+                int start = sc.pos;
+                while (!sc.atEnd() && (Character.isLetterOrDigit( sc.peek() ) || sc.peek() == '-')) {
+                    sc.pos++;
+                }
+                return Node.createLiteral( lex, sc.s.substring( start, sc.pos ), false );
+            }
+            else if (sc.accept( '^' )) {
+                sc.expect( '^' );
+                RDFDatatype dt = TypeMapper.getInstance().getSafeTypeByName( parseURI( sc ) );
+                return Node.createLiteral( lex, null, dt );
+            }
+            else {
+                return Node.createLiteral( lex, null, false );
+            }
+        }
+        throw sc.error( "expected a URI, bNode or literal" );
+    }
+
+    protected String parseURI( Scanner sc ) {
+        sc.expect( '<' );
+        StringBuilder buf = new StringBuilder();
+        while (true) {
+            char c = sc.next();
+            if (c == '>') {
+                return buf.toString();
+            }
+            else if (c == '\\') {
+                sc.unescape( buf );
+            }
+            else {
+                buf.append( c );
+            }
+        }
+    }
+
+    protected String parseString( Scanner sc ) {
+        sc.expect( '"' );
+        StringBuilder buf = new StringBuilder();
+        while (true) {
+            char c = sc.next();
+            if (c == '"') {
+                return buf.toString();
+            }
+            else if (c == '\\') {
+                sc.unescape( buf );
+            }
+            else {
+                buf.append( c );
+            }
+        }
+    }
+
+    /**
+     * Write a string with N-Triples escapes
+     * @param s The string to write
+     * @param literal True for a literal string, false for a URI
+     * @param out The destination
+     */
+    protected void writeEscaped( String s, boolean literal, Appendable out )
+        throws IOException
+    {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt( i );
+            if (c >= 0x20 && c < 0x7F && c != '\\' && (literal ? c != '"' : c != '>')) {
+                out.append( c );
+            }
+            else if (literal && c == '"') {
+                out.append( '\\' ).append( '"' );
+            }
+            else if (c == '\\') {
+                out.append( '\\' ).append( '\\' );
+            }
+            else if (literal && c == '\n') {
+                out.append( '\\' ).append( 'n' );
+            }
+            else if (literal && c == '\r') {
+                out.append( '\\' ).append( 'r' );
+            }
+            else if (literal && c == '\t') {
+                out.append( '\\' ).append( 't' );
+            }
+            else if (Character.isHighSurrogate( c ) && i + 1 < n && Character.isLowSurrogate( s.charAt( i + 1 ) )) {
+                int cp = Character.toCodePoint( c, s.charAt( ++i ) );
+                out.append( '\\' ).append( 'U' );
+                writeHex( cp, 8, out );
+            }
+            else {
+                out.append( '\\' ).append( 'u' );
+                writeHex( c, 4, out );
+            }
+        }
+    }
+
+    /**
+     * Write a bNode label. Legal N-Triples labels which do not contain <code>X</code> are
+     * written unchanged. In other labels, <code>X</code> is written as <code>XX</code>, and
+     * a leading digit and all characters other than ASCII letters and digits are written as
+     * <code>X</code><i>hex</i><code>X</code>. {@link #unescapeLabel(String)} reverses this.
+     */
+    protected void writeLabel( String label, Appendable out )
+        throws IOException
+    {
+        if (isLegalLabel( label ) && label.indexOf( 'X' ) < 0) {
+            out.append( label );
+            return;
+        }
+
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt( i );
+            if (c == 'X') {
+                out.append( 'X' ).append( 'X' );
+            }
+            else if (isAsciiLetterOrDigit( c ) && !(i == 0 && c <= '9')) {
+                out.append( c );
+            }
+            else {
+                out.append( 'X' ).append( Integer.toHexString( c ) ).append( 'X' );
+            }
+        }
+    }
+
+    /**
+     * Undo the escapes written by {@link #writeLabel(String, Appendable)}. An
+     * <code>X</code> which does not start a complete escape is kept as it is, so
+     * labels from other writers are read unchanged unless they contain escapes.
+     * @param label A label as read from N-Triples
+     * @return The label of the bNode
+     */
+    protected String unescapeLabel( String label ) {
+        int x = label.indexOf( 'X' );
+        if (x < 0) {
+            return label;
+        }
+
+        StringBuilder buf = new StringBuilder( label.length() );
+        buf.append( label, 0, x );
+        int i = x;
+        while (i < label.length()) {
+            char c = label.charAt( i );
+            if (c != 'X') {
+                buf.append( c );
+                i++;
+            }
+            else if (i + 1 < label.length() && label.charAt( i + 1 ) == 'X') {
+                buf.append( 'X' );
+                i += 2;
+            }
+            else {
+                // X, one to four hex digits, X
+                int end = i + 1;
+                int v = 0;
+                while (end < label.length() && end - i <= 4 && Character.digit( label.charAt( end ), 16 ) >= 0) {
+                    v = v * 16 + Character.digit( label.charAt( end ), 16 );
+                    end++;
+                }
+                if (end > i + 1 && end < label.length() && label.charAt( end ) == 'X') {
+                    buf.append( (char) v );
+                    i = end + 1;
+                }
+                else {
+                    buf.append( c );
+                    i++;
+                }
+            }
+        }
+        return buf.toString();
+    }
+
+    protected boolean isLegalLabel( String label ) {
+        if (label.length() == 0 || !Character.isLetter( label.charAt( 0 ) ) || label.charAt( 0 ) >= 0x80) {
+            return false;
+        }
+        for (int i = 1; i < label.length(); i++) {
+            if (!isAsciiLetterOrDigit( label.charAt( i ) )) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetterOrDigit( char c ) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isWhitespace( char c ) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static void writeHex( int v, int digits, Appendable out )
+        throws IOException
+    {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            out.append( HEX[(v >>> shift) & 0xF] );
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * Cursor over a single line of input
+     */
+    protected static class Scanner
+    {
+        final String s;
+        int pos;
+
+        Scanner( String s ) {
+            this.s = s;
+        }
+
+        boolean atEnd() {
+            return pos >= s.length();
+        }
+
+        char peek() {
+            return atEnd() ? 0 : s.charAt( pos );
+        }
+
+        char next() {
+            if (atEnd()) {
+                throw error( "unexpected end of line" );
+            }
+            return s.charAt( pos++ );
+        }
+
+        boolean accept( char c ) {
+            if (!atEnd() && s.charAt( pos ) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect( char c ) {
+            if (!accept( c )) {
+                throw error( "expected '" + c + "'" );
+            }
+        }
+
+        void skipWhitespace() {
+            while (!atEnd() && isWhitespace( s.charAt( pos ) )) {
+                pos++;
+            }
+        }
+
+        /** Decode the escape sequence following a backslash */
+        void unescape( StringBuilder buf ) {
+            char c = next();
+            switch (c) {
+                case 't':  buf.append( '\t' ); break;
+                case 'n':  buf.append( '\n' ); break;
+                case 'r':  buf.append( '\r' ); break;
+                case '"':  buf.append( '"' ); break;
+                case '\\': buf.append( '\\' ); break;
+                case 'u':  buf.appendCodePoint( hex( 4 ) ); break;
+                case 'U':  buf.appendCodePoint( hex( 8 ) ); break;
+                default:   throw error( "illegal escape \\" + c );
+            }
+        }
+
+        int hex( int digits ) {
+            if (pos + digits > s.length()) {
+                throw error( "truncated escape sequence" );
+            }
+            try {
+                int v = Integer.parseInt( s.substring( pos, pos + digits ), 16 );
+                pos += digits;
+                return v;
+            }
+            catch (NumberFormatException e) {
+                throw error( "illegal escape sequence" );
+            }
+        }
+
+        SyntaxError error( String message ) {
+            return new SyntaxError( "N-Triples syntax error at column " + (pos + 1) + ": " + message + " in: " + s );
+        }
+    }
+
+}
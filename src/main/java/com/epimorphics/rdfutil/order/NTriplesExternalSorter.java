@@ -0,0 +1,491 @@
+/*****************************************************************************
+ * File:    NTriplesExternalSorter.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.io.*;
+import java.util.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.rdf.model.impl.ModelCom;
+import com.hp.hpl.jena.shared.SyntaxError;
+
+/**
+ * <p>Sorts N-Triples input that may be much larger than the available heap, using an
+ * external merge sort. The input is read in runs that fit within a memory budget; each
+ * run is sorted in memory with an {@link RDFStatementOrder} and written to a temporary
+ * file. The runs are then merged, at most {@link #getMergeFanIn()} at a time, until a
+ * single sorted output remains.</p>
+ * <p>The output is written as N-Triples in the ASCII form produced by
+ * {@link NTriplesCodec}. bNode labels are preserved from input to output.</p>
+ * <p>Optionally, the sort is distinct: only the first of each group of statements
+ * that the order treats as equal is written. Duplicates are dropped as each run is
+ * read, so that a run holds as many distinct statements as the memory budget allows,
+ * and again as runs are merged, so that no separate de-duplication pass is needed.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NTriplesExternalSorter
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Default number of runs merged in a single pass */
+    public static final int DEFAULT_MERGE_FAN_IN = 64;
+
+    /** Estimated heap overhead of one parsed statement, excluding its strings */
+    protected static final int STATEMENT_OVERHEAD = 320;
+
+    /** Character encoding of the input and output */
+    protected static final String ENCODING = "UTF-8";
+
+    /** Size of the I/O buffers for each file */
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    private static final Logger log = LoggerFactory.getLogger( NTriplesExternalSorter.class );
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order to sort statements into */
+    private final RDFStatementOrder order;
+
+    /** The approximate number of bytes of heap to use for each in-memory run */
+    private long memoryBudget = Runtime.getRuntime().maxMemory() / 4;
+
+    /** Directory for temporary run files, or null for the system default */
+    private File tempDirectory;
+
+    /** Maximum number of runs merged in a single pass */
+    private int mergeFanIn = DEFAULT_MERGE_FAN_IN;
+
+    /** If true, statements equal to an earlier statement are dropped */
+    private boolean distinct = false;
+
+    /** Codec for reading and writing N-Triples lines */
+    private final NTriplesCodec codec = new NTriplesCodec();
+
+    /** Model used to wrap parsed triples as statements. Nothing is added to it */
+    private final ModelCom wrapper = (ModelCom) ModelFactory.createDefaultModel();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a sorter which sorts statements in SPO order, using the standard node order.
+     */
+    public NTriplesExternalSorter() {
+        this( new RDFStatementStandardOrder() );
+    }
+
+    /**
+     * Construct a sorter which sorts statements into the given order.
+     * @param order The statement order
+     */
+    public NTriplesExternalSorter( RDFStatementOrder order ) {
+        this.order = order;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The statement order used by this sorter */
+    public RDFStatementOrder getOrder() {
+        return order;
+    }
+
+    /** @return The approximate number of bytes of heap used for each in-memory run */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Set the approximate number of bytes of heap to use when sorting each run
+     * in memory. The default is one quarter of the maximum heap size.
+     * @param memoryBudget A positive number of bytes
+     */
+    public void setMemoryBudget( long memoryBudget ) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException( "Memory budget must be positive" );
+        }
+        this.memoryBudget = memoryBudget;
+    }
+
+    /** @return The directory for temporary run files, or null for the system default */
+    public File getTempDirectory() {
+        return tempDirectory;
+    }
+
+    /**
+     * Set the directory in which temporary run files are created
+     * @param tempDirectory A directory, or null to use the system default
+     */
+    public void setTempDirectory( File tempDirectory ) {
+        this.tempDirectory = tempDirectory;
+    }
+
+    /** @return The maximum number of runs merged in a single pass */
+    public int getMergeFanIn() {
+        return mergeFanIn;
+    }
+
+    /**
+     * Set the maximum number of runs merged in a single pass. Higher values mean
+     * fewer passes over the data, but more files open at once.
+     * @param mergeFanIn At least two
+     */
+    public void setMergeFanIn( int mergeFanIn ) {
+        if (mergeFanIn < 2) {
+            throw new IllegalArgumentException( "Merge fan-in must be at least 2" );
+        }
+        this.mergeFanIn = mergeFanIn;
+    }
+
+    /** @return True if statements which are equal in the sort order are written only once */
+    public boolean isDistinct() {
+        return distinct;
+    }
+
+    /**
+     * Set whether the sort is distinct. If so, only the first of each group of statements
+     * that the order treats as equal is written.
+     * @param distinct If true, drop duplicate statements
+     */
+    public void setDistinct( boolean distinct ) {
+        this.distinct = distinct;
+    }
+
+    /**
+     * Sort the N-Triples in the given input file into the output file
+     * @param input The input file
+     * @param output The output file, which will be overwritten
+     * @exception IOException if reading or writing fails
+     */
+    public void sort( File input, File output )
+        throws IOException
+    {
+        InputStream in = new FileInputStream( input );
+        try {
+            OutputStream out = new FileOutputStream( output );
+            try {
+                sort( in, out );
+            }
+            finally {
+                out.close();
+            }
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Sort the N-Triples read from the given stream, writing them to the
+     * output stream. Neither stream is closed.
+     * @param input A stream of N-Triples in UTF-8
+     * @param output The stream to write sorted N-Triples to
+     * @exception IOException if reading or writing fails
+     * @exception SyntaxError if the input is not legal N-Triples
+     */
+    public void sort( InputStream input, OutputStream output )
+        throws IOException
+    {
+        List<File> runs = new ArrayList<File>();
+        try {
+            BufferedReader in = new BufferedReader( new InputStreamReader( input, ENCODING ), BUFFER_SIZE );
+            List<Statement> run = readRun( in );
+
+            if (run.isEmpty() || !isExhausted( in )) {
+                // more than one run: spill each run to a temporary file
+                while (!run.isEmpty()) {
+                    runs.add( writeRun( run ) );
+                    run = readRun( in );
+                }
+                Writer out = newWriter( output );
+                mergeRuns( runs, out );
+                out.flush();
+            }
+            else {
+                // the whole input fits in memory, so no temporary files are needed
+                Writer out = newWriter( output );
+                writeSorted( run, out );
+                out.flush();
+            }
+        }
+        finally {
+            for (File f : runs) {
+                deleteRun( f );
+            }
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Read statements from the input until the memory budget is reached. If the sort
+     * is distinct, the run is de-duplicated each time it reaches the budget, and reading
+     * continues while that frees at least a quarter of the budget.
+     * @param in The input
+     * @return A list of statements, which will be empty at the end of input
+     */
+    protected List<Statement> readRun( BufferedReader in )
+        throws IOException
+    {
+        List<Statement> run = new ArrayList<Statement>();
+        long used = 0;
+        String line;
+        while (used < memoryBudget && (line = in.readLine()) != null) {
+            Triple t = codec.parse( line );
+            if (t != null) {
+                run.add( wrapper.asStatement( t ) );
+                used += STATEMENT_OVERHEAD + 2L * line.length();
+            }
+            if (distinct && used >= memoryBudget) {
+                int before = run.size();
+                sortDistinct( run );
+                used = used * run.size() / before;
+                if (used > memoryBudget / 4 * 3) {
+                    break;
+                }
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Sort a run in place, removing the statements that are equal to an earlier statement
+     */
+    protected void sortDistinct( List<Statement> run ) {
+        Collections.sort( run, order );
+        int last = 0;
+        for (int i = 1; i < run.size(); i++) {
+            if (order.compare( run.get( last ), run.get( i ) ) != 0) {
+                run.set( ++last, run.get( i ) );
+            }
+        }
+        if (!run.isEmpty()) {
+            run.subList( last + 1, run.size() ).clear();
+        }
+    }
+
+    /** @return True if there is no more input to read */
+    protected boolean isExhausted( BufferedReader in )
+        throws IOException
+    {
+        in.mark( 1 );
+        boolean exhausted = in.read() < 0;
+        in.reset();
+        return exhausted;
+    }
+
+    /**
+     * Sort a run in memory and write it to a new temporary file
+     * @param run The statements in the run
+     * @return The temporary file
+     */
+    protected File writeRun( List<Statement> run )
+        throws IOException
+    {
+        File f = File.createTempFile( "rdf-order-run", ".nt", tempDirectory );
+        log.debug( "Writing run of " + run.size() + " statements to " + f );
+        Writer out = newWriter( new FileOutputStream( f ) );
+        try {
+            writeSorted( run, out );
+        }
+        finally {
+            out.close();
+        }
+        return f;
+    }
+
+    /**
+     * Sort a list of statements in memory and write them
+     */
+    protected void writeSorted( List<Statement> run, Writer out )
+        throws IOException
+    {
+        Collections.sort( run, order );
+        Statement prev = null;
+        for (Statement s : run) {
+            if (isDuplicate( prev, s )) {
+                continue;
+            }
+            codec.write( s, out );
+            prev = s;
+        }
+    }
+
+    /**
+     * Merge the given runs into the output, using intermediate merge passes
+     * if there are more runs than the merge fan-in
+     * @param runs The sorted runs. Intermediate runs are added to this list so
+     * that they are deleted at the end of the sort
+     * @param out The output
+     */
+    protected void mergeRuns( List<File> runs, Writer out )
+        throws IOException
+    {
+        List<File> pending = new ArrayList<File>( runs );
+        while (pending.size() > mergeFanIn) {
+            List<File> next = new ArrayList<File>();
+            for (int i = 0; i < pending.size(); i += mergeFanIn) {
+                List<File> group = pending.subList( i, Math.min( i + mergeFanIn, pending.size() ) );
+                if (group.size() == 1) {
+                    next.add( group.get( 0 ) );
+                    continue;
+                }
+
+                File merged = File.createTempFile( "rdf-order-merge", ".nt", tempDirectory );
+                runs.add( merged );
+                Writer mergedOut = newWriter( new FileOutputStream( merged ) );
+                try {
+                    merge( group, mergedOut );
+                }
+                finally {
+                    mergedOut.close();
+                }
+                for (File f : group) {
+                    deleteRun( f );
+                }
+                next.add( merged );
+            }
+            log.debug( "Merge pass reduced " + pending.size() + " runs to " + next.size() );
+            pending = next;
+        }
+        merge( pending, out );
+    }
+
+    /**
+     * Merge a group of sorted runs into the output with a k-way merge
+     * @param group The runs to merge
+     * @param out The output
+     */
+    protected void merge( List<File> group, Writer out )
+        throws IOException
+    {
+        PriorityQueue<RunReader> queue = new PriorityQueue<RunReader>( Math.max( 1, group.size() ), new Comparator<RunReader>() {
+            @Override
+            public int compare( RunReader r1, RunReader r2 ) {
+                int c = order.compare( r1.current, r2.current );
+                return (c != 0) ? c : (r1.index - r2.index);
+            }
+        } );
+
+        List<RunReader> readers = new ArrayList<RunReader>();
+        try {
+            for (File f : group) {
+                RunReader r = new RunReader( f, readers.size() );
+                readers.add( r );
+                if (r.advance()) {
+                    queue.add( r );
+                }
+            }
+
+            Statement prev = null;
+            while (!queue.isEmpty()) {
+                RunReader r = queue.poll();
+                if (!isDuplicate( prev, r.current )) {
+                    codec.write( r.current, out );
+                    prev = r.current;
+                }
+                if (r.advance()) {
+                    queue.add( r );
+                }
+            }
+        }
+        finally {
+            for (RunReader r : readers) {
+                r.close();
+            }
+        }
+    }
+
+    /** @return True if the sort is distinct and <code>s</code> is equal to the previous statement written */
+    protected boolean isDuplicate( Statement prev, Statement s ) {
+        return distinct && prev != null && order.compare( prev, s ) == 0;
+    }
+
+    protected Writer newWriter( OutputStream out )
+        throws IOException
+    {
+        return new BufferedWriter( new OutputStreamWriter( out, ENCODING ), BUFFER_SIZE );
+    }
+
+    protected void deleteRun( File f ) {
+        if (f.exists() && !f.delete()) {
+            log.warn( "Could not delete temporary file " + f );
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * Reads statements back from a sorted run file
+     */
+    protected class RunReader
+    {
+        final BufferedReader in;
+        final int index;
+        Statement current;
+
+        RunReader( File f, int index )
+            throws IOException
+        {
+            this.in = new BufferedReader( new InputStreamReader( new FileInputStream( f ), ENCODING ), BUFFER_SIZE );
+            this.index = index;
+        }
+
+        /** Move to the next statement in the run, returning false at the end of the run */
+        boolean advance()
+            throws IOException
+        {
+            String line;
+            while ((line = in.readLine()) != null) {
+                Triple t = codec.parse( line );
+                if (t != null) {
+                    current = wrapper.asStatement( t );
+                    return true;
+                }
+            }
+            current = null;
+            return false;
+        }
+
+        void close()
+            throws IOException
+        {
+            in.close();
+        }
+    }
+
+}
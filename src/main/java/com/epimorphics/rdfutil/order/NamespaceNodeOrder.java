@@ -0,0 +1,312 @@
+/*****************************************************************************
+ * File:    NamespaceNodeOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>A {@link NodeStandardOrder} which compares URIs more quickly when most of them share
+ * a few long namespaces. The order is exactly the same as the standard order. Each URI is
+ * split into one of a fixed set of namespaces and a local name, and the split is cached.
+ * Two URIs in the same namespace are compared by their local names alone, and two URIs in
+ * different namespaces are compared by the precomputed rank of their namespaces, without
+ * looking at the characters of either URI.</p>
+ * <p>Ranking namespaces only gives the same result as comparing the full URIs when neither
+ * namespace is a prefix of the other, such as <code>http://example.com/</code> and
+ * <code>http://example.com/def/</code>. URIs in such namespaces, and URIs in none of the
+ * namespaces, are compared in full.</p>
+ * <p>The set of namespaces is fixed when the order is constructed, so the order is safe to
+ * share between threads. The split cache is bounded, and when it is full the least
+ * recently used splits are evicted to make room for new ones.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NamespaceNodeOrder
+    extends NodeStandardOrder
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Default maximum number of URIs in the split cache */
+    public static final int DEFAULT_CACHE_SIZE = 1 << 20;
+
+    /** The split of a URI which is not in any of the namespaces */
+    protected static final Split NO_NAMESPACE = new Split( -1, 0 );
+
+    /** Maximum number of independently locked segments in the split cache */
+    private static final int SEGMENTS = 16;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The namespaces, in lexical order, so that the index of a namespace is its rank */
+    private final String[] namespaces;
+
+    /** True for each namespace which is a prefix of another, or has another as a prefix */
+    private final boolean[] related;
+
+    /** Namespace ranks, longest namespace first, for finding the namespace of a URI */
+    private final int[] byLength;
+
+    /** Cached splits, by URI, in segments selected by hash code */
+    private final Segment[] splits;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct an order using the given namespaces and the standard datatype comparators
+     * @param namespaces The namespaces which most URIs are expected to be in
+     */
+    public NamespaceNodeOrder( Collection<String> namespaces ) {
+        this( namespaces, DatatypeComparatorRegistry.createStandardRegistry(), DEFAULT_CACHE_SIZE );
+    }
+
+    /**
+     * Construct an order using the given namespaces and datatype comparators
+     * @param namespaces The namespaces which most URIs are expected to be in
+     * @param registry The datatype comparators
+     * @param cacheSize The maximum number of URIs whose split is cached
+     * @exception IllegalArgumentException if <code>cacheSize</code> is less than one
+     */
+    public NamespaceNodeOrder( Collection<String> namespaces, DatatypeComparatorRegistry registry, int cacheSize ) {
+        super( registry );
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException( "Cache size must be positive" );
+        }
+        SortedSet<String> sorted = new TreeSet<String>( namespaces );
+        sorted.remove( "" );
+        this.namespaces = sorted.toArray( new String[sorted.size()] );
+
+        int segments = Math.min( SEGMENTS, Integer.highestOneBit( cacheSize ) );
+        splits = new Segment[segments];
+        for (int i = 0; i < segments; i++) {
+            // share out the capacity so that the segments hold no more than the total
+            splits[i] = new Segment( cacheSize / segments + ((i < cacheSize % segments) ? 1 : 0) );
+        }
+
+        int n = this.namespaces.length;
+        related = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            // in lexical order, any namespace with ns[i] as a prefix immediately follows it
+            for (int j = i + 1; j < n && this.namespaces[j].startsWith( this.namespaces[i] ); j++) {
+                related[i] = true;
+                related[j] = true;
+            }
+        }
+
+        Integer[] ranks = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ranks[i] = i;
+        }
+        Arrays.sort( ranks, new Comparator<Integer>() {
+            @Override
+            public int compare( Integer i1, Integer i2 ) {
+                return NamespaceNodeOrder.this.namespaces[i2].length() - NamespaceNodeOrder.this.namespaces[i1].length();
+            }
+        } );
+        byLength = new int[n];
+        for (int i = 0; i < n; i++) {
+            byLength[i] = ranks[i];
+        }
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Create an order using the namespaces of a model: its declared prefixes, and the
+     * namespaces of all of the URI resources in it
+     * @param m A model
+     * @return A new order
+     */
+    public static NamespaceNodeOrder forModel( Model m ) {
+        Set<String> ns = new HashSet<String>( m.getNsPrefixMap().values() );
+        for (StmtIterator i = m.listStatements(); i.hasNext(); ) {
+            Statement s = i.nextStatement();
+            addNamespace( ns, s.getSubject() );
+            addNamespace( ns, s.getPredicate() );
+            addNamespace( ns, s.getObject() );
+        }
+        return new NamespaceNodeOrder( ns );
+    }
+
+    /** @return The namespaces used by this order, in lexical order */
+    public List<String> getNamespaces() {
+        return Collections.unmodifiableList( Arrays.asList( namespaces ) );
+    }
+
+    /** @return The number of URIs in the split cache */
+    public int getCachedCount() {
+        int n = 0;
+        for (Segment s : splits) {
+            synchronized (s) {
+                n += s.size();
+            }
+        }
+        return n;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    @Override
+    protected int compareURIResources( Node r1, Node r2 ) {
+        String u1 = r1.getURI();
+        String u2 = r2.getURI();
+        if (u1 == u2) {
+            return 0;
+        }
+
+        Split s1 = split( u1 );
+        Split s2 = split( u2 );
+        if (s1.rank >= 0 && s2.rank >= 0) {
+            if (s1.rank == s2.rank) {
+                return compareFrom( u1, u2, s1.localStart );
+            }
+            else if (!related[s1.rank] && !related[s2.rank]) {
+                return s1.rank - s2.rank;
+            }
+        }
+        return u1.compareTo( u2 );
+    }
+
+    /**
+     * Return the split of a URI into a namespace and local name, from the cache if possible
+     * @param uri A URI
+     * @return The split, which is {@link #NO_NAMESPACE} if the URI is in none of the namespaces
+     */
+    protected Split split( String uri ) {
+        Segment segment = segmentFor( uri );
+        Split s;
+        synchronized (segment) {
+            s = segment.get( uri );
+        }
+        if (s == null) {
+            s = findSplit( uri );
+            synchronized (segment) {
+                segment.put( uri, s );
+            }
+        }
+        return s;
+    }
+
+    /** @return The segment of the split cache which holds a URI */
+    private Segment segmentFor( String uri ) {
+        int h = uri.hashCode();
+        h ^= (h >>> 16);
+        return splits[h & (splits.length - 1)];
+    }
+
+    /** @return The split of a URI at the longest namespace that it starts with */
+    protected Split findSplit( String uri ) {
+        for (int rank : byLength) {
+            if (uri.startsWith( namespaces[rank] )) {
+                return new Split( rank, namespaces[rank].length() );
+            }
+        }
+        return NO_NAMESPACE;
+    }
+
+    /**
+     * Compare two strings which are known to be the same up to <code>start</code>
+     * @return The same result as {@link String#compareTo(String)}
+     */
+    protected static int compareFrom( String u1, String u2, int start ) {
+        int len1 = u1.length();
+        int len2 = u2.length();
+        int n = Math.min( len1, len2 );
+        for (int i = start; i < n; i++) {
+            char c1 = u1.charAt( i );
+            char c2 = u2.charAt( i );
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /**
+     * Add the namespace of a URI resource, which is everything up to the last
+     * <code>#</code> or <code>/</code>. Unlike {@link Resource#getNameSpace()}, this does
+     * not require the local name to be an XML name, so URIs such as
+     * <code>http://example.com/id/1</code> share a namespace.
+     */
+    private static void addNamespace( Set<String> ns, RDFNode n ) {
+        if (n.isURIResource()) {
+            String uri = ((Resource) n).getURI();
+            int split = Math.max( uri.lastIndexOf( '#' ), uri.lastIndexOf( '/' ) );
+            if (split > 0) {
+                ns.add( uri.substring( 0, split + 1 ) );
+            }
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * The position of a URI's namespace in the order of namespaces, and the
+     * start of its local name
+     */
+    protected static class Split
+    {
+        final int rank;
+        final int localStart;
+
+        Split( int rank, int localStart ) {
+            this.rank = rank;
+            this.localStart = localStart;
+        }
+    }
+
+    /**
+     * One segment of the split cache: a map in least recently used order, which
+     * evicts its eldest entry when it is full. Callers synchronize on the segment.
+     */
+    private static class Segment
+        extends LinkedHashMap<String, Split>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int max;
+
+        Segment( int max ) {
+            super( 16, 0.75f, true );
+            this.max = max;
+        }
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<String, Split> eldest ) {
+            return size() > max;
+        }
+    }
+
+}
@@ -0,0 +1,430 @@
+/*****************************************************************************
+ * File:    NodeDictionary.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+
+/**
+ * <p>A dictionary which assigns each distinct node a <code>long</code> ID, such that
+ * comparing two IDs gives the same result as comparing the nodes with a {@link NodeOrder},
+ * by default the {@link NodeStandardOrder}. Once nodes have been encoded, sorting, joins
+ * and range filters can work on primitive longs, and a triple can be held as a
+ * <code>long[3]</code>.</p>
+ * <p>The standard order treats some distinct nodes as equal, for example the decimals
+ * <code>"2"</code> and <code>"2.0"</code>. Such nodes still get distinct IDs, ordered by their
+ * lexical forms, so ID order agrees with the node order whenever the node order
+ * distinguishes two nodes.</p>
+ * <p>IDs are allocated with gaps between them, so that new nodes can be inserted between
+ * existing neighbours without disturbing their IDs. A dictionary can be built in one pass
+ * from a sorted stream of nodes with {@link #build(Iterator)}, and extended afterwards with
+ * {@link #encode(Node)}. If a gap is used up, every node is renumbered: this changes all
+ * of the existing IDs, so callers holding encoded data should check {@link #getEpoch()},
+ * which increases on every renumbering.</p>
+ * <p>Nodes are held compactly, as a sorted array of IDs and an array of the nodes in
+ * the same order, and looked up by binary search in either direction. Nodes added with
+ * {@link #encode(Node)} are kept in a small sorted map until there are enough of them
+ * to be merged into the arrays, which keeps their IDs.</p>
+ * <p>All methods are synchronized, so a dictionary may be shared between threads.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NodeDictionary
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Value returned by {@link #getId(Node)} for a node that is not in the dictionary */
+    public static final long NO_ID = Long.MIN_VALUE;
+
+    /** Default distance between consecutive IDs when the dictionary is built or renumbered */
+    public static final long DEFAULT_GAP = 1L << 20;
+
+    /** The lowest ID that may be allocated */
+    protected static final long MIN_ID = Long.MIN_VALUE + 1;
+
+    /** The highest ID that may be allocated */
+    protected static final long MAX_ID = Long.MAX_VALUE;
+
+    /** The fewest added nodes which are merged into the arrays */
+    protected static final int MIN_MERGE = 1024;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order that IDs must agree with */
+    private final NodeOrder order;
+
+    /** Distance between consecutive IDs after building or renumbering */
+    private final long gap;
+
+    /** The order of nodes, breaking ties between distinct nodes */
+    private final Comparator<Node> nodeOrder;
+
+    /** IDs of the nodes in the arrays, in ascending order */
+    private long[] ids = new long[0];
+
+    /** The nodes in the arrays, in the same order as {@link #ids} */
+    private Node[] nodes = new Node[0];
+
+    /** Nodes added since the arrays were last merged, in order */
+    private final TreeMap<Node, Long> byNode;
+
+    /** Nodes added since the arrays were last merged, by ID */
+    private final Map<Long, Node> byId = new HashMap<Long, Node>();
+
+    /** Number of times that the nodes have been renumbered */
+    private int epoch = 0;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct an empty dictionary which follows the standard node order
+     */
+    public NodeDictionary() {
+        this( new NodeStandardOrder(), DEFAULT_GAP );
+    }
+
+    /**
+     * Construct an empty dictionary which follows the given order
+     * @param order The node order that IDs will agree with
+     * @param gap The distance between consecutive IDs when the dictionary is built
+     * or renumbered. Larger gaps allow more inserts between neighbours before
+     * renumbering is needed
+     */
+    public NodeDictionary( NodeOrder order, long gap ) {
+        if (gap < 1) {
+            throw new IllegalArgumentException( "Gap must be positive" );
+        }
+        this.order = order;
+        this.gap = gap;
+        this.nodeOrder = new TieBreakOrder( order );
+        this.byNode = new TreeMap<Node, Long>( nodeOrder );
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The node order that IDs agree with */
+    public NodeOrder getOrder() {
+        return order;
+    }
+
+    /** @return The number of nodes in the dictionary */
+    public synchronized int size() {
+        return nodes.length + byNode.size();
+    }
+
+    /**
+     * Return the number of times that the dictionary has been renumbered. IDs obtained
+     * in an earlier epoch are no longer valid.
+     * @return The current epoch
+     */
+    public synchronized int getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Add a sequence of nodes to an empty dictionary. The nodes must be sorted into
+     * this dictionary's order; repeated nodes are ignored.
+     * @param sortedNodes Nodes in ascending order
+     * @exception IllegalStateException if the dictionary is not empty
+     * @exception IllegalArgumentException if the nodes are not in order
+     */
+    public synchronized void build( Iterator<? extends Node> sortedNodes ) {
+        if (size() > 0) {
+            throw new IllegalStateException( "Dictionary has already been built" );
+        }
+        List<Node> sorted = new ArrayList<Node>();
+        Node prev = null;
+        while (sortedNodes.hasNext()) {
+            Node n = sortedNodes.next();
+            if (prev != null) {
+                int c = nodeOrder.compare( prev, n );
+                if (c == 0) {
+                    continue;
+                }
+                else if (c > 0) {
+                    throw new IllegalArgumentException( "Nodes are not in order: " + prev + " before " + n );
+                }
+            }
+            sorted.add( n );
+            prev = n;
+        }
+        number( sorted );
+    }
+
+    /**
+     * Return the ID of a node, adding the node to the dictionary if necessary
+     * @param n A node
+     * @return The ID of the node
+     */
+    public synchronized long encode( Node n ) {
+        int i = Arrays.binarySearch( nodes, n, nodeOrder );
+        if (i >= 0) {
+            return ids[i];
+        }
+        Long id = byNode.get( n );
+        if (id != null) {
+            return id;
+        }
+
+        // the neighbours are the closer of the neighbours in the arrays and in the map
+        int at = -(i + 1);
+        Long lower = (at > 0) ? ids[at - 1] : null;
+        Long higher = (at < ids.length) ? ids[at] : null;
+        Map.Entry<Node, Long> e = byNode.lowerEntry( n );
+        if (e != null && (lower == null || e.getValue() > lower)) {
+            lower = e.getValue();
+        }
+        e = byNode.higherEntry( n );
+        if (e != null && (higher == null || e.getValue() < higher)) {
+            higher = e.getValue();
+        }
+
+        long newId = allocate( lower, higher );
+        if (newId == NO_ID) {
+            renumber();
+            return encode( n );
+        }
+        byNode.put( n, newId );
+        byId.put( newId, n );
+        if (byNode.size() >= Math.max( MIN_MERGE, nodes.length >> 3 )) {
+            merge();
+        }
+        return newId;
+    }
+
+    /**
+     * Return the ID of a node, adding the node to the dictionary if necessary
+     * @param n A node
+     * @return The ID of the node
+     */
+    public long encode( RDFNode n ) {
+        return encode( n.asNode() );
+    }
+
+    /**
+     * Return the IDs of the subject, predicate and object of a triple, adding
+     * any new nodes to the dictionary
+     * @param t A triple
+     * @return A new array of three IDs
+     */
+    public synchronized long[] encode( Triple t ) {
+        int e = epoch;
+        long s = encode( t.getSubject() );
+        long p = encode( t.getPredicate() );
+        long o = encode( t.getObject() );
+        if (epoch != e) {
+            // renumbered while encoding the triple, so s and p may be stale
+            return encode( t );
+        }
+        return new long[] {s, p, o};
+    }
+
+    /**
+     * Return the ID of a node which is already in the dictionary
+     * @param n A node
+     * @return The ID of the node, or {@link #NO_ID}
+     */
+    public synchronized long getId( Node n ) {
+        int i = Arrays.binarySearch( nodes, n, nodeOrder );
+        if (i >= 0) {
+            return ids[i];
+        }
+        Long id = byNode.get( n );
+        return (id == null) ? NO_ID : id;
+    }
+
+    /**
+     * Return the ID of a node which is already in the dictionary
+     * @param n A node
+     * @return The ID of the node, or {@link #NO_ID}
+     */
+    public long getId( RDFNode n ) {
+        return getId( n.asNode() );
+    }
+
+    /**
+     * Return the node with the given ID
+     * @param id An ID
+     * @return The node, or null if no node has this ID
+     */
+    public synchronized Node getNode( long id ) {
+        int i = Arrays.binarySearch( ids, id );
+        return (i >= 0) ? nodes[i] : byId.get( id );
+    }
+
+    /**
+     * Return the triple with the given subject, predicate and object IDs
+     * @param spo An array of three IDs
+     * @return A new triple
+     * @exception IllegalArgumentException if any of the IDs are not in the dictionary
+     */
+    public synchronized Triple decode( long[] spo ) {
+        return Triple.create( decodeNode( spo[0] ), decodeNode( spo[1] ), decodeNode( spo[2] ) );
+    }
+
+    /**
+     * Reassign IDs to all nodes, with the standard gap between consecutive IDs
+     */
+    public synchronized void renumber() {
+        merge();
+        number( Arrays.asList( nodes ) );
+        epoch++;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Choose an ID between two neighbouring IDs
+     * @param lower The ID of the preceding node, or null if there is none
+     * @param higher The ID of the following node, or null if there is none
+     * @return A free ID, or {@link #NO_ID} if there is no room
+     */
+    protected long allocate( Long lower, Long higher ) {
+        if (lower == null && higher == null) {
+            return 0;
+        }
+        else if (higher == null) {
+            // appending: step by the full gap if there is room
+            return (lower <= MAX_ID - gap) ? lower + gap : midpoint( lower, MAX_ID );
+        }
+        else if (lower == null) {
+            return (higher >= MIN_ID + gap) ? higher - gap : midpoint( MIN_ID - 1, higher );
+        }
+        else {
+            return midpoint( lower, higher );
+        }
+    }
+
+    /** @return An ID strictly between lo and hi, or {@link #NO_ID} if there is none */
+    private long midpoint( long lo, long hi ) {
+        // (hi - lo) may overflow a long, so halve each part first
+        long mid = (lo >> 1) + (hi >> 1) + (lo & hi & 1);
+        return (mid > lo && mid < hi) ? mid : NO_ID;
+    }
+
+    /** @return The next ID after <code>id</code> when allocating sequentially */
+    private long nextId( long id ) {
+        if (id > MAX_ID - gap) {
+            throw new IllegalStateException( "Too many nodes for the dictionary gap " + gap );
+        }
+        return id + gap;
+    }
+
+    /** Replace the contents of the dictionary with the given sorted nodes, numbered from zero */
+    private void number( List<Node> sorted ) {
+        long[] newIds = new long[sorted.size()];
+        long id = 0;
+        for (int i = 0; i < newIds.length; i++) {
+            newIds[i] = id;
+            if (i < newIds.length - 1) {
+                id = nextId( id );
+            }
+        }
+        nodes = sorted.toArray( new Node[sorted.size()] );
+        ids = newIds;
+        byNode.clear();
+        byId.clear();
+    }
+
+    /** Merge the nodes added since the last merge into the arrays, keeping their IDs */
+    private void merge() {
+        if (byNode.isEmpty()) {
+            return;
+        }
+        int n = nodes.length + byNode.size();
+        long[] newIds = new long[n];
+        Node[] newNodes = new Node[n];
+        Iterator<Map.Entry<Node, Long>> added = byNode.entrySet().iterator();
+        Map.Entry<Node, Long> next = added.next();
+        int i = 0;
+        for (int j = 0; j < n; j++) {
+            if (next != null && (i == nodes.length || next.getValue() < ids[i])) {
+                newIds[j] = next.getValue();
+                newNodes[j] = next.getKey();
+                next = added.hasNext() ? added.next() : null;
+            }
+            else {
+                newIds[j] = ids[i];
+                newNodes[j] = nodes[i++];
+            }
+        }
+        ids = newIds;
+        nodes = newNodes;
+        byNode.clear();
+        byId.clear();
+    }
+
+    private Node decodeNode( long id ) {
+        Node n = getNode( id );
+        if (n == null) {
+            throw new IllegalArgumentException( "No node with ID " + id );
+        }
+        return n;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * Extends a node order so that only equal nodes compare as zero, by breaking
+     * ties between distinct nodes on their lexical form and then their string form
+     */
+    protected static class TieBreakOrder
+        implements Comparator<Node>
+    {
+        private final NodeOrder order;
+
+        TieBreakOrder( NodeOrder order ) {
+            this.order = order;
+        }
+
+        @Override
+        public int compare( Node n1, Node n2 ) {
+            int c = order.compare( n1, n2 );
+            if (c != 0 || n1.equals( n2 )) {
+                return c;
+            }
+            if (n1.isLiteral() && n2.isLiteral()) {
+                c = n1.getLiteralLexicalForm().compareTo( n2.getLiteralLexicalForm() );
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return n1.toString().compareTo( n2.toString() );
+        }
+    }
+
+}
+
@@ -0,0 +1,43 @@
+/*****************************************************************************
+ * File:    NodeOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.Comparator;
+
+import com.hp.hpl.jena.graph.Node;
+
+/**
+ * <p>An ordering over graph-level {@link Node}s (URI nodes, blank nodes and literals).
+ * This is the graph-level counterpart of {@link RDFNodeOrder}, for sorting nodes and
+ * triples taken directly from a {@link com.hp.hpl.jena.graph.Graph} without wrapping
+ * them as model objects.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public interface NodeOrder
+    extends Comparator<Node>
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+}
+
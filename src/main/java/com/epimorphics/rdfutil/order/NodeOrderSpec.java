@@ -0,0 +1,342 @@
+/*****************************************************************************
+ * File:    NodeOrderSpec.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+
+import com.hp.hpl.jena.datatypes.RDFDatatype;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Statement;
+
+/**
+ * <p>A specification of a node order, from which a {@link CompiledNodeOrder} is built.
+ * The specification states the rank of each {@link Kind} of node, the precedence of
+ * datatypes, whether each {@link Level} of the order is ascending or descending, and
+ * how {@link LangTags language tags} are treated. For example:</p>
+ * <pre>
+ * NodeOrder order = new NodeOrderSpec()
+ *                       .kinds( Kind.TYPED_LITERAL, Kind.URI )
+ *                       .datatypes( XSDDatatype.XSDdateTime, XSDDatatype.XSDinteger )
+ *                       .descending( Level.VALUE )
+ *                       .langTags( LangTags.LANGUAGE_FIRST )
+ *                       .build();
+ * </pre>
+ * <p>An unchanged specification builds an order which is the same as
+ * {@link NodeStandardOrder}. Subclassing {@link NodeStandardOrder} to change its rules
+ * adds virtual calls to each comparison; an order built from a specification instead
+ * has the rules as final fields of a single final class, so each comparison is one
+ * flat method which the JIT can inline into the sort that calls it.</p>
+ * <p>A specification may be changed and built again; orders that were already built
+ * are not affected.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NodeOrderSpec
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** The kinds of node, which are ordered by rank before anything else */
+    public enum Kind {
+        /** Blank nodes */
+        BNODE,
+        /** URI nodes */
+        URI,
+        /** Literals with a datatype */
+        TYPED_LITERAL,
+        /** Literals without a datatype, with or without a language tag */
+        UNTYPED_LITERAL
+    }
+
+    /** The levels of the order, each of which may be ascending or descending */
+    public enum Level {
+        /** Between nodes of different kinds */
+        KIND,
+        /** Between URIs */
+        URI,
+        /** Between bNodes, by label */
+        BNODE,
+        /** Between typed literals with different datatypes */
+        DATATYPE,
+        /** Between typed literals with the same datatype, by value */
+        VALUE,
+        /** Between untyped literals, by lexical form */
+        LEXICAL,
+        /** Between language tags */
+        LANG_TAG
+    }
+
+    /** The ways of ordering untyped literals with and without language tags */
+    public enum LangTags {
+        /** By lexical form, then tagged before untagged, then by tag, as the standard order */
+        TAGGED_FIRST,
+        /** By lexical form, then untagged before tagged, then by tag */
+        UNTAGGED_FIRST,
+        /** By tag, with untagged literals first, then by lexical form */
+        LANGUAGE_FIRST,
+        /** By lexical form only: literals which differ only in their tags are equal */
+        IGNORED
+    }
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The rank of each kind, indexed by ordinal */
+    private int[] ranks = {0, 1, 2, 3};
+
+    /** The levels which are descending */
+    private EnumSet<Level> descending = EnumSet.noneOf( Level.class );
+
+    /** Datatype URIs which come before all others, in order */
+    private List<String> datatypes = new ArrayList<String>();
+
+    /** The handling of language tags */
+    private LangTags langTags = LangTags.TAGGED_FIRST;
+
+    /** True if language tags are compared without regard to case */
+    private boolean ignoreTagCase = false;
+
+    /** The registry of datatype comparators, or null for the standard registry */
+    private DatatypeComparatorRegistry registry;
+
+    /** The cache of decoded literal values, or null */
+    private DecodedValueCache valueCache;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a specification of the standard order
+     */
+    public NodeOrderSpec() {
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Set the order of the kinds of node. Kinds which are not given keep their
+     * standard relative order, after the kinds which are given.
+     * @param kinds Kinds of node, earliest first
+     * @return This specification
+     * @exception IllegalArgumentException if a kind is given more than once
+     */
+    public NodeOrderSpec kinds( Kind... kinds ) {
+        List<Kind> order = new ArrayList<Kind>();
+        for (Kind k : kinds) {
+            if (order.contains( k )) {
+                throw new IllegalArgumentException( "Kind given more than once: " + k );
+            }
+            order.add( k );
+        }
+        for (Kind k : Kind.values()) {
+            if (!order.contains( k )) {
+                order.add( k );
+            }
+        }
+        for (int i = 0; i < order.size(); i++) {
+            ranks[order.get( i ).ordinal()] = i;
+        }
+        return this;
+    }
+
+    /**
+     * Make the given levels of the order descending. Other levels are unchanged.
+     * @param levels Levels of the order
+     * @return This specification
+     */
+    public NodeOrderSpec descending( Level... levels ) {
+        descending.addAll( Arrays.asList( levels ) );
+        return this;
+    }
+
+    /**
+     * Make the given levels of the order ascending. Other levels are unchanged.
+     * @param levels Levels of the order
+     * @return This specification
+     */
+    public NodeOrderSpec ascending( Level... levels ) {
+        descending.removeAll( Arrays.asList( levels ) );
+        return this;
+    }
+
+    /**
+     * Set the datatypes whose literals come before literals of all other datatypes,
+     * in the given order. Literals of other datatypes follow, ordered by datatype URI.
+     * @param types Datatypes, earliest first
+     * @return This specification
+     */
+    public NodeOrderSpec datatypes( RDFDatatype... types ) {
+        String[] uris = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            uris[i] = types[i].getURI();
+        }
+        return datatypeURIs( uris );
+    }
+
+    /**
+     * Set the datatypes whose literals come before literals of all other datatypes,
+     * in the given order, by URI
+     * @param uris Datatype URIs, earliest first
+     * @return This specification
+     * @exception IllegalArgumentException if a URI is given more than once
+     */
+    public NodeOrderSpec datatypeURIs( String... uris ) {
+        List<String> order = new ArrayList<String>();
+        for (String uri : uris) {
+            if (order.contains( uri )) {
+                throw new IllegalArgumentException( "Datatype given more than once: " + uri );
+            }
+            order.add( uri );
+        }
+        datatypes = order;
+        return this;
+    }
+
+    /**
+     * Set how untyped literals with and without language tags are ordered
+     * @param langTags The handling of language tags
+     * @param ignoreCase If true, tags which differ only in case are equal, as
+     * language tags are case-insensitive
+     * @return This specification
+     */
+    public NodeOrderSpec langTags( LangTags langTags, boolean ignoreCase ) {
+        this.langTags = langTags;
+        this.ignoreTagCase = ignoreCase;
+        return this;
+    }
+
+    /**
+     * Set how untyped literals with and without language tags are ordered,
+     * comparing tags case-sensitively
+     * @param langTags The handling of language tags
+     * @return This specification
+     */
+    public NodeOrderSpec langTags( LangTags langTags ) {
+        return langTags( langTags, false );
+    }
+
+    /**
+     * Set the registry of comparators for typed literals with the same datatype.
+     * By default, each order that is built has its own copy of the
+     * {@link DatatypeComparatorRegistry#createStandardRegistry() standard comparators}.
+     * @param registry The datatype comparators
+     * @return This specification
+     */
+    public NodeOrderSpec registry( DatatypeComparatorRegistry registry ) {
+        this.registry = registry;
+        return this;
+    }
+
+    /**
+     * Set a cache of decoded values for the orders built from this specification
+     * to use when comparing typed literals with the same datatype. The cache is
+     * shared by all of the orders built with it. By default there is no cache.
+     * @param valueCache A cache of decoded literal values, or null for no cache
+     * @return This specification
+     */
+    public NodeOrderSpec valueCache( DecodedValueCache valueCache ) {
+        this.valueCache = valueCache;
+        return this;
+    }
+
+    /**
+     * @param kind A kind of node
+     * @return The rank of the kind, where lower ranks come first
+     */
+    public int getRank( Kind kind ) {
+        return ranks[kind.ordinal()];
+    }
+
+    /**
+     * @param level A level of the order
+     * @return True if the level is descending
+     */
+    public boolean isDescending( Level level ) {
+        return descending.contains( level );
+    }
+
+    /** @return The URIs of the datatypes which come before all others, in order */
+    public List<String> getDatatypeURIs() {
+        return Collections.unmodifiableList( datatypes );
+    }
+
+    /** @return The handling of language tags */
+    public LangTags getLangTags() {
+        return langTags;
+    }
+
+    /** @return True if language tags are compared without regard to case */
+    public boolean isIgnoreTagCase() {
+        return ignoreTagCase;
+    }
+
+    /** @return The cache of decoded literal values, or null */
+    public DecodedValueCache getValueCache() {
+        return valueCache;
+    }
+
+    /**
+     * Build a node order from the current state of this specification
+     * @return A new node order
+     */
+    public CompiledNodeOrder build() {
+        DatatypeComparatorRegistry r = (registry != null) ? registry : DatatypeComparatorRegistry.createStandardRegistry();
+        return new CompiledNodeOrder( this, r );
+    }
+
+    /**
+     * Build an order over {@link RDFNode}s from the
+     * current state of this specification
+     * @return A new node order
+     */
+    public RDFNodeOrder buildRDFNodeOrder() {
+        return new RDFStatementStandardOrder.GraphNodeOrder( build() );
+    }
+
+    /**
+     * Build an order over {@link Statement}s from the current state of this
+     * specification, which compares the statements' triples directly
+     * @param layout The order in which statement positions are compared
+     * @return A new statement order
+     */
+    public RDFStatementStandardOrder buildStatementOrder( TripleLayout layout ) {
+        return new RDFStatementStandardOrder( build(), layout );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /** @return The rank of each kind, indexed by ordinal */
+    int[] ranks() {
+        return ranks.clone();
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
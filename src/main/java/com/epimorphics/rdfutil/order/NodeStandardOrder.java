@@ -0,0 +1,294 @@
+/*****************************************************************************
+ * File:    NodeStandardOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.Comparator;
+
+import com.hp.hpl.jena.datatypes.RDFDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
+
+/**
+ * <p>Standard ordering for graph-level {@link Node}s. This is the same ordering
+ * as {@link RDFNodeStandardOrder}, which delegates to this class, and is described
+ * in full there. Using this order directly avoids wrapping each node as an
+ * {@link com.hp.hpl.jena.rdf.model.RDFNode} just to sort it.</p>
+ * <p>Only URI nodes, blank nodes and literals can be compared. Variables and
+ * other special nodes are rejected with an {@link IllegalArgumentException}.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NodeStandardOrder
+    implements NodeOrder
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** Comparators for pairs of typed literals with the same datatype */
+    private final DatatypeComparatorRegistry registry;
+
+    /** Optional cache of decoded literal values, or null */
+    private final DecodedValueCache valueCache;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a standard order, with its own copy of the
+     * {@link DatatypeComparatorRegistry#createStandardRegistry() standard datatype comparators}
+     */
+    public NodeStandardOrder() {
+        this( DatatypeComparatorRegistry.createStandardRegistry() );
+    }
+
+    /**
+     * Construct a standard order which compares typed literals with the same
+     * datatype using the given registry of datatype comparators
+     * @param registry The datatype comparators
+     */
+    public NodeStandardOrder( DatatypeComparatorRegistry registry ) {
+        this( registry, null );
+    }
+
+    /**
+     * Construct a standard order which compares typed literals with the same
+     * datatype using the given registry of datatype comparators, and the values
+     * held in the given cache where possible
+     * @param registry The datatype comparators
+     * @param valueCache A cache of decoded literal values, or null for no cache
+     */
+    public NodeStandardOrder( DatatypeComparatorRegistry registry, DecodedValueCache valueCache ) {
+        this.registry = registry;
+        this.valueCache = valueCache;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Return the registry of comparators used for typed literals with the same
+     * datatype. Comparators for additional datatypes may be registered with it.
+     * @return The datatype comparator registry
+     */
+    public DatatypeComparatorRegistry getRegistry() {
+        return registry;
+    }
+
+    /** @return The cache of decoded literal values, or null if this order has no cache */
+    public DecodedValueCache getValueCache() {
+        return valueCache;
+    }
+
+    @Override
+    public int compare( Node n1, Node n2 ) {
+        if (n1 == n2) {
+            return 0;
+        }
+        else if (n1.isLiteral()) {
+            if (n2.isLiteral()) {
+                return compareLiterals( n1.getLiteral(), n2.getLiteral() );
+            }
+            else {
+                // n2 is a resource, but n1 is a literal
+                checkResource( n2 );
+                return 1;
+            }
+        }
+        else {
+            checkResource( n1 );
+            if (n2.isLiteral()) {
+                // n1 is a resource, n2 is a literal
+                return -1;
+            }
+            else {
+                checkResource( n2 );
+                return compareResources( n1, n2 );
+            }
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Check that a non-literal node is a URI or a bNode
+     * @param n A node which is not a literal
+     * @exception IllegalArgumentException if <code>n</code> is not a URI or bNode
+     */
+    protected void checkResource( Node n ) {
+        if (!n.isURI() && !n.isBlank()) {
+            throw new IllegalArgumentException( "Cannot order node: " + n );
+        }
+    }
+
+    /**
+     * Determine the ordering between two resource nodes, either of which
+     * may be a URI or a bNode
+     * @param r1 The first resource to compare
+     * @param r2 The second resource to compare
+     * @return less than zero if r1 precedes r2 in the order
+     */
+    protected int compareResources( Node r1, Node r2 ) {
+        if (r1.isBlank()) {
+            return r2.isBlank() ? compareAnonymousResources( r1, r2 ) : -1;
+        }
+        else {
+            return r2.isBlank() ? 1 : compareURIResources( r1, r2 );
+        }
+    }
+
+    /**
+     * Determine the ordering between two URI nodes
+     * @param r1
+     * @param r2
+     * @return An ordering based on the lexical comparison of the URI's of
+     * r1 and r2
+     */
+    protected int compareURIResources( Node r1, Node r2 ) {
+        return r1.getURI().compareTo( r2.getURI() );
+    }
+
+    /**
+     * Determine the ordering between two bNodes
+     * @param r1
+     * @param r2
+     * @return An ordering based on the lexical comparison of the labels of
+     * r1 and r2
+     */
+    protected int compareAnonymousResources( Node r1, Node r2 ) {
+        return r1.getBlankNodeLabel().compareTo( r2.getBlankNodeLabel() );
+    }
+
+    /**
+     * Determine the ordering between two arbitrary literals
+     * @param l1
+     * @param l2
+     * @return Less than zero if l1 should precede l2 in the order
+     */
+    protected int compareLiterals( LiteralLabel l1, LiteralLabel l2 ) {
+        if (l1.getDatatype() != null) {
+            return (l2.getDatatype() != null) ? compareTypedLiterals( l1, l2 ) : -1;
+        }
+        else {
+            return (l2.getDatatype() != null) ? 1 : compareUntypedLiterals( l1, l2 );
+        }
+    }
+
+    /**
+     * Determine the order between two untyped literals, which may or may not have
+     * language tags
+     *
+     * @param l1 An untyped literal
+     * @param l2 An untyped literal
+     * @return Less than zero if l1 should precede l2 in the order
+     */
+    protected int compareUntypedLiterals( LiteralLabel l1, LiteralLabel l2 ) {
+        int compare = l1.getLexicalForm().compareTo( l2.getLexicalForm() );
+        if (compare != 0) {
+            return compare;
+        }
+        else {
+            return compareLangTags( l1, l2 );
+        }
+    }
+
+    /**
+     * Determine the order between two untyped literals with the same lexical form,
+     * according to their language tags
+     * @param l1 An untyped literal
+     * @param l2 An untyped literal with the same lexical form
+     * @return Less than zero if l1 should precede l2 in the order
+     */
+    protected int compareLangTags( LiteralLabel l1, LiteralLabel l2 ) {
+        if (hasLangTag( l1 )) {
+            if (hasLangTag( l2 )) {
+                // both have lang tags
+                return l1.language().compareTo( l2.language() );
+            }
+            else {
+                return -1;
+            }
+        }
+        else {
+            return (hasLangTag( l2 )) ? 1 : 0;
+        }
+    }
+
+    /**
+     * Return true if the given literal has a non-empty lang tag
+     * @param l
+     * @return True if the lang tag of <code>l</code> is non-null and
+     * non-empty
+     */
+    protected boolean hasLangTag( LiteralLabel l ) {
+        String t = l.language();
+        return t != null && t.length() > 0;
+    }
+
+    /**
+     * Determine the order between two typed literals, which may have different
+     * or identical datatypes.
+     * @param l1
+     * @param l2
+     * @return Less than zero if typed literal <code>l1</code> should precede
+     * typed literal <code>l2</code> in the order
+     */
+    protected int compareTypedLiterals( LiteralLabel l1, LiteralLabel l2 ) {
+        RDFDatatype d1 = l1.getDatatype();
+        RDFDatatype d2 = l2.getDatatype();
+        if (d1 == d2 || d1.equals( d2 )) {
+            // types are the same
+            return compareSameTypeLiterals( l1, l2 );
+        }
+        else {
+            return l1.getDatatypeURI().compareTo( l2.getDatatypeURI() );
+        }
+    }
+
+    /**
+     * Determine the order between two typed literals, which are known to have
+     * identical datatypes. The comparison is delegated to the comparator registered
+     * for the datatype in this order's {@link DatatypeComparatorRegistry}, through the
+     * {@link DecodedValueCache} if this order has one.
+     * @param l1
+     * @param l2
+     * @return Less than zero if typed literal <code>l1</code> should precede
+     * typed literal <code>l2</code> in the order
+     */
+    protected int compareSameTypeLiterals( LiteralLabel l1, LiteralLabel l2 ) {
+        Comparator<LiteralLabel> c = registry.getComparator( l1.getDatatype() );
+        return (valueCache != null) ? valueCache.compare( c, l1, l2 ) : c.compare( l1, l2 );
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,684 @@
+/*****************************************************************************
+ * File:    ParallelSorter.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Sorts collections of {@link Statement}s and {@link RDFNode}s using several
+ * threads. The input is divided into one segment per thread, each segment is
+ * sorted independently, and then the sorted segments are merged pairwise in
+ * rounds until one sorted sequence remains. Each merge is itself divided
+ * between threads, by splitting the two runs at matching positions, so that the
+ * last rounds use all of the available threads too.</p>
+ * <p>Inputs with fewer elements than the parallelism threshold are sorted on the
+ * calling thread. The sort is stable. A distinct sort keeps only the first of each
+ * group of elements that the order treats as equal. The orders in this package, such as
+ * {@link RDFNodeStandardOrder} and {@link RDFStatementStandardOrder}, hold no
+ * mutable state and can safely be shared between the sorting threads.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class ParallelSorter
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Default minimum number of elements in each segment that is sorted in parallel */
+    public static final int DEFAULT_THRESHOLD = 8192;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The maximum number of threads to use */
+    private final int parallelism;
+
+    /** The minimum number of elements in each parallel segment */
+    private final int threshold;
+
+    /** Executor supplied by the caller, or null to create one for each sort */
+    private final ExecutorService executor;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a sorter which uses one thread per available processor
+     * and the default parallelism threshold.
+     */
+    public ParallelSorter() {
+        this( Runtime.getRuntime().availableProcessors(), DEFAULT_THRESHOLD );
+    }
+
+    /**
+     * Construct a sorter with the given parallelism and threshold. A new thread
+     * pool is created for each sort that is large enough to run in parallel.
+     * @param parallelism The maximum number of threads to use
+     * @param threshold The minimum number of elements in each segment that is sorted
+     * in parallel. Inputs smaller than this are sorted on the calling thread
+     */
+    public ParallelSorter( int parallelism, int threshold ) {
+        this( parallelism, threshold, null );
+    }
+
+    /**
+     * Construct a sorter which runs its tasks on the given executor.
+     * @param parallelism The maximum number of tasks to run at once
+     * @param threshold The minimum number of elements in each segment that is sorted
+     * in parallel
+     * @param executor The executor to run sort and merge tasks on. The executor is
+     * not shut down by this sorter
+     */
+    public ParallelSorter( int parallelism, int threshold, ExecutorService executor ) {
+        if (parallelism < 1 || threshold < 1) {
+            throw new IllegalArgumentException( "Parallelism and threshold must be positive" );
+        }
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+        this.executor = executor;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The maximum number of threads used by this sorter */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /** @return The minimum number of elements in each segment that is sorted in parallel */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Return a list of all of the statements in a model, sorted into the given order
+     * @param m A model
+     * @param order The statement order
+     * @return A new sorted list of the statements in <code>m</code>
+     */
+    public List<Statement> sortedStatements( Model m, RDFStatementOrder order ) {
+        List<Statement> stmts = m.listStatements().toList();
+        sortStatements( stmts, order );
+        return stmts;
+    }
+
+    /**
+     * Sort a list of statements in place
+     * @param stmts The statements to sort
+     * @param order The statement order
+     */
+    public void sortStatements( List<Statement> stmts, RDFStatementOrder order ) {
+        sort( stmts, order );
+    }
+
+    /**
+     * Sort a list of nodes in place
+     * @param nodes The nodes to sort
+     * @param order The node order
+     */
+    public void sortNodes( List<? extends RDFNode> nodes, RDFNodeOrder order ) {
+        sort( nodes, order );
+    }
+
+    /**
+     * Return a list of all of the triples in a graph, sorted into the given order.
+     * The triples are not wrapped as statements.
+     * @param g A graph
+     * @param order The triple order
+     * @return A new sorted list of the triples in <code>g</code>
+     */
+    public List<Triple> sortedTriples( Graph g, TripleOrder order ) {
+        List<Triple> triples = g.find( Triple.ANY ).toList();
+        sort( triples, order );
+        return triples;
+    }
+
+    /**
+     * Return all of the quads in a dataset as one stream, sorted into the given order.
+     * Each graph is sorted separately, with its triples unwrapped, and the graph name is
+     * only added to each triple as it is returned. If the layout puts the graph name
+     * first, the graphs are returned one after another in order of their names, and each
+     * graph is only sorted when the stream reaches it. Otherwise, the sorted graphs are
+     * merged, and copies of the same triple in several graphs are ordered by graph name.
+     * @param defaultGraph The default graph, or null if there is none
+     * @param namedGraphs The named graphs, keyed by their names
+     * @param order The quad order
+     * @return An iterator over the quads of all of the graphs, in order
+     */
+    public Iterator<Quad> sortedQuads( Graph defaultGraph, Map<Node, ? extends Graph> namedGraphs, final QuadOrder order ) {
+        final List<Node> names = new ArrayList<Node>();
+        final List<Graph> graphs = new ArrayList<Graph>();
+        List<Map.Entry<Node, ? extends Graph>> entries = new ArrayList<Map.Entry<Node, ? extends Graph>>( namedGraphs.entrySet() );
+        Collections.sort( entries, new Comparator<Map.Entry<Node, ? extends Graph>>() {
+            @Override
+            public int compare( Map.Entry<Node, ? extends Graph> e1, Map.Entry<Node, ? extends Graph> e2 ) {
+                return order.compareGraphs( e1.getKey(), e2.getKey() );
+            }
+        } );
+        if (defaultGraph != null) {
+            names.add( null );
+            graphs.add( defaultGraph );
+        }
+        for (Map.Entry<Node, ? extends Graph> e : entries) {
+            names.add( e.getKey() );
+            graphs.add( e.getValue() );
+        }
+
+        if (order.getLayout().isGraphFirst()) {
+            return new GraphByGraphIterator( names, graphs, order.getTripleOrder() );
+        }
+
+        final PriorityQueue<QuadRun> queue = new PriorityQueue<QuadRun>( Math.max( 1, graphs.size() ), new Comparator<QuadRun>() {
+            @Override
+            public int compare( QuadRun r1, QuadRun r2 ) {
+                int c = order.getTripleOrder().compare( r1.current(), r2.current() );
+                return (c != 0) ? c : (r1.index - r2.index);
+            }
+        } );
+        for (int i = 0; i < graphs.size(); i++) {
+            QuadRun run = new QuadRun( names.get( i ), sortedTriples( graphs.get( i ), order.getTripleOrder() ), i );
+            if (run.hasCurrent()) {
+                queue.add( run );
+            }
+        }
+        return new Iterator<Quad>() {
+            @Override
+            public boolean hasNext() {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public Quad next() {
+                QuadRun run = queue.poll();
+                if (run == null) {
+                    throw new NoSuchElementException();
+                }
+                Quad q = new Quad( run.name, run.current() );
+                if (run.advance()) {
+                    queue.add( run );
+                }
+                return q;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Sort a list in place
+     * @param list The list to sort
+     * @param order The order to sort into
+     */
+    @SuppressWarnings( "unchecked" )
+    public <T> void sort( List<T> list, Comparator<? super T> order ) {
+        Object[] a = list.toArray();
+        sort( a, (Comparator<Object>) order );
+        ListIterator<T> i = list.listIterator();
+        for (Object o : a) {
+            i.next();
+            i.set( (T) o );
+        }
+    }
+
+    /**
+     * Sort an array in place
+     * @param a The array to sort
+     * @param order The order to sort into
+     */
+    public <T> void sort( T[] a, Comparator<? super T> order ) {
+        int n = a.length;
+        int segments = Math.min( parallelism, n / threshold );
+        if (segments <= 1) {
+            Arrays.sort( a, order );
+            return;
+        }
+
+        ExecutorService exec = (executor != null) ? executor : Executors.newFixedThreadPool( segments );
+        try {
+            int[] bounds = new int[segments + 1];
+            for (int i = 0; i <= segments; i++) {
+                bounds[i] = (int) ((long) n * i / segments);
+            }
+
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            for (int i = 0; i < segments; i++) {
+                tasks.add( new SortTask<T>( a, bounds[i], bounds[i + 1], order ) );
+            }
+            runAll( exec, tasks );
+
+            T[] src = a;
+            T[] dst = a.clone();
+            while (bounds.length > 2) {
+                int runs = bounds.length - 1;
+                int pairs = runs / 2;
+                int pieces = Math.max( 1, parallelism / pairs );
+                int[] merged = new int[(runs + 1) / 2 + 1];
+
+                tasks.clear();
+                for (int r = 0, k = 0; r < runs; r += 2, k++) {
+                    merged[k] = bounds[r];
+                    if (r + 1 < runs) {
+                        addMergeTasks( tasks, src, dst, bounds[r], bounds[r + 1], bounds[r + 2], pieces, order );
+                    }
+                    else {
+                        System.arraycopy( src, bounds[r], dst, bounds[r], bounds[r + 1] - bounds[r] );
+                    }
+                }
+                merged[merged.length - 1] = n;
+                runAll( exec, tasks );
+
+                T[] tmp = src;
+                src = dst;
+                dst = tmp;
+                bounds = merged;
+            }
+
+            if (src != a) {
+                System.arraycopy( src, 0, a, 0, n );
+            }
+        }
+        finally {
+            if (executor == null) {
+                exec.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Sort a list in place, keeping only the first of each group of elements that
+     * the order treats as equal. The list must support removal.
+     * @param list The list to sort
+     * @param order The order to sort into
+     */
+    @SuppressWarnings( "unchecked" )
+    public <T> void sortDistinct( List<T> list, Comparator<? super T> order ) {
+        Object[] a = list.toArray();
+        int n = sortDistinct( a, (Comparator<Object>) order );
+        ListIterator<T> i = list.listIterator();
+        for (int j = 0; j < n; j++) {
+            i.next();
+            i.set( (T) a[j] );
+        }
+        list.subList( n, list.size() ).clear();
+    }
+
+    /**
+     * Sort an array in place, keeping only the first of each group of elements that
+     * the order treats as equal. Each segment is de-duplicated as soon as it is sorted,
+     * so that duplicates within a segment are not merged, and the segments are then
+     * merged in a single k-way pass which drops duplicates from different segments
+     * as it emits them.
+     * @param a The array to sort
+     * @param order The order to sort into
+     * @return The number of distinct elements, which are at the start of <code>a</code>
+     * in order. The remaining elements of <code>a</code> are set to null
+     */
+    public <T> int sortDistinct( T[] a, Comparator<? super T> order ) {
+        int n = a.length;
+        int segments = Math.min( parallelism, n / threshold );
+        int distinct;
+        if (segments <= 1) {
+            Arrays.sort( a, order );
+            distinct = dropDuplicates( a, 0, n, order );
+        }
+        else {
+            List<DistinctSortTask<T>> tasks = new ArrayList<DistinctSortTask<T>>();
+            for (int i = 0; i < segments; i++) {
+                tasks.add( new DistinctSortTask<T>( a, (int) ((long) n * i / segments), (int) ((long) n * (i + 1) / segments), order ) );
+            }
+            ExecutorService exec = (executor != null) ? executor : Executors.newFixedThreadPool( segments );
+            try {
+                runAll( exec, new ArrayList<Callable<Object>>( tasks ) );
+            }
+            finally {
+                if (executor == null) {
+                    exec.shutdown();
+                }
+            }
+
+            distinct = mergeDistinct( a, tasks, order );
+        }
+        Arrays.fill( a, distinct, n, null );
+        return distinct;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Move the first of each run of equal elements in the sorted range
+     * <code>a[from,to)</code> to the start of the range
+     * @return The number of distinct elements in the range
+     */
+    protected static <T> int dropDuplicates( T[] a, int from, int to, Comparator<? super T> order ) {
+        if (from == to) {
+            return 0;
+        }
+        int last = from;
+        for (int i = from + 1; i < to; i++) {
+            if (order.compare( a[last], a[i] ) != 0) {
+                a[++last] = a[i];
+            }
+        }
+        return last + 1 - from;
+    }
+
+    /**
+     * Merge the de-duplicated segments of an array back into the array with a k-way
+     * merge, keeping only the first of each group of equal elements. Ties between
+     * segments are broken by segment position, so the element kept is the one which
+     * was first in the input.
+     * @return The number of distinct elements, which are at the start of <code>a</code>
+     */
+    protected static <T> int mergeDistinct( T[] a, List<DistinctSortTask<T>> segments, final Comparator<? super T> order ) {
+        final T[] src = a.clone();
+        PriorityQueue<SegmentRun<T>> queue = new PriorityQueue<SegmentRun<T>>( segments.size(), new Comparator<SegmentRun<T>>() {
+            @Override
+            public int compare( SegmentRun<T> r1, SegmentRun<T> r2 ) {
+                int c = order.compare( src[r1.pos], src[r2.pos] );
+                return (c != 0) ? c : (r1.index - r2.index);
+            }
+        } );
+        for (int i = 0; i < segments.size(); i++) {
+            DistinctSortTask<T> t = segments.get( i );
+            if (t.distinct > 0) {
+                queue.add( new SegmentRun<T>( t.from, t.from + t.distinct, i ) );
+            }
+        }
+
+        int out = 0;
+        while (!queue.isEmpty()) {
+            SegmentRun<T> r = queue.poll();
+            T item = src[r.pos];
+            if (out == 0 || order.compare( a[out - 1], item ) != 0) {
+                a[out++] = item;
+            }
+            if (++r.pos < r.end) {
+                queue.add( r );
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Add tasks that merge the sorted runs <code>src[lo,mid)</code> and
+     * <code>src[mid,hi)</code> into <code>dst[lo,hi)</code>. The left run is cut into
+     * pieces, and each cut point is matched with the first element of the right run
+     * which is not less than the element at the cut, so that each piece can be
+     * merged independently and the merge remains stable.
+     */
+    protected <T> void addMergeTasks( List<Callable<Object>> tasks, T[] src, T[] dst,
+                                      int lo, int mid, int hi, int pieces, Comparator<? super T> order ) {
+        int leftLen = mid - lo;
+        pieces = Math.max( 1, Math.min( pieces, leftLen / threshold ) );
+
+        int prevLeft = lo;
+        int prevRight = mid;
+        for (int p = 1; p <= pieces; p++) {
+            int left = (p == pieces) ? mid : lo + (int) ((long) leftLen * p / pieces);
+            int right = (p == pieces) ? hi : lowerBound( src, mid, hi, src[left], order );
+            int out = prevLeft + (prevRight - mid);
+            tasks.add( new MergeTask<T>( src, dst, prevLeft, left, prevRight, right, out, order ) );
+            prevLeft = left;
+            prevRight = right;
+        }
+    }
+
+    /** @return The first index in <code>a[lo,hi)</code> whose element is not less than <code>key</code> */
+    protected static <T> int lowerBound( T[] a, int lo, int hi, T key, Comparator<? super T> order ) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (order.compare( a[m], key ) < 0) {
+                lo = m + 1;
+            }
+            else {
+                hi = m;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Run all of the given tasks and wait for them to finish, rethrowing any
+     * exception thrown by a task
+     */
+    protected void runAll( ExecutorService exec, List<Callable<Object>> tasks ) {
+        try {
+            for (Future<Object> f : exec.invokeAll( tasks )) {
+                f.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while sorting", e );
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException( cause );
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * Sort one segment of an array
+     */
+    protected static class SortTask<T>
+        implements Callable<Object>
+    {
+        private final T[] a;
+        private final int from, to;
+        private final Comparator<? super T> order;
+
+        SortTask( T[] a, int from, int to, Comparator<? super T> order ) {
+            this.a = a;
+            this.from = from;
+            this.to = to;
+            this.order = order;
+        }
+
+        @Override
+        public Object call() {
+            Arrays.sort( a, from, to, order );
+            return null;
+        }
+    }
+
+    /**
+     * Sort one segment of an array and drop its duplicates, leaving the
+     * distinct elements at the start of the segment
+     */
+    protected static class DistinctSortTask<T>
+        implements Callable<Object>
+    {
+        private final T[] a;
+        private final int from, to;
+        private final Comparator<? super T> order;
+        private int distinct;
+
+        DistinctSortTask( T[] a, int from, int to, Comparator<? super T> order ) {
+            this.a = a;
+            this.from = from;
+            this.to = to;
+            this.order = order;
+        }
+
+        @Override
+        public Object call() {
+            Arrays.sort( a, from, to, order );
+            distinct = dropDuplicates( a, from, to, order );
+            return null;
+        }
+    }
+
+    /**
+     * The distinct elements of one sorted segment, being merged with the others.
+     * Runs are numbered in order of their segments, which breaks ties between runs.
+     */
+    protected static class SegmentRun<T>
+    {
+        final int end;
+        final int index;
+        int pos;
+
+        SegmentRun( int pos, int end, int index ) {
+            this.pos = pos;
+            this.end = end;
+            this.index = index;
+        }
+    }
+
+    /**
+     * The sorted triples of one graph, being merged into a stream of quads. Runs
+     * are numbered in order of their graph names, which breaks ties between runs.
+     */
+    protected static class QuadRun
+    {
+        final Node name;
+        final List<Triple> triples;
+        final int index;
+        int pos = 0;
+
+        QuadRun( Node name, List<Triple> triples, int index ) {
+            this.name = name;
+            this.triples = triples;
+            this.index = index;
+        }
+
+        boolean hasCurrent() {
+            return pos < triples.size();
+        }
+
+        Triple current() {
+            return triples.get( pos );
+        }
+
+        boolean advance() {
+            return ++pos < triples.size();
+        }
+    }
+
+    /**
+     * Returns the quads of a list of graphs, which are already in order of their
+     * names, sorting each graph when the iteration reaches it
+     */
+    protected class GraphByGraphIterator
+        implements Iterator<Quad>
+    {
+        private final List<Node> names;
+        private final List<Graph> graphs;
+        private final TripleOrder order;
+        private int graph = -1;
+        private QuadRun run;
+
+        GraphByGraphIterator( List<Node> names, List<Graph> graphs, TripleOrder order ) {
+            this.names = names;
+            this.graphs = graphs;
+            this.order = order;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while ((run == null || !run.hasCurrent()) && graph + 1 < graphs.size()) {
+                graph++;
+                run = new QuadRun( names.get( graph ), sortedTriples( graphs.get( graph ), order ), graph );
+            }
+            return run != null && run.hasCurrent();
+        }
+
+        @Override
+        public Quad next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Quad q = new Quad( run.name, run.current() );
+            run.advance();
+            return q;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Merge two sorted ranges of one array into a range of another
+     */
+    protected static class MergeTask<T>
+        implements Callable<Object>
+    {
+        private final T[] src, dst;
+        private final int l, lEnd, r, rEnd, out;
+        private final Comparator<? super T> order;
+
+        MergeTask( T[] src, T[] dst, int l, int lEnd, int r, int rEnd, int out, Comparator<? super T> order ) {
+            this.src = src;
+            this.dst = dst;
+            this.l = l;
+            this.lEnd = lEnd;
+            this.r = r;
+            this.rEnd = rEnd;
+            this.out = out;
+            this.order = order;
+        }
+
+        @Override
+        public Object call() {
+            int i = l, j = r, k = out;
+            while (i < lEnd && j < rEnd) {
+                // take from the right only if strictly smaller, to keep the merge stable
+                dst[k++] = (order.compare( src[j], src[i] ) < 0) ? src[j++] : src[i++];
+            }
+            while (i < lEnd) {
+                dst[k++] = src[i++];
+            }
+            while (j < rEnd) {
+                dst[k++] = src[j++];
+            }
+            return null;
+        }
+    }
+
+}
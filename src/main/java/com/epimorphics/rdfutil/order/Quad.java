@@ -0,0 +1,136 @@
+/*****************************************************************************
+ * File:    Quad.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * <p>A triple together with the name of the graph it belongs to. Triples in the
+ * default graph of a dataset have a null graph name. Quads are immutable.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class Quad
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The graph name, or null for the default graph */
+    private final Node graph;
+
+    /** The triple */
+    private final Triple triple;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a quad
+     * @param graph The graph name, a URI or bNode, or null for the default graph
+     * @param triple The triple
+     */
+    public Quad( Node graph, Triple triple ) {
+        if (triple == null) {
+            throw new IllegalArgumentException( "A quad must have a triple" );
+        }
+        this.graph = graph;
+        this.triple = triple;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Create a quad from its four nodes
+     * @param g The graph name, or null for the default graph
+     * @param s The subject
+     * @param p The predicate
+     * @param o The object
+     * @return A new quad
+     */
+    public static Quad create( Node g, Node s, Node p, Node o ) {
+        return new Quad( g, Triple.create( s, p, o ) );
+    }
+
+    /** @return The graph name, or null if the quad is in the default graph */
+    public Node getGraph() {
+        return graph;
+    }
+
+    /** @return True if the quad is in the default graph */
+    public boolean isDefaultGraph() {
+        return graph == null;
+    }
+
+    /** @return The triple */
+    public Triple getTriple() {
+        return triple;
+    }
+
+    public Node getSubject() {
+        return triple.getSubject();
+    }
+
+    public Node getPredicate() {
+        return triple.getPredicate();
+    }
+
+    public Node getObject() {
+        return triple.getObject();
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+        if (!(o instanceof Quad)) {
+            return false;
+        }
+        Quad q = (Quad) o;
+        return ((graph == null) ? q.graph == null : graph.equals( q.graph )) && triple.equals( q.triple );
+    }
+
+    @Override
+    public int hashCode() {
+        return ((graph == null) ? 0 : graph.hashCode() * 31) ^ triple.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return ((graph == null) ? "<default>" : graph.toString()) + " " + triple.toString();
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
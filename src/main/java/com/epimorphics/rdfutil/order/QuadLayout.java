@@ -0,0 +1,76 @@
+/*****************************************************************************
+ * File:    QuadLayout.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+/**
+ * <p>The order in which the graph name, subject, predicate and object of a
+ * {@link Quad} are compared. The graph name is compared either first, as in
+ * {@link #GSPO}, which keeps the quads of each graph together, or last, as in
+ * {@link #SPOG}, which keeps the copies of a triple in different graphs together.
+ * The other positions are compared in the order of a {@link TripleLayout}.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public enum QuadLayout
+{
+    GSPO( true, TripleLayout.SPO ),
+    GSOP( true, TripleLayout.SOP ),
+    GPSO( true, TripleLayout.PSO ),
+    GPOS( true, TripleLayout.POS ),
+    GOSP( true, TripleLayout.OSP ),
+    GOPS( true, TripleLayout.OPS ),
+    SPOG( false, TripleLayout.SPO ),
+    SOPG( false, TripleLayout.SOP ),
+    PSOG( false, TripleLayout.PSO ),
+    POSG( false, TripleLayout.POS ),
+    OSPG( false, TripleLayout.OSP ),
+    OPSG( false, TripleLayout.OPS );
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** True if the graph name is compared before the triple */
+    private final boolean graphFirst;
+
+    /** The order in which the triple positions are compared */
+    private final TripleLayout tripleLayout;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    private QuadLayout( boolean graphFirst, TripleLayout tripleLayout ) {
+        this.graphFirst = graphFirst;
+        this.tripleLayout = tripleLayout;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return True if the graph name is compared before the triple, false if after it */
+    public boolean isGraphFirst() {
+        return graphFirst;
+    }
+
+    /** @return The order in which the subject, predicate and object are compared */
+    public TripleLayout getTripleLayout() {
+        return tripleLayout;
+    }
+}
+
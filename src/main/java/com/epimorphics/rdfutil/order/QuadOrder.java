@@ -0,0 +1,155 @@
+/*****************************************************************************
+ * File:    QuadOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.Comparator;
+
+import com.hp.hpl.jena.graph.Node;
+
+/**
+ * <p>Standard ordering for {@link Quad}s. Quads are compared position by position, in
+ * the order given by a {@link QuadLayout}, using a {@link NodeOrder} (by default
+ * {@link NodeStandardOrder}, the order of {@link RDFNodeStandardOrder}) for every
+ * position. The default graph sorts before every named graph. The triple positions
+ * are compared with a {@link TripleStandardOrder}, so quads in one graph are in the
+ * same order as their triples.</p>
+ * <p>Since most quads in a dataset share a small number of graph names, graph names
+ * are first checked for identity, so that the node order is only consulted for graph
+ * names that actually differ.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class QuadOrder
+    implements Comparator<Quad>
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order used to compare graph names */
+    private final NodeOrder nodeOrder;
+
+    /** The order used to compare the triple positions */
+    private final TripleStandardOrder tripleOrder;
+
+    /** The order in which quad positions are compared */
+    private final QuadLayout layout;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a quad order which compares graph names, then subjects, predicates
+     * and objects, using the standard node order.
+     */
+    public QuadOrder() {
+        this( new NodeStandardOrder(), QuadLayout.GSPO );
+    }
+
+    /**
+     * Construct a quad order with the given layout, using the standard node order.
+     * @param layout The order in which quad positions are compared
+     */
+    public QuadOrder( QuadLayout layout ) {
+        this( new NodeStandardOrder(), layout );
+    }
+
+    /**
+     * Construct a quad order with the given node order and layout.
+     * @param nodeOrder The order used to compare nodes
+     * @param layout The order in which quad positions are compared
+     */
+    public QuadOrder( NodeOrder nodeOrder, QuadLayout layout ) {
+        this.nodeOrder = nodeOrder;
+        this.layout = layout;
+        this.tripleOrder = new TripleStandardOrder( nodeOrder, layout.getTripleLayout() );
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The order used to compare the nodes in each position */
+    public NodeOrder getNodeOrder() {
+        return nodeOrder;
+    }
+
+    /** @return The order used to compare the subject, predicate and object */
+    public TripleStandardOrder getTripleOrder() {
+        return tripleOrder;
+    }
+
+    /** @return The order in which quad positions are compared */
+    public QuadLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public int compare( Quad q1, Quad q2 ) {
+        if (q1 == q2) {
+            return 0;
+        }
+
+        int c;
+        if (layout.isGraphFirst()) {
+            c = compareGraphs( q1.getGraph(), q2.getGraph() );
+            return (c != 0) ? c : tripleOrder.compare( q1.getTriple(), q2.getTriple() );
+        }
+        else {
+            c = tripleOrder.compare( q1.getTriple(), q2.getTriple() );
+            return (c != 0) ? c : compareGraphs( q1.getGraph(), q2.getGraph() );
+        }
+    }
+
+    /**
+     * Compare two graph names, placing the default graph first
+     * @param g1 A graph name, or null for the default graph
+     * @param g2 A graph name, or null for the default graph
+     * @return Less than zero if g1 precedes g2 in the order
+     */
+    public int compareGraphs( Node g1, Node g2 ) {
+        if (g1 == g2) {
+            return 0;
+        }
+        else if (g1 == null) {
+            return -1;
+        }
+        else if (g2 == null) {
+            return 1;
+        }
+        return nodeOrder.compare( g1, g2 );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
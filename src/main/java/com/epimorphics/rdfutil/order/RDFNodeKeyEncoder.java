@@ -0,0 +1,771 @@
+/*****************************************************************************
+ * File:    RDFNodeKeyEncoder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+
+import com.hp.hpl.jena.datatypes.DatatypeFormatException;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+
+/**
+ * <p>Encodes {@link RDFNode}s as binary sort keys. Comparing two keys as unsigned
+ * byte strings (see {@link #compareKeys(byte[], byte[])}) gives the same
+ * ordering as {@link RDFNodeStandardOrder#compare(RDFNode, RDFNode)}, so keys can
+ * be sorted with a plain byte comparison, or stored in sorted files and
+ * key-value stores.</p>
+ * <p>Each key starts with a tag byte that orders bNodes before URI resources,
+ * resources before literals, and typed literals before untyped literals. Strings
+ * are encoded one UTF-16 code unit at a time, so that the byte order matches
+ * {@link String#compareTo(String)}, and are terminated so that a string sorts
+ * before any longer string it is a prefix of. Typed literals encode the datatype
+ * URI, followed by the value of the literal for the datatypes that
+ * {@link RDFNodeStandardOrder} compares by value, or the lexical form for all
+ * other datatypes. Comparators registered for other datatypes can supply their own
+ * key encoding by implementing {@link ValueEncoder}.</p>
+ * <p>Keys are self-delimiting: no key is a proper prefix of another key, so the
+ * keys of several nodes can be concatenated to give a key for a tuple of nodes.</p>
+ * <p>There is one case where the key order is stricter than
+ * {@link RDFNodeStandardOrder}: an <code>xsd:time</code>, <code>xsd:date</code> or
+ * <code>xsd:dateTime</code> value with a timezone and one without may be reported
+ * as equal by Jena (since their order is indeterminate), while their keys will
+ * still be distinct.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class RDFNodeKeyEncoder
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Tag byte for anonymous resources */
+    public static final byte TAG_ANON = 0x10;
+
+    /** Tag byte for URI resources */
+    public static final byte TAG_URI = 0x20;
+
+    /** Tag byte for typed literals */
+    public static final byte TAG_TYPED_LITERAL = 0x30;
+
+    /** Tag byte for untyped literals, with or without a language tag */
+    public static final byte TAG_UNTYPED_LITERAL = 0x40;
+
+    /** Marks a typed literal value that was encoded by value */
+    protected static final byte VALUE_WELL_FORMED = 0x01;
+
+    /** Marks an ill-formed typed literal value, which is encoded by lexical form */
+    protected static final byte VALUE_ILL_FORMED = 0x02;
+
+    /** Marks an untyped literal with a language tag */
+    protected static final byte LANG_PRESENT = 0x01;
+
+    /** Marks an untyped literal without a language tag */
+    protected static final byte LANG_ABSENT = 0x02;
+
+    /** Comparator that orders keys as unsigned byte strings */
+    public static final Comparator<byte[]> KEY_ORDER = new Comparator<byte[]>() {
+        @Override
+        public int compare( byte[] k1, byte[] k2 ) {
+            return compareKeys( k1, k2 );
+        }
+    };
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The datatype comparators whose order the keys follow */
+    private final DatatypeComparatorRegistry registry;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct an encoder whose keys follow the order of a {@link RDFNodeStandardOrder}
+     * with the standard datatype comparators
+     */
+    public RDFNodeKeyEncoder() {
+        this( DatatypeComparatorRegistry.createStandardRegistry() );
+    }
+
+    /**
+     * Construct an encoder whose keys follow the order of a {@link RDFNodeStandardOrder}
+     * using the given datatype comparators. Each datatype must be registered with one
+     * of the standard comparators, or with a comparator that implements {@link ValueEncoder}
+     * @param registry The datatype comparators
+     */
+    public RDFNodeKeyEncoder( DatatypeComparatorRegistry registry ) {
+        this.registry = registry;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Encode the given node as a sort key
+     * @param n An RDF node
+     * @return A new byte array containing the sort key for <code>n</code>
+     */
+    public byte[] encode( RDFNode n ) {
+        return encode( n.asNode() );
+    }
+
+    /**
+     * Encode the given graph node as a sort key. The node must be
+     * a URI, a bNode or a literal.
+     * @param n A graph node
+     * @return A new byte array containing the sort key for <code>n</code>
+     */
+    public byte[] encode( Node n ) {
+        KeySink sink = new KeySink();
+        encode( n, sink );
+        return sink.toByteArray();
+    }
+
+    /**
+     * Encode the given node as a sort key, writing the key into the given
+     * buffer from its current position. If the buffer does not have enough
+     * room, a larger buffer is allocated and the contents of <code>target</code>
+     * are copied into it first.
+     * @param n An RDF node
+     * @param target The buffer to write the key into
+     * @return The buffer holding the key, positioned just after the key. This
+     * will be <code>target</code> unless <code>target</code> was too small
+     */
+    public ByteBuffer encode( RDFNode n, ByteBuffer target ) {
+        byte[] key = encode( n.asNode() );
+        ByteBuffer buf = target;
+        if (buf.remaining() < key.length) {
+            buf = ByteBuffer.allocate( Math.max( target.capacity() * 2, target.position() + key.length ) );
+            target.flip();
+            buf.put( target );
+        }
+        buf.put( key );
+        return buf;
+    }
+
+    /**
+     * Append the sort key for the given graph node to a key sink
+     * @param n A graph node
+     * @param sink The sink to write to
+     */
+    public void encode( Node n, KeySink sink ) {
+        if (n.isBlank()) {
+            sink.put( TAG_ANON );
+            sink.putString( n.getBlankNodeLabel() );
+        }
+        else if (n.isURI()) {
+            sink.put( TAG_URI );
+            sink.putString( n.getURI() );
+        }
+        else if (n.isLiteral()) {
+            encodeLiteral( n.getLiteral(), sink );
+        }
+        else {
+            throw new IllegalArgumentException( "Cannot encode a sort key for node: " + n );
+        }
+    }
+
+    /**
+     * Compare two keys as unsigned byte strings
+     * @param k1 A key
+     * @param k2 A key
+     * @return Less than zero if <code>k1</code> precedes <code>k2</code>
+     */
+    public static int compareKeys( byte[] k1, byte[] k2 ) {
+        return compareKeys( k1, 0, k1.length, k2, 0, k2.length );
+    }
+
+    /**
+     * Compare two key ranges as unsigned byte strings
+     * @param k1 Array containing the first key
+     * @param off1 Offset of the first key
+     * @param len1 Length of the first key
+     * @param k2 Array containing the second key
+     * @param off2 Offset of the second key
+     * @param len2 Length of the second key
+     * @return Less than zero if the first key precedes the second
+     */
+    public static int compareKeys( byte[] k1, int off1, int len1, byte[] k2, int off2, int len2 ) {
+        int n = Math.min( len1, len2 );
+        for (int i = 0; i < n; i++) {
+            int b1 = k1[off1 + i] & 0xFF;
+            int b2 = k2[off2 + i] & 0xFF;
+            if (b1 != b2) {
+                return b1 - b2;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /**
+     * Compare the remaining bytes of two buffers as unsigned byte strings.
+     * The positions of the buffers are not changed.
+     * @param k1 A buffer holding the first key between its position and limit
+     * @param k2 A buffer holding the second key between its position and limit
+     * @return Less than zero if the first key precedes the second
+     */
+    public static int compareKeys( ByteBuffer k1, ByteBuffer k2 ) {
+        int p1 = k1.position(), p2 = k2.position();
+        int len1 = k1.remaining(), len2 = k2.remaining();
+        int n = Math.min( len1, len2 );
+        for (int i = 0; i < n; i++) {
+            int b1 = k1.get( p1 + i ) & 0xFF;
+            int b2 = k2.get( p2 + i ) & 0xFF;
+            if (b1 != b2) {
+                return b1 - b2;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Encode a literal, which may be typed or untyped
+     * @param l The literal label to encode
+     * @param sink The sink to write to
+     */
+    protected void encodeLiteral( LiteralLabel l, KeySink sink ) {
+        if (l.getDatatype() != null) {
+            sink.put( TAG_TYPED_LITERAL );
+            sink.putString( l.getDatatypeURI() );
+            encodeTypedValue( l, sink );
+        }
+        else {
+            sink.put( TAG_UNTYPED_LITERAL );
+            sink.putString( l.getLexicalForm() );
+            String lang = l.language();
+            if (lang != null && lang.length() > 0) {
+                sink.put( LANG_PRESENT );
+                sink.putString( lang );
+            }
+            else {
+                sink.put( LANG_ABSENT );
+            }
+        }
+    }
+
+    /**
+     * Encode the value of a typed literal, according to the comparator registered
+     * for its datatype. Well-formed values sort before ill-formed values of the
+     * same datatype.
+     * @param l A typed literal label
+     * @param sink The sink to write to
+     * @exception IllegalArgumentException if the comparator registered for the
+     * datatype is not one of the standard comparators and is not a {@link ValueEncoder}
+     */
+    protected void encodeTypedValue( LiteralLabel l, KeySink sink ) {
+        Comparator<LiteralLabel> c = registry.getComparator( l.getDatatype() );
+        if (c == DatatypeComparatorRegistry.LEXICAL_ORDER) {
+            sink.put( VALUE_WELL_FORMED );
+            sink.putString( l.getLexicalForm() );
+            return;
+        }
+        else if (c instanceof ValueEncoder) {
+            int mark = sink.size();
+            sink.put( VALUE_WELL_FORMED );
+            if (((ValueEncoder) c).encodeValue( l, sink )) {
+                return;
+            }
+            sink.truncate( mark );
+        }
+        else if (!isStandardValueOrder( c )) {
+            throw new IllegalArgumentException( "No sort key encoding for the comparator registered for datatype " +
+                                                l.getDatatypeURI() );
+        }
+        else {
+            Object v;
+            try {
+                v = l.getValue();
+            }
+            catch (DatatypeFormatException e) {
+                v = null;
+            }
+
+            if (v != null && encodeValue( c, l, v, sink )) {
+                return;
+            }
+        }
+
+        sink.put( VALUE_ILL_FORMED );
+        sink.putString( l.getLexicalForm() );
+    }
+
+    /**
+     * Return true if the given comparator is one of the standard value orders
+     * @param c A datatype comparator
+     * @return True for the standard comparators that have a value encoding
+     */
+    protected boolean isStandardValueOrder( Comparator<LiteralLabel> c ) {
+        return c == DatatypeComparatorRegistry.BOOLEAN_ORDER ||
+               c == DatatypeComparatorRegistry.NON_FP_NUMBER_ORDER ||
+               c == DatatypeComparatorRegistry.FP_NUMBER_ORDER ||
+               c == DatatypeComparatorRegistry.DATE_TIME_ORDER;
+    }
+
+    /**
+     * Encode a decoded literal value
+     * @param c The standard comparator registered for the datatype of the literal
+     * @param l The literal
+     * @param v The value of the literal
+     * @param sink The sink to write to
+     * @return True if the value was encoded, false if it was not of the expected type
+     */
+    protected boolean encodeValue( Comparator<LiteralLabel> c, LiteralLabel l, Object v, KeySink sink ) {
+        if (c == DatatypeComparatorRegistry.BOOLEAN_ORDER && v instanceof Boolean) {
+            sink.put( VALUE_WELL_FORMED );
+            sink.put( (byte) (((Boolean) v).booleanValue() ? 1 : 0) );
+            return true;
+        }
+        else if (c == DatatypeComparatorRegistry.NON_FP_NUMBER_ORDER && v instanceof Number) {
+            sink.put( VALUE_WELL_FORMED );
+            encodeDecimal( toBigDecimal( (Number) v ), sink );
+            return true;
+        }
+        else if (c == DatatypeComparatorRegistry.FP_NUMBER_ORDER && v instanceof Number) {
+            sink.put( VALUE_WELL_FORMED );
+            encodeDouble( ((Number) v).doubleValue(), sink );
+            return true;
+        }
+        else if (c == DatatypeComparatorRegistry.DATE_TIME_ORDER) {
+            int mark = sink.size();
+            sink.put( VALUE_WELL_FORMED );
+            if (encodeDateTime( l.getLexicalForm(), XSDDatatype.XSDtime.getURI().equals( l.getDatatypeURI() ), sink )) {
+                return true;
+            }
+            sink.truncate( mark );
+        }
+        return false;
+    }
+
+    /**
+     * Convert a non-FP number to a big decimal
+     * @param n A non-FP number
+     * @return The value of <code>n</code> as a big decimal
+     */
+    protected static BigDecimal toBigDecimal( Number n ) {
+        if (n instanceof BigDecimal) {
+            return (BigDecimal) n;
+        }
+        else if (n instanceof BigInteger) {
+            return new BigDecimal( (BigInteger) n );
+        }
+        else {
+            return BigDecimal.valueOf( n.longValue() );
+        }
+    }
+
+    /**
+     * Encode a decimal value. Zero is encoded as a single byte. Other values
+     * are written as a sign byte, then the decimal exponent and then the
+     * significant digits, so that <code>v = 0.d1d2d3... &times; 10^exponent</code>.
+     * The exponent and digits of negative values are inverted, so that larger
+     * magnitudes sort first.
+     * @param v The value to encode
+     * @param sink The sink to write to
+     */
+    protected void encodeDecimal( BigDecimal v, KeySink sink ) {
+        int sign = v.signum();
+        if (sign == 0) {
+            sink.put( (byte) 0x80 );
+            return;
+        }
+
+        BigDecimal norm = v.stripTrailingZeros();
+        String digits = norm.unscaledValue().abs().toString();
+        int exponent = digits.length() - norm.scale();
+        int mask = (sign < 0) ? 0xFF : 0x00;
+
+        sink.put( (byte) ((sign < 0) ? 0x7F : 0x81) );
+        int e = exponent ^ 0x80000000;
+        sink.put( (byte) ((e >>> 24) ^ mask) );
+        sink.put( (byte) ((e >>> 16) ^ mask) );
+        sink.put( (byte) ((e >>> 8) ^ mask) );
+        sink.put( (byte) (e ^ mask) );
+        for (int i = 0; i < digits.length(); i++) {
+            sink.put( (byte) ((digits.charAt( i ) - '0' + 1) ^ mask) );
+        }
+        sink.put( (byte) mask );
+    }
+
+    /**
+     * Encode a floating point value as eight bytes, in the order defined by
+     * {@link Double#compareTo(Double)}
+     * @param d The value to encode
+     * @param sink The sink to write to
+     */
+    protected void encodeDouble( double d, KeySink sink ) {
+        long bits = Double.doubleToLongBits( d );
+        bits = (bits < 0) ? ~bits : (bits ^ Long.MIN_VALUE);
+        sink.putLong( bits );
+    }
+
+    /**
+     * Encode a date, time or date-time value from its lexical form. Values with a
+     * timezone are normalised to UTC, in the same way as Jena's
+     * {@link com.hp.hpl.jena.datatypes.xsd.XSDDateTime}, and are then written as
+     * year, month, day, hour, minute, second, fractional second digits and a
+     * timezone flag.
+     * @param lex The lexical form
+     * @param isTime True if the lexical form is an <code>xsd:time</code>
+     * @param sink The sink to write to
+     * @return True if the lexical form could be parsed
+     */
+    protected boolean encodeDateTime( String lex, boolean isTime, KeySink sink ) {
+        DateTimeFields f = DateTimeFields.parse( lex, isTime );
+        if (f == null) {
+            return false;
+        }
+        sink.putInt( f.year ^ 0x80000000 );
+        sink.put( (byte) f.month );
+        sink.put( (byte) f.day );
+        sink.put( (byte) f.hour );
+        sink.put( (byte) f.minute );
+        sink.put( (byte) f.second );
+        for (int i = 0; i < f.fraction.length(); i++) {
+            sink.put( (byte) (f.fraction.charAt( i ) - '0' + 1) );
+        }
+        sink.put( (byte) 0 );
+        sink.put( (byte) (f.utc ? 1 : 0) );
+        return true;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * Implemented by datatype comparators which can encode the values they compare
+     * as sort keys. The bytes written must compare, as unsigned byte strings, in the same
+     * order as the comparator, and no encoding may be a proper prefix of another.
+     */
+    public interface ValueEncoder
+    {
+        /**
+         * Write the sort key for the value of a literal
+         * @param l A typed literal
+         * @param sink The sink to write to
+         * @return True if the value was written, or false if the literal is ill-formed,
+         * in which case nothing should have been written
+         */
+        public boolean encodeValue( LiteralLabel l, KeySink sink );
+    }
+
+    /**
+     * A growable byte array that keys are written to
+     */
+    public static class KeySink
+    {
+        private byte[] bytes;
+        private int size;
+
+        public KeySink() {
+            this( 64 );
+        }
+
+        public KeySink( int capacity ) {
+            bytes = new byte[Math.max( capacity, 8 )];
+        }
+
+        /** @return The number of bytes written so far */
+        public int size() {
+            return size;
+        }
+
+        /** Discard all bytes written after the given size */
+        public void truncate( int newSize ) {
+            size = newSize;
+        }
+
+        /** Discard all of the bytes written so far */
+        public void reset() {
+            size = 0;
+        }
+
+        /** @return The array backing this sink, which is valid up to {@link #size()} */
+        public byte[] array() {
+            return bytes;
+        }
+
+        /** @return A copy of the bytes written so far */
+        public byte[] toByteArray() {
+            byte[] result = new byte[size];
+            System.arraycopy( bytes, 0, result, 0, size );
+            return result;
+        }
+
+        public void put( byte b ) {
+            ensure( 1 );
+            bytes[size++] = b;
+        }
+
+        public void putInt( int v ) {
+            ensure( 4 );
+            bytes[size++] = (byte) (v >>> 24);
+            bytes[size++] = (byte) (v >>> 16);
+            bytes[size++] = (byte) (v >>> 8);
+            bytes[size++] = (byte) v;
+        }
+
+        public void putLong( long v ) {
+            putInt( (int) (v >>> 32) );
+            putInt( (int) v );
+        }
+
+        /**
+         * Write a string, one UTF-16 code unit at a time. Each code unit is written
+         * with the UTF-8 byte pattern for its value, except that <code>\u0000</code>
+         * is escaped as <code>0x00 0xFF</code>. The string is terminated by
+         * <code>0x00 0x00</code>.
+         * @param s The string to write
+         */
+        public void putString( String s ) {
+            int n = s.length();
+            ensure( n * 3 + 2 );
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt( i );
+                if (c == 0) {
+                    bytes[size++] = 0;
+                    bytes[size++] = (byte) 0xFF;
+                }
+                else if (c < 0x80) {
+                    bytes[size++] = (byte) c;
+                }
+                else if (c < 0x800) {
+                    bytes[size++] = (byte) (0xC0 | (c >> 6));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                }
+                else {
+                    bytes[size++] = (byte) (0xE0 | (c >> 12));
+                    bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            bytes[size++] = 0;
+            bytes[size++] = 0;
+        }
+
+        public void put( byte[] b, int off, int len ) {
+            ensure( len );
+            System.arraycopy( b, off, bytes, size, len );
+            size += len;
+        }
+
+        private void ensure( int n ) {
+            if (size + n > bytes.length) {
+                byte[] grown = new byte[Math.max( bytes.length * 2, size + n )];
+                System.arraycopy( bytes, 0, grown, 0, size );
+                bytes = grown;
+            }
+        }
+    }
+
+    /**
+     * The fields of a date, time or date-time value, normalised to UTC if the value
+     * has a timezone
+     */
+    protected static class DateTimeFields
+    {
+        /** Jena normalises <code>xsd:time</code> values against a fixed day of the month */
+        private static final int TIME_BASE_YEAR = 2000, TIME_BASE_MONTH = 1, TIME_BASE_DAY = 15;
+
+        int year, month, day, hour, minute, second;
+        String fraction = "";
+        boolean utc;
+
+        /**
+         * Parse a lexical form of the shape
+         * <code>[-]yyyy-mm-dd[Thh:mm:ss[.s+]][Z|(+|-)hh:mm]</code>, or
+         * <code>hh:mm:ss[.s+][Z|(+|-)hh:mm]</code> for times
+         * @return The parsed fields, or null if the lexical form could not be parsed
+         */
+        static DateTimeFields parse( String lex, boolean isTime ) {
+            DateTimeFields f = new DateTimeFields();
+            Cursor c = new Cursor( lex.trim() );
+            try {
+                if (isTime) {
+                    f.year = TIME_BASE_YEAR;
+                    f.month = TIME_BASE_MONTH;
+                    f.day = TIME_BASE_DAY;
+                    parseTime( f, c );
+                }
+                else {
+                    boolean negative = c.accept( '-' );
+                    f.year = c.digits( 4, 9 ) * (negative ? -1 : 1);
+                    c.expect( '-' );
+                    f.month = c.digits( 2, 2 );
+                    c.expect( '-' );
+                    f.day = c.digits( 2, 2 );
+                    if (c.accept( 'T' )) {
+                        parseTime( f, c );
+                    }
+                }
+
+                if (c.accept( 'Z' )) {
+                    f.utc = true;
+                }
+                else if (c.peek() == '+' || c.peek() == '-') {
+                    int sign = (c.next() == '+') ? 1 : -1;
+                    int tzh = c.digits( 2, 2 );
+                    c.expect( ':' );
+                    int tzm = c.digits( 2, 2 );
+                    f.utc = true;
+                    f.shiftMinutes( -sign * (tzh * 60 + tzm) );
+                }
+                return c.atEnd() ? f : null;
+            }
+            catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private static void parseTime( DateTimeFields f, Cursor c ) {
+            f.hour = c.digits( 2, 2 );
+            c.expect( ':' );
+            f.minute = c.digits( 2, 2 );
+            c.expect( ':' );
+            f.second = c.digits( 2, 2 );
+            if (c.accept( '.' )) {
+                int start = c.pos;
+                c.digits( 1, Integer.MAX_VALUE );
+                int end = c.pos;
+                while (end > start && c.s.charAt( end - 1 ) == '0') {
+                    end--;
+                }
+                f.fraction = c.s.substring( start, end );
+            }
+        }
+
+        /** Add the given number of minutes, carrying into hours and days */
+        private void shiftMinutes( int delta ) {
+            int total = minute + delta;
+            int carry = floorDiv( total, 60 );
+            minute = total - carry * 60;
+
+            total = hour + carry;
+            carry = floorDiv( total, 24 );
+            hour = total - carry * 24;
+
+            day += carry;
+            while (day < 1) {
+                month--;
+                if (month < 1) {
+                    month = 12;
+                    year--;
+                }
+                day += daysInMonth( year, month );
+            }
+            while (day > daysInMonth( year, month )) {
+                day -= daysInMonth( year, month );
+                month++;
+                if (month > 12) {
+                    month = 1;
+                    year++;
+                }
+            }
+        }
+
+        private static int floorDiv( int a, int b ) {
+            int q = a / b;
+            return (a % b != 0 && (a < 0)) ? q - 1 : q;
+        }
+
+        private static int daysInMonth( int year, int month ) {
+            switch (month) {
+                case 4: case 6: case 9: case 11:
+                    return 30;
+                case 2:
+                    return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+                default:
+                    return 31;
+            }
+        }
+    }
+
+    /**
+     * Minimal cursor over a lexical form
+     */
+    private static class Cursor
+    {
+        final String s;
+        int pos;
+
+        Cursor( String s ) {
+            this.s = s;
+        }
+
+        boolean atEnd() {
+            return pos >= s.length();
+        }
+
+        char peek() {
+            return atEnd() ? 0 : s.charAt( pos );
+        }
+
+        char next() {
+            if (atEnd()) {
+                throw new IllegalArgumentException();
+            }
+            return s.charAt( pos++ );
+        }
+
+        boolean accept( char ch ) {
+            if (peek() == ch && !atEnd()) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect( char ch ) {
+            if (!accept( ch )) {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        int digits( int min, int max ) {
+            int start = pos;
+            long value = 0;
+            while (!atEnd() && pos - start < max && Character.isDigit( s.charAt( pos ) ) && s.charAt( pos ) < 0x80) {
+                value = value * 10 + (s.charAt( pos++ ) - '0');
+                if (value > Integer.MAX_VALUE) {
+                    value = Integer.MAX_VALUE;
+                }
+            }
+            if (pos - start < min) {
+                throw new IllegalArgumentException();
+            }
+            return (int) value;
+        }
+    }
+
+}
@@ -16,14 +16,14 @@ package com.epimorphics.rdfutil.order;
 // Imports
 ///////////////
 
-import java.math.BigDecimal;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.hp.hpl.jena.datatypes.RDFDatatype;
-import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
-import com.hp.hpl.jena.datatypes.xsd.XSDDateTime;
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
 import com.hp.hpl.jena.rdf.model.*;
 
 /**
@@ -67,9 +67,18 @@ import com.hp.hpl.jena.rdf.model.*;
  *   <li>date-time (i.e. <code>xsd:dateTime</code>)</li>
  *   </ul>
  * </li>
- * <li>
+ * <li>The ordering of typed literals with identical datatypes is looked up in a
+ *     {@link DatatypeComparatorRegistry}, to which comparators for other datatypes
+ *     may be added
  * </li>
  * </ul>
+ * <p>The comparison itself is done on the underlying graph nodes by a
+ * {@link NodeStandardOrder}, which can be used directly to sort
+ * {@link com.hp.hpl.jena.graph.Node}s without wrapping them as {@link RDFNode}s.</p>
+ * <p>The protected <code>compare...</code> methods which took resources and literals
+ * are deprecated: subclasses should extend {@link NodeStandardOrder} instead. They are
+ * still called, as before, by subclasses which override any of them; otherwise the
+ * comparison goes straight to the node order.</p>
  *
  * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
  */
@@ -87,87 +96,134 @@ public class RDFNodeStandardOrder
     @SuppressWarnings( value = "unused" )
     private static final Logger log = LoggerFactory.getLogger( RDFNodeStandardOrder.class );
 
+    /** The names of the deprecated methods which subclasses may override */
+    private static final Set<String> HOOK_NAMES = new HashSet<String>( Arrays.asList(
+            "compareResources", "compareAnonymousResources", "compareLiterals", "compareUntypedLiterals",
+            "hasLangTag", "compareTypedLiterals", "compareSameTypeLiterals", "compareNonFPNumbers",
+            "compareFPNumbers" ) );
+
+    /** The signatures of the deprecated methods which subclasses may override */
+    private static final Set<String> HOOKS = hookSignatures();
+
+    /** The signature of {@link #compare(RDFNode, RDFNode)} */
+    private static final String COMPARE = "compare" + Arrays.asList( RDFNode.class, RDFNode.class );
+
     /***********************************/
     /* Instance variables              */
     /***********************************/
 
+    /** The graph-level order that this order delegates to */
+    private final NodeStandardOrder nodeOrder;
+
+    /** True if a subclass overrides one of the deprecated methods */
+    private final boolean hooksOverridden;
+
+    /** True if a subclass overrides {@link #compare(RDFNode, RDFNode)} */
+    private final boolean compareOverridden;
+
     /***********************************/
     /* Constructors                    */
     /***********************************/
 
+    /**
+     * Construct a standard order, with its own copy of the
+     * {@link DatatypeComparatorRegistry#createStandardRegistry() standard datatype comparators}
+     */
+    public RDFNodeStandardOrder() {
+        this( new NodeStandardOrder() );
+    }
+
+    /**
+     * Construct a standard order which compares typed literals with the same
+     * datatype using the given registry of datatype comparators
+     * @param registry The datatype comparators
+     */
+    public RDFNodeStandardOrder( DatatypeComparatorRegistry registry ) {
+        this( new NodeStandardOrder( registry ) );
+    }
+
+    /**
+     * Construct a standard order which compares the graph nodes underlying
+     * each {@link RDFNode} with the given node order
+     * @param nodeOrder The graph-level node order
+     */
+    public RDFNodeStandardOrder( NodeStandardOrder nodeOrder ) {
+        this.nodeOrder = nodeOrder;
+        this.hooksOverridden = overrides( HOOKS );
+        this.compareOverridden = overrides( Collections.singleton( COMPARE ) );
+    }
+
     /***********************************/
     /* External signature methods      */
     /***********************************/
 
+    /**
+     * Return the registry of comparators used for typed literals with the same
+     * datatype. Comparators for additional datatypes may be registered with it.
+     * @return The datatype comparator registry
+     */
+    public DatatypeComparatorRegistry getRegistry() {
+        return nodeOrder.getRegistry();
+    }
+
+    /** @return The graph-level node order that this order delegates to */
+    public NodeStandardOrder getNodeOrder() {
+        return nodeOrder;
+    }
+
     @Override
     public int compare( RDFNode o1, RDFNode o2 ) {
-        if (o1.isResource()) {
-            if (o2.isResource()) {
-                return compareResources( (Resource) o1, (Resource) o2 );
-            }
-            else {
-                // o1 is a resource, o2 is a literal
-                return -1;
-            }
+        if (!hooksOverridden) {
+            return nodeOrder.compare( o1.asNode(), o2.asNode() );
+        }
+        else if (o1.isResource()) {
+            return o2.isResource() ? compareResources( (Resource) o1, (Resource) o2 ) : -1;
         }
         else {
-            if (o2.isResource()) {
-                // o2 is a resource, but o1 is a literal
-                return 1;
-            }
-            else {
-                return compareLiterals( (Literal) o1, (Literal) o2 );
-            }
+            return o2.isResource() ? 1 : compareLiterals( (Literal) o1, (Literal) o2 );
         }
     }
 
+    /**
+     * @return True if the graph-level order is used directly, because no subclass
+     * overrides {@link #compare(RDFNode, RDFNode)} or the deprecated methods
+     */
+    public boolean isDirect() {
+        return !hooksOverridden && !compareOverridden;
+    }
+
     /***********************************/
     /* Internal implementation methods */
     /***********************************/
 
     /**
-     * Determine the ordering between two {@link Resource}s
-     * @param r1 The first resource to compare
-     * @param r2 The second resource to compare
-     * @return less than zero if r1 precedes r2 in the order
+     * Compare two resources
+     * @deprecated Extend {@link NodeStandardOrder#compareResources} instead
      */
+    @Deprecated
     protected int compareResources( Resource r1, Resource r2 ) {
         if (r1.isAnon()) {
             return r2.isAnon() ? compareAnonymousResources( r1, r2 ) : -1;
         }
         else {
-            return r2.isAnon() ? 1 : compareURIResources( r1, r2 );
+            return r2.isAnon() ? 1 : nodeOrder.compareURIResources( r1.asNode(), r2.asNode() );
         }
     }
 
     /**
-     * Determine the ordering between two named resources
-     * @param r1
-     * @param r2
-     * @return An ordering based on the lexical comparison of the URI's of
-     * r1 and r2
-     */
-    private int compareURIResources( Resource r1, Resource r2 ) {
-        return r1.getURI().compareTo( r2.getURI() );
-    }
-
-    /**
-     * Determine the ordering between two bNodes
-     * @param r1
-     * @param r2
-     * @return An ordering based on the lexical comparison of the anonID's of
-     * r1 and r2
+     * Compare two bNodes
+     * @deprecated Extend {@link NodeStandardOrder#compareAnonymousResources} instead
      */
+    @Deprecated
     protected int compareAnonymousResources( Resource r1, Resource r2 ) {
-        return r1.getId().getLabelString().compareTo( r2.getId().getLabelString() );
+        return nodeOrder.compareAnonymousResources( r1.asNode(), r2.asNode() );
     }
 
     /**
-     * Determine the ordering between two arbitrary literals
-     * @param l1
-     * @param l2
-     * @return Less than zero if l1 should precede l2 in the order
+     * Compare two literals
+     * @deprecated Extend {@link NodeStandardOrder#compareLiterals} instead
      */
+    @Deprecated
     protected int compareLiterals( Literal l1, Literal l2 ) {
         if (l1.getDatatype() != null) {
             return (l2.getDatatype() != null) ? compareTypedLiterals( l1, l2 ) : -1;
@@ -178,152 +234,108 @@ public class RDFNodeStandardOrder
     }
 
     /**
-     * Determine the order between two untyped literals, which may or may not have
-     * language tags
-     *
-     * @param l1 An untyped literal
-     * @param l2 An untyped literal
-     * @return Less than zero if l1 should precede l2 in the order
+     * Compare two literals without datatypes
+     * @deprecated Extend {@link NodeStandardOrder#compareUntypedLiterals} instead
      */
+    @Deprecated
     protected int compareUntypedLiterals( Literal l1, Literal l2 ) {
-        int compare = l1.getLexicalForm().compareTo( l2.getLexicalForm() );
-        if (compare != 0) {
-            return compare;
-        }
-        else {
-            // the literal values are the same, use lang tags to disambiguate
-            if (hasLangTag( l1 )) {
-                if (hasLangTag( l2 )) {
-                    // both have lang tags
-                    return l1.getLanguage().compareTo( l2.getLanguage() );
-                }
-                else {
-                    return -1;
-                }
-            }
-            else {
-                return (hasLangTag( l2 )) ? 1 : 0;
-            }
-        }
+        return nodeOrder.compareUntypedLiterals( label( l1 ), label( l2 ) );
     }
 
     /**
-     * Return true if the given literal has a non-empty lang tag
-     * @param l
-     * @return True if the lang tag of <code>l</code> is non-null and
-     * non-empty
+     * @return True if a literal has a non-empty language tag
+     * @deprecated Use {@link NodeStandardOrder#hasLangTag} instead
      */
+    @Deprecated
     protected boolean hasLangTag( Literal l ) {
-        String t = l.getLanguage();
-        return t != null && t.length() > 0;
+        return nodeOrder.hasLangTag( label( l ) );
     }
 
-
     /**
-     * Determine the order between two typed literals, which may have different
-     * or identical datatypes.
-     * @param l1
-     * @param l2
-     * @return Less than zero if typed literal <code>l1</code> should precede
-     * typed literal <code>l2</code> in the order
+     * Compare two literals with datatypes
+     * @deprecated Extend {@link NodeStandardOrder#compareTypedLiterals} instead
      */
+    @Deprecated
     protected int compareTypedLiterals( Literal l1, Literal l2 ) {
         if (l1.getDatatype().equals( l2.getDatatype() )) {
-            // types are the same
             return compareSameTypeLiterals( l1, l2 );
         }
         else {
-            return l1.getDatatypeURI().compareTo( l2.getDatatypeURI() );
+            return nodeOrder.compareTypedLiterals( label( l1 ), label( l2 ) );
         }
     }
 
     /**
-     * Determine the order between two typed literals, which are known to have
-     * identical datatypes.
-     * @param l1
-     * @param l2
-     * @return Less than zero if typed literal <code>l1</code> should precede
-     * typed literal <code>l2</code> in the order
+     * Compare two literals with the same datatype
+     * @deprecated Extend {@link NodeStandardOrder#compareSameTypeLiterals} instead
      */
+    @Deprecated
     protected int compareSameTypeLiterals( Literal l1, Literal l2 ) {
-        Object v1 = l1.getValue();
-        Object v2 = l2.getValue();
-        RDFDatatype d = l1.getDatatype();
-
-        // certain well-known types we compare by value
-        if (d.equals( XSDDatatype.XSDboolean )) {
-            return ((Boolean) v1).compareTo( ((Boolean) v2 ) );
-        }
-        else if (d.equals( XSDDatatype.XSDbyte ) ||
-                 d.equals( XSDDatatype.XSDshort ) ||
-                 d.equals( XSDDatatype.XSDint ) ||
-                 d.equals( XSDDatatype.XSDlong ) ||
-                 d.equals( XSDDatatype.XSDinteger ) ||
-                 d.equals( XSDDatatype.XSDdecimal )) {
-            return compareNonFPNumbers( (Number) v1, (Number) v2 );
+        Comparator<LiteralLabel> c = getRegistry().getComparator( l1.getDatatype() );
+        if (c == DatatypeComparatorRegistry.NON_FP_NUMBER_ORDER) {
+            return compareNonFPNumbers( (Number) l1.getValue(), (Number) l2.getValue() );
         }
-        else if (d.equals( XSDDatatype.XSDdouble ) ||
-                 d.equals( XSDDatatype.XSDfloat )) {
-            return compareFPNumbers( (Number) v1, (Number) v2 );
+        else if (c == DatatypeComparatorRegistry.FP_NUMBER_ORDER) {
+            return compareFPNumbers( (Number) l1.getValue(), (Number) l2.getValue() );
         }
-        else if (d.equals( XSDDatatype.XSDtime ) ||
-                 d.equals( XSDDatatype.XSDdate ) ||
-                 d.equals( XSDDatatype.XSDdateTime )) {
-            return ((XSDDateTime) v1).compareTo( (XSDDateTime) v2 );
+        else {
+            return nodeOrder.compareSameTypeLiterals( label( l1 ), label( l2 ) );
         }
-
-        // default: compare lexical string images
-        return l1.getLexicalForm().compareTo( l2.getLexicalForm() );
     }
 
     /**
-     * Determine the order between two non-floating point numbers, which
-     * may be integers, longs or big-decimals.
-     * @param n1 A non-FP number object
-     * @param n2 A non-FP number object
-     * @return Less than one if n1 is less than n2
+     * Compare two non-floating point numbers
+     * @deprecated Use {@link DatatypeComparatorRegistry#compareNonFPNumbers} instead
      */
+    @Deprecated
     protected int compareNonFPNumbers( Number n1, Number n2 ) {
-        if (n1 instanceof BigDecimal && n2 instanceof BigDecimal) {
-            return ((BigDecimal) n1).compareTo( (BigDecimal) n2);
-        }
-        else if (n1 instanceof BigDecimal) {
-            return ((BigDecimal) n1).compareTo( new BigDecimal( n2.longValue() ) );
-        }
-        else if (n2 instanceof BigDecimal) {
-            return new BigDecimal( n1.longValue() ).compareTo( (BigDecimal) n2 );
-        }
-        else {
-            long delta = n1.longValue() - n2.longValue();
-            return (delta > Integer.MAX_VALUE) ? Integer.MAX_VALUE :
-                            ((delta < Integer.MIN_VALUE) ? Integer.MIN_VALUE : (int) delta);
-        }
+        return DatatypeComparatorRegistry.compareNonFPNumbers( n1, n2 );
     }
 
     /**
-     * Determine the order between two floating point numbers, which
-     * may be floats or doubles
-     * @param n1 An FP number object
-     * @param n2 An FP number object
-     * @return Less than one if n1 is less than n2
+     * Compare two floating point numbers
+     * @deprecated Use {@link DatatypeComparatorRegistry#compareFPNumbers} instead
      */
+    @Deprecated
     protected int compareFPNumbers( Number n1, Number n2 ) {
-        if (n1 instanceof Double) {
-            if (n2 instanceof Double) {
-                return ((Double) n1).compareTo( (Double) n2 );
-            }
-            else {
-                return ((Double) n1).compareTo( new Double( n2.doubleValue() ));
+        return DatatypeComparatorRegistry.compareFPNumbers( n1, n2 );
+    }
+
+    /** @return The literal label underlying a literal */
+    private static LiteralLabel label( Literal l ) {
+        return l.asNode().getLiteral();
+    }
+
+    /**
+     * @return True if this object's class, below this class, declares a method which
+     * overrides one of the given signatures
+     */
+    private boolean overrides( Set<String> signatures ) {
+        for (Class<?> c = getClass(); c != RDFNodeStandardOrder.class; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                if (!m.isBridge() && signatures.contains( signature( m ) )) {
+                    return true;
+                }
             }
         }
-        else if (n2 instanceof Double) {
-            return new Double( n1.doubleValue() ).compareTo( (Double) n2 );
-        }
-        else {
-            return ((Float) n1).compareTo( (Float) n2 );
+        return false;
+    }
+
+    /** @return The signatures of the deprecated methods declared by this class */
+    private static Set<String> hookSignatures() {
+        Set<String> hooks = new HashSet<String>();
+        for (Method m : RDFNodeStandardOrder.class.getDeclaredMethods()) {
+            if (HOOK_NAMES.contains( m.getName() ) && Modifier.isProtected( m.getModifiers() )) {
+                hooks.add( signature( m ) );
+            }
         }
+        return hooks;
     }
 
+    /** @return A string identifying a method by its name and parameter types */
+    private static String signature( Method m ) {
+        return m.getName() + Arrays.asList( m.getParameterTypes() );
+    }
 
     /***********************************/
     /* Inner class definitions         */
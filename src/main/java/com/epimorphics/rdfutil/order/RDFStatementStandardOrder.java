@@ -0,0 +1,218 @@
+/*****************************************************************************
+ * File:    RDFStatementStandardOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Standard ordering for {@link Statement}s. Statements are compared position by
+ * position, in the order given by a {@link TripleLayout}, using an {@link RDFNodeOrder}
+ * (by default {@link RDFNodeStandardOrder}) to compare the nodes at each position.</p>
+ * <p>If the order is constructed from a graph-level {@link NodeOrder}, such as a
+ * {@link CompiledNodeOrder}, or the node order is an {@link RDFNodeStandardOrder} which
+ * {@link RDFNodeStandardOrder#isDirect() uses its graph-level order directly}, the
+ * comparison is done on the underlying triples by a {@link TripleStandardOrder}. Any other
+ * node order is given the statements' own subjects, predicates and objects, so an order
+ * which reads the statements' model sees the same nodes as it would for the model.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class RDFStatementStandardOrder
+    implements RDFStatementOrder
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order used to compare the nodes in each position */
+    private final RDFNodeOrder nodeOrder;
+
+    /** The order in which statement positions are compared */
+    private final TripleLayout layout;
+
+    /** The graph-level order that this order delegates to, or null if the node order has none */
+    private final TripleStandardOrder tripleOrder;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a statement order which compares subjects, then predicates,
+     * then objects, using the standard node order.
+     */
+    public RDFStatementStandardOrder() {
+        this( new RDFNodeStandardOrder(), TripleLayout.SPO );
+    }
+
+    /**
+     * Construct a statement order with the given layout, using the standard
+     * node order.
+     * @param layout The order in which statement positions are compared
+     */
+    public RDFStatementStandardOrder( TripleLayout layout ) {
+        this( new RDFNodeStandardOrder(), layout );
+    }
+
+    /**
+     * Construct a statement order with the given node order and layout.
+     * @param nodeOrder The order used to compare nodes
+     * @param layout The order in which statement positions are compared
+     */
+    public RDFStatementStandardOrder( RDFNodeOrder nodeOrder, TripleLayout layout ) {
+        this.nodeOrder = nodeOrder;
+        this.layout = layout;
+        NodeOrder graphOrder = graphOrder( nodeOrder );
+        this.tripleOrder = (graphOrder == null) ? null : new TripleStandardOrder( graphOrder, layout );
+    }
+
+    /**
+     * Construct a statement order which compares the statements' underlying
+     * triples with the given graph-level node order and layout.
+     * @param nodeOrder The order used to compare graph nodes
+     * @param layout The order in which statement positions are compared
+     */
+    public RDFStatementStandardOrder( NodeOrder nodeOrder, TripleLayout layout ) {
+        this( new GraphNodeOrder( nodeOrder ), layout );
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * @return The order used to compare the nodes in each position
+     */
+    public RDFNodeOrder getNodeOrder() {
+        return nodeOrder;
+    }
+
+    /**
+     * @return The order in which statement positions are compared
+     */
+    public TripleLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return The graph-level triple order that this order delegates to, or null if
+     * the node order is compared on the statements' own nodes
+     */
+    public TripleStandardOrder getTripleOrder() {
+        return tripleOrder;
+    }
+
+    @Override
+    public int compare( Statement s1, Statement s2 ) {
+        if (s1 == s2) {
+            return 0;
+        }
+        else if (tripleOrder != null) {
+            return tripleOrder.compare( s1.asTriple(), s2.asTriple() );
+        }
+
+        for (int level = 0; level < 3; level++) {
+            int pos = layout.position( level );
+            int c = compareNodes( component( s1, pos ), component( s2, pos ) );
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Return a graph-level order which gives the same order as a node order
+     * @param nodeOrder A node order
+     * @return The node order's own graph-level order if it has one, otherwise null
+     */
+    protected static NodeOrder graphOrder( RDFNodeOrder nodeOrder ) {
+        if (nodeOrder instanceof RDFNodeStandardOrder && ((RDFNodeStandardOrder) nodeOrder).isDirect()) {
+            return ((RDFNodeStandardOrder) nodeOrder).getNodeOrder();
+        }
+        else if (nodeOrder instanceof GraphNodeOrder) {
+            return ((GraphNodeOrder) nodeOrder).getNodeOrder();
+        }
+        return null;
+    }
+
+    /**
+     * Compare two nodes, skipping the node order if they are identical
+     * @param n1 A node
+     * @param n2 A node
+     * @return Less than zero if n1 precedes n2 in the order
+     */
+    protected int compareNodes( RDFNode n1, RDFNode n2 ) {
+        return (n1 == n2 || n1.asNode() == n2.asNode()) ? 0 : nodeOrder.compare( n1, n2 );
+    }
+
+    /** @return The node at a {@link TripleLayout} position of a statement */
+    protected static RDFNode component( Statement s, int pos ) {
+        switch (pos) {
+            case TripleLayout.SUBJECT:   return s.getSubject();
+            case TripleLayout.PREDICATE: return s.getPredicate();
+            default:                     return s.getObject();
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * An order over {@link RDFNode}s which compares their graph nodes with a
+     * {@link NodeOrder}. Statement orders built on it compare triples directly.
+     */
+    public static class GraphNodeOrder
+        implements RDFNodeOrder
+    {
+        /** The order used to compare graph nodes */
+        private final NodeOrder nodeOrder;
+
+        /**
+         * Construct an order over RDF nodes from a graph-level order
+         * @param nodeOrder The order used to compare graph nodes
+         */
+        public GraphNodeOrder( NodeOrder nodeOrder ) {
+            this.nodeOrder = nodeOrder;
+        }
+
+        /** @return The order used to compare graph nodes */
+        public NodeOrder getNodeOrder() {
+            return nodeOrder;
+        }
+
+        @Override
+        public int compare( RDFNode n1, RDFNode n2 ) {
+            return nodeOrder.compare( n1.asNode(), n2.asNode() );
+        }
+    }
+
+}
+
@@ -0,0 +1,470 @@
+/*****************************************************************************
+ * File:    RadixSorter.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Sorts nodes, statements and triples by their binary sort keys, using a most
+ * significant digit (MSD) radix sort over the key bytes, so that no comparator is
+ * called while sorting. Keys are made with an {@link RDFNodeKeyEncoder}, and the key
+ * of a statement or triple is the concatenation of the keys of its nodes in
+ * {@link TripleLayout} order, so the result is in the same order as
+ * {@link RDFNodeStandardOrder}, {@link RDFStatementStandardOrder} or
+ * {@link TripleStandardOrder}. The one exception is noted on {@link RDFNodeKeyEncoder}:
+ * date and time values which Jena cannot order are given a fixed order by their keys.</p>
+ * <p>The input is distributed into buckets by the first byte at which the keys
+ * differ, and the buckets are distributed again by the next byte, until each bucket
+ * is small enough to be finished by insertion sort. Keys are encoded in parallel, the
+ * first distribution passes run on the calling thread until there are enough buckets
+ * to share out, and then groups of buckets are sorted on separate threads. Inputs
+ * smaller than the parallelism threshold are sorted on the calling thread. The sort
+ * is stable.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class RadixSorter
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Default minimum number of elements in each task that is run in parallel */
+    public static final int DEFAULT_THRESHOLD = 8192;
+
+    /** Buckets no larger than this are sorted by insertion sort */
+    protected static final int INSERTION_SORT_SIZE = 32;
+
+    /** Number of buckets: one for keys which end at the current byte, then one per byte value */
+    private static final int BUCKETS = 257;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The maximum number of threads to use */
+    private final int parallelism;
+
+    /** The minimum number of elements in each parallel task */
+    private final int threshold;
+
+    /** Executor supplied by the caller, or null to create one for each sort */
+    private final ExecutorService executor;
+
+    /** Encodes the sort keys */
+    private final RDFNodeKeyEncoder encoder;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a sorter which uses one thread per available processor, the default
+     * parallelism threshold, and the standard key encoder.
+     */
+    public RadixSorter() {
+        this( Runtime.getRuntime().availableProcessors(), DEFAULT_THRESHOLD, null, new RDFNodeKeyEncoder() );
+    }
+
+    /**
+     * Construct a sorter with the given parallelism and threshold. A new thread
+     * pool is created for each sort that is large enough to run in parallel.
+     * @param parallelism The maximum number of threads to use
+     * @param threshold The minimum number of elements in each parallel task. Inputs
+     * smaller than this are sorted on the calling thread
+     */
+    public RadixSorter( int parallelism, int threshold ) {
+        this( parallelism, threshold, null, new RDFNodeKeyEncoder() );
+    }
+
+    /**
+     * Construct a sorter which runs its tasks on the given executor, and makes keys
+     * with the given encoder.
+     * @param parallelism The maximum number of tasks to run at once
+     * @param threshold The minimum number of elements in each parallel task
+     * @param executor The executor to run tasks on, or null to create a thread pool
+     * for each sort. The executor is not shut down by this sorter
+     * @param encoder The key encoder
+     */
+    public RadixSorter( int parallelism, int threshold, ExecutorService executor, RDFNodeKeyEncoder encoder ) {
+        if (parallelism < 1 || threshold < 1) {
+            throw new IllegalArgumentException( "Parallelism and threshold must be positive" );
+        }
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+        this.executor = executor;
+        this.encoder = encoder;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The maximum number of threads used by this sorter */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /** @return The minimum number of elements in each parallel task */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /** @return The key encoder */
+    public RDFNodeKeyEncoder getEncoder() {
+        return encoder;
+    }
+
+    /**
+     * Sort a list of nodes in place into the standard node order
+     * @param nodes The nodes to sort
+     */
+    public <T extends RDFNode> void sortNodes( List<T> nodes ) {
+        sortList( nodes, new KeyFunction<T>() {
+            @Override
+            public void encode( T n, RDFNodeKeyEncoder.KeySink sink ) {
+                encoder.encode( n.asNode(), sink );
+            }
+        } );
+    }
+
+    /**
+     * Sort a list of statements in place into the standard statement order for a layout
+     * @param stmts The statements to sort
+     * @param layout The order in which statement positions are compared
+     */
+    public void sortStatements( List<Statement> stmts, final TripleLayout layout ) {
+        sortList( stmts, new KeyFunction<Statement>() {
+            @Override
+            public void encode( Statement s, RDFNodeKeyEncoder.KeySink sink ) {
+                for (int level = 0; level < 3; level++) {
+                    switch (layout.position( level )) {
+                        case TripleLayout.SUBJECT:   encoder.encode( s.getSubject().asNode(), sink ); break;
+                        case TripleLayout.PREDICATE: encoder.encode( s.getPredicate().asNode(), sink ); break;
+                        default:                     encoder.encode( s.getObject().asNode(), sink );
+                    }
+                }
+            }
+        } );
+    }
+
+    /**
+     * Sort a list of triples in place into the standard triple order for a layout
+     * @param triples The triples to sort
+     * @param layout The order in which triple positions are compared
+     */
+    public void sortTriples( List<Triple> triples, final TripleLayout layout ) {
+        sortList( triples, new KeyFunction<Triple>() {
+            @Override
+            public void encode( Triple t, RDFNodeKeyEncoder.KeySink sink ) {
+                for (int level = 0; level < 3; level++) {
+                    Node n;
+                    switch (layout.position( level )) {
+                        case TripleLayout.SUBJECT:   n = t.getSubject(); break;
+                        case TripleLayout.PREDICATE: n = t.getPredicate(); break;
+                        default:                     n = t.getObject();
+                    }
+                    encoder.encode( n, sink );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Sort an array of items by their keys, in place. The keys are compared as unsigned
+     * byte strings, and are moved with their items, so that on return <code>keys[i]</code>
+     * is still the key of <code>items[i]</code>.
+     * @param items The items to sort
+     * @param keys The key of each item
+     */
+    public <T> void sort( T[] items, byte[][] keys ) {
+        if (items.length != keys.length) {
+            throw new IllegalArgumentException( "There must be one key per item" );
+        }
+        int n = items.length;
+        Sort<T> sort = new Sort<T>( items, keys );
+        if (parallelism == 1 || n < 2 * threshold) {
+            sort.msd( 0, n, 0 );
+            return;
+        }
+
+        // distribute on the calling thread until no bucket is bigger than a fair share
+        int share = Math.max( threshold, n / (parallelism * 4) );
+        LinkedList<int[]> pending = new LinkedList<int[]>();
+        List<int[]> ready = new ArrayList<int[]>();
+        pending.add( new int[] {0, n, 0} );
+        while (!pending.isEmpty()) {
+            int[] r = pending.removeFirst();
+            if (r[1] - r[0] <= share) {
+                ready.add( r );
+            }
+            else {
+                sort.distribute( r[0], r[1], r[2], pending );
+            }
+        }
+
+        // group the buckets into tasks of roughly a fair share each
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        List<int[]> group = new ArrayList<int[]>();
+        int groupSize = 0;
+        for (int[] r : ready) {
+            group.add( r );
+            groupSize += r[1] - r[0];
+            if (groupSize >= share) {
+                tasks.add( new BucketTask<T>( sort, group ) );
+                group = new ArrayList<int[]>();
+                groupSize = 0;
+            }
+        }
+        if (!group.isEmpty()) {
+            tasks.add( new BucketTask<T>( sort, group ) );
+        }
+        run( tasks );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Encode the key of each item in a list, sort the items by key, and write them
+     * back into the list
+     */
+    @SuppressWarnings( "unchecked" )
+    protected <T> void sortList( List<T> list, final KeyFunction<T> keyFunction ) {
+        final Object[] items = list.toArray();
+        final byte[][] keys = new byte[items.length][];
+
+        int segments = Math.min( parallelism, items.length / threshold );
+        if (segments <= 1) {
+            encodeKeys( items, keys, 0, items.length, keyFunction );
+        }
+        else {
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            for (int i = 0; i < segments; i++) {
+                final int from = (int) ((long) items.length * i / segments);
+                final int to = (int) ((long) items.length * (i + 1) / segments);
+                tasks.add( new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        encodeKeys( items, keys, from, to, keyFunction );
+                        return null;
+                    }
+                } );
+            }
+            run( tasks );
+        }
+
+        sort( items, keys );
+        ListIterator<T> i = list.listIterator();
+        for (Object o : items) {
+            i.next();
+            i.set( (T) o );
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    protected <T> void encodeKeys( Object[] items, byte[][] keys, int from, int to, KeyFunction<T> keyFunction ) {
+        RDFNodeKeyEncoder.KeySink sink = new RDFNodeKeyEncoder.KeySink();
+        for (int i = from; i < to; i++) {
+            sink.reset();
+            keyFunction.encode( (T) items[i], sink );
+            keys[i] = sink.toByteArray();
+        }
+    }
+
+    /**
+     * Run all of the given tasks and wait for them to finish, rethrowing any
+     * exception thrown by a task
+     */
+    protected void run( List<Callable<Object>> tasks ) {
+        ExecutorService exec = (executor != null) ? executor : Executors.newFixedThreadPool( Math.min( parallelism, tasks.size() ) );
+        try {
+            for (Future<Object> f : exec.invokeAll( tasks )) {
+                f.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while sorting", e );
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException( cause );
+        }
+        finally {
+            if (executor == null) {
+                exec.shutdown();
+            }
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * Writes the sort key of an item
+     */
+    protected interface KeyFunction<T>
+    {
+        public void encode( T item, RDFNodeKeyEncoder.KeySink sink );
+    }
+
+    /**
+     * The state of one sort: the items and keys, and scratch arrays of the same
+     * size for distributing them. Tasks work on disjoint ranges of the arrays.
+     */
+    protected static class Sort<T>
+    {
+        private final T[] items;
+        private final byte[][] keys;
+        private final T[] itemsAux;
+        private final byte[][] keysAux;
+
+        Sort( T[] items, byte[][] keys ) {
+            this.items = items;
+            this.keys = keys;
+            this.itemsAux = items.clone();
+            this.keysAux = new byte[keys.length][];
+        }
+
+        /** Sort the range <code>[lo, hi)</code>, whose keys are known to share their first <code>depth</code> bytes */
+        void msd( int lo, int hi, int depth ) {
+            LinkedList<int[]> buckets = new LinkedList<int[]>();
+            buckets.add( new int[] {lo, hi, depth} );
+            while (!buckets.isEmpty()) {
+                int[] r = buckets.removeLast();
+                if (r[1] - r[0] <= INSERTION_SORT_SIZE) {
+                    insertionSort( r[0], r[1], r[2] );
+                }
+                else {
+                    distribute( r[0], r[1], r[2], buckets );
+                }
+            }
+        }
+
+        /**
+         * Distribute the range <code>[lo, hi)</code> into buckets by the first byte, at or
+         * after <code>depth</code>, at which the keys differ. The buckets which still need
+         * sorting are added to <code>buckets</code>
+         */
+        void distribute( int lo, int hi, int depth, List<int[]> buckets ) {
+            int[] counts = new int[BUCKETS];
+            while (true) {
+                Arrays.fill( counts, 0 );
+                for (int i = lo; i < hi; i++) {
+                    counts[bucket( keys[i], depth )]++;
+                }
+                if (counts[0] == hi - lo) {
+                    // every key ends here, so the keys are all equal
+                    return;
+                }
+                if (counts[bucket( keys[lo], depth )] != hi - lo) {
+                    break;
+                }
+                // all of the keys share this byte
+                depth++;
+            }
+
+            int[] starts = new int[BUCKETS];
+            int pos = lo;
+            for (int b = 0; b < BUCKETS; b++) {
+                starts[b] = pos;
+                pos += counts[b];
+            }
+            int[] next = starts.clone();
+            for (int i = lo; i < hi; i++) {
+                int j = next[bucket( keys[i], depth )]++;
+                keysAux[j] = keys[i];
+                itemsAux[j] = items[i];
+            }
+            System.arraycopy( keysAux, lo, keys, lo, hi - lo );
+            System.arraycopy( itemsAux, lo, items, lo, hi - lo );
+
+            // bucket 0 holds keys that end here, which are all equal
+            for (int b = 1; b < BUCKETS; b++) {
+                if (counts[b] > 1) {
+                    buckets.add( new int[] {starts[b], starts[b] + counts[b], depth + 1} );
+                }
+            }
+        }
+
+        /** Stable insertion sort of <code>[lo, hi)</code>, comparing keys from <code>depth</code> */
+        void insertionSort( int lo, int hi, int depth ) {
+            for (int i = lo + 1; i < hi; i++) {
+                byte[] key = keys[i];
+                T item = items[i];
+                int j = i - 1;
+                while (j >= lo && compareFrom( keys[j], key, depth ) > 0) {
+                    keys[j + 1] = keys[j];
+                    items[j + 1] = items[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                items[j + 1] = item;
+            }
+        }
+
+        private static int bucket( byte[] key, int depth ) {
+            return (depth < key.length) ? (key[depth] & 0xFF) + 1 : 0;
+        }
+
+        private static int compareFrom( byte[] k1, byte[] k2, int depth ) {
+            return RDFNodeKeyEncoder.compareKeys( k1, depth, k1.length - depth, k2, depth, k2.length - depth );
+        }
+    }
+
+    /**
+     * Sort a group of buckets of one sort
+     */
+    protected static class BucketTask<T>
+        implements Callable<Object>
+    {
+        private final Sort<T> sort;
+        private final List<int[]> buckets;
+
+        BucketTask( Sort<T> sort, List<int[]> buckets ) {
+            this.sort = sort;
+            this.buckets = buckets;
+        }
+
+        @Override
+        public Object call() {
+            for (int[] r : buckets) {
+                sort.msd( r[0], r[1], r[2] );
+            }
+            return null;
+        }
+    }
+
+}
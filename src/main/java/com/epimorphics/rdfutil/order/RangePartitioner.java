@@ -0,0 +1,273 @@
+/*****************************************************************************
+ * File:    RangePartitioner.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+
+/**
+ * <p>Divides a stream of statements or nodes into ranges of an order, so that each
+ * range can be sorted separately, in another thread, process or machine, and the
+ * sorted ranges concatenated to give the whole stream in order, with no merge step.
+ * A partitioner with <em>N</em> partitions holds <em>N</em>-1 splitters, in order:
+ * partition <em>i</em> receives the elements which are not before splitter
+ * <em>i</em>-1 and are before splitter <em>i</em>. Elements which the order treats
+ * as equal always go to the same partition.</p>
+ * <p>Splitters are normally chosen from a random sample of the input, taken with a
+ * {@link Reservoir}, so that the partitions are of roughly equal size whatever the
+ * distribution of the data. For example, to spread the statements of a large file
+ * over eight workers:</p>
+ * <pre>
+ * RDFStatementOrder order = new RDFStatementStandardOrder();
+ * RangePartitioner&lt;Statement&gt; p = RangePartitioner.fromSample( statements(), order, 8, 10000, new Random() );
+ * for (Iterator&lt;Statement&gt; i = statements(); i.hasNext(); ) {
+ *     Statement s = i.next();
+ *     worker( p.partition( s ) ).add( s );
+ * }
+ * </pre>
+ * <p>The splitters are ordinary statements or nodes, so they can be sent to other
+ * processes, for example as N-Triples, and a partitioner re-created there with
+ * {@link #RangePartitioner(Comparator, List)}. When many elements are equal, several
+ * splitters may be equal and some partitions will be empty. A partitioner may be
+ * shared between threads once it has been created.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class RangePartitioner<T>
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Default number of elements sampled for each partition */
+    public static final int DEFAULT_SAMPLES_PER_PARTITION = 100;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order of the partitions */
+    private final Comparator<? super T> order;
+
+    /** The boundaries between partitions, in order */
+    private final List<T> splitters;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a partitioner with the given splitters
+     * @param order The order to partition by, such as an {@link RDFStatementOrder} or {@link RDFNodeOrder}
+     * @param splitters The boundaries between partitions, in order. There is one more partition
+     * than there are splitters
+     * @exception IllegalArgumentException if the splitters are not in order
+     */
+    public RangePartitioner( Comparator<? super T> order, List<? extends T> splitters ) {
+        for (int i = 1; i < splitters.size(); i++) {
+            if (order.compare( splitters.get( i - 1 ), splitters.get( i ) ) > 0) {
+                throw new IllegalArgumentException( "Splitters are not in order at " + i + ": " + splitters.get( i ) );
+            }
+        }
+        this.order = order;
+        this.splitters = new ArrayList<T>( splitters );
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Sample an input and construct a partitioner whose splitters divide the sample
+     * into equal parts. The iterator is read to the end.
+     * @param items The input to sample
+     * @param order The order to partition by
+     * @param partitions The number of partitions, at least one
+     * @param sampleSize The number of elements to sample. Larger samples give more evenly
+     * sized partitions; {@link #DEFAULT_SAMPLES_PER_PARTITION} for each partition is usually enough
+     * @param random The source of randomness for sampling
+     * @return A new partitioner
+     */
+    public static <T> RangePartitioner<T> fromSample( Iterator<? extends T> items, Comparator<? super T> order,
+                                                     int partitions, int sampleSize, Random random ) {
+        Reservoir<T> reservoir = new Reservoir<T>( sampleSize, random );
+        reservoir.addAll( items );
+        return new RangePartitioner<T>( order, chooseSplitters( reservoir.getSample(), order, partitions ) );
+    }
+
+    /**
+     * Choose the splitters which divide a sample into equal parts
+     * @param sample A sample of the input, in any order
+     * @param order The order to partition by
+     * @param partitions The number of partitions, at least one
+     * @return A new list of <code>partitions - 1</code> splitters in order, or fewer if the
+     * sample is smaller than that
+     * @exception IllegalArgumentException if <code>partitions</code> is less than one
+     */
+    public static <T> List<T> chooseSplitters( List<? extends T> sample, Comparator<? super T> order, int partitions ) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException( "There must be at least one partition: " + partitions );
+        }
+        List<T> sorted = new ArrayList<T>( sample );
+        Collections.sort( sorted, order );
+
+        List<T> splitters = new ArrayList<T>( partitions - 1 );
+        int n = sorted.size();
+        if (n > 0) {
+            for (int i = 1; i < partitions; i++) {
+                splitters.add( sorted.get( (int) ((long) i * n / partitions) ) );
+            }
+        }
+        return splitters;
+    }
+
+    /** @return The order of the partitions */
+    public Comparator<? super T> getOrder() {
+        return order;
+    }
+
+    /** @return The number of partitions, which is one more than the number of splitters */
+    public int getPartitionCount() {
+        return splitters.size() + 1;
+    }
+
+    /** @return The boundaries between partitions, in order */
+    public List<T> getSplitters() {
+        return Collections.unmodifiableList( splitters );
+    }
+
+    /**
+     * Return the partition which an element belongs to
+     * @param item A statement or node
+     * @return The index of the partition, from zero to <code>getPartitionCount() - 1</code>
+     */
+    public int partition( T item ) {
+        // the number of splitters which are not after the item
+        int low = 0;
+        int high = splitters.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare( splitters.get( mid ), item ) <= 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Route each element of an input to its partition. The iterator is read to the end.
+     * @param items The input
+     * @return A new list of <code>getPartitionCount()</code> lists, each holding the elements
+     * of one partition in their input order
+     */
+    public List<List<T>> partitionAll( Iterator<? extends T> items ) {
+        List<List<T>> partitions = new ArrayList<List<T>>( getPartitionCount() );
+        for (int i = 0; i < getPartitionCount(); i++) {
+            partitions.add( new ArrayList<T>() );
+        }
+        while (items.hasNext()) {
+            T item = items.next();
+            partitions.get( partition( item ) ).add( item );
+        }
+        return partitions;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * <p>A uniform random sample of fixed size from a stream of unknown length. Every
+     * element offered so far is equally likely to be in the sample, and the sample
+     * never holds more than its size, however long the stream.</p>
+     */
+    public static class Reservoir<T>
+    {
+        private final int size;
+        private final Random random;
+        private final List<T> sample;
+        private long count = 0;
+
+        /**
+         * Construct an empty reservoir
+         * @param size The maximum number of elements in the sample, at least one
+         * @param random The source of randomness
+         */
+        public Reservoir( int size, Random random ) {
+            if (size < 1) {
+                throw new IllegalArgumentException( "Sample size must be at least one: " + size );
+            }
+            this.size = size;
+            this.random = random;
+            this.sample = new ArrayList<T>( Math.min( size, 1024 ) );
+        }
+
+        /**
+         * Offer an element to the sample
+         * @param item An element
+         */
+        public void add( T item ) {
+            count++;
+            if (sample.size() < size) {
+                sample.add( item );
+            }
+            else {
+                // keep the new element with probability size / count
+                long j = (long) (random.nextDouble() * count);
+                if (j < size) {
+                    sample.set( (int) j, item );
+                }
+            }
+        }
+
+        /**
+         * Offer all of the elements of an iterator to the sample
+         * @param items The elements
+         */
+        public void addAll( Iterator<? extends T> items ) {
+            while (items.hasNext()) {
+                add( items.next() );
+            }
+        }
+
+        /** @return The number of elements offered so far */
+        public long getCount() {
+            return count;
+        }
+
+        /** @return The maximum number of elements in the sample */
+        public int getSize() {
+            return size;
+        }
+
+        /** @return A new list of the elements in the sample, in no particular order */
+        public List<T> getSample() {
+            return new ArrayList<T>( sample );
+        }
+    }
+
+}
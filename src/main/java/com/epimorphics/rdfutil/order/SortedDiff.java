@@ -0,0 +1,218 @@
+/*****************************************************************************
+ * File:    SortedDiff.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+
+import com.hp.hpl.jena.rdf.model.Statement;
+
+/**
+ * <p>Computes the difference between two streams of statements, each already sorted into
+ * the same {@link RDFStatementOrder}, in a single merge pass. Each statement is reported to
+ * a {@link Handler} as removed (in the first stream only), added (in the second stream
+ * only) or common (in both). Memory use does not depend on the size of the streams, so two
+ * snapshots which are too large to load into models can be compared from sorted
+ * N-Triples files, for example.</p>
+ * <p>An order may treat distinct statements as equal, for example statements whose
+ * objects are the decimals <code>"2"</code> and <code>"2.0"</code>. Such statements can appear in
+ * either order in a sorted stream, so each block of statements which compare as equal is
+ * read in full from both streams and matched with {@link Statement#equals(Object)}.
+ * These blocks are normally very small.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class SortedDiff
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order that both streams are sorted into */
+    private final RDFStatementOrder order;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a diff for streams sorted in SPO order, using the standard node order.
+     */
+    public SortedDiff() {
+        this( new RDFStatementStandardOrder() );
+    }
+
+    /**
+     * Construct a diff for streams sorted into the given order.
+     * @param order The order that both streams are sorted into
+     */
+    public SortedDiff( RDFStatementOrder order ) {
+        this.order = order;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The order that both streams must be sorted into */
+    public RDFStatementOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * Compare two sorted streams of statements, reporting each statement to the handler
+     * in order. Both iterators are read to the end.
+     * @param from The first, or old, stream of statements
+     * @param to The second, or new, stream of statements
+     * @param handler Receives the removed, added and common statements
+     * @exception IllegalArgumentException if either stream is not sorted
+     */
+    public void diff( Iterator<? extends Statement> from, Iterator<? extends Statement> to, Handler handler ) {
+        SortedSource left = new SortedSource( from, "first" );
+        SortedSource right = new SortedSource( to, "second" );
+
+        while (left.head != null && right.head != null) {
+            int c = order.compare( left.head, right.head );
+            if (c < 0) {
+                handler.removed( left.next() );
+            }
+            else if (c > 0) {
+                handler.added( right.next() );
+            }
+            else if (left.head.equals( right.head )) {
+                right.next();
+                handler.common( left.next() );
+            }
+            else {
+                diffBlock( left, right, handler );
+            }
+        }
+        while (left.head != null) {
+            handler.removed( left.next() );
+        }
+        while (right.head != null) {
+            handler.added( right.next() );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Match up a block of statements which compare as equal but are not all the same.
+     * The heads of both sources compare as equal on entry.
+     */
+    protected void diffBlock( SortedSource left, SortedSource right, Handler handler ) {
+        Statement first = left.head;
+        List<Statement> lefts = new ArrayList<Statement>();
+        while (left.head != null && order.compare( left.head, first ) == 0) {
+            lefts.add( left.next() );
+        }
+        List<Statement> rights = new LinkedList<Statement>();
+        while (right.head != null && order.compare( right.head, first ) == 0) {
+            rights.add( right.next() );
+        }
+
+        for (Statement s : lefts) {
+            if (rights.remove( s )) {
+                handler.common( s );
+            }
+            else {
+                handler.removed( s );
+            }
+        }
+        for (Statement s : rights) {
+            handler.added( s );
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * Receives the result of a diff, one statement at a time, in order
+     */
+    public static interface Handler
+    {
+        /** Called for a statement which is only in the first stream */
+        public void removed( Statement s );
+
+        /** Called for a statement which is only in the second stream */
+        public void added( Statement s );
+
+        /** Called for a statement which is in both streams */
+        public void common( Statement s );
+    }
+
+    /**
+     * A handler which ignores every statement, for extending by handlers which
+     * are only interested in some of the results
+     */
+    public static class HandlerAdapter
+        implements Handler
+    {
+        @Override
+        public void removed( Statement s ) {
+        }
+
+        @Override
+        public void added( Statement s ) {
+        }
+
+        @Override
+        public void common( Statement s ) {
+        }
+    }
+
+    /**
+     * An iterator with a one-statement lookahead, which checks that the
+     * statements arrive in order
+     */
+    protected class SortedSource
+    {
+        private final Iterator<? extends Statement> it;
+        private final String name;
+        Statement head;
+
+        SortedSource( Iterator<? extends Statement> it, String name ) {
+            this.it = it;
+            this.name = name;
+            this.head = it.hasNext() ? it.next() : null;
+        }
+
+        /** Return the head statement and move on to the next */
+        Statement next() {
+            Statement s = head;
+            head = it.hasNext() ? it.next() : null;
+            if (head != null && order.compare( s, head ) > 0) {
+                throw new IllegalArgumentException( "The " + name + " stream is not sorted: " + s + " before " + head );
+            }
+            return s;
+        }
+    }
+
+}
+
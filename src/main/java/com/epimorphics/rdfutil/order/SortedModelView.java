@@ -0,0 +1,430 @@
+/*****************************************************************************
+ * File:    SortedModelView.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.hp.hpl.jena.graph.GraphEvents;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.rdf.listeners.StatementListener;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>A sorted view of the statements of a {@link Model}, or of the subjects, predicates
+ * or objects of its statements, which is kept up to date as the model changes. The view
+ * registers a {@link ModelChangedListener} with the model, and adds or removes a single
+ * entry for each statement that is added to or removed from the model, so an edit costs
+ * O(log n) rather than a sort of the whole model. Bulk adds and removes are handled one
+ * statement at a time. Removals which Jena reports only as a pattern, such as
+ * {@link Model#removeAll()}, cause the view to be rebuilt from the model into a new
+ * set, which then replaces the old one.</p>
+ * <p>Node views hold each node once, however many statements it occurs in. A node is
+ * removed from the view when a statement is removed and the model no longer contains
+ * any statement with the node in that position.</p>
+ * <p>Entries which the order treats as equal but which are distinct, such as the
+ * decimals <code>"2"</code> and <code>"2.0"</code>, are ordered by their lexical
+ * forms, so both are kept. The view may be read from any thread while the model is
+ * being updated: iterators are weakly consistent, as for {@link ConcurrentSkipListSet},
+ * and readers never see a partly rebuilt view. An iterator which was started before a
+ * rebuild continues over the old entries. Call {@link #close()} to stop following the
+ * model.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class SortedModelView<T>
+    implements Iterable<T>
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Projects each statement onto itself */
+    protected static final Projection<Statement> STATEMENTS = new Projection<Statement>() {
+        @Override
+        public Statement project( Statement s ) {
+            return s;
+        }
+
+        @Override
+        public boolean isPresent( Model m, Statement s ) {
+            // a statement is only ever in the model once, and Model.contains would also
+            // match statements whose object is a different literal with the same value
+            return false;
+        }
+    };
+
+    /** Projects each statement onto its subject */
+    protected static final Projection<Resource> SUBJECTS = new Projection<Resource>() {
+        @Override
+        public Resource project( Statement s ) {
+            return s.getSubject();
+        }
+
+        @Override
+        public boolean isPresent( Model m, Resource r ) {
+            return m.contains( r, null, (RDFNode) null );
+        }
+    };
+
+    /** Projects each statement onto its predicate */
+    protected static final Projection<Property> PREDICATES = new Projection<Property>() {
+        @Override
+        public Property project( Statement s ) {
+            return s.getPredicate();
+        }
+
+        @Override
+        public boolean isPresent( Model m, Property p ) {
+            return m.contains( null, p, (RDFNode) null );
+        }
+    };
+
+    /** Projects each statement onto its object */
+    protected static final Projection<RDFNode> OBJECTS = new Projection<RDFNode>() {
+        @Override
+        public RDFNode project( Statement s ) {
+            return s.getObject();
+        }
+
+        @Override
+        public boolean isPresent( Model m, RDFNode o ) {
+            if (!o.isLiteral()) {
+                return m.contains( null, null, o );
+            }
+            // literals are matched by value, so look for the same literal term
+            Node n = o.asNode();
+            for (StmtIterator i = m.listStatements( null, null, o ); i.hasNext(); ) {
+                if (n.equals( i.nextStatement().getObject().asNode() )) {
+                    i.close();
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The model being viewed */
+    private final Model model;
+
+    /** Selects the entries of the view from each statement */
+    private final Projection<T> projection;
+
+    /** The order of the view */
+    private final Comparator<? super T> order;
+
+    /** The entries of the view, in order. Replaced, not cleared, when the view is rebuilt */
+    private volatile ConcurrentSkipListSet<T> entries;
+
+    /** The listener registered with the model */
+    private final ModelChangedListener listener = new ViewListener();
+
+    /** True once the view has been closed */
+    private volatile boolean closed = false;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a view of a model, fill it from the statements already in the model,
+     * and start following changes to the model
+     * @param model The model to view
+     * @param order The order of the view, which must break ties between distinct entries
+     * @param projection Selects the entries of the view from each statement
+     */
+    protected SortedModelView( Model model, Comparator<? super T> order, Projection<T> projection ) {
+        this.model = model;
+        this.projection = projection;
+        this.order = order;
+        this.entries = new ConcurrentSkipListSet<T>( order );
+        model.register( listener );
+        rebuild();
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Return a view of the statements of a model, sorted into the given order
+     * @param model A model
+     * @param order The statement order
+     * @return A new view, which is following the model
+     */
+    public static SortedModelView<Statement> statements( Model model, RDFStatementOrder order ) {
+        return new SortedModelView<Statement>( model, new SortedNTriplesWriter.CanonicalOrder( order ), STATEMENTS );
+    }
+
+    /**
+     * Return a view of the distinct subjects of the statements of a model, sorted into the given order
+     * @param model A model
+     * @param order The node order
+     * @return A new view, which is following the model
+     */
+    public static SortedModelView<Resource> subjects( Model model, RDFNodeOrder order ) {
+        return new SortedModelView<Resource>( model, new TieBreakNodeOrder( order ), SUBJECTS );
+    }
+
+    /**
+     * Return a view of the distinct predicates of the statements of a model, sorted into the given order
+     * @param model A model
+     * @param order The node order
+     * @return A new view, which is following the model
+     */
+    public static SortedModelView<Property> predicates( Model model, RDFNodeOrder order ) {
+        return new SortedModelView<Property>( model, new TieBreakNodeOrder( order ), PREDICATES );
+    }
+
+    /**
+     * Return a view of the distinct objects of the statements of a model, sorted into the given order
+     * @param model A model
+     * @param order The node order
+     * @return A new view, which is following the model
+     */
+    public static SortedModelView<RDFNode> objects( Model model, RDFNodeOrder order ) {
+        return new SortedModelView<RDFNode>( model, new TieBreakNodeOrder( order ), OBJECTS );
+    }
+
+    /** @return The model being viewed */
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * Return the number of entries in the view. This counts the entries, so takes
+     * time proportional to the size of the view.
+     * @return The number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /** @return True if the view has no entries */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @param entry A statement or node
+     * @return True if the view contains the entry
+     */
+    public boolean contains( T entry ) {
+        return entries.contains( entry );
+    }
+
+    /** @return The first entry in the view, or null if the view is empty */
+    public T first() {
+        try {
+            return entries.first();
+        }
+        catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    /** @return A weakly consistent iterator over the entries of the view, in order */
+    @Override
+    public Iterator<T> iterator() {
+        return Collections.unmodifiableSortedSet( entries ).iterator();
+    }
+
+    /** @return An unmodifiable sorted set of the entries of the view, which follows the model */
+    public SortedSet<T> asSortedSet() {
+        return new LiveSet();
+    }
+
+    /**
+     * Stop following the model. The view keeps the entries it had when it was closed.
+     */
+    public void close() {
+        if (!closed) {
+            closed = true;
+            model.unregister( listener );
+        }
+    }
+
+    /** @return True if the view has been closed */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Replace the entries of the view with the entries for the statements now in the model.
+     * The new entries are collected in a new set, so readers see either the old or the
+     * new entries in full
+     */
+    protected void rebuild() {
+        ConcurrentSkipListSet<T> rebuilt = new ConcurrentSkipListSet<T>( order );
+        for (StmtIterator i = model.listStatements(); i.hasNext(); ) {
+            rebuilt.add( projection.project( i.nextStatement() ) );
+        }
+        entries = rebuilt;
+    }
+
+    /** Update the view for a statement added to the model */
+    protected void added( Statement s ) {
+        entries.add( projection.project( s ) );
+    }
+
+    /** Update the view for a statement removed from the model */
+    protected void removed( Statement s ) {
+        T entry = projection.project( s );
+        if (!projection.isPresent( model, entry )) {
+            entries.remove( entry );
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * Selects the entry of a view for a statement, and checks whether an entry
+     * is still supported by the statements in a model
+     */
+    protected static abstract class Projection<T>
+    {
+        public abstract T project( Statement s );
+
+        public abstract boolean isPresent( Model m, T entry );
+    }
+
+    /**
+     * Applies an {@link RDFNodeOrder}, breaking ties between distinct nodes
+     * as {@link NodeDictionary.TieBreakOrder} does
+     */
+    protected static class TieBreakNodeOrder
+        implements Comparator<RDFNode>
+    {
+        private final RDFNodeOrder order;
+        private final Comparator<Node> tieBreak = new NodeDictionary.TieBreakOrder( new NodeStandardOrder() );
+
+        TieBreakNodeOrder( RDFNodeOrder order ) {
+            this.order = order;
+        }
+
+        @Override
+        public int compare( RDFNode n1, RDFNode n2 ) {
+            int c = order.compare( n1, n2 );
+            return (c != 0 || n1 == n2) ? c : tieBreak.compare( n1.asNode(), n2.asNode() );
+        }
+    }
+
+    /**
+     * An unmodifiable sorted set which reads the entries the view has at the time of
+     * each call, so that it follows the view across rebuilds. Subsets are taken from
+     * the entries at the time they are made.
+     */
+    private class LiveSet
+        extends AbstractSet<T>
+        implements SortedSet<T>
+    {
+        private SortedSet<T> current() {
+            return Collections.unmodifiableSortedSet( entries );
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return current().iterator();
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        @Override
+        public boolean contains( Object o ) {
+            return entries.contains( o );
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return order;
+        }
+
+        @Override
+        public SortedSet<T> subSet( T from, T to ) {
+            return current().subSet( from, to );
+        }
+
+        @Override
+        public SortedSet<T> headSet( T to ) {
+            return current().headSet( to );
+        }
+
+        @Override
+        public SortedSet<T> tailSet( T from ) {
+            return current().tailSet( from );
+        }
+
+        @Override
+        public T first() {
+            return entries.first();
+        }
+
+        @Override
+        public T last() {
+            return entries.last();
+        }
+    }
+
+    /**
+     * Receives change notifications from the model. {@link StatementListener}
+     * passes each statement of a bulk update to the single statement methods.
+     */
+    private class ViewListener
+        extends StatementListener
+    {
+        @Override
+        public void addedStatement( Statement s ) {
+            added( s );
+        }
+
+        @Override
+        public void removedStatement( Statement s ) {
+            removed( s );
+        }
+
+        @Override
+        public void notifyEvent( Model m, Object event ) {
+            if (event instanceof GraphEvents && !GraphEvents.startRead.equals( event ) && !GraphEvents.finishRead.equals( event )) {
+                // removeAll and remove-by-pattern do not report which statements were removed
+                rebuild();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,360 @@
+/*****************************************************************************
+ * File:    SortedNTriplesWriter.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Statement;
+
+/**
+ * <p>Writes statements as N-Triples in a canonical order, so that the same set of
+ * statements always produces byte-identical output. Statements are sorted with an
+ * {@link RDFStatementOrder}; statements which that order treats as equal but which are
+ * not the same statement, such as two statements whose objects are the decimals
+ * <code>"2"</code> and <code>"2.0"</code>, are ordered by the lexical forms of their nodes,
+ * so that the output does not depend on the order of the input.</p>
+ * <p>Lines are written with {@link NTriplesCodec} directly into a byte buffer, which is
+ * written to a {@link WritableByteChannel} whenever it fills. No intermediate strings are
+ * built for each statement. Optionally, duplicate statements are written only once.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class SortedNTriplesWriter
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Default size of the output buffer in bytes */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order to write statements in */
+    private final RDFStatementOrder order;
+
+    /** The order used to sort statements, including tie-breaks */
+    private final Comparator<Statement> canonicalOrder;
+
+    /** If true, duplicate statements are written once */
+    private boolean distinct = false;
+
+    /** Size of the output buffer in bytes */
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    /** Codec for writing N-Triples lines */
+    private final NTriplesCodec codec = new NTriplesCodec();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a writer which writes statements in SPO order, using the standard node order.
+     */
+    public SortedNTriplesWriter() {
+        this( new RDFStatementStandardOrder() );
+    }
+
+    /**
+     * Construct a writer which writes statements in the given order.
+     * @param order The statement order
+     */
+    public SortedNTriplesWriter( RDFStatementOrder order ) {
+        this.order = order;
+        this.canonicalOrder = new CanonicalOrder( order );
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** @return The statement order used by this writer */
+    public RDFStatementOrder getOrder() {
+        return order;
+    }
+
+    /** @return True if duplicate statements are written only once */
+    public boolean isDistinct() {
+        return distinct;
+    }
+
+    /**
+     * Set whether duplicate statements should be written only once. A model never
+     * contains duplicates, but other sources of statements may.
+     * @param distinct If true, drop duplicate statements
+     */
+    public void setDistinct( boolean distinct ) {
+        this.distinct = distinct;
+    }
+
+    /** @return The size of the output buffer in bytes */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Set the size of the buffer that output is collected in before it is written
+     * to the channel
+     * @param bufferSize A number of bytes, at least 16
+     */
+    public void setBufferSize( int bufferSize ) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException( "Buffer size must be at least 16 bytes" );
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Write all of the statements in a model, in order. The stream is flushed but not closed.
+     * @param m A model
+     * @param out The output stream
+     * @exception IOException if writing fails
+     */
+    public void write( Model m, OutputStream out )
+        throws IOException
+    {
+        write( m.listStatements(), Channels.newChannel( out ) );
+        out.flush();
+    }
+
+    /**
+     * Write all of the statements in a model, in order. The channel is not closed.
+     * @param m A model
+     * @param out The output channel
+     * @exception IOException if writing fails
+     */
+    public void write( Model m, WritableByteChannel out )
+        throws IOException
+    {
+        write( m.listStatements(), out );
+    }
+
+    /**
+     * Sort the remaining statements of an iterator and write them. The channel is not closed.
+     * @param stmts The statements to write, in any order
+     * @param out The output channel
+     * @exception IOException if writing fails
+     */
+    public void write( Iterator<? extends Statement> stmts, WritableByteChannel out )
+        throws IOException
+    {
+        List<Statement> all = new ArrayList<Statement>();
+        while (stmts.hasNext()) {
+            all.add( stmts.next() );
+        }
+        Statement[] a = all.toArray( new Statement[all.size()] );
+        all = null;
+        Arrays.sort( a, canonicalOrder );
+        writeSorted( Arrays.asList( a ).iterator(), out );
+    }
+
+    /**
+     * Write statements which are already in order, for example the output of a merge.
+     * If {@link #isDistinct()}, duplicates must be adjacent to be removed. The channel is
+     * not closed.
+     * @param stmts The statements to write, in order
+     * @param out The output channel
+     * @exception IOException if writing fails
+     */
+    public void writeSorted( Iterator<? extends Statement> stmts, WritableByteChannel out )
+        throws IOException
+    {
+        ChannelOutput buf = new ChannelOutput( out, bufferSize );
+        Statement prev = null;
+        while (stmts.hasNext()) {
+            Statement s = stmts.next();
+            if (distinct && prev != null && prev.equals( s )) {
+                continue;
+            }
+            codec.write( s, buf );
+            prev = s;
+        }
+        buf.flush();
+    }
+
+    /**
+     * Return the order which this writer sorts statements into: the statement order,
+     * with ties between distinct statements broken so that only equal statements
+     * compare as zero
+     * @return A total order on statements
+     */
+    public Comparator<Statement> getCanonicalOrder() {
+        return canonicalOrder;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * A statement order extended with a tie-break on the nodes of each statement
+     */
+    protected static class CanonicalOrder
+        implements Comparator<Statement>
+    {
+        private final RDFStatementOrder order;
+        private final Comparator<Node> tieBreak = new NodeDictionary.TieBreakOrder( new NodeStandardOrder() );
+
+        CanonicalOrder( RDFStatementOrder order ) {
+            this.order = order;
+        }
+
+        @Override
+        public int compare( Statement s1, Statement s2 ) {
+            int c = order.compare( s1, s2 );
+            if (c != 0 || s1 == s2) {
+                return c;
+            }
+            c = tieBreak.compare( s1.getSubject().asNode(), s2.getSubject().asNode() );
+            if (c != 0) {
+                return c;
+            }
+            c = tieBreak.compare( s1.getPredicate().asNode(), s2.getPredicate().asNode() );
+            if (c != 0) {
+                return c;
+            }
+            return tieBreak.compare( s1.getObject().asNode(), s2.getObject().asNode() );
+        }
+    }
+
+    /**
+     * Collects characters into a byte buffer, encoded as UTF-8, and writes the buffer
+     * to a channel when it is full. The output of {@link NTriplesCodec} is ASCII, so in
+     * practice every character is a single byte.
+     */
+    protected static class ChannelOutput
+        implements Appendable
+    {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+        private char highSurrogate = 0;
+
+        ChannelOutput( WritableByteChannel channel, int size ) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate( size );
+        }
+
+        @Override
+        public Appendable append( char c )
+            throws IOException
+        {
+            if (c < 0x80 && highSurrogate == 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                buffer.put( (byte) c );
+            }
+            else {
+                appendNonASCII( c );
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append( CharSequence csq )
+            throws IOException
+        {
+            return append( csq, 0, csq.length() );
+        }
+
+        @Override
+        public Appendable append( CharSequence csq, int start, int end )
+            throws IOException
+        {
+            for (int i = start; i < end; i++) {
+                append( csq.charAt( i ) );
+            }
+            return this;
+        }
+
+        /** Write everything buffered so far to the channel */
+        void flush()
+            throws IOException
+        {
+            drain();
+        }
+
+        private void appendNonASCII( char c )
+            throws IOException
+        {
+            if (buffer.remaining() < 4) {
+                drain();
+            }
+            if (highSurrogate != 0) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate( c )) {
+                    int cp = Character.toCodePoint( high, c );
+                    buffer.put( (byte) (0xF0 | (cp >>> 18)) );
+                    buffer.put( (byte) (0x80 | ((cp >>> 12) & 0x3F)) );
+                    buffer.put( (byte) (0x80 | ((cp >>> 6) & 0x3F)) );
+                    buffer.put( (byte) (0x80 | (cp & 0x3F)) );
+                    return;
+                }
+                // unpaired high surrogate
+                buffer.put( (byte) '?' );
+                append( c );
+            }
+            else if (Character.isHighSurrogate( c )) {
+                highSurrogate = c;
+            }
+            else if (Character.isLowSurrogate( c )) {
+                // unpaired low surrogate
+                buffer.put( (byte) '?' );
+            }
+            else if (c < 0x800) {
+                buffer.put( (byte) (0xC0 | (c >>> 6)) );
+                buffer.put( (byte) (0x80 | (c & 0x3F)) );
+            }
+            else {
+                buffer.put( (byte) (0xE0 | (c >>> 12)) );
+                buffer.put( (byte) (0x80 | ((c >>> 6) & 0x3F)) );
+                buffer.put( (byte) (0x80 | (c & 0x3F)) );
+            }
+        }
+
+        private void drain()
+            throws IOException
+        {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write( buffer );
+            }
+            buffer.clear();
+        }
+    }
+
+}
+
@@ -0,0 +1,541 @@
+/*****************************************************************************
+ * File:    SortedTripleFile.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+import com.hp.hpl.jena.graph.*;
+
+/**
+ * <p>A read-only file of triples, sorted into the {@link RDFStatementStandardOrder} for
+ * a given {@link TripleLayout}, which is memory-mapped when it is opened. Lookups binary
+ * search the mapped file directly, so opening a file costs almost nothing, only the
+ * pages that a lookup touches are read, and several processes that open the same file
+ * share its pages through the operating system's page cache.</p>
+ * <p>Each record holds the binary sort key of its triple, made by concatenating the
+ * {@link RDFNodeKeyEncoder} keys of its nodes in layout order, followed by the triple
+ * as a line of N-Triples. Searches compare keys as bytes in place; only the records
+ * which are returned are parsed. Since node keys are self-delimiting, the triples
+ * whose leading positions (in layout order) match given nodes are contiguous, and are
+ * found with two binary searches.</p>
+ * <p>The file layout is a fixed size header, the records in key order, and an index
+ * of the offset of each record as a <code>long</code>. Files larger than a single
+ * mapping are mapped as several overlapping segments, so that every record lies
+ * entirely within one segment.</p>
+ * <p>bNodes keep their labels, including labels allocated by Jena, so the bNodes of the
+ * graph that was written can be used to search the file.</p>
+ * <p>Instances are safe to use from several threads.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class SortedTripleFile
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Identifies a sorted triple file */
+    public static final int MAGIC = 0x52444F54;
+
+    /** Version of the file format */
+    public static final int VERSION = 1;
+
+    /**
+     * Size of the header: magic, version, layout, maximum record length, record
+     * count and index offset
+     */
+    protected static final int HEADER_SIZE = 32;
+
+    /** Default size of each mapped segment of the file */
+    protected static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The file */
+    private final File file;
+
+    /** The layout the triples are sorted by */
+    private final TripleLayout layout;
+
+    /** The number of records */
+    private final long count;
+
+    /** The mapped segments of the record area */
+    private final MappedByteBuffer[] records;
+
+    /** The mapped segments of the index */
+    private final MappedByteBuffer[] index;
+
+    /** The size of each segment, excluding the overlap */
+    private final int segmentSize;
+
+    /** Encodes lookup keys */
+    private final RDFNodeKeyEncoder encoder = new RDFNodeKeyEncoder();
+
+    /** Parses the N-Triples of each record */
+    private final NTriplesCodec codec = new NTriplesCodec();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Open and map a sorted triple file
+     * @param file The file
+     * @param segmentSize The size of each mapped segment
+     */
+    protected SortedTripleFile( File file, int segmentSize )
+        throws IOException
+    {
+        if (segmentSize < 8 || segmentSize % 8 != 0) {
+            throw new IllegalArgumentException( "Segment size must be a positive multiple of 8" );
+        }
+        this.file = file;
+        this.segmentSize = segmentSize;
+
+        RandomAccessFile raf = new RandomAccessFile( file, "r" );
+        try {
+            if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC) {
+                throw new IOException( "Not a sorted triple file: " + file );
+            }
+            int version = raf.readInt();
+            if (version != VERSION) {
+                throw new IOException( "Unsupported sorted triple file version " + version + ": " + file );
+            }
+            this.layout = TripleLayout.values()[raf.readInt()];
+            int maxRecord = raf.readInt();
+            this.count = raf.readLong();
+            long indexOffset = raf.readLong();
+
+            FileChannel channel = raf.getChannel();
+            this.records = map( channel, HEADER_SIZE, indexOffset, maxRecord );
+            this.index = map( channel, indexOffset, indexOffset + count * 8, 0 );
+        }
+        finally {
+            // the mappings remain valid after the file is closed
+            raf.close();
+        }
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Open a sorted triple file and map it into memory
+     * @param file A file written by {@link #write(Graph, TripleLayout, File)}
+     * @return The opened file
+     * @exception IOException if the file cannot be read, or is not a sorted triple file
+     */
+    public static SortedTripleFile open( File file )
+        throws IOException
+    {
+        return new SortedTripleFile( file, DEFAULT_SEGMENT_SIZE );
+    }
+
+    /**
+     * Write all of the triples in a graph to a new sorted triple file
+     * @param g A graph
+     * @param layout The layout to sort the triples by
+     * @param file The file to write, which will be overwritten
+     * @return The number of triples written
+     * @exception IOException if the file cannot be written
+     */
+    public static long write( Graph g, TripleLayout layout, File file )
+        throws IOException
+    {
+        return write( g.find( Triple.ANY ), layout, file );
+    }
+
+    /**
+     * Write triples to a new sorted triple file. The triples need not be sorted, since
+     * they are sorted in memory before they are written; duplicate triples are written once.
+     * @param triples An iterator over the triples to write
+     * @param layout The layout to sort the triples by
+     * @param file The file to write, which will be overwritten
+     * @return The number of triples written
+     * @exception IOException if the file cannot be written
+     */
+    public static long write( Iterator<Triple> triples, TripleLayout layout, File file )
+        throws IOException
+    {
+        RDFNodeKeyEncoder encoder = new RDFNodeKeyEncoder();
+        NTriplesCodec codec = new NTriplesCodec();
+        RDFNodeKeyEncoder.KeySink sink = new RDFNodeKeyEncoder.KeySink();
+        StringBuilder line = new StringBuilder();
+
+        List<Record> recs = new ArrayList<Record>();
+        while (triples.hasNext()) {
+            Triple t = triples.next();
+            line.setLength( 0 );
+            codec.write( t, line );
+            line.setLength( line.length() - 1 );
+            sink.reset();
+            encodeKey( encoder, t, layout, 3, sink );
+            recs.add( new Record( sink.toByteArray(), ascii( line ) ) );
+        }
+        Collections.sort( recs );
+
+        long[] offsets = new long[recs.size()];
+        long offset = HEADER_SIZE;
+        int maxRecord = 0;
+        int n = 0;
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ), 64 * 1024 ) );
+        try {
+            // reserve the header, which is written once the sizes are known
+            out.write( new byte[HEADER_SIZE] );
+            Record prev = null;
+            for (Record r : recs) {
+                if (prev != null && prev.compareTo( r ) == 0) {
+                    continue;
+                }
+                prev = r;
+                offsets[n++] = offset;
+                out.writeInt( r.key.length );
+                out.write( r.key );
+                out.writeInt( r.line.length );
+                out.write( r.line );
+                int length = 8 + r.key.length + r.line.length;
+                maxRecord = Math.max( maxRecord, length );
+                offset += length;
+            }
+            for (int i = 0; i < n; i++) {
+                out.writeLong( offsets[i] );
+            }
+        }
+        finally {
+            out.close();
+        }
+
+        RandomAccessFile raf = new RandomAccessFile( file, "rw" );
+        try {
+            raf.writeInt( MAGIC );
+            raf.writeInt( VERSION );
+            raf.writeInt( layout.ordinal() );
+            raf.writeInt( maxRecord );
+            raf.writeLong( n );
+            raf.writeLong( offset );
+        }
+        finally {
+            raf.close();
+        }
+        return n;
+    }
+
+    /** @return The file */
+    public File getFile() {
+        return file;
+    }
+
+    /** @return The layout the triples in the file are sorted by */
+    public TripleLayout getLayout() {
+        return layout;
+    }
+
+    /** @return The number of triples in the file */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Return the triple at a given position in the sort order
+     * @param i A position, from zero to {@link #size()} - 1
+     * @return The triple
+     */
+    public Triple get( long i ) {
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException( "No triple at position " + i );
+        }
+        long offset = recordOffset( i );
+        ByteBuffer seg = segmentFor( offset );
+        int pos = positionIn( offset );
+        int keyLength = seg.getInt( pos );
+        pos += 4 + keyLength;
+        int lineLength = seg.getInt( pos );
+        pos += 4;
+
+        char[] chars = new char[lineLength];
+        for (int j = 0; j < lineLength; j++) {
+            chars[j] = (char) (seg.get( pos + j ) & 0xFF);
+        }
+        return codec.parse( new String( chars ) );
+    }
+
+    /**
+     * Return the triples which match a pattern, in order. The bound nodes that lead
+     * the layout are found by binary search; any other bound nodes are checked
+     * against each triple in that range. If the first position in the layout is not
+     * bound, the whole file is scanned.
+     * @param s A subject, or null or {@link Node#ANY} to match any subject
+     * @param p A predicate, or null or {@link Node#ANY} to match any predicate
+     * @param o An object, or null or {@link Node#ANY} to match any object
+     * @return An iterator over the matching triples
+     */
+    public Iterator<Triple> find( Node s, Node p, Node o ) {
+        Node[] pattern = new Node[] {concrete( s ), concrete( p ), concrete( o )};
+        int prefix = 0;
+        while (prefix < 3 && pattern[layout.position( prefix )] != null) {
+            prefix++;
+        }
+
+        RDFNodeKeyEncoder.KeySink sink = new RDFNodeKeyEncoder.KeySink();
+        encodeKey( encoder, pattern, layout, prefix, sink );
+        byte[] key = sink.toByteArray();
+        long from = search( key, false );
+        long to = search( key, true );
+        return new RecordIterator( from, to, pattern );
+    }
+
+    /**
+     * Return the triples between two triples in the sort order. The bounds need not
+     * be in the file.
+     * @param from The lower bound
+     * @param fromInclusive If true, a triple equal to <code>from</code> is included
+     * @param to The upper bound
+     * @param toInclusive If true, a triple equal to <code>to</code> is included
+     * @return An iterator over the triples in the range, in order
+     */
+    public Iterator<Triple> range( Triple from, boolean fromInclusive, Triple to, boolean toInclusive ) {
+        RDFNodeKeyEncoder.KeySink sink = new RDFNodeKeyEncoder.KeySink();
+        encodeKey( encoder, from, layout, 3, sink );
+        long lo = fromInclusive ? search( sink.toByteArray(), false ) : searchAfter( sink.toByteArray() );
+        sink.reset();
+        encodeKey( encoder, to, layout, 3, sink );
+        long hi = toInclusive ? searchAfter( sink.toByteArray() ) : search( sink.toByteArray(), false );
+        return new RecordIterator( lo, Math.max( lo, hi ), null );
+    }
+
+    /**
+     * Release the mapped segments. The mappings themselves are released when the
+     * segments are garbage collected. The file must not be used after it is closed.
+     */
+    public void close() {
+        Arrays.fill( records, null );
+        Arrays.fill( index, null );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Map the region <code>[start, end)</code> of a file as segments. Each segment
+     * extends <code>overlap</code> bytes into the next, so that any item of at most
+     * that length which starts in a segment ends in it too.
+     */
+    protected MappedByteBuffer[] map( FileChannel channel, long start, long end, int overlap )
+        throws IOException
+    {
+        long length = end - start;
+        int n = (int) Math.max( 1, (length + segmentSize - 1) / segmentSize );
+        MappedByteBuffer[] segments = new MappedByteBuffer[n];
+        for (int i = 0; i < n; i++) {
+            long segStart = start + (long) i * segmentSize;
+            long segEnd = Math.min( end, segStart + segmentSize + (long) overlap );
+            segments[i] = channel.map( FileChannel.MapMode.READ_ONLY, segStart, Math.max( 0, segEnd - segStart ) );
+        }
+        return segments;
+    }
+
+    /** @return The offset in the file of the i'th record */
+    protected long recordOffset( long i ) {
+        long pos = i * 8;
+        return index[(int) (pos / segmentSize)].getLong( (int) (pos % segmentSize) );
+    }
+
+    /** @return The segment that holds the record at the given file offset */
+    protected ByteBuffer segmentFor( long offset ) {
+        return records[(int) ((offset - HEADER_SIZE) / segmentSize)];
+    }
+
+    /** @return The position of the record at the given file offset within its segment */
+    protected int positionIn( long offset ) {
+        return (int) ((offset - HEADER_SIZE) % segmentSize);
+    }
+
+    /**
+     * Compare the key of the i'th record with a search key. If <code>asPrefix</code>,
+     * a record key which starts with the search key compares as equal.
+     */
+    protected int compareKey( long i, byte[] key, boolean asPrefix ) {
+        long offset = recordOffset( i );
+        ByteBuffer seg = segmentFor( offset );
+        int pos = positionIn( offset );
+        int keyLength = seg.getInt( pos );
+        pos += 4;
+
+        int n = Math.min( keyLength, key.length );
+        for (int j = 0; j < n; j++) {
+            int c = (seg.get( pos + j ) & 0xFF) - (key[j] & 0xFF);
+            if (c != 0) {
+                return c;
+            }
+        }
+        if (asPrefix && keyLength >= key.length) {
+            return 0;
+        }
+        return keyLength - key.length;
+    }
+
+    /**
+     * Binary search for the first record whose key is not less than the search key,
+     * or, if <code>pastPrefix</code>, the first record which is greater than the search
+     * key and does not start with it
+     */
+    protected long search( byte[] key, boolean pastPrefix ) {
+        long lo = 0, hi = count;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            int c = compareKey( mid, key, true );
+            if (c < 0 || (pastPrefix && c == 0)) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Binary search for the first record whose key is greater than the search key */
+    protected long searchAfter( byte[] key ) {
+        long lo = 0, hi = count;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (compareKey( mid, key, false ) <= 0) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Encode the key for the first <code>levels</code> positions of a triple, in layout order */
+    protected static void encodeKey( RDFNodeKeyEncoder encoder, Triple t, TripleLayout layout, int levels, RDFNodeKeyEncoder.KeySink sink ) {
+        encodeKey( encoder, new Node[] {t.getSubject(), t.getPredicate(), t.getObject()}, layout, levels, sink );
+    }
+
+    /** Encode the key for the first <code>levels</code> positions of a pattern, in layout order */
+    protected static void encodeKey( RDFNodeKeyEncoder encoder, Node[] nodes, TripleLayout layout, int levels, RDFNodeKeyEncoder.KeySink sink ) {
+        for (int level = 0; level < levels; level++) {
+            encoder.encode( nodes[layout.position( level )], sink );
+        }
+    }
+
+    /** @return The node, or null if it is a wildcard */
+    private static Node concrete( Node n ) {
+        return (n == null || n == Node.ANY || n.isVariable()) ? null : n;
+    }
+
+    /** @return The characters of an ASCII string as bytes */
+    private static byte[] ascii( CharSequence s ) {
+        byte[] b = new byte[s.length()];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = (byte) s.charAt( i );
+        }
+        return b;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * A record waiting to be written, ordered by key and then by its N-Triples line
+     */
+    private static class Record
+        implements Comparable<Record>
+    {
+        final byte[] key;
+        final byte[] line;
+
+        Record( byte[] key, byte[] line ) {
+            this.key = key;
+            this.line = line;
+        }
+
+        @Override
+        public int compareTo( Record other ) {
+            int c = RDFNodeKeyEncoder.compareKeys( key, other.key );
+            return (c != 0) ? c : RDFNodeKeyEncoder.compareKeys( line, other.line );
+        }
+    }
+
+    /**
+     * Iterates over a range of records, parsing each one as it is returned and
+     * skipping those that do not match a pattern
+     */
+    private class RecordIterator
+        implements Iterator<Triple>
+    {
+        private long i;
+        private final long end;
+        private final Node[] pattern;
+        private Triple next;
+
+        RecordIterator( long from, long end, Node[] pattern ) {
+            this.i = from;
+            this.end = end;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && i < end) {
+                Triple t = get( i++ );
+                if (pattern == null || matches( t )) {
+                    next = t;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Triple next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Triple t = next;
+            next = null;
+            return t;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private boolean matches( Triple t ) {
+            return (pattern[TripleLayout.SUBJECT] == null || pattern[TripleLayout.SUBJECT].equals( t.getSubject() ))
+                && (pattern[TripleLayout.PREDICATE] == null || pattern[TripleLayout.PREDICATE].equals( t.getPredicate() ))
+                && (pattern[TripleLayout.OBJECT] == null || pattern[TripleLayout.OBJECT].equals( t.getObject() ));
+        }
+    }
+
+}
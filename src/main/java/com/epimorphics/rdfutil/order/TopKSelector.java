@@ -0,0 +1,200 @@
+/*****************************************************************************
+ * File:    TopKSelector.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+
+/**
+ * <p>Selects one page of the smallest elements of a stream, in order, without sorting
+ * the whole stream. For a page starting at <code>offset</code> of at most <code>limit</code>
+ * elements, only the first <code>offset + limit</code> elements seen so far are kept, in a
+ * bounded heap, so selecting from <em>n</em> elements takes O(<em>n</em> log <em>k</em>)
+ * time and O(<em>k</em>) memory, where <em>k</em> = <code>offset + limit</code>.</p>
+ * <p>The selection is stable: the page is exactly the one that a stable sort of the
+ * whole stream would give, so elements which the order treats as equal keep their
+ * original relative order, and consecutive pages neither repeat nor miss elements.</p>
+ * <p>For example, to show the third page of 50 statements from a model:</p>
+ * <pre>
+ * List&lt;Statement&gt; page = TopKSelector.select( m.listStatements( s, null, (RDFNode) null ),
+ *                                             new RDFStatementStandardOrder(), 100, 50 );
+ * </pre>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class TopKSelector<T>
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order to select by */
+    private final Comparator<? super T> order;
+
+    /** Number of leading elements to skip */
+    private final int offset;
+
+    /** Maximum number of elements to return */
+    private final int limit;
+
+    /** Number of elements that need to be kept: offset + limit */
+    private final int capacity;
+
+    /** The best elements seen so far, with the worst at the head */
+    private final PriorityQueue<Entry<T>> heap;
+
+    /** Number of elements offered so far, used to keep the selection stable */
+    private long seen = 0;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a selector for one page of elements
+     * @param order The order to select by
+     * @param offset The number of leading elements to skip
+     * @param limit The maximum number of elements in the page
+     */
+    public TopKSelector( final Comparator<? super T> order, int offset, int limit ) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException( "Offset and limit must not be negative" );
+        }
+        this.order = order;
+        this.offset = offset;
+        this.limit = limit;
+        this.capacity = (int) Math.min( Integer.MAX_VALUE - 1, (long) offset + limit );
+        this.heap = new PriorityQueue<Entry<T>>( Math.max( 1, Math.min( capacity, 1024 ) ), new Comparator<Entry<T>>() {
+            @Override
+            public int compare( Entry<T> e1, Entry<T> e2 ) {
+                // reversed, so that the worst element is at the head of the heap
+                int c = order.compare( e2.item, e1.item );
+                return (c != 0) ? c : ((e1.seq < e2.seq) ? 1 : ((e1.seq == e2.seq) ? 0 : -1));
+            }
+        } );
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Return one page of the smallest elements from an iterator, in order. The iterator
+     * is read to the end.
+     * @param items The elements to select from, for example the result of
+     * {@link com.hp.hpl.jena.rdf.model.Model#listStatements()}
+     * @param order The order to select by, such as an {@link RDFStatementOrder} or
+     * {@link RDFNodeOrder}
+     * @param offset The number of leading elements to skip
+     * @param limit The maximum number of elements to return
+     * @return A new list of at most <code>limit</code> elements, in order
+     */
+    public static <T> List<T> select( Iterator<? extends T> items, Comparator<? super T> order, int offset, int limit ) {
+        TopKSelector<T> selector = new TopKSelector<T>( order, offset, limit );
+        selector.addAll( items );
+        return selector.getPage();
+    }
+
+    /** @return The number of leading elements skipped */
+    public int getOffset() {
+        return offset;
+    }
+
+    /** @return The maximum number of elements in the page */
+    public int getLimit() {
+        return limit;
+    }
+
+    /** @return The number of elements offered to this selector so far */
+    public long getCount() {
+        return seen;
+    }
+
+    /**
+     * Offer an element to the selector
+     * @param item An element
+     */
+    public void add( T item ) {
+        long seq = seen++;
+        if (heap.size() < capacity) {
+            heap.add( new Entry<T>( item, seq ) );
+        }
+        else if (capacity > 0 && order.compare( item, heap.peek().item ) < 0) {
+            // strictly better than the worst kept element; equal elements which
+            // arrive later are worse, which keeps the selection stable
+            heap.poll();
+            heap.add( new Entry<T>( item, seq ) );
+        }
+    }
+
+    /**
+     * Offer every remaining element of an iterator to the selector
+     * @param items The elements
+     */
+    public void addAll( Iterator<? extends T> items ) {
+        while (items.hasNext()) {
+            add( items.next() );
+        }
+    }
+
+    /**
+     * Return the selected page. The selector may continue to be used afterwards.
+     * @return A new list of at most <code>limit</code> elements, in order
+     */
+    public List<T> getPage() {
+        @SuppressWarnings( "unchecked" )
+        Entry<T>[] entries = (Entry<T>[]) heap.toArray( new Entry<?>[heap.size()] );
+        Arrays.sort( entries, Collections.reverseOrder( heap.comparator() ) );
+
+        List<T> page = new ArrayList<T>( Math.max( 0, entries.length - offset ) );
+        for (int i = offset; i < entries.length; i++) {
+            page.add( entries[i].item );
+        }
+        return page;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /**
+     * An element together with its position in the input
+     */
+    protected static class Entry<T>
+    {
+        final T item;
+        final long seq;
+
+        Entry( T item, long seq ) {
+            this.item = item;
+            this.seq = seq;
+        }
+    }
+
+}
+
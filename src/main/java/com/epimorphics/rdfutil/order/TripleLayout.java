@@ -0,0 +1,88 @@
+/*****************************************************************************
+ * File:    TripleLayout.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+/**
+ * <p>The order in which the subject, predicate and object of a triple are
+ * compared when ordering statements. For example, {@link #POS} orders
+ * statements first by predicate, then by object and finally by subject.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public enum TripleLayout
+{
+    SPO( 'S', 'P', 'O' ),
+    SOP( 'S', 'O', 'P' ),
+    PSO( 'P', 'S', 'O' ),
+    POS( 'P', 'O', 'S' ),
+    OSP( 'O', 'S', 'P' ),
+    OPS( 'O', 'P', 'S' );
+
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** Index of the subject in a triple */
+    public static final int SUBJECT = 0;
+
+    /** Index of the predicate in a triple */
+    public static final int PREDICATE = 1;
+
+    /** Index of the object in a triple */
+    public static final int OBJECT = 2;
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The triple positions in comparison order */
+    private final int[] positions;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    private TripleLayout( char first, char second, char third ) {
+        positions = new int[] {position( first ), position( second ), position( third )};
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * Return the triple position that is compared at the given level
+     * @param level The comparison level, 0, 1 or 2
+     * @return {@link #SUBJECT}, {@link #PREDICATE} or {@link #OBJECT}
+     */
+    public int position( int level ) {
+        return positions[level];
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private static int position( char c ) {
+        switch (c) {
+            case 'S': return SUBJECT;
+            case 'P': return PREDICATE;
+            default:  return OBJECT;
+        }
+    }
+}
+
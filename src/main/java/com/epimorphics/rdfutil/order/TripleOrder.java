@@ -0,0 +1,41 @@
+/*****************************************************************************
+ * File:    TripleOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.Comparator;
+
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * <p>An ordering over graph-level {@link Triple}s. This is the graph-level
+ * counterpart of {@link RDFStatementOrder}.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public interface TripleOrder
+    extends Comparator<Triple>
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+}
+
@@ -0,0 +1,200 @@
+/*****************************************************************************
+ * File:    TripleStandardOrder.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * <p>Standard ordering for graph-level {@link Triple}s. Triples are compared
+ * position by position, in the order given by a {@link TripleLayout}, using a
+ * {@link NodeOrder} for each position. With the standard node order, this gives
+ * the same order as {@link RDFStatementStandardOrder} gives for the corresponding
+ * statements, without wrapping each triple as a
+ * {@link com.hp.hpl.jena.rdf.model.Statement}.</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class TripleStandardOrder
+    implements TripleOrder
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /** The order used to compare the nodes in each position */
+    private final NodeOrder nodeOrder;
+
+    /** The order in which triple positions are compared */
+    private final TripleLayout layout;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * Construct a triple order which compares subjects, then predicates,
+     * then objects, using the standard node order.
+     */
+    public TripleStandardOrder() {
+        this( new NodeStandardOrder(), TripleLayout.SPO );
+    }
+
+    /**
+     * Construct a triple order with the given layout, using the standard
+     * node order.
+     * @param layout The order in which triple positions are compared
+     */
+    public TripleStandardOrder( TripleLayout layout ) {
+        this( new NodeStandardOrder(), layout );
+    }
+
+    /**
+     * Construct a triple order with the given node order and layout.
+     * @param nodeOrder The order used to compare nodes
+     * @param layout The order in which triple positions are compared
+     */
+    public TripleStandardOrder( NodeOrder nodeOrder, TripleLayout layout ) {
+        this.nodeOrder = nodeOrder;
+        this.layout = layout;
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /**
+     * @return The order used to compare the nodes in each position
+     */
+    public NodeOrder getNodeOrder() {
+        return nodeOrder;
+    }
+
+    /**
+     * @return The order in which triple positions are compared
+     */
+    public TripleLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public int compare( Triple t1, Triple t2 ) {
+        if (t1 == t2) {
+            return 0;
+        }
+
+        int c;
+        switch (layout) {
+            case SPO:
+                c = compareNodes( t1.getSubject(), t2.getSubject() );
+                if (c != 0) {
+                    return c;
+                }
+                c = compareNodes( t1.getPredicate(), t2.getPredicate() );
+                if (c != 0) {
+                    return c;
+                }
+                return compareNodes( t1.getObject(), t2.getObject() );
+
+            case SOP:
+                c = compareNodes( t1.getSubject(), t2.getSubject() );
+                if (c != 0) {
+                    return c;
+                }
+                c = compareNodes( t1.getObject(), t2.getObject() );
+                if (c != 0) {
+                    return c;
+                }
+                return compareNodes( t1.getPredicate(), t2.getPredicate() );
+
+            case PSO:
+                c = compareNodes( t1.getPredicate(), t2.getPredicate() );
+                if (c != 0) {
+                    return c;
+                }
+                c = compareNodes( t1.getSubject(), t2.getSubject() );
+                if (c != 0) {
+                    return c;
+                }
+                return compareNodes( t1.getObject(), t2.getObject() );
+
+            case POS:
+                c = compareNodes( t1.getPredicate(), t2.getPredicate() );
+                if (c != 0) {
+                    return c;
+                }
+                c = compareNodes( t1.getObject(), t2.getObject() );
+                if (c != 0) {
+                    return c;
+                }
+                return compareNodes( t1.getSubject(), t2.getSubject() );
+
+            case OSP:
+                c = compareNodes( t1.getObject(), t2.getObject() );
+                if (c != 0) {
+                    return c;
+                }
+                c = compareNodes( t1.getSubject(), t2.getSubject() );
+                if (c != 0) {
+                    return c;
+                }
+                return compareNodes( t1.getPredicate(), t2.getPredicate() );
+
+            default:
+                // OPS
+                c = compareNodes( t1.getObject(), t2.getObject() );
+                if (c != 0) {
+                    return c;
+                }
+                c = compareNodes( t1.getPredicate(), t2.getPredicate() );
+                if (c != 0) {
+                    return c;
+                }
+                return compareNodes( t1.getSubject(), t2.getSubject() );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /**
+     * Compare two nodes, skipping the node order if they are the same object.
+     * Jena caches URI nodes, so predicates of triples from the same graph
+     * will normally satisfy this test.
+     * @param n1 A node
+     * @param n2 A node
+     * @return Less than zero if n1 precedes n2 in the order
+     */
+    protected int compareNodes( Node n1, Node n2 ) {
+        return (n1 == n2) ? 0 : nodeOrder.compare( n1, n2 );
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
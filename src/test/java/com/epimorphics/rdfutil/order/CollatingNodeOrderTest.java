@@ -0,0 +1,178 @@
+/*****************************************************************************
+ * File:    CollatingNodeOrderTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.text.Collator;
+import java.util.*;
+
+import org.junit.Test;
+
+import com.hp.hpl.jena.graph.Node;
+
+/**
+ * <p>Unit tests for {@link CollatingNodeOrder}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class CollatingNodeOrderTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Test
+    public void testAccentsAndCase() {
+        List<Node> nodes = literals( "", "zebra", "\u00e9clair", "Apple", "apple", "eclair", "banana" );
+        Collections.sort( nodes, new CollatingNodeOrder( Locale.ENGLISH ) );
+        assertEquals( literals( "", "apple", "Apple", "banana", "eclair", "\u00e9clair", "zebra" ), nodes );
+    }
+
+    @Test
+    public void testLanguageSpecificCollation() {
+        // a-umlaut sorts after z in Swedish, but with a in German
+        List<Node> sv = literals( "sv", "\u00e4ta", "zon", "apa" );
+        Collections.sort( sv, new CollatingNodeOrder( Locale.ENGLISH ) );
+        assertEquals( literals( "sv", "apa", "zon", "\u00e4ta" ), sv );
+
+        List<Node> de = literals( "de", "\u00e4ta", "zon", "apa" );
+        Collections.sort( de, new CollatingNodeOrder( Locale.ENGLISH ) );
+        assertEquals( literals( "de", "apa", "\u00e4ta", "zon" ), de );
+    }
+
+    @Test
+    public void testOnlyEqualLiteralsCompareEqual() {
+        CollatingNodeOrder order = new CollatingNodeOrder( Locale.ENGLISH, Collator.PRIMARY, 10,
+                                                           DatatypeComparatorRegistry.createStandardRegistry() );
+        Node a = Node.createLiteral( "a", "", false );
+        Node bigA = Node.createLiteral( "A", "", false );
+        Node aEn = Node.createLiteral( "a", "en", false );
+        assertTrue( order.compare( a, bigA ) != 0 );
+        assertTrue( order.compare( a, aEn ) > 0 );
+        assertEquals( 0, order.compare( a, Node.createLiteral( "a", "", false ) ) );
+    }
+
+    @Test
+    public void testTransitiveAcrossLanguages() {
+        CollatingNodeOrder order = new CollatingNodeOrder( Locale.ENGLISH );
+        Node z = Node.createLiteral( "z", "sv", false );
+        Node aUmlaut = Node.createLiteral( "\u00e4", "sv", false );
+        Node b = Node.createLiteral( "b", "en", false );
+        Node bUpper = Node.createLiteral( "b", "EN", false );
+
+        // a-umlaut after z in Swedish, and all of the Swedish literals after English ones
+        assertTrue( order.compare( z, aUmlaut ) < 0 );
+        assertTrue( order.compare( b, z ) < 0 );
+        assertTrue( order.compare( b, aUmlaut ) < 0 );
+        // tags differing only in case are in the same group
+        assertTrue( order.compare( bUpper, z ) < 0 );
+        assertTrue( order.compare( b, bUpper ) != 0 );
+
+        List<Node> nodes = Arrays.asList( aUmlaut, Node.createLiteral( "a", "", false ), z, b );
+        Collections.sort( nodes, order );
+        assertEquals( Arrays.asList( b, z, aUmlaut, Node.createLiteral( "a", "", false ) ), nodes );
+    }
+
+    @Test
+    public void testKeysAreCached() {
+        CollatingNodeOrder order = new CollatingNodeOrder( Locale.ENGLISH );
+        List<Node> nodes = new ArrayList<Node>();
+        for (int i = 0; i < 1000; i++) {
+            nodes.add( Node.createLiteral( "item " + (i % 100), "", false ) );
+        }
+        Collections.shuffle( nodes, new Random( 2 ) );
+        Collections.sort( nodes, order );
+        assertEquals( 100, order.getCacheMisses() );
+        assertTrue( order.getCacheHits() > 1000 );
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        final CollatingNodeOrder order = new CollatingNodeOrder( Locale.ENGLISH, Collator.TERTIARY, 20, DatatypeComparatorRegistry.createStandardRegistry() );
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    List<Node> nodes = new ArrayList<Node>();
+                    for (int i = 0; i < 500; i++) {
+                        nodes.add( Node.createLiteral( "item " + i, "", false ) );
+                    }
+                    Collections.shuffle( nodes, new Random( seed ) );
+                    Collections.sort( nodes, order );
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertTrue( order.getCachedKeys() <= 20 );
+    }
+
+    @Test
+    public void testLanguageTagsIgnoreDefaultLocale() {
+        Locale saved = Locale.getDefault();
+        Locale.setDefault( new Locale( "tr" ) );
+        try {
+            // "IT" must group with "it", although Turkish lower-cases it to "\u0131t"
+            CollatingNodeOrder order = new CollatingNodeOrder( Locale.ENGLISH );
+            assertTrue( order.compare( Node.createLiteral( "a", "IT", false ), Node.createLiteral( "b", "it", false ) ) < 0 );
+            assertTrue( order.compare( Node.createLiteral( "b", "IT", false ), Node.createLiteral( "a", "it", false ) ) > 0 );
+        }
+        finally {
+            Locale.setDefault( saved );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private List<Node> literals( String lang, String... lex ) {
+        List<Node> nodes = new ArrayList<Node>();
+        for (String s : lex) {
+            nodes.add( Node.createLiteral( s, lang, false ) );
+        }
+        return nodes;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,108 @@
+/*****************************************************************************
+ * File:    ComparatorMetricsTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link ComparatorMetrics} and {@link InstrumentedStatementOrder}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class ComparatorMetricsTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Test
+    public void testStatementOrder() {
+        Model m = ModelFactory.createDefaultModel();
+        for (int i = 0; i < 50; i++) {
+            m.add( m.createResource( NS + (i % 7) ), m.createProperty( NS + "p" ), m.createTypedLiteral( i ) );
+        }
+        InstrumentedStatementOrder order = new InstrumentedStatementOrder( new RDFStatementStandardOrder(), new ComparatorMetrics( 1 ) );
+        List<Statement> stmts = m.listStatements().toList();
+        Collections.sort( stmts, order );
+
+        ComparatorMetrics metrics = order.getMetrics();
+        assertTrue( metrics.getCalls() >= stmts.size() - 1 );
+        assertEquals( metrics.getCalls(), metrics.getSampledCalls() );
+        assertTrue( metrics.getMaxLatencyNanos() >= metrics.getMeanLatencyNanos() );
+    }
+
+    @Test
+    public void testJMX() throws Exception {
+        ComparatorMetrics metrics = new ComparatorMetrics();
+        metrics.count( ComparatorMetrics.Branch.URI );
+        metrics.startCall();
+        metrics.countDecodes( 2 );
+        ObjectName on = metrics.register( "test" );
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals( 1L, server.getAttribute( on, "Calls" ) );
+            assertTrue( server.getAttribute( on, "BranchCounts" ) != null );
+            assertEquals( 2L, server.getAttribute( on, "Decodes" ) );
+            server.invoke( on, "reset", new Object[0], new String[0] );
+            assertEquals( 0L, metrics.getCalls() );
+            assertEquals( 0L, metrics.getDecodes() );
+        }
+        finally {
+            ComparatorMetrics.unregister( on );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,195 @@
+/*****************************************************************************
+ * File:    CompiledNodeOrderTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epimorphics.rdfutil.order.NodeOrderSpec.*;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.rdf.model.AnonId;
+
+/**
+ * <p>Unit tests for {@link CompiledNodeOrder} and {@link NodeOrderSpec}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class CompiledNodeOrderTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private List<Node> nodes;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        nodes = new ArrayList<Node>();
+
+        nodes.add( Node.createURI( NS + "r0" ) );
+        nodes.add( Node.createURI( NS + "r1" ) );
+        nodes.add( Node.createAnon( new AnonId( "b0" ) ) );
+        nodes.add( Node.createAnon( new AnonId( "b1" ) ) );
+        nodes.add( Node.createLiteral( "foo" ) );
+        nodes.add( Node.createLiteral( "foo", "en", false ) );
+        nodes.add( Node.createLiteral( "foo", "de", false ) );
+        nodes.add( Node.createLiteral( "fo" ) );
+        nodes.add( Node.createLiteral( "fo", "EN", false ) );
+        nodes.add( typed( "true", XSDDatatype.XSDboolean ) );
+        nodes.add( typed( "false", XSDDatatype.XSDboolean ) );
+        nodes.add( typed( "10", XSDDatatype.XSDint ) );
+        nodes.add( typed( "9", XSDDatatype.XSDint ) );
+        nodes.add( typed( "2.5", XSDDatatype.XSDdecimal ) );
+        nodes.add( typed( "2.50", XSDDatatype.XSDdecimal ) );
+        nodes.add( typed( "30000000000000000000000", XSDDatatype.XSDinteger ) );
+        nodes.add( typed( "-1E10", XSDDatatype.XSDdouble ) );
+        nodes.add( typed( "2009-01-18T12:00:00Z", XSDDatatype.XSDdateTime ) );
+        nodes.add( typed( "2009-01-17", XSDDatatype.XSDdate ) );
+        nodes.add( typed( "arthur", XSDDatatype.XSDNCName ) );
+    }
+
+    @Test
+    public void testDefaultSpecIsStandardOrder() {
+        NodeStandardOrder nso = new NodeStandardOrder();
+        CompiledNodeOrder cno = new NodeOrderSpec().build();
+        for (Node n0 : nodes) {
+            for (Node n1 : nodes) {
+                assertEquals( n0 + " vs " + n1,
+                              Integer.signum( nso.compare( n0, n1 ) ),
+                              Integer.signum( cno.compare( n0, n1 ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void testKindsAndDirections() {
+        NodeOrderSpec spec = new NodeOrderSpec().kinds( Kind.UNTYPED_LITERAL, Kind.URI );
+        CompiledNodeOrder cno = spec.build();
+        assertEquals( 0, spec.getRank( Kind.UNTYPED_LITERAL ) );
+        assertEquals( 2, spec.getRank( Kind.BNODE ) );
+        assertBefore( cno, Node.createLiteral( "z" ), Node.createURI( NS + "a" ) );
+        assertBefore( cno, Node.createURI( NS + "a" ), Node.createAnon( new AnonId( "b0" ) ) );
+        assertBefore( cno, Node.createAnon( new AnonId( "b0" ) ), typed( "1", XSDDatatype.XSDint ) );
+
+        cno = spec.descending( Level.KIND, Level.URI, Level.VALUE, Level.LEXICAL ).build();
+        assertBefore( cno, typed( "1", XSDDatatype.XSDint ), Node.createLiteral( "z" ) );
+        assertBefore( cno, Node.createURI( NS + "b" ), Node.createURI( NS + "a" ) );
+        assertBefore( cno, typed( "10", XSDDatatype.XSDint ), typed( "9", XSDDatatype.XSDint ) );
+        assertBefore( cno, Node.createLiteral( "foo" ), Node.createLiteral( "fo" ) );
+        assertBefore( cno, Node.createAnon( new AnonId( "b0" ) ), Node.createAnon( new AnonId( "b1" ) ) );
+
+        // value-equal literals are still equal when descending
+        assertEquals( 0, cno.compare( typed( "2.5", XSDDatatype.XSDdecimal ), typed( "2.50", XSDDatatype.XSDdecimal ) ) );
+
+        cno = spec.ascending( Level.VALUE ).build();
+        assertBefore( cno, typed( "9", XSDDatatype.XSDint ), typed( "10", XSDDatatype.XSDint ) );
+    }
+
+    @Test
+    public void testDatatypePrecedence() {
+        CompiledNodeOrder cno = new NodeOrderSpec().datatypes( XSDDatatype.XSDint, XSDDatatype.XSDboolean ).build();
+        assertBefore( cno, typed( "10", XSDDatatype.XSDint ), typed( "true", XSDDatatype.XSDboolean ) );
+        assertBefore( cno, typed( "true", XSDDatatype.XSDboolean ), typed( "2009-01-17", XSDDatatype.XSDdate ) );
+        assertBefore( cno, typed( "2009-01-17", XSDDatatype.XSDdate ), typed( "2.5", XSDDatatype.XSDdecimal ) );
+
+        // the rest are reversed, but the listed datatypes keep their places
+        cno = new NodeOrderSpec().datatypes( XSDDatatype.XSDint ).descending( Level.DATATYPE ).build();
+        assertBefore( cno, typed( "10", XSDDatatype.XSDint ), typed( "2.5", XSDDatatype.XSDdecimal ) );
+        assertBefore( cno, typed( "2.5", XSDDatatype.XSDdecimal ), typed( "2009-01-17", XSDDatatype.XSDdate ) );
+    }
+
+    @Test
+    public void testLangTags() {
+        Node plain = Node.createLiteral( "foo" );
+        Node en = Node.createLiteral( "foo", "en", false );
+        Node upperEn = Node.createLiteral( "foo", "EN", false );
+        Node de = Node.createLiteral( "foo", "de", false );
+        Node bar = Node.createLiteral( "bar", "fr", false );
+
+        CompiledNodeOrder cno = new NodeOrderSpec().langTags( LangTags.UNTAGGED_FIRST ).build();
+        assertBefore( cno, plain, de );
+        assertBefore( cno, de, en );
+        assertBefore( cno, bar, plain );
+
+        cno = new NodeOrderSpec().langTags( LangTags.LANGUAGE_FIRST ).build();
+        assertBefore( cno, plain, bar );
+        assertBefore( cno, de, en );
+        assertBefore( cno, en, bar );
+
+        cno = new NodeOrderSpec().langTags( LangTags.IGNORED ).build();
+        assertEquals( 0, cno.compare( plain, en ) );
+        assertBefore( cno, bar, en );
+
+        cno = new NodeOrderSpec().langTags( LangTags.TAGGED_FIRST, true ).descending( Level.LANG_TAG ).build();
+        assertEquals( 0, cno.compare( en, upperEn ) );
+        assertBefore( cno, en, de );
+        assertBefore( cno, de, plain );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRepeatedKindRejected() {
+        new NodeOrderSpec().kinds( Kind.URI, Kind.BNODE, Kind.URI );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testVariableRejected() {
+        new NodeOrderSpec().build().compare( Node.createVariable( "x" ), Node.createURI( NS + "a" ) );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private Node typed( String lex, XSDDatatype dt ) {
+        return Node.createLiteral( lex, null, dt );
+    }
+
+    private void assertBefore( NodeOrder order, Node n0, Node n1 ) {
+        assertTrue( n0 + " before " + n1, order.compare( n0, n1 ) < 0 );
+        assertTrue( n1 + " after " + n0, order.compare( n1, n0 ) > 0 );
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
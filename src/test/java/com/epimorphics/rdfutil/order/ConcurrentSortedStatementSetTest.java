@@ -0,0 +1,207 @@
+/*****************************************************************************
+ * File:    ConcurrentSortedStatementSetTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epimorphics.rdfutil.order.RandomStatements.Kind;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link ConcurrentSortedStatementSet}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class ConcurrentSortedStatementSetTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+
+    private RDFStatementOrder order = new RDFStatementStandardOrder();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        new RandomStatements( 11 ).predicates( 4 ).objects( Kind.INTEGER ).addTo( m, 500 );
+    }
+
+    @Test
+    public void testAddRemoveInOrder() {
+        ConcurrentSortedStatementSet set = new ConcurrentSortedStatementSet();
+        assertEquals( m.size(), set.addAll( m.listStatements() ) );
+        assertEquals( 0, set.addAll( m.listStatements() ) );
+        assertEquals( m.size(), set.size() );
+        assertEquals( sorted( m.listStatements().toList() ), toList( set.iterator() ) );
+
+        Statement s = m.listStatements().nextStatement();
+        assertTrue( set.contains( s ) );
+        assertTrue( set.remove( s ) );
+        assertFalse( set.contains( s ) );
+        assertFalse( set.remove( s ) );
+        assertEquals( m.size() - 1, set.size() );
+
+        set.clear();
+        assertTrue( set.isEmpty() );
+        assertEquals( 0, set.size() );
+        assertNull( set.first() );
+    }
+
+    @Test
+    public void testEqualButDistinctStatementsKept() {
+        ConcurrentSortedStatementSet set = new ConcurrentSortedStatementSet();
+        Resource r = m.createResource( NS + "x" );
+        Property p = m.createProperty( NS + "q" );
+        set.add( m.createStatement( r, p, m.createTypedLiteral( "2", XSDDatatype.XSDdecimal ) ) );
+        set.add( m.createStatement( r, p, m.createTypedLiteral( "2.0", XSDDatatype.XSDdecimal ) ) );
+        set.add( m.createStatement( r, p, m.createTypedLiteral( "2.0", XSDDatatype.XSDdecimal ) ) );
+        assertEquals( 2, set.size() );
+    }
+
+    @Test
+    public void testMatching() {
+        ConcurrentSortedStatementSet set = new ConcurrentSortedStatementSet();
+        set.addAll( m.listStatements() );
+
+        Resource s = m.createResource( NS + "r7" );
+        Property p = m.createProperty( NS + "p2" );
+        RDFNode o = m.createTypedLiteral( "3", XSDDatatype.XSDinteger );
+
+        assertEquals( sorted( m.listStatements( s, null, (RDFNode) null ).toList() ), toList( set.withSubject( s ) ) );
+        assertEquals( sorted( m.listStatements( s, p, (RDFNode) null ).toList() ), toList( set.matching( s, p, null ) ) );
+        assertEquals( sorted( m.listStatements( null, p, o ).toList() ), toList( set.matching( null, p, o ) ) );
+        assertEquals( sorted( m.listStatements( s, null, o ).toList() ), toList( set.matching( s, null, o ) ) );
+        assertFalse( set.withSubject( m.createResource( NS + "none" ) ).hasNext() );
+    }
+
+    @Test
+    public void testRange() {
+        ConcurrentSortedStatementSet set = new ConcurrentSortedStatementSet();
+        set.addAll( m.listStatements() );
+        List<Statement> all = sorted( m.listStatements().toList() );
+
+        Statement from = all.get( 100 );
+        Statement to = all.get( 200 );
+        assertEquals( all.subList( 100, 201 ), toList( set.range( from, true, to, true ) ) );
+        assertEquals( all.subList( 101, 200 ), toList( set.range( from, false, to, false ) ) );
+    }
+
+    @Test
+    public void testConcurrentWritersAndReaders() throws Exception {
+        final ConcurrentSortedStatementSet set = new ConcurrentSortedStatementSet();
+        final List<Statement> stmts = m.listStatements().toList();
+        int writers = 4;
+        ExecutorService exec = Executors.newFixedThreadPool( writers + 1 );
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int w = 0; w < writers; w++) {
+                final int offset = w;
+                futures.add( exec.submit( new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        for (int round = 0; round < 5; round++) {
+                            for (int i = offset; i < stmts.size(); i += 4) {
+                                set.add( stmts.get( i ) );
+                            }
+                            if (round < 4) {
+                                for (int i = offset; i < stmts.size(); i += 8) {
+                                    set.remove( stmts.get( i ) );
+                                }
+                            }
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+            futures.add( exec.submit( new Callable<Object>() {
+                @Override
+                public Object call() {
+                    for (int round = 0; round < 20; round++) {
+                        assertSorted( toList( set.iterator() ) );
+                    }
+                    return null;
+                }
+            } ) );
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+        finally {
+            exec.shutdown();
+        }
+
+        assertEquals( sorted( stmts ), toList( set.iterator() ) );
+        assertEquals( stmts.size(), set.size() );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private List<Statement> sorted( List<Statement> stmts ) {
+        List<Statement> copy = new ArrayList<Statement>( stmts );
+        Collections.sort( copy, order );
+        return copy;
+    }
+
+    private List<Statement> toList( Iterator<Statement> i ) {
+        List<Statement> l = new ArrayList<Statement>();
+        while (i.hasNext()) {
+            l.add( i.next() );
+        }
+        return l;
+    }
+
+    private void assertSorted( List<Statement> stmts ) {
+        for (int i = 1; i < stmts.size(); i++) {
+            assertTrue( order.compare( stmts.get( i - 1 ), stmts.get( i ) ) < 0 );
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,153 @@
+/*****************************************************************************
+ * File:    DatatypeComparatorRegistryTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Comparator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link DatatypeComparatorRegistry}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class DatatypeComparatorRegistryTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private Model m;
+    private Literal l0, l1;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        l0 = m.createTypedLiteral( "9", XSDDatatype.XSDunsignedLong );
+        l1 = m.createTypedLiteral( "10", XSDDatatype.XSDunsignedLong );
+    }
+
+    @Test
+    public void testStandardRegistry() {
+        DatatypeComparatorRegistry r = DatatypeComparatorRegistry.createStandardRegistry();
+        assertSame( DatatypeComparatorRegistry.NON_FP_NUMBER_ORDER, r.getComparator( XSDDatatype.XSDint ) );
+        assertSame( DatatypeComparatorRegistry.DATE_TIME_ORDER, r.getComparator( XSDDatatype.XSDdateTime ) );
+        assertSame( DatatypeComparatorRegistry.BOOLEAN_ORDER, r.getComparator( XSDDatatype.XSDboolean ) );
+        assertSame( "Unregistered types are ordered lexically", DatatypeComparatorRegistry.LEXICAL_ORDER,
+                    r.getComparator( XSDDatatype.XSDunsignedLong ) );
+        assertFalse( r.isRegistered( XSDDatatype.XSDunsignedLong.getURI() ) );
+    }
+
+    @Test
+    public void testRegisterComparator() {
+        RDFNodeStandardOrder order = new RDFNodeStandardOrder();
+        assertTrue( "Lexical order by default", order.compare( l0, l1 ) > 0 );
+
+        order.getRegistry().register( XSDDatatype.XSDunsignedLong, new UnsignedLongOrder() );
+        assertTrue( "Value order once registered", order.compare( l0, l1 ) < 0 );
+        assertTrue( "Value order once registered", order.compare( l1, l0 ) > 0 );
+
+        order.getRegistry().unregister( XSDDatatype.XSDunsignedLong.getURI() );
+        assertTrue( "Lexical order again once unregistered", order.compare( l0, l1 ) > 0 );
+    }
+
+    @Test
+    public void testRegistriesAreIndependent() {
+        RDFNodeStandardOrder o0 = new RDFNodeStandardOrder();
+        RDFNodeStandardOrder o1 = new RDFNodeStandardOrder();
+        o0.getRegistry().register( XSDDatatype.XSDunsignedLong, new UnsignedLongOrder() );
+        assertTrue( o0.compare( l0, l1 ) < 0 );
+        assertTrue( o1.compare( l0, l1 ) > 0 );
+
+        DatatypeComparatorRegistry copy = new DatatypeComparatorRegistry( o0.getRegistry() );
+        assertTrue( copy.isRegistered( XSDDatatype.XSDunsignedLong.getURI() ) );
+    }
+
+    @Test
+    public void testKeyEncoderUsesValueEncoder() {
+        DatatypeComparatorRegistry r = DatatypeComparatorRegistry.createStandardRegistry();
+        r.register( XSDDatatype.XSDunsignedLong, new UnsignedLongOrder() );
+        RDFNodeKeyEncoder encoder = new RDFNodeKeyEncoder( r );
+        assertTrue( RDFNodeKeyEncoder.compareKeys( encoder.encode( l0 ), encoder.encode( l1 ) ) < 0 );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyEncoderRejectsUnknownComparator() {
+        DatatypeComparatorRegistry r = DatatypeComparatorRegistry.createStandardRegistry();
+        r.register( XSDDatatype.XSDunsignedLong, new Comparator<LiteralLabel>() {
+            @Override
+            public int compare( LiteralLabel o1, LiteralLabel o2 ) {
+                return 0;
+            }
+        } );
+        new RDFNodeKeyEncoder( r ).encode( l0 );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    /** Example user comparator, which orders unsigned longs by value */
+    private static class UnsignedLongOrder
+        implements Comparator<LiteralLabel>, RDFNodeKeyEncoder.ValueEncoder
+    {
+        @Override
+        public int compare( LiteralLabel l1, LiteralLabel l2 ) {
+            return value( l1 ).compareTo( value( l2 ) );
+        }
+
+        @Override
+        public boolean encodeValue( LiteralLabel l, RDFNodeKeyEncoder.KeySink sink ) {
+            sink.putLong( value( l ).longValue() ^ Long.MIN_VALUE );
+            return true;
+        }
+
+        private BigInteger value( LiteralLabel l ) {
+            return new BigInteger( l.getLexicalForm() );
+        }
+    }
+
+}
+
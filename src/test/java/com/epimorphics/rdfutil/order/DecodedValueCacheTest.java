@@ -0,0 +1,194 @@
+/*****************************************************************************
+ * File:    DecodedValueCacheTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Node;
+
+/**
+ * <p>Unit tests for {@link DecodedValueCache}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class DecodedValueCacheTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private List<Node> nodes;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        nodes = new ArrayList<Node>();
+
+        nodes.add( Node.createURI( NS + "r0" ) );
+        nodes.add( Node.createLiteral( "foo" ) );
+        nodes.add( typed( "true", XSDDatatype.XSDboolean ) );
+        nodes.add( typed( "false", XSDDatatype.XSDboolean ) );
+        nodes.add( typed( "10", XSDDatatype.XSDint ) );
+        nodes.add( typed( "-9", XSDDatatype.XSDint ) );
+        nodes.add( typed( "2.5", XSDDatatype.XSDdecimal ) );
+        nodes.add( typed( "2.50", XSDDatatype.XSDdecimal ) );
+        nodes.add( typed( "3", XSDDatatype.XSDdecimal ) );
+        nodes.add( typed( "30000000000000000000000", XSDDatatype.XSDinteger ) );
+        nodes.add( typed( "-30000000000000000000000", XSDDatatype.XSDinteger ) );
+        nodes.add( typed( "7", XSDDatatype.XSDinteger ) );
+        nodes.add( typed( "-1E10", XSDDatatype.XSDdouble ) );
+        nodes.add( typed( "0.1", XSDDatatype.XSDdouble ) );
+        nodes.add( typed( "1.5", XSDDatatype.XSDfloat ) );
+        nodes.add( typed( "1.25", XSDDatatype.XSDfloat ) );
+        nodes.add( typed( "2009-01-18T12:00:00Z", XSDDatatype.XSDdateTime ) );
+        nodes.add( typed( "2009-01-18T13:00:00+02:00", XSDDatatype.XSDdateTime ) );
+        nodes.add( typed( "2009-01-18T11:00:00.5Z", XSDDatatype.XSDdateTime ) );
+        nodes.add( typed( "2009-01-18T12:00:00", XSDDatatype.XSDdateTime ) );
+        nodes.add( typed( "2009-01-18T10:00:00", XSDDatatype.XSDdateTime ) );
+        nodes.add( typed( "2008-12-31T23:59:59.25", XSDDatatype.XSDdateTime ) );
+        nodes.add( typed( "2009-01-17", XSDDatatype.XSDdate ) );
+        nodes.add( typed( "2009-01-17Z", XSDDatatype.XSDdate ) );
+        nodes.add( typed( "12:00:00Z", XSDDatatype.XSDtime ) );
+        nodes.add( typed( "12:30:00-01:00", XSDDatatype.XSDtime ) );
+        nodes.add( typed( "arthur", XSDDatatype.XSDNCName ) );
+    }
+
+    @Test
+    public void testSameOrderWithCache() {
+        NodeStandardOrder plain = new NodeStandardOrder();
+        DecodedValueCache cache = new DecodedValueCache();
+        NodeStandardOrder cached = new NodeStandardOrder( DatatypeComparatorRegistry.createStandardRegistry(), cache );
+        assertSame( cache, cached.getValueCache() );
+
+        // twice round, so that the second pass compares cached values
+        for (int pass = 0; pass < 2; pass++) {
+            for (Node n0 : nodes) {
+                for (Node n1 : nodes) {
+                    assertEquals( n0 + " vs " + n1,
+                                  Integer.signum( plain.compare( n0, n1 ) ),
+                                  Integer.signum( cached.compare( n0, n1 ) ) );
+                }
+            }
+        }
+        // each literal is only decoded once
+        assertEquals( cache.size(), cache.getMisses() );
+        assertTrue( cache.getHits() > cache.getMisses() );
+    }
+
+    @Test
+    public void testStatistics() {
+        DecodedValueCache cache = new DecodedValueCache();
+        CompiledNodeOrder order = new NodeOrderSpec().valueCache( cache ).build();
+        Node a = typed( "2009-01-18T12:00:00Z", XSDDatatype.XSDdateTime );
+        Node b = typed( "2009-01-18T13:00:00Z", XSDDatatype.XSDdateTime );
+
+        assertTrue( order.compare( a, b ) < 0 );
+        assertEquals( 0, cache.getHits() );
+        assertEquals( 2, cache.getMisses() );
+        assertEquals( 2, cache.size() );
+
+        assertTrue( order.compare( b, a ) > 0 );
+        assertEquals( 2, cache.getHits() );
+        assertEquals( 0.5, cache.getHitRate(), 0.0 );
+
+        // not cached: no value comparator, or not a typed literal
+        order.compare( typed( "arthur", XSDDatatype.XSDNCName ), typed( "bedevere", XSDDatatype.XSDNCName ) );
+        order.compare( Node.createLiteral( "x" ), Node.createLiteral( "y" ) );
+        assertEquals( 2, cache.size() );
+
+        cache.reset();
+        cache.clear();
+        assertEquals( 0, cache.getHits() );
+        assertEquals( 0, cache.getMisses() );
+        assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    public void testEviction() {
+        DecodedValueCache cache = new DecodedValueCache( 32 );
+        NodeStandardOrder order = new NodeStandardOrder( DatatypeComparatorRegistry.createStandardRegistry(), cache );
+        Node zero = typed( "0", XSDDatatype.XSDinteger );
+        for (int i = 1; i <= 1000; i++) {
+            assertTrue( order.compare( zero, typed( Integer.toString( i ), XSDDatatype.XSDinteger ) ) < 0 );
+        }
+        assertTrue( cache.size() <= 32 );
+        assertTrue( cache.getEvictions() >= 1000 + 1 - 32 );
+
+        // the most recently used value is still there
+        assertEquals( 0, order.compare( zero, zero ) );
+        long hits = cache.getHits();
+        order.compare( zero, typed( "1000", XSDDatatype.XSDinteger ) );
+        assertEquals( hits + 2, cache.getHits() );
+    }
+
+    @Test
+    public void testComparatorChanged() {
+        DatatypeComparatorRegistry registry = DatatypeComparatorRegistry.createStandardRegistry();
+        NodeStandardOrder order = new NodeStandardOrder( registry, new DecodedValueCache() );
+        Node ten = typed( "10", XSDDatatype.XSDinteger );
+        Node nine = typed( "9", XSDDatatype.XSDinteger );
+        assertTrue( order.compare( nine, ten ) < 0 );
+
+        // the cached values are not used for a different comparator
+        registry.register( XSDDatatype.XSDinteger, DatatypeComparatorRegistry.LEXICAL_ORDER );
+        assertTrue( order.compare( nine, ten ) > 0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testZeroCapacity() {
+        new DecodedValueCache( 0 );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private Node typed( String lex, XSDDatatype dt ) {
+        return Node.createLiteral( lex, null, dt );
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
@@ -0,0 +1,161 @@
+/*****************************************************************************
+ * File:    InstrumentedNodeOrderTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epimorphics.rdfutil.order.ComparatorMetrics.Branch;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link InstrumentedNodeOrder}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class InstrumentedNodeOrderTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+    private InstrumentedNodeOrder ino;
+    private ComparatorMetrics metrics;
+    private RDFNodeStandardOrder order;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        metrics = new ComparatorMetrics( 1 );
+        ino = new InstrumentedNodeOrder( DatatypeComparatorRegistry.createStandardRegistry(), metrics );
+        order = new RDFNodeStandardOrder( ino );
+    }
+
+    @Test
+    public void testResourceBranches() {
+        Resource u0 = m.createResource( NS + "a" );
+        Resource u1 = m.createResource( NS + "b" );
+        Resource b0 = m.createResource();
+
+        assertEquals( -1, Integer.signum( order.compare( u0, u1 ) ) );
+        order.compare( b0, u0 );
+        order.compare( b0, m.createResource() );
+        order.compare( u0, m.createLiteral( "a" ) );
+        order.compare( u0, u0 );
+
+        assertEquals( 5, metrics.getCalls() );
+        assertEquals( 1, metrics.getCount( Branch.URI ) );
+        assertEquals( 1, metrics.getCount( Branch.ANON_URI ) );
+        assertEquals( 1, metrics.getCount( Branch.ANON ) );
+        assertEquals( 1, metrics.getCount( Branch.RESOURCE_LITERAL ) );
+        assertEquals( 1, metrics.getCount( Branch.IDENTICAL ) );
+    }
+
+    @Test
+    public void testLiteralBranches() {
+        order.compare( m.createLiteral( "a" ), m.createLiteral( "b" ) );
+        order.compare( m.createLiteral( "a", "en" ), m.createLiteral( "a", "de" ) );
+        order.compare( m.createTypedLiteral( 1 ), m.createLiteral( "b" ) );
+        order.compare( m.createTypedLiteral( 1 ), m.createTypedLiteral( 2L ) );
+        order.compare( m.createTypedLiteral( 1 ), m.createTypedLiteral( 2 ) );
+        order.compare( m.createTypedLiteral( "2009-01-01", XSDDatatype.XSDdate ), m.createTypedLiteral( "2009-01-02", XSDDatatype.XSDdate ) );
+        order.compare( m.createTypedLiteral( "a", XSDDatatype.XSDNCName ), m.createTypedLiteral( "b", XSDDatatype.XSDNCName ) );
+
+        assertEquals( 2, metrics.getCount( Branch.UNTYPED ) );
+        assertEquals( 1, metrics.getCount( Branch.LANG_TAG ) );
+        assertEquals( 1, metrics.getCount( Branch.TYPED_UNTYPED ) );
+        assertEquals( 1, metrics.getCount( Branch.DIFFERENT_DATATYPES ) );
+        assertEquals( 2, metrics.getCount( Branch.SAME_DATATYPE_VALUE ) );
+        assertEquals( 1, metrics.getCount( Branch.SAME_DATATYPE_LEXICAL ) );
+        assertEquals( Long.valueOf( 1 ), metrics.getDatatypeCounts().get( XSDDatatype.XSDdate.getURI() ) );
+    }
+
+    @Test
+    public void testSampling() {
+        ComparatorMetrics sampled = new ComparatorMetrics( 10 );
+        RDFNodeOrder o = new RDFNodeStandardOrder( new InstrumentedNodeOrder( DatatypeComparatorRegistry.createStandardRegistry(), sampled ) );
+        for (int i = 0; i < 100; i++) {
+            o.compare( m.createResource( NS + i ), m.createResource( NS + "x" ) );
+        }
+        assertEquals( 100, sampled.getCalls() );
+        assertEquals( 10, sampled.getSampledCalls() );
+        sampled.reset();
+        assertEquals( 0, sampled.getCalls() );
+        assertEquals( 0, sampled.getCount( Branch.URI ) );
+    }
+
+    @Test
+    public void testValueCache() {
+        DecodedValueCache cache = new DecodedValueCache();
+        ComparatorMetrics cached = new ComparatorMetrics();
+        RDFNodeOrder o = new RDFNodeStandardOrder( new InstrumentedNodeOrder( DatatypeComparatorRegistry.createStandardRegistry(), cache, cached ) );
+        Literal a = m.createTypedLiteral( "2009-01-01T00:00:00Z", XSDDatatype.XSDdateTime );
+        Literal b = m.createTypedLiteral( "2009-01-02T00:00:00Z", XSDDatatype.XSDdateTime );
+        for (int i = 0; i < 10; i++) {
+            o.compare( a, b );
+        }
+        assertEquals( 10, cached.getCount( Branch.SAME_DATATYPE_VALUE ) );
+        assertEquals( 2, cache.getMisses() );
+        assertEquals( 18, cache.getHits() );
+        assertEquals( 2, cached.getDecodes() );
+    }
+
+    @Test
+    public void testDecodes() {
+        // booleans are always decoded; short integers are compared lexically
+        order.compare( m.createTypedLiteral( true ), m.createTypedLiteral( false ) );
+        order.compare( m.createTypedLiteral( 1 ), m.createTypedLiteral( 2 ) );
+        order.compare( m.createTypedLiteral( "a", XSDDatatype.XSDNCName ), m.createTypedLiteral( "b", XSDDatatype.XSDNCName ) );
+        assertEquals( 2, metrics.getDecodes() );
+
+        // special floating point values are left to the decoded values
+        order.compare( m.createTypedLiteral( "INF", XSDDatatype.XSDdouble ), m.createTypedLiteral( "1.0", XSDDatatype.XSDdouble ) );
+        assertEquals( 4, metrics.getDecodes() );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
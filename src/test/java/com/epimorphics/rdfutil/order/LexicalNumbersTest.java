@@ -0,0 +1,166 @@
+/*****************************************************************************
+ * File:    LexicalNumbersTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import org.junit.Test;
+
+/**
+ * <p>Unit tests for {@link LexicalNumbers}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class LexicalNumbersTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Test
+    public void testDecimalsAgreeWithBigDecimal() {
+        List<String> forms = new ArrayList<String>( Arrays.asList(
+                "0", "-0", "+0", "0.0", "-0.000", ".5", "-.5", "5.", "007", "7", "7.0", "7.000", "70", "0.7", "0.07",
+                "-7", "-70", "-0.07", "123456789012345678901234567890", "123456789012345678901234567891",
+                "-123456789012345678901234567890", "1.5", "1.50", "1.05", "15", "+15", "99.99", "100" ) );
+        Random rand = new Random( 23 );
+        for (int i = 0; i < 300; i++) {
+            forms.add( randomDecimal( rand ) );
+        }
+
+        for (String f1 : forms) {
+            for (String f2 : forms) {
+                int expected = Integer.signum( new BigDecimal( f1 ).compareTo( new BigDecimal( f2 ) ) );
+                assertEquals( f1 + " vs " + f2, expected, Integer.signum( LexicalNumbers.compareDecimals( f1, f2 ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void testDoublesAgreeWithDoubleCompare() {
+        List<String> forms = new ArrayList<String>( Arrays.asList(
+                "0", "-0", "0.0", "-0.0", "0E0", "1E0", "1e1", "10", "1.5E3", "1500", "1500.0", "-1.5E3", "-1.5E-3",
+                "-0.0015", "1E-299", "1E299", "0.1", "0.10", "1.0E-1", "123456789012345", "123456789012346" ) );
+        Random rand = new Random( 29 );
+        for (int i = 0; i < 300; i++) {
+            forms.add( randomDouble( rand, 15 ) );
+        }
+
+        for (String f1 : forms) {
+            for (String f2 : forms) {
+                int expected = Double.compare( Double.parseDouble( f1 ), Double.parseDouble( f2 ) );
+                assertEquals( f1 + " vs " + f2, expected, Integer.signum( LexicalNumbers.compareDoubles( f1, f2 ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void testFloatsAgreeWithFloatCompare() {
+        List<String> forms = new ArrayList<String>();
+        Random rand = new Random( 31 );
+        for (int i = 0; i < 300; i++) {
+            forms.add( randomDouble( rand, 6 ) );
+        }
+        for (String f1 : forms) {
+            for (String f2 : forms) {
+                int c = LexicalNumbers.compareFloats( f1, f2 );
+                if (c != LexicalNumbers.NOT_COMPARABLE) {
+                    int expected = Float.compare( Float.parseFloat( f1 ), Float.parseFloat( f2 ) );
+                    assertEquals( f1 + " vs " + f2, expected, Integer.signum( c ) );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnhandledForms() {
+        assertEquals( LexicalNumbers.NOT_COMPARABLE, LexicalNumbers.compareDoubles( "INF", "1" ) );
+        assertEquals( LexicalNumbers.NOT_COMPARABLE, LexicalNumbers.compareDoubles( "1", "NaN" ) );
+        assertEquals( LexicalNumbers.NOT_COMPARABLE, LexicalNumbers.compareDoubles( "1.23456789012345678", "1" ) );
+        assertEquals( LexicalNumbers.NOT_COMPARABLE, LexicalNumbers.compareDoubles( "1E400", "1" ) );
+        assertEquals( LexicalNumbers.NOT_COMPARABLE, LexicalNumbers.compareDecimals( " 1", "1" ) );
+        assertEquals( LexicalNumbers.NOT_COMPARABLE, LexicalNumbers.compareDecimals( "1E3", "1" ) );
+        assertEquals( LexicalNumbers.NOT_COMPARABLE, LexicalNumbers.compareDecimals( "-", "1" ) );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private String randomDecimal( Random rand ) {
+        StringBuilder buf = new StringBuilder();
+        if (rand.nextInt( 3 ) == 0) {
+            buf.append( '-' );
+        }
+        int intDigits = rand.nextInt( 5 );
+        for (int i = 0; i < intDigits; i++) {
+            buf.append( (char) ('0' + rand.nextInt( 3 )) );
+        }
+        if (intDigits == 0 || rand.nextBoolean()) {
+            buf.append( '.' );
+            int fracDigits = 1 + rand.nextInt( 4 );
+            for (int i = 0; i < fracDigits; i++) {
+                buf.append( (char) ('0' + rand.nextInt( 3 )) );
+            }
+        }
+        return buf.toString();
+    }
+
+    private String randomDouble( Random rand, int maxDigits ) {
+        StringBuilder buf = new StringBuilder();
+        if (rand.nextInt( 3 ) == 0) {
+            buf.append( '-' );
+        }
+        int digits = 1 + rand.nextInt( maxDigits );
+        int point = rand.nextInt( digits + 1 );
+        for (int i = 0; i < digits; i++) {
+            if (i == point) {
+                buf.append( '.' );
+            }
+            buf.append( (char) ('0' + rand.nextInt( 4 )) );
+        }
+        if (rand.nextBoolean()) {
+            buf.append( 'E' ).append( rand.nextInt( 20 ) - 10 );
+        }
+        return buf.toString();
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
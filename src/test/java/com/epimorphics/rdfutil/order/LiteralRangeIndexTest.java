@@ -0,0 +1,159 @@
+/*****************************************************************************
+ * File:    LiteralRangeIndexTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.datatypes.RDFDatatype;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link LiteralRangeIndex}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class LiteralRangeIndexTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+    private LiteralRangeIndex index;
+
+    private RDFNodeStandardOrder rnso = new RDFNodeStandardOrder();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        Random rand = new Random( 17 );
+        Property p = m.createProperty( NS + "p" );
+        for (int i = 0; i < 300; i++) {
+            Resource s = m.createResource( NS + "r" + i );
+            m.add( s, p, m.createTypedLiteral( (rand.nextInt( 40000 ) - 20000) / 100.0 + "", XSDDatatype.XSDdecimal ) );
+            m.add( s, p, m.createTypedLiteral( Integer.toString( rand.nextInt( 1000 ) ), XSDDatatype.XSDint ) );
+            m.add( s, p, m.createTypedLiteral( String.format( "2009-%02d-%02dT%02d:00:00Z", 1 + rand.nextInt( 12 ), 1 + rand.nextInt( 28 ), rand.nextInt( 24 ) ),
+                                               XSDDatatype.XSDdateTime ) );
+            m.add( s, p, m.createTypedLiteral( rand.nextBoolean() ) );
+            m.add( s, p, m.createResource( NS + "r" + rand.nextInt( 300 ) ) );
+        }
+        m.add( m.createResource( NS + "x" ), p, m.createTypedLiteral( "100", XSDDatatype.XSDdecimal ) );
+        m.add( m.createResource( NS + "x" ), p, m.createTypedLiteral( "100.0", XSDDatatype.XSDdecimal ) );
+        index = LiteralRangeIndex.build( m );
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals( 300 * 4 + 2, index.size() );
+    }
+
+    @Test
+    public void testDecimalRanges() {
+        Literal hundred = m.createTypedLiteral( "100", XSDDatatype.XSDdecimal );
+        Literal minus = m.createTypedLiteral( "-50.5", XSDDatatype.XSDdecimal );
+
+        assertRange( XSDDatatype.XSDdecimal, hundred, false, null, false, index.greaterThan( hundred ) );
+        assertRange( XSDDatatype.XSDdecimal, null, false, minus, false, index.lessThan( minus ) );
+        assertRange( XSDDatatype.XSDdecimal, minus, true, hundred, true,
+                     index.range( XSDDatatype.XSDdecimal, minus, true, hundred, true ) );
+        assertEquals( 2, index.equalTo( hundred ).size() );
+    }
+
+    @Test
+    public void testDateTimeRange() {
+        Literal from = m.createTypedLiteral( "2009-03-01T00:00:00Z", XSDDatatype.XSDdateTime );
+        Literal to = m.createTypedLiteral( "2009-06-15T12:00:00Z", XSDDatatype.XSDdateTime );
+        assertRange( XSDDatatype.XSDdateTime, from, true, to, false,
+                     index.range( XSDDatatype.XSDdateTime, from, true, to, false ) );
+    }
+
+    @Test
+    public void testWholeDatatype() {
+        assertRange( XSDDatatype.XSDboolean, null, false, null, false, index.all( XSDDatatype.XSDboolean ) );
+        assertRange( XSDDatatype.XSDint, null, false, null, false, index.all( XSDDatatype.XSDint ) );
+        assertEquals( 300, index.all( XSDDatatype.XSDint ).size() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testBoundWithWrongDatatype() {
+        index.range( XSDDatatype.XSDdecimal, m.createTypedLiteral( 1 ), true, null, false );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /** Check the result of a query against a scan of the whole model */
+    private void assertRange( RDFDatatype dt, Literal min, boolean minInclusive, Literal max, boolean maxInclusive, List<Statement> actual ) {
+        Set<Statement> expected = new HashSet<Statement>();
+        for (StmtIterator i = m.listStatements(); i.hasNext(); ) {
+            Statement s = i.nextStatement();
+            RDFNode o = s.getObject();
+            if (!o.isLiteral() || !dt.equals( ((Literal) o).getDatatype() )) {
+                continue;
+            }
+            if (min != null) {
+                int c = rnso.compare( o, min );
+                if (c < 0 || (c == 0 && !minInclusive)) {
+                    continue;
+                }
+            }
+            if (max != null) {
+                int c = rnso.compare( o, max );
+                if (c > 0 || (c == 0 && !maxInclusive)) {
+                    continue;
+                }
+            }
+            expected.add( s );
+        }
+
+        assertEquals( expected, new HashSet<Statement>( actual ) );
+        for (int i = 1; i < actual.size(); i++) {
+            assertEquals( true, rnso.compare( actual.get( i - 1 ).getObject(), actual.get( i ).getObject() ) <= 0 );
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,148 @@
+/*****************************************************************************
+ * File:    NTriplesCodecTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+import com.hp.hpl.jena.shared.SyntaxError;
+
+/**
+ * <p>Unit tests for {@link NTriplesCodec}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NTriplesCodecTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private NTriplesCodec codec = new NTriplesCodec();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Test
+    public void testBlankAndCommentLines() {
+        assertNull( codec.parse( "" ) );
+        assertNull( codec.parse( "   " ) );
+        assertNull( codec.parse( "# a comment" ) );
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Node s = Node.createAnon( new AnonId( "b0" ) );
+        Node p = Node.createURI( NS + "p" );
+        Node[] objects = new Node[] {
+            Node.createURI( NS + "caf\u00e9" ),
+            Node.createAnon(),
+            Node.createLiteral( "say \"hello\"\n\tand \\ goodbye \ud800\udc00", null, false ),
+            Node.createLiteral( "chat", "fr", false ),
+            Node.createLiteral( "42", null, XSDDatatype.XSDint )
+        };
+
+        for (Node o : objects) {
+            Triple t = Triple.create( s, p, o );
+            StringBuilder buf = new StringBuilder();
+            codec.write( t, buf );
+            assertEquals( "Line ends with newline", '\n', buf.charAt( buf.length() - 1 ) );
+            Triple parsed = codec.parse( buf.substring( 0, buf.length() - 1 ) );
+            assertEquals( t, parsed );
+        }
+    }
+
+    @Test
+    public void testBNodeLabelRoundTrip() throws Exception {
+        Model m = ModelFactory.createDefaultModel();
+        Node p = Node.createURI( NS + "p" );
+        String[] labels = new String[] {
+            "b0", "a-b", "X", "AaX2dXb", "AbX5fX1", "1a", "-X", "X-", "x_y.z", "caf\u00e9",
+            m.createResource().getId().getLabelString(),
+            Node.createAnon().getBlankNodeLabel()
+        };
+
+        for (String label : labels) {
+            Node b = Node.createAnon( new AnonId( label ) );
+            Triple t = Triple.create( b, p, b );
+            StringBuilder buf = new StringBuilder();
+            codec.write( t, buf );
+            assertEquals( label, t, codec.parse( buf.substring( 0, buf.length() - 1 ) ) );
+        }
+
+        // legal labels without an X are written as they are
+        StringBuilder buf = new StringBuilder();
+        codec.write( Triple.create( Node.createAnon( new AnonId( "b0" ) ), p, Node.createURI( NS + "o" ) ), buf );
+        assertTrue( buf.toString().startsWith( "_:b0 " ) );
+    }
+
+    @Test
+    public void testOutputIsReadableByJena() throws Exception {
+        Model m = ModelFactory.createDefaultModel();
+        Resource b = m.createResource();
+        m.add( b, m.createProperty( NS + "p" ), m.createTypedLiteral( 3 ) );
+        m.add( b, m.createProperty( NS + "q" ), m.createLiteral( "\u00e9t\u00e9", "fr" ) );
+
+        StringBuilder buf = new StringBuilder();
+        for (StmtIterator i = m.listStatements(); i.hasNext(); ) {
+            codec.write( i.nextStatement(), buf );
+        }
+
+        Model m2 = ModelFactory.createDefaultModel();
+        m2.read( new StringReader( buf.toString() ), null, "N-TRIPLE" );
+        assertEquals( true, m.isIsomorphicWith( m2 ) );
+    }
+
+    @Test(expected = SyntaxError.class)
+    public void testSyntaxError() {
+        codec.parse( "<http://example.com/a> <http://example.com/b> \"unterminated ." );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,223 @@
+/*****************************************************************************
+ * File:    NTriplesExternalSorterTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epimorphics.rdfutil.order.RandomStatements.Kind;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+import com.hp.hpl.jena.rdf.model.impl.ModelCom;
+
+/**
+ * <p>Unit tests for {@link NTriplesExternalSorter}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NTriplesExternalSorterTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+    private String input;
+
+    private NTriplesCodec codec = new NTriplesCodec();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        Resource[] bnodes = new Resource[10];
+        for (int i = 0; i < bnodes.length; i++) {
+            bnodes[i] = m.createResource( new AnonId( "b" + i ) );
+        }
+        input = createInput( bnodes );
+    }
+
+    @Test
+    public void testSortInMemory() throws Exception {
+        NTriplesExternalSorter sorter = new NTriplesExternalSorter();
+        assertSorted( sort( sorter ), sorter.getOrder() );
+    }
+
+    @Test
+    public void testSortWithSpilledRuns() throws Exception {
+        NTriplesExternalSorter sorter = new NTriplesExternalSorter( new RDFStatementStandardOrder( TripleLayout.POS ) );
+        sorter.setMemoryBudget( 8 * 1024 );
+        sorter.setMergeFanIn( 3 );
+        assertSorted( sort( sorter ), sorter.getOrder() );
+    }
+
+    @Test
+    public void testSpilledRunsMatchInMemorySort() throws Exception {
+        // bNodes with labels allocated by Jena, which have to be escaped in N-Triples
+        Resource[] bnodes = new Resource[10];
+        for (int i = 0; i < bnodes.length; i++) {
+            bnodes[i] = m.createResource();
+        }
+        input = createInput( bnodes );
+
+        NTriplesExternalSorter inMemory = new NTriplesExternalSorter();
+        List<Statement> expected = sort( inMemory );
+        assertSorted( expected, inMemory.getOrder() );
+
+        NTriplesExternalSorter spilled = new NTriplesExternalSorter();
+        spilled.setMemoryBudget( 8 * 1024 );
+        spilled.setMergeFanIn( 3 );
+        assertEquals( expected, sort( spilled ) );
+
+        // the bNodes read back are the bNodes that were written
+        Set<Resource> read = new HashSet<Resource>();
+        for (Statement s : expected) {
+            if (s.getSubject().isAnon()) {
+                read.add( s.getSubject() );
+            }
+        }
+        assertTrue( Arrays.asList( bnodes ).containsAll( read ) );
+        assertTrue( read.size() > 0 );
+    }
+
+    @Test
+    public void testDistinctSort() throws Exception {
+        input = input + input;
+        NTriplesExternalSorter sorter = new NTriplesExternalSorter();
+        sorter.setDistinct( true );
+        assertDistinct( sort( sorter ), sorter.getOrder() );
+
+        sorter = new NTriplesExternalSorter( new RDFStatementStandardOrder( TripleLayout.OPS ) );
+        sorter.setDistinct( true );
+        sorter.setMemoryBudget( 8 * 1024 );
+        sorter.setMergeFanIn( 3 );
+        assertDistinct( sort( sorter ), sorter.getOrder() );
+    }
+
+    @Test
+    public void testSortEmptyInput() throws Exception {
+        NTriplesExternalSorter sorter = new NTriplesExternalSorter();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sorter.sort( new ByteArrayInputStream( new byte[0] ), out );
+        assertEquals( 0, out.size() );
+    }
+
+    @Test
+    public void testTempFilesAreRemoved() throws Exception {
+        File dir = File.createTempFile( "rdf-order-test", "" );
+        assertTrue( dir.delete() && dir.mkdir() );
+        try {
+            NTriplesExternalSorter sorter = new NTriplesExternalSorter();
+            sorter.setMemoryBudget( 4 * 1024 );
+            sorter.setMergeFanIn( 2 );
+            sorter.setTempDirectory( dir );
+            sort( sorter );
+            assertEquals( 0, dir.list().length );
+        }
+        finally {
+            dir.delete();
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private String createInput( Resource[] bnodes ) throws IOException {
+        List<Statement> stmts = new RandomStatements( 42 ).subjects( 50 ).predicates( 5 ).values( -500, 500 )
+                                                          .plain( "v", "en", "" ).bNodes( bnodes, 7 )
+                                                          .objects( Kind.RESOURCE, Kind.INT, Kind.PLAIN, Kind.BNODE )
+                                                          .statements( m, 500 );
+
+        StringBuilder buf = new StringBuilder();
+        for (Statement s : stmts) {
+            codec.write( s, buf );
+        }
+        return buf.toString();
+    }
+
+    private List<Statement> sort( NTriplesExternalSorter sorter ) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sorter.sort( new ByteArrayInputStream( input.getBytes( "UTF-8" ) ), out );
+
+        ModelCom wrapper = (ModelCom) ModelFactory.createDefaultModel();
+        List<Statement> result = new ArrayList<Statement>();
+        BufferedReader in = new BufferedReader( new StringReader( out.toString( "UTF-8" ) ) );
+        String line;
+        while ((line = in.readLine()) != null) {
+            Triple t = codec.parse( line );
+            if (t != null) {
+                result.add( wrapper.asStatement( t ) );
+            }
+        }
+        return result;
+    }
+
+    private void assertSorted( List<Statement> sorted, RDFStatementOrder order ) {
+        assertEquals( "All statements are written", 500, sorted.size() );
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue( "Output is sorted", order.compare( sorted.get( i - 1 ), sorted.get( i ) ) <= 0 );
+        }
+
+        Model expected = ModelFactory.createDefaultModel();
+        expected.read( new StringReader( input ), null, "N-TRIPLE" );
+        Model actual = ModelFactory.createDefaultModel();
+        actual.add( sorted );
+        assertTrue( "Output has the same statements as the input", expected.isIsomorphicWith( actual ) );
+    }
+
+    private void assertDistinct( List<Statement> sorted, RDFStatementOrder order ) throws IOException {
+        Set<Statement> expected = new TreeSet<Statement>( order );
+        BufferedReader in = new BufferedReader( new StringReader( input ) );
+        ModelCom wrapper = (ModelCom) ModelFactory.createDefaultModel();
+        String line;
+        while ((line = in.readLine()) != null) {
+            expected.add( wrapper.asStatement( codec.parse( line ) ) );
+        }
+
+        assertEquals( new ArrayList<Statement>( expected ), sorted );
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
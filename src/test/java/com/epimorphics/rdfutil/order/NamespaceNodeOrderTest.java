@@ -0,0 +1,134 @@
+/*****************************************************************************
+ * File:    NamespaceNodeOrderTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link NamespaceNodeOrder}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NamespaceNodeOrderTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private List<String> namespaces = Arrays.asList( "http://example.com/id/", "http://example.com/id/item/",
+                                                     "http://example.com/def#", "http://example.org/",
+                                                     "http://www.w3.org/2000/01/rdf-schema#" );
+
+    private List<Node> nodes;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        nodes = new ArrayList<Node>();
+        for (String ns : namespaces) {
+            for (String local : new String[] {"", "a", "b", "item", "item/1", "z", "\u00e9"}) {
+                nodes.add( Node.createURI( ns + local ) );
+            }
+        }
+        nodes.add( Node.createURI( "http://example.com/" ) );
+        nodes.add( Node.createURI( "http://example.com/def" ) );
+        nodes.add( Node.createURI( "urn:x-other:1" ) );
+        nodes.add( Node.createURI( "http://example.or" ) );
+        nodes.add( Node.createAnon() );
+        nodes.add( Node.createLiteral( "http://example.com/id/a", "", false ) );
+    }
+
+    @Test
+    public void testSameOrderAsStandardOrder() {
+        NodeStandardOrder nso = new NodeStandardOrder();
+        NamespaceNodeOrder nno = new NamespaceNodeOrder( namespaces );
+        for (int pass = 0; pass < 2; pass++) {
+            // the second pass uses the cached splits
+            for (Node n0 : nodes) {
+                for (Node n1 : nodes) {
+                    assertEquals( n0 + " vs " + n1, Integer.signum( nso.compare( n0, n1 ) ), Integer.signum( nno.compare( n0, n1 ) ) );
+                }
+            }
+        }
+        assertTrue( nno.getCachedCount() > 0 );
+    }
+
+    @Test
+    public void testCacheLimit() {
+        NamespaceNodeOrder nno = new NamespaceNodeOrder( namespaces, DatatypeComparatorRegistry.createStandardRegistry(), 3 );
+        List<Node> sorted = new ArrayList<Node>( nodes );
+        Collections.shuffle( sorted, new Random( 1 ) );
+        Collections.sort( sorted, nno );
+        List<Node> expected = new ArrayList<Node>( sorted );
+        Collections.sort( expected, new NodeStandardOrder() );
+        assertEquals( expected, sorted );
+        assertEquals( 3, nno.getCachedCount() );
+
+        // once full, the cache still takes new URIs by evicting old ones
+        String uri = "http://example.com/def#notYetSeen";
+        assertSame( nno.split( uri ), nno.split( uri ) );
+        assertEquals( 3, nno.getCachedCount() );
+    }
+
+    @Test
+    public void testForModel() {
+        Model m = ModelFactory.createDefaultModel();
+        m.setNsPrefix( "ex", "http://example.com/def#" );
+        m.add( m.createResource( "http://example.org/thing/1" ), m.createProperty( "http://example.com/def#p" ), "x" );
+
+        NamespaceNodeOrder nno = NamespaceNodeOrder.forModel( m );
+        assertEquals( Arrays.asList( "http://example.com/def#", "http://example.org/thing/" ), nno.getNamespaces() );
+
+        RDFNodeStandardOrder order = new RDFNodeStandardOrder( nno );
+        assertTrue( order.compare( m.createResource( "http://example.org/thing/1" ), m.createResource( "http://example.org/thing/2" ) ) < 0 );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
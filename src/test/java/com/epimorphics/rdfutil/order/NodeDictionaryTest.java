@@ -0,0 +1,182 @@
+/*****************************************************************************
+ * File:    NodeDictionaryTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * <p>Unit tests for {@link NodeDictionary}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NodeDictionaryTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private List<Node> nodes;
+
+    private NodeStandardOrder nso = new NodeStandardOrder();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        nodes = new ArrayList<Node>();
+        for (int i = 0; i < 20; i++) {
+            nodes.add( Node.createURI( NS + "r" + i ) );
+            nodes.add( Node.createLiteral( Integer.toString( i ), null, XSDDatatype.XSDint ) );
+        }
+        nodes.add( Node.createAnon() );
+        nodes.add( Node.createLiteral( "foo", "en", false ) );
+        nodes.add( Node.createLiteral( "foo", "", false ) );
+        nodes.add( Node.createLiteral( "2", null, XSDDatatype.XSDdecimal ) );
+        nodes.add( Node.createLiteral( "2.0", null, XSDDatatype.XSDdecimal ) );
+    }
+
+    @Test
+    public void testBuildFromSortedNodes() {
+        List<Node> sorted = new ArrayList<Node>( nodes );
+        sorted.add( nodes.get( 0 ) );
+        Collections.sort( sorted, nso );
+        NodeDictionary dict = new NodeDictionary();
+        dict.build( sorted.iterator() );
+
+        assertEquals( nodes.size(), dict.size() );
+        assertIdOrder( dict );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testBuildRejectsUnsortedNodes() {
+        new NodeDictionary().build( Arrays.asList( Node.createURI( NS + "b" ), Node.createURI( NS + "a" ) ).iterator() );
+    }
+
+    @Test
+    public void testIncrementalEncode() {
+        List<Node> shuffled = new ArrayList<Node>( nodes );
+        Collections.shuffle( shuffled, new Random( 3 ) );
+        NodeDictionary dict = new NodeDictionary();
+        for (Node n : shuffled) {
+            long id = dict.encode( n );
+            assertEquals( id, dict.encode( n ) );
+            assertEquals( n, dict.getNode( id ) );
+        }
+        assertEquals( 0, dict.getEpoch() );
+        assertIdOrder( dict );
+    }
+
+    @Test
+    public void testRenumberWhenGapIsUsed() {
+        NodeDictionary dict = new NodeDictionary( nso, 2 );
+        Node a = Node.createURI( NS + "a" );
+        Node c = Node.createURI( NS + "c" );
+        dict.encode( a );
+        dict.encode( c );
+        dict.encode( Node.createURI( NS + "b" ) );
+        assertEquals( 0, dict.getEpoch() );
+        dict.encode( Node.createURI( NS + "ab" ) );
+        assertEquals( 1, dict.getEpoch() );
+        assertTrue( dict.getId( a ) < dict.getId( Node.createURI( NS + "ab" ) ) );
+        assertTrue( dict.getId( Node.createURI( NS + "ab" ) ) < dict.getId( Node.createURI( NS + "b" ) ) );
+        assertTrue( dict.getId( Node.createURI( NS + "b" ) ) < dict.getId( c ) );
+    }
+
+    @Test
+    public void testEncodeAfterBuildMergesAddedNodes() {
+        // enough nodes to be merged into the arrays, inserted around and between built nodes
+        List<Node> built = new ArrayList<Node>( nodes );
+        Collections.sort( built, nso );
+        NodeDictionary dict = new NodeDictionary();
+        dict.build( built.iterator() );
+
+        List<Node> added = new ArrayList<Node>();
+        for (int i = 0; i < 3000; i++) {
+            Node n = Node.createURI( NS + "r" + (i % 20) + "-" + i );
+            dict.encode( n );
+            added.add( n );
+        }
+        assertEquals( nodes.size() + added.size(), dict.size() );
+        for (Node n : added) {
+            assertEquals( n, dict.getNode( dict.getId( n ) ) );
+        }
+        nodes.addAll( added );
+        assertIdOrder( dict );
+    }
+
+    @Test
+    public void testEncodeTriple() {
+        NodeDictionary dict = new NodeDictionary();
+        Triple t = Triple.create( nodes.get( 0 ), nodes.get( 2 ), nodes.get( 1 ) );
+        long[] spo = dict.encode( t );
+        assertEquals( 3, spo.length );
+        assertEquals( t, dict.decode( spo ) );
+        assertEquals( NodeDictionary.NO_ID, dict.getId( Node.createURI( NS + "missing" ) ) );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /** Check that comparing IDs agrees with the node order for every pair of distinct nodes */
+    private void assertIdOrder( NodeDictionary dict ) {
+        for (Node n0 : nodes) {
+            for (Node n1 : nodes) {
+                int c = Integer.signum( nso.compare( n0, n1 ) );
+                long id0 = dict.getId( n0 );
+                long id1 = dict.getId( n1 );
+                if (c != 0) {
+                    assertEquals( n0 + " vs " + n1, c, (id0 < id1) ? -1 : 1 );
+                }
+                else {
+                    assertEquals( n0.equals( n1 ), id0 == id1 );
+                }
+            }
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
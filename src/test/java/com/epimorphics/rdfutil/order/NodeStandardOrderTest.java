@@ -0,0 +1,133 @@
+/*****************************************************************************
+ * File:    NodeStandardOrderTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link NodeStandardOrder}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class NodeStandardOrderTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+    private List<RDFNode> nodes;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        nodes = new ArrayList<RDFNode>();
+
+        nodes.add( m.createResource( NS + "r0" ) );
+        nodes.add( m.createResource( NS + "r1" ) );
+        nodes.add( m.createResource() );
+        nodes.add( m.createResource() );
+        nodes.add( m.createLiteral( "foo" ) );
+        nodes.add( m.createLiteral( "foo", "en" ) );
+        nodes.add( m.createLiteral( "foo", "de" ) );
+        nodes.add( m.createLiteral( "fo" ) );
+        nodes.add( m.createTypedLiteral( true ) );
+        nodes.add( m.createTypedLiteral( false ) );
+        nodes.add( m.createTypedLiteral( "10", XSDDatatype.XSDint ) );
+        nodes.add( m.createTypedLiteral( "9", XSDDatatype.XSDint ) );
+        nodes.add( m.createTypedLiteral( "2.5", XSDDatatype.XSDdecimal ) );
+        nodes.add( m.createTypedLiteral( "30000000000000000000000", XSDDatatype.XSDinteger ) );
+        nodes.add( m.createTypedLiteral( "-1E10", XSDDatatype.XSDdouble ) );
+        nodes.add( m.createTypedLiteral( "2009-01-18T12:00:00Z", XSDDatatype.XSDdateTime ) );
+        nodes.add( m.createTypedLiteral( "2009-01-17", XSDDatatype.XSDdate ) );
+        nodes.add( m.createTypedLiteral( "arthur", XSDDatatype.XSDNCName ) );
+    }
+
+    @Test
+    public void testSameOrderAsRDFNodeStandardOrder() {
+        RDFNodeStandardOrder rnso = new RDFNodeStandardOrder();
+        NodeStandardOrder nso = new NodeStandardOrder();
+        for (RDFNode n0 : nodes) {
+            for (RDFNode n1 : nodes) {
+                assertEquals( n0 + " vs " + n1,
+                              Integer.signum( rnso.compare( n0, n1 ) ),
+                              Integer.signum( nso.compare( n0.asNode(), n1.asNode() ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void testEqualNodes() {
+        NodeStandardOrder nso = new NodeStandardOrder();
+        assertEquals( 0, nso.compare( Node.createURI( NS + "a" ), Node.createURI( NS + "a" ) ) );
+        assertEquals( 0, nso.compare( Node.createLiteral( "x", "en", false ), Node.createLiteral( "x", "en", false ) ) );
+        assertTrue( nso.compare( Node.createLiteral( "x", "", false ), Node.createLiteral( "x", "en", false ) ) > 0 );
+    }
+
+    @Test
+    public void testSharedRegistry() {
+        NodeStandardOrder nso = new NodeStandardOrder();
+        RDFNodeStandardOrder rnso = new RDFNodeStandardOrder( nso );
+        assertSame( nso, rnso.getNodeOrder() );
+        assertSame( nso.getRegistry(), rnso.getRegistry() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testVariableRejected() {
+        new NodeStandardOrder().compare( Node.createVariable( "x" ), Node.createURI( NS + "a" ) );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,231 @@
+/*****************************************************************************
+ * File:    ParallelSorterTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epimorphics.rdfutil.order.RandomStatements.Kind;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link ParallelSorter}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class ParallelSorterTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        new RandomStatements( 7 ).subjects( 300 ).predicates( 4 ).values( 0, 100 )
+                                 .objects( Kind.INT, Kind.RESOURCE )
+                                 .addTo( m, 5000 );
+    }
+
+    @Test
+    public void testSortStatements() {
+        RDFStatementOrder order = new RDFStatementStandardOrder( TripleLayout.OSP );
+        List<Statement> expected = m.listStatements().toList();
+        Collections.sort( expected, order );
+
+        List<Statement> actual = new ParallelSorter( 4, 100 ).sortedStatements( m, order );
+        assertEquals( expected, actual );
+    }
+
+    @Test
+    public void testSortTriples() {
+        TripleOrder order = new TripleStandardOrder( TripleLayout.POS );
+        List<Triple> expected = m.getGraph().find( Triple.ANY ).toList();
+        Collections.sort( expected, order );
+
+        List<Triple> actual = new ParallelSorter( 4, 100 ).sortedTriples( m.getGraph(), order );
+        assertEquals( expected, actual );
+    }
+
+    @Test
+    public void testSortNodes() {
+        RDFNodeOrder order = new RDFNodeStandardOrder();
+        List<RDFNode> nodes = new ArrayList<RDFNode>();
+        for (StmtIterator i = m.listStatements(); i.hasNext(); ) {
+            nodes.add( i.nextStatement().getObject() );
+        }
+        List<RDFNode> expected = new ArrayList<RDFNode>( nodes );
+        Collections.sort( expected, order );
+
+        new ParallelSorter( 3, 50 ).sortNodes( nodes, order );
+        assertEquals( expected, nodes );
+    }
+
+    @Test
+    public void testSortedQuads() {
+        Map<Node, Graph> named = new HashMap<Node, Graph>();
+        List<Quad> quads = new ArrayList<Quad>();
+        for (Triple t : m.getGraph().find( Triple.ANY ).toList()) {
+            quads.add( new Quad( null, t ) );
+        }
+        Random rand = new Random( 23 );
+        for (int g = 0; g < 4; g++) {
+            Node name = (g == 3) ? Node.createAnon() : Node.createURI( NS + "g" + g );
+            Graph graph = ModelFactory.createDefaultModel().getGraph();
+            for (int i = 0; i < 1000; i++) {
+                Triple t = Triple.create( Node.createURI( NS + "r" + rand.nextInt( 100 ) ), Node.createURI( NS + "p" ),
+                                          Node.createURI( NS + "r" + rand.nextInt( 100 ) ) );
+                if (!graph.contains( t )) {
+                    graph.add( t );
+                    quads.add( new Quad( name, t ) );
+                }
+            }
+            named.put( name, graph );
+        }
+
+        for (QuadLayout layout : new QuadLayout[] {QuadLayout.GSPO, QuadLayout.OSPG}) {
+            QuadOrder order = new QuadOrder( layout );
+            List<Quad> expected = new ArrayList<Quad>( quads );
+            Collections.sort( expected, order );
+
+            List<Quad> actual = new ArrayList<Quad>();
+            for (Iterator<Quad> i = new ParallelSorter( 4, 100 ).sortedQuads( m.getGraph(), named, order ); i.hasNext(); ) {
+                actual.add( i.next() );
+            }
+            assertEquals( expected, actual );
+        }
+    }
+
+    @Test
+    public void testSortIsStable() {
+        Integer[] a = new Integer[10000];
+        Random rand = new Random( 11 );
+        for (int i = 0; i < a.length; i++) {
+            a[i] = new Integer( rand.nextInt( 10 ) );
+        }
+        Integer[] expected = a.clone();
+        Comparator<Integer> order = new Comparator<Integer>() {
+            @Override
+            public int compare( Integer i1, Integer i2 ) {
+                return i1.compareTo( i2 );
+            }
+        };
+        Arrays.sort( expected, order );
+
+        new ParallelSorter( 5, 64 ).sort( a, order );
+        for (int i = 0; i < a.length; i++) {
+            assertSame( "Equal elements keep their relative order", expected[i], a[i] );
+        }
+    }
+
+    @Test
+    public void testSortDistinct() {
+        Integer[] a = new Integer[10000];
+        Random rand = new Random( 13 );
+        for (int i = 0; i < a.length; i++) {
+            a[i] = new Integer( rand.nextInt( 500 ) );
+        }
+        Set<Integer> expected = new TreeSet<Integer>( Arrays.asList( a ) );
+        Map<Integer, Integer> first = new HashMap<Integer, Integer>();
+        for (Integer i : a) {
+            if (!first.containsKey( i )) {
+                first.put( i, i );
+            }
+        }
+
+        List<Integer> list = new ArrayList<Integer>( Arrays.asList( a ) );
+        new ParallelSorter( 4, 100 ).sortDistinct( list, new Comparator<Integer>() {
+            @Override
+            public int compare( Integer i1, Integer i2 ) {
+                return i1.compareTo( i2 );
+            }
+        } );
+        assertEquals( new ArrayList<Integer>( expected ), list );
+        for (Integer i : list) {
+            assertSame( "The first of each group of equal elements is kept", first.get( i ), i );
+        }
+    }
+
+    @Test
+    public void testSortDistinctStatements() {
+        RDFStatementOrder order = new RDFStatementStandardOrder();
+        List<Statement> stmts = m.listStatements().toList();
+        List<Statement> doubled = new ArrayList<Statement>( stmts );
+        doubled.addAll( stmts );
+        Collections.sort( stmts, order );
+
+        new ParallelSorter( 4, 100 ).sortDistinct( doubled, order );
+        assertEquals( stmts, doubled );
+    }
+
+    @Test
+    public void testSharedExecutor() {
+        ExecutorService exec = Executors.newFixedThreadPool( 2 );
+        try {
+            RDFStatementOrder order = new RDFStatementStandardOrder();
+            List<Statement> expected = m.listStatements().toList();
+            Collections.sort( expected, order );
+
+            ParallelSorter sorter = new ParallelSorter( 8, 200, exec );
+            assertEquals( expected, sorter.sortedStatements( m, order ) );
+            assertEquals( expected, sorter.sortedStatements( m, order ) );
+        }
+        finally {
+            exec.shutdown();
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
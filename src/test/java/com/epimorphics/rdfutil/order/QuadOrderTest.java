@@ -0,0 +1,110 @@
+/*****************************************************************************
+ * File:    QuadOrderTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * <p>Unit tests for {@link QuadOrder}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class QuadOrderTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Node g1 = Node.createURI( NS + "g1" );
+    private Node g2 = Node.createURI( NS + "g2" );
+    private Node a = Node.createURI( NS + "a" );
+    private Node b = Node.createURI( NS + "b" );
+    private Node p = Node.createURI( NS + "p" );
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Test
+    public void testDefaultLayoutIsGSPO() {
+        assertEquals( QuadLayout.GSPO, new QuadOrder().getLayout() );
+    }
+
+    @Test
+    public void testGraphFirst() {
+        Quad q1 = Quad.create( g1, b, p, a );
+        Quad q2 = Quad.create( g2, a, p, a );
+        Quad d = Quad.create( null, b, p, b );
+        assertEquals( Arrays.asList( d, q1, q2 ), sorted( new QuadOrder( QuadLayout.GSPO ), q2, q1, d ) );
+    }
+
+    @Test
+    public void testGraphLast() {
+        Quad q1 = Quad.create( g1, b, p, a );
+        Quad q2 = Quad.create( g2, a, p, a );
+        Quad q3 = Quad.create( g1, a, p, a );
+        Quad d = Quad.create( null, a, p, a );
+        assertEquals( Arrays.asList( d, q3, q2, q1 ), sorted( new QuadOrder( QuadLayout.SPOG ), q1, q2, q3, d ) );
+    }
+
+    @Test
+    public void testTripleLayout() {
+        Quad q1 = Quad.create( g1, a, p, b );
+        Quad q2 = Quad.create( g1, b, p, a );
+        assertTrue( new QuadOrder( QuadLayout.GSPO ).compare( q1, q2 ) < 0 );
+        assertTrue( new QuadOrder( QuadLayout.GOSP ).compare( q1, q2 ) > 0 );
+        assertTrue( new QuadOrder( QuadLayout.OSPG ).compare( q1, q2 ) > 0 );
+        assertEquals( 0, new QuadOrder( QuadLayout.POSG ).compare( q1, new Quad( g1, Triple.create( a, p, b ) ) ) );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private List<Quad> sorted( QuadOrder order, Quad... quads ) {
+        List<Quad> l = new ArrayList<Quad>( Arrays.asList( quads ) );
+        Collections.sort( l, order );
+        return l;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
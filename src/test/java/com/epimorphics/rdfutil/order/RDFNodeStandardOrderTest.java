@@ -284,6 +284,75 @@ public class RDFNodeStandardOrderTest
         assertEquals( "other xsd values are ordered lexically by string image", l1.getLexicalForm().compareTo( l0.getLexicalForm() ), rnso.compare( l1, l0 ) );
     }
 
+    @Test
+    @SuppressWarnings( "deprecation" )
+    public void testDeprecatedHooks() {
+        // a subclass which overrides a deprecated method still changes the order
+        RDFNodeStandardOrder reversed = new RDFNodeStandardOrder() {
+            @Override
+            protected int compareUntypedLiterals( Literal x0, Literal x1 ) {
+                return -super.compareUntypedLiterals( x0, x1 );
+            }
+        };
+        assertTrue( rnso.isDirect() );
+        assertTrue( !reversed.isDirect() );
+        assertTrue( reversed.compare( l0, l1 ) > 0 );
+        assertTrue( reversed.compare( r0, r1 ) < 0 );
+        assertTrue( reversed.compare( b0, r0 ) < 0 );
+        assertTrue( reversed.compare( r0, l0 ) < 0 );
+        assertTrue( reversed.compare( m.createTypedLiteral( 2 ), m.createTypedLiteral( 10 ) ) < 0 );
+        assertTrue( reversed.compare( m.createTypedLiteral( 2 ), l0 ) < 0 );
+    }
+
+    @Test
+    public void testUnrelatedMethodsKeepDirectOrder() {
+        // methods which share a hook's name but not its signature are not overrides
+        RDFNodeStandardOrder order = new RDFNodeStandardOrder() {
+            @SuppressWarnings( "unused" )
+            private boolean hasLangTag( String lexicalForm ) {
+                return lexicalForm.contains( "@" );
+            }
+            @SuppressWarnings( "unused" )
+            public int compareLiterals( String s0, String s1 ) {
+                return s0.compareTo( s1 );
+            }
+        };
+        assertTrue( order.isDirect() );
+    }
+
+    @Test
+    public void testCompareOverrideIsNotDirect() {
+        RDFNodeStandardOrder order = new RDFNodeStandardOrder() {
+            @Override
+            public int compare( RDFNode n0, RDFNode n1 ) {
+                return -super.compare( n0, n1 );
+            }
+        };
+        assertTrue( !order.isDirect() );
+        assertTrue( order.compare( r0, r1 ) > 0 );
+    }
+
+    @Test
+    @SuppressWarnings( "deprecation" )
+    public void testDeprecatedNumberHooks() {
+        // overriding the number comparisons changes the order of numeric literals only
+        RDFNodeStandardOrder reversed = new RDFNodeStandardOrder() {
+            @Override
+            protected int compareNonFPNumbers( Number n1, Number n2 ) {
+                return -super.compareNonFPNumbers( n1, n2 );
+            }
+            @Override
+            protected int compareFPNumbers( Number n1, Number n2 ) {
+                return -super.compareFPNumbers( n1, n2 );
+            }
+        };
+        assertTrue( !reversed.isDirect() );
+        assertTrue( reversed.compare( m.createTypedLiteral( 2 ), m.createTypedLiteral( 10 ) ) > 0 );
+        assertTrue( reversed.compare( m.createTypedLiteral( 2.0 ), m.createTypedLiteral( 10.0 ) ) > 0 );
+        assertTrue( reversed.compare( m.createTypedLiteral( 2.0f ), m.createTypedLiteral( 10.0f ) ) > 0 );
+        assertTrue( reversed.compare( l0, l1 ) < 0 );
+    }
+
 
 
     /***********************************/
@@ -0,0 +1,238 @@
+/*****************************************************************************
+ * File:    RDFStatementStandardOrderTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.rdf.model.*;
+import com.hp.hpl.jena.vocabulary.RDFS;
+
+/**
+ * <p>Unit tests for {@link RDFStatementStandardOrder}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class RDFStatementStandardOrderTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+    private Resource r0, r1;
+    private Property p0, p1;
+    private Literal l0;
+
+    private RDFNodeStandardOrder rnso = new RDFNodeStandardOrder();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        r0 = m.createResource( NS + "r0" );
+        r1 = m.createResource( NS + "r1" );
+        p0 = m.createProperty( NS + "p0" );
+        p1 = m.createProperty( NS + "p1" );
+        l0 = m.createLiteral( "l0" );
+    }
+
+    @Test
+    public void testDefaultLayoutIsSPO() {
+        assertEquals( TripleLayout.SPO, new RDFStatementStandardOrder().getLayout() );
+    }
+
+    @Test
+    public void testIdenticalStatements() {
+        RDFStatementStandardOrder order = new RDFStatementStandardOrder();
+        Statement s0 = m.createStatement( r0, p0, l0 );
+        Statement s1 = m.createStatement( r0, p0, l0 );
+        assertEquals( 0, order.compare( s0, s0 ) );
+        assertEquals( 0, order.compare( s0, s1 ) );
+    }
+
+    @Test
+    public void testSPO() {
+        RDFStatementStandardOrder order = new RDFStatementStandardOrder( TripleLayout.SPO );
+        assertTrue( "Subject compared first", order.compare( m.createStatement( r0, p1, r1 ), m.createStatement( r1, p0, r0 ) ) < 0 );
+        assertTrue( "Predicate compared second", order.compare( m.createStatement( r0, p0, r1 ), m.createStatement( r0, p1, r0 ) ) < 0 );
+        assertTrue( "Object compared last", order.compare( m.createStatement( r0, p0, r1 ), m.createStatement( r0, p0, l0 ) ) < 0 );
+    }
+
+    @Test
+    public void testPOS() {
+        RDFStatementStandardOrder order = new RDFStatementStandardOrder( TripleLayout.POS );
+        assertTrue( "Predicate compared first", order.compare( m.createStatement( r1, p0, r1 ), m.createStatement( r0, p1, r0 ) ) < 0 );
+        assertTrue( "Object compared second", order.compare( m.createStatement( r1, p0, r0 ), m.createStatement( r0, p0, r1 ) ) < 0 );
+        assertTrue( "Subject compared last", order.compare( m.createStatement( r0, p0, r0 ), m.createStatement( r1, p0, r0 ) ) < 0 );
+    }
+
+    @Test
+    public void testOSP() {
+        RDFStatementStandardOrder order = new RDFStatementStandardOrder( TripleLayout.OSP );
+        assertTrue( "Object compared first", order.compare( m.createStatement( r1, p1, r0 ), m.createStatement( r0, p0, r1 ) ) < 0 );
+        assertTrue( "Subject compared second", order.compare( m.createStatement( r0, p1, r0 ), m.createStatement( r1, p0, r0 ) ) < 0 );
+        assertTrue( "Predicate compared last", order.compare( m.createStatement( r0, p0, r0 ), m.createStatement( r0, p1, r0 ) ) < 0 );
+    }
+
+    @Test
+    public void testAllLayoutsAgreeWithNodeOrder() {
+        List<Statement> stmts = new ArrayList<Statement>();
+        RDFNode[] objects = new RDFNode[] {r0, r1, l0, m.createTypedLiteral( 2 )};
+        for (Resource s : new Resource[] {r0, r1, m.createResource()}) {
+            for (Property p : new Property[] {p0, p1}) {
+                for (RDFNode o : objects) {
+                    stmts.add( m.createStatement( s, p, o ) );
+                }
+            }
+        }
+
+        for (TripleLayout layout : TripleLayout.values()) {
+            RDFStatementStandardOrder order = new RDFStatementStandardOrder( layout );
+            List<Statement> sorted = new ArrayList<Statement>( stmts );
+            Collections.shuffle( sorted );
+            Collections.sort( sorted, order );
+            for (int i = 1; i < sorted.size(); i++) {
+                assertTrue( "Layout " + layout + " is ordered", referenceCompare( layout, sorted.get( i - 1 ), sorted.get( i ) ) < 0 );
+            }
+        }
+    }
+
+    @Test
+    public void testOtherNodeOrder() {
+        // a node order which is not a standard order: literals by length, then as standard
+        RDFNodeOrder byLength = new RDFNodeOrder() {
+            @Override
+            public int compare( RDFNode n0, RDFNode n1 ) {
+                if (n0.isLiteral() && n1.isLiteral()) {
+                    int c = ((Literal) n0).getLexicalForm().length() - ((Literal) n1).getLexicalForm().length();
+                    if (c != 0) {
+                        return c;
+                    }
+                }
+                return rnso.compare( n0, n1 );
+            }
+        };
+        RDFStatementStandardOrder order = new RDFStatementStandardOrder( byLength, TripleLayout.OPS );
+        Statement longer = m.createStatement( r0, p0, m.createLiteral( "aaa" ) );
+        Statement shorter = m.createStatement( r0, p0, m.createLiteral( "b" ) );
+        assertTrue( order.compare( shorter, longer ) < 0 );
+        assertTrue( order.compare( m.createStatement( r1, p0, l0 ), m.createStatement( r0, p1, l0 ) ) < 0 );
+        assertEquals( 0, order.compare( shorter, m.createStatement( r0, p0, m.createLiteral( "b" ) ) ) );
+    }
+
+    @Test
+    public void testNodeOrderSeesStatementModel() {
+        // a node order which reads the model: resources by their rdfs:label
+        RDFNodeOrder byLabel = new RDFNodeOrder() {
+            @Override
+            public int compare( RDFNode n0, RDFNode n1 ) {
+                Statement l0 = ((Resource) n0).getProperty( RDFS.label );
+                Statement l1 = ((Resource) n1).getProperty( RDFS.label );
+                if (l0 == null || l1 == null) {
+                    return rnso.compare( n0, n1 );
+                }
+                return l0.getString().compareTo( l1.getString() );
+            }
+        };
+        r0.addProperty( RDFS.label, "zzz" );
+        r1.addProperty( RDFS.label, "aaa" );
+        assertTrue( byLabel.compare( r0, r1 ) > 0 );
+
+        RDFStatementStandardOrder order = new RDFStatementStandardOrder( byLabel, TripleLayout.SPO );
+        assertTrue( order.compare( m.createStatement( r0, p0, l0 ), m.createStatement( r1, p0, l0 ) ) > 0 );
+        assertTrue( order.compare( m.createStatement( r1, p0, l0 ), m.createStatement( r0, p0, l0 ) ) < 0 );
+    }
+
+    @Test
+    public void testCompiledNodeOrder() {
+        NodeOrderSpec spec = new NodeOrderSpec().descending( NodeOrderSpec.Level.KIND );
+        RDFStatementStandardOrder order = spec.buildStatementOrder( TripleLayout.SPO );
+        assertTrue( order.getTripleOrder() != null );
+        assertTrue( new RDFStatementStandardOrder( spec.buildRDFNodeOrder(), TripleLayout.SPO ).getTripleOrder() != null );
+        assertTrue( order.compare( m.createStatement( r0, p0, r0 ), m.createStatement( r0, p0, l0 ) ) > 0 );
+        assertTrue( order.compare( m.createStatement( r0, p0, l0 ), m.createStatement( r1, p0, l0 ) ) < 0 );
+    }
+
+    @Test
+    public void testOverriddenNodeCompare() {
+        // a standard order subclass which overrides compare() is not bypassed
+        RDFNodeStandardOrder reversed = new RDFNodeStandardOrder() {
+            @Override
+            public int compare( RDFNode n0, RDFNode n1 ) {
+                return -super.compare( n0, n1 );
+            }
+        };
+        RDFStatementStandardOrder order = new RDFStatementStandardOrder( reversed, TripleLayout.SPO );
+        assertTrue( order.compare( m.createStatement( r0, p0, l0 ), m.createStatement( r1, p0, l0 ) ) > 0 );
+        assertTrue( order.compare( m.createStatement( r0, p0, r0 ), m.createStatement( r0, p0, l0 ) ) > 0 );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /** Straightforward reference implementation of the layout order */
+    private int referenceCompare( TripleLayout layout, Statement s0, Statement s1 ) {
+        for (int level = 0; level < 3; level++) {
+            int pos = layout.position( level );
+            int c = rnso.compare( component( s0, pos ), component( s1, pos ) );
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private RDFNode component( Statement s, int pos ) {
+        switch (pos) {
+            case TripleLayout.SUBJECT:   return s.getSubject();
+            case TripleLayout.PREDICATE: return s.getPredicate();
+            default:                     return s.getObject();
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,144 @@
+/*****************************************************************************
+ * File:    RadixSorterTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epimorphics.rdfutil.order.RandomStatements.Kind;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link RadixSorter}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class RadixSorterTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        Resource[] bnodes = new Resource[100];
+        for (int i = 0; i < bnodes.length; i++) {
+            bnodes[i] = m.createResource();
+        }
+        new RandomStatements( 17 ).subjects( 300 ).predicates( 4 ).values( -1000, 1000 )
+                                  .plain( "v", "en", "" ).bNodes( bnodes, 50 )
+                                  .objects( Kind.INT, Kind.DOUBLE, Kind.PLAIN, Kind.DECIMAL, Kind.RESOURCE )
+                                  .addTo( m, 5000 );
+    }
+
+    @Test
+    public void testSortStatements() {
+        for (TripleLayout layout : new TripleLayout[] {TripleLayout.SPO, TripleLayout.OSP}) {
+            List<Statement> expected = m.listStatements().toList();
+            List<Statement> actual = new ArrayList<Statement>( expected );
+            Collections.sort( expected, new RDFStatementStandardOrder( layout ) );
+
+            new RadixSorter( 4, 100 ).sortStatements( actual, layout );
+            assertEquals( expected, actual );
+        }
+    }
+
+    @Test
+    public void testSortTriples() {
+        List<Triple> expected = m.getGraph().find( Triple.ANY ).toList();
+        List<Triple> actual = new ArrayList<Triple>( expected );
+        Collections.sort( expected, new TripleStandardOrder( TripleLayout.POS ) );
+
+        new RadixSorter( 1, 100 ).sortTriples( actual, TripleLayout.POS );
+        assertEquals( expected, actual );
+    }
+
+    @Test
+    public void testSortNodes() {
+        List<RDFNode> nodes = new ArrayList<RDFNode>();
+        for (StmtIterator i = m.listStatements(); i.hasNext(); ) {
+            nodes.add( i.nextStatement().getObject() );
+        }
+        List<RDFNode> expected = new ArrayList<RDFNode>( nodes );
+        Collections.sort( expected, new RDFNodeStandardOrder() );
+
+        new RadixSorter( 3, 50 ).sortNodes( nodes );
+        assertEquals( expected, nodes );
+    }
+
+    @Test
+    public void testSortIsStable() {
+        Integer[] a = new Integer[10000];
+        byte[][] keys = new byte[a.length][];
+        Random rand = new Random( 19 );
+        for (int i = 0; i < a.length; i++) {
+            a[i] = new Integer( i );
+            int k = rand.nextInt( 300 );
+            keys[i] = (k < 100) ? new byte[] {1} : new byte[] {1, (byte) k, (byte) (k * 7)};
+        }
+        Integer[] expected = a.clone();
+        final byte[][] original = keys.clone();
+        Arrays.sort( expected, new Comparator<Integer>() {
+            @Override
+            public int compare( Integer i1, Integer i2 ) {
+                return RDFNodeKeyEncoder.compareKeys( original[i1], original[i2] );
+            }
+        } );
+
+        new RadixSorter( 5, 64 ).sort( a, keys );
+        for (int i = 0; i < a.length; i++) {
+            assertSame( "Equal elements keep their relative order", expected[i], a[i] );
+            assertSame( original[a[i]], keys[i] );
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,190 @@
+/*****************************************************************************
+ * File:    RandomStatements.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import java.util.*;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Test fixture which generates repeatable random statements. Subjects and resource
+ * objects are drawn from <code>NS + "r0"</code> to <code>NS + "r</code><em>n-1</em><code>"</code>,
+ * predicates from <code>NS + "p0"</code> onwards, and each object is one of the given
+ * {@link Kind kinds}, chosen at random. For example:</p>
+ * <pre>
+ * new RandomStatements( 7 ).subjects( 300 ).predicates( 4 )
+ *                          .objects( Kind.INT, Kind.RESOURCE )
+ *                          .addTo( m, 5000 );
+ * </pre>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+class RandomStatements
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /** The namespace of the generated resources and properties */
+    public static final String NS = "http://example.com/rdf#";
+
+    /** The kinds of object which can be generated */
+    public enum Kind {
+        /** A URI resource, from the same range as the subjects */
+        RESOURCE,
+        /** One of the blank nodes, if any are given */
+        BNODE,
+        /** An <code>xsd:int</code> literal */
+        INT,
+        /** An <code>xsd:integer</code> literal */
+        INTEGER,
+        /** An <code>xsd:decimal</code> literal */
+        DECIMAL,
+        /** An <code>xsd:double</code> literal */
+        DOUBLE,
+        /** A plain literal, with one of the given language tags */
+        PLAIN
+    }
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private final Random rand;
+
+    private int subjects = 40;
+    private int predicates = 3;
+    private Kind[] objects = {Kind.INT};
+    private int minValue = 0;
+    private int maxValue = 20;
+    private String prefix = "v";
+    private String[] langs = {""};
+    private Resource[] bnodes = new Resource[0];
+    private int bNodeSubjectInterval = 0;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /**
+     * @param seed The seed, so that each run of a test sees the same statements
+     */
+    RandomStatements( long seed ) {
+        rand = new Random( seed );
+    }
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    /** Set the number of distinct URI resources */
+    RandomStatements subjects( int n ) {
+        subjects = n;
+        return this;
+    }
+
+    /** Set the number of distinct predicates */
+    RandomStatements predicates( int n ) {
+        predicates = n;
+        return this;
+    }
+
+    /** Set the kinds of object, each chosen with equal probability */
+    RandomStatements objects( Kind... kinds ) {
+        objects = kinds;
+        return this;
+    }
+
+    /** Set the range of numeric literal values, from <code>min</code> up to but not including <code>max</code> */
+    RandomStatements values( int min, int max ) {
+        minValue = min;
+        maxValue = max;
+        return this;
+    }
+
+    /** Set the prefix of plain literals and the language tags to choose from, where "" is no tag */
+    RandomStatements plain( String lexicalPrefix, String... tags ) {
+        prefix = lexicalPrefix;
+        langs = tags;
+        return this;
+    }
+
+    /**
+     * Set the blank nodes used as {@link Kind#BNODE} objects, and as the subject of
+     * every <code>interval</code>th statement, or none if <code>interval</code> is zero
+     */
+    RandomStatements bNodes( Resource[] nodes, int interval ) {
+        bnodes = nodes;
+        bNodeSubjectInterval = interval;
+        return this;
+    }
+
+    /** @return A new list of <code>n</code> random statements, created by <code>m</code> but not added to it */
+    List<Statement> statements( Model m, int n ) {
+        List<Statement> stmts = new ArrayList<Statement>( n );
+        for (int i = 0; i < n; i++) {
+            Resource s = (bNodeSubjectInterval > 0 && i % bNodeSubjectInterval == 0) ? bNode() : resource( m );
+            Property p = m.createProperty( NS + "p" + rand.nextInt( predicates ) );
+            stmts.add( m.createStatement( s, p, object( m ) ) );
+        }
+        return stmts;
+    }
+
+    /** Add <code>n</code> random statements to a model, some of which may be duplicates */
+    Model addTo( Model m, int n ) {
+        m.add( statements( m, n ) );
+        return m;
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private Resource resource( Model m ) {
+        return m.createResource( NS + "r" + rand.nextInt( subjects ) );
+    }
+
+    private Resource bNode() {
+        return bnodes[rand.nextInt( bnodes.length )];
+    }
+
+    private int value() {
+        return minValue + rand.nextInt( maxValue - minValue );
+    }
+
+    private RDFNode object( Model m ) {
+        switch (objects[rand.nextInt( objects.length )]) {
+            case RESOURCE: return resource( m );
+            case BNODE:    return bNode();
+            case INT:      return m.createTypedLiteral( value() );
+            case INTEGER:  return m.createTypedLiteral( Integer.toString( value() ), XSDDatatype.XSDinteger );
+            case DECIMAL:  return m.createTypedLiteral( Integer.toString( value() ), XSDDatatype.XSDdecimal );
+            case DOUBLE:   return m.createTypedLiteral( Double.toString( value() + rand.nextDouble() ), XSDDatatype.XSDdouble );
+            default:       return m.createLiteral( prefix + value(), langs[rand.nextInt( langs.length )] );
+        }
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
@@ -0,0 +1,169 @@
+/*****************************************************************************
+ * File:    RangePartitionerTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link RangePartitioner}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class RangePartitionerTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        new RandomStatements( 19 ).subjects( 500 ).predicates( 4 ).values( 0, 1000 ).addTo( m, 4000 );
+    }
+
+    @Test
+    public void testSortedPartitionsConcatenate() {
+        RDFStatementOrder order = new RDFStatementStandardOrder( TripleLayout.POS );
+        RangePartitioner<Statement> p = RangePartitioner.fromSample( m.listStatements(), order, 8, 800, new Random( 3 ) );
+        assertEquals( 8, p.getPartitionCount() );
+        assertEquals( 7, p.getSplitters().size() );
+
+        List<List<Statement>> partitions = p.partitionAll( m.listStatements() );
+        List<Statement> concatenated = new ArrayList<Statement>();
+        int n = (int) m.size();
+        for (List<Statement> part : partitions) {
+            // roughly balanced
+            assertTrue( part.size() > n / 16 );
+            assertTrue( part.size() < n / 4 );
+            Collections.sort( part, order );
+            concatenated.addAll( part );
+        }
+
+        List<Statement> all = m.listStatements().toList();
+        Collections.sort( all, order );
+        assertEquals( all, concatenated );
+    }
+
+    @Test
+    public void testEqualNodesInSamePartition() {
+        RDFNodeOrder order = new RDFNodeStandardOrder();
+        List<RDFNode> nodes = new ArrayList<RDFNode>();
+        for (int i = 0; i < 300; i++) {
+            nodes.add( m.createTypedLiteral( "2", XSDDatatype.XSDdecimal ) );
+            nodes.add( m.createTypedLiteral( "2.0", XSDDatatype.XSDdecimal ) );
+            nodes.add( m.createTypedLiteral( Integer.toString( i ), XSDDatatype.XSDdecimal ) );
+        }
+
+        RangePartitioner<RDFNode> p = RangePartitioner.fromSample( nodes.iterator(), order, 10, 200, new Random( 5 ) );
+        int two = p.partition( m.createTypedLiteral( "2", XSDDatatype.XSDdecimal ) );
+        assertEquals( two, p.partition( m.createTypedLiteral( "2.00", XSDDatatype.XSDdecimal ) ) );
+
+        // every element of a partition is after every element of the partitions before it
+        List<List<RDFNode>> partitions = p.partitionAll( nodes.iterator() );
+        for (int i = 1; i < partitions.size(); i++) {
+            for (RDFNode before : partitions.get( i - 1 )) {
+                for (RDFNode after : partitions.get( i )) {
+                    assertTrue( order.compare( before, after ) < 0 );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitters() {
+        Comparator<Integer> order = new Comparator<Integer>() {
+            @Override
+            public int compare( Integer i1, Integer i2 ) {
+                return i1.compareTo( i2 );
+            }
+        };
+        List<Integer> sample = Arrays.asList( 9, 3, 7, 1, 5, 8, 2, 6, 4, 0 );
+        assertEquals( Arrays.asList( 2, 5, 7 ), RangePartitioner.chooseSplitters( sample, order, 4 ) );
+        assertEquals( 0, RangePartitioner.chooseSplitters( sample, order, 1 ).size() );
+
+        RangePartitioner<Integer> p = new RangePartitioner<Integer>( order, Arrays.asList( 2, 5, 5, 7 ) );
+        assertEquals( 5, p.getPartitionCount() );
+        assertEquals( 0, p.partition( 1 ) );
+        assertEquals( 1, p.partition( 2 ) );
+        assertEquals( 1, p.partition( 4 ) );
+        assertEquals( 3, p.partition( 5 ) );
+        assertEquals( 4, p.partition( 7 ) );
+        assertEquals( 4, p.partition( 100 ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testSplittersOutOfOrder() {
+        new RangePartitioner<RDFNode>( new RDFNodeStandardOrder(),
+                                       Arrays.asList( m.createResource( NS + "b" ), m.createResource( NS + "a" ) ) );
+    }
+
+    @Test
+    public void testReservoir() {
+        RangePartitioner.Reservoir<Integer> r = new RangePartitioner.Reservoir<Integer>( 500, new Random( 7 ) );
+        long total = 0;
+        for (int i = 0; i < 100000; i++) {
+            r.add( i );
+        }
+        List<Integer> sample = r.getSample();
+        assertEquals( 100000, r.getCount() );
+        assertEquals( 500, sample.size() );
+        assertEquals( 500, new HashSet<Integer>( sample ).size() );
+        for (int i : sample) {
+            total += i;
+        }
+        // the mean of a uniform sample is close to the mean of the input
+        assertEquals( 50000.0, (double) total / sample.size(), 5000.0 );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
@@ -0,0 +1,152 @@
+/*****************************************************************************
+ * File:    SortedDiffTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epimorphics.rdfutil.order.RandomStatements.Kind;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link SortedDiff}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class SortedDiffTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m0, m1;
+
+    private RDFStatementOrder order = new RDFStatementStandardOrder();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m0 = ModelFactory.createDefaultModel();
+        m1 = ModelFactory.createDefaultModel();
+        Random rand = new Random( 5 );
+        for (Statement s : new RandomStatements( 5 ).subjects( 30 ).objects( Kind.DECIMAL ).statements( m0, 400 )) {
+            switch (rand.nextInt( 3 )) {
+                case 0: m0.add( s ); break;
+                case 1: m1.add( s ); break;
+                default: m0.add( s ); m1.add( s );
+            }
+        }
+    }
+
+    @Test
+    public void testDiffMatchesModelDifference() {
+        Collector c = diff( m0, m1 );
+        assertEquals( m0.difference( m1 ).listStatements().toSet(), c.removed );
+        assertEquals( m1.difference( m0 ).listStatements().toSet(), c.added );
+        assertEquals( m0.intersection( m1 ).listStatements().toSet(), c.common );
+    }
+
+    @Test
+    public void testBlocksOfEqualStatements() {
+        // "2" and "2.0" are equal as decimals, so these statements compare as equal
+        Resource r = m0.createResource( NS + "x" );
+        Property p = m0.createProperty( NS + "q" );
+        Statement s2 = m0.createStatement( r, p, m0.createTypedLiteral( "2", XSDDatatype.XSDdecimal ) );
+        Statement s20 = m0.createStatement( r, p, m0.createTypedLiteral( "2.0", XSDDatatype.XSDdecimal ) );
+        Statement s200 = m0.createStatement( r, p, m0.createTypedLiteral( "2.00", XSDDatatype.XSDdecimal ) );
+
+        Collector c = new Collector();
+        new SortedDiff( order ).diff( Arrays.asList( s2, s20 ).iterator(), Arrays.asList( s200, s20 ).iterator(), c );
+        assertEquals( Collections.singleton( s2 ), c.removed );
+        assertEquals( Collections.singleton( s200 ), c.added );
+        assertEquals( Collections.singleton( s20 ), c.common );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testUnsortedInput() {
+        List<Statement> unsorted = sorted( m0 );
+        Collections.reverse( unsorted );
+        new SortedDiff( order ).diff( unsorted.iterator(), sorted( m1 ).iterator(), new SortedDiff.HandlerAdapter() );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private Collector diff( Model from, Model to ) {
+        Collector c = new Collector();
+        new SortedDiff( order ).diff( sorted( from ).iterator(), sorted( to ).iterator(), c );
+        return c;
+    }
+
+    private List<Statement> sorted( Model m ) {
+        List<Statement> stmts = m.listStatements().toList();
+        Collections.sort( stmts, order );
+        return stmts;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+    private static class Collector
+        implements SortedDiff.Handler
+    {
+        Set<Statement> removed = new HashSet<Statement>();
+        Set<Statement> added = new HashSet<Statement>();
+        Set<Statement> common = new HashSet<Statement>();
+
+        @Override
+        public void removed( Statement s ) {
+            removed.add( s );
+        }
+
+        @Override
+        public void added( Statement s ) {
+            added.add( s );
+        }
+
+        @Override
+        public void common( Statement s ) {
+            common.add( s );
+        }
+    }
+
+}
+
@@ -0,0 +1,192 @@
+/*****************************************************************************
+ * File:    SortedModelViewTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epimorphics.rdfutil.order.RandomStatements.Kind;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link SortedModelView}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class SortedModelViewTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+
+    private RDFNodeOrder nodeOrder = new RDFNodeStandardOrder();
+
+    private RDFStatementOrder statementOrder = new RDFStatementStandardOrder();
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        m.add( randomStatements( 200, 1 ) );
+    }
+
+    @Test
+    public void testSubjectsFollowEdits() {
+        SortedModelView<Resource> view = SortedModelView.subjects( m, nodeOrder );
+        assertSubjects( view );
+
+        Random rand = new Random( 3 );
+        List<Statement> stmts = m.listStatements().toList();
+        for (int i = 0; i < 100; i++) {
+            m.remove( stmts.get( rand.nextInt( stmts.size() ) ) );
+            assertSubjects( view );
+        }
+        m.add( randomStatements( 50, 2 ) );
+        assertSubjects( view );
+        m.add( stmts.get( 0 ) );
+        m.add( stmts.get( 0 ) );
+        m.remove( randomStatements( 50, 2 ) );
+        assertSubjects( view );
+        m.removeAll( m.createResource( NS + "r3" ), null, null );
+        assertSubjects( view );
+        m.removeAll();
+        assertTrue( view.isEmpty() );
+    }
+
+    @Test
+    public void testStatementsFollowEdits() {
+        SortedModelView<Statement> view = SortedModelView.statements( m, statementOrder );
+        assertStatements( view );
+
+        Resource r = m.createResource( NS + "x" );
+        Property p = m.createProperty( NS + "q" );
+        m.add( r, p, m.createTypedLiteral( "2", XSDDatatype.XSDdecimal ) );
+        m.add( r, p, m.createTypedLiteral( "2.0", XSDDatatype.XSDdecimal ) );
+        assertStatements( view );
+        m.remove( r, p, m.createTypedLiteral( "2", XSDDatatype.XSDdecimal ) );
+        assertStatements( view );
+        assertEquals( m.size(), view.size() );
+    }
+
+    @Test
+    public void testObjectsAndPredicates() {
+        SortedModelView<RDFNode> objects = SortedModelView.objects( m, nodeOrder );
+        SortedModelView<Property> predicates = SortedModelView.predicates( m, nodeOrder );
+        m.add( randomStatements( 30, 4 ) );
+        m.remove( m.listStatements().toList().subList( 0, 40 ) );
+
+        List<RDFNode> expectedObjects = m.listObjects().toList();
+        Collections.sort( expectedObjects, nodeOrder );
+        assertEquals( expectedObjects, toList( objects ) );
+
+        Set<Property> expectedPredicates = new HashSet<Property>();
+        for (StmtIterator i = m.listStatements(); i.hasNext(); ) {
+            expectedPredicates.add( i.nextStatement().getPredicate() );
+        }
+        assertEquals( expectedPredicates, new HashSet<RDFNode>( toList( predicates ) ) );
+    }
+
+    @Test
+    public void testRebuildReplacesEntries() {
+        SortedModelView<Statement> view = SortedModelView.statements( m, statementOrder );
+        SortedSet<Statement> live = view.asSortedSet();
+        m.removeAll( m.createResource( NS + "r3" ), null, null );
+        assertStatements( view );
+        assertEquals( toList( view ), new ArrayList<Statement>( live ) );
+
+        // an iterator started before the rebuild still sees every old entry
+        int size = view.size();
+        Iterator<Statement> before = view.iterator();
+        m.removeAll();
+        int n = 0;
+        while (before.hasNext()) {
+            before.next();
+            n++;
+        }
+        assertEquals( size, n );
+        assertTrue( view.isEmpty() );
+        assertTrue( live.isEmpty() );
+    }
+
+    @Test
+    public void testClose() {
+        SortedModelView<Resource> view = SortedModelView.subjects( m, nodeOrder );
+        int size = view.size();
+        view.close();
+        assertTrue( view.isClosed() );
+        m.add( m.createResource( NS + "new" ), m.createProperty( NS + "p0" ), "v" );
+        assertEquals( size, view.size() );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private List<Statement> randomStatements( int n, long seed ) {
+        return new RandomStatements( seed ).objects( Kind.INT, Kind.RESOURCE ).statements( m, n );
+    }
+
+    private void assertSubjects( SortedModelView<Resource> view ) {
+        List<Resource> expected = m.listSubjects().toList();
+        Collections.sort( expected, nodeOrder );
+        assertEquals( expected, toList( view ) );
+    }
+
+    private void assertStatements( SortedModelView<Statement> view ) {
+        List<Statement> expected = m.listStatements().toList();
+        Collections.sort( expected, new SortedNTriplesWriter.CanonicalOrder( statementOrder ) );
+        assertEquals( expected, toList( view ) );
+    }
+
+    private <T> List<T> toList( Iterable<T> view ) {
+        List<T> l = new ArrayList<T>();
+        for (T t : view) {
+            l.add( t );
+        }
+        return l;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
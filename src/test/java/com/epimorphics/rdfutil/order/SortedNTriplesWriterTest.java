@@ -0,0 +1,136 @@
+/*****************************************************************************
+ * File:    SortedNTriplesWriterTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link SortedNTriplesWriter}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class SortedNTriplesWriterTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        Resource r0 = m.createResource( NS + "r0" );
+        Resource r1 = m.createResource( NS + "r1" );
+        Property p = m.createProperty( NS + "p" );
+        m.add( r1, p, "caf\u00e9" );
+        m.add( r0, p, m.createTypedLiteral( "2.0", XSDDatatype.XSDdecimal ) );
+        m.add( r0, p, m.createTypedLiteral( "2", XSDDatatype.XSDdecimal ) );
+        m.add( r0, p, m.createTypedLiteral( "1", XSDDatatype.XSDdecimal ) );
+        m.add( r0, p, r1 );
+    }
+
+    @Test
+    public void testOutputIsCanonical() throws Exception {
+        String expected = "<http://example.com/rdf#r0> <http://example.com/rdf#p> <http://example.com/rdf#r1> .\n" +
+                          "<http://example.com/rdf#r0> <http://example.com/rdf#p> \"1\"^^<http://www.w3.org/2001/XMLSchema#decimal> .\n" +
+                          "<http://example.com/rdf#r0> <http://example.com/rdf#p> \"2\"^^<http://www.w3.org/2001/XMLSchema#decimal> .\n" +
+                          "<http://example.com/rdf#r0> <http://example.com/rdf#p> \"2.0\"^^<http://www.w3.org/2001/XMLSchema#decimal> .\n" +
+                          "<http://example.com/rdf#r1> <http://example.com/rdf#p> \"caf\\u00E9\" .\n";
+
+        List<Statement> stmts = m.listStatements().toList();
+        for (int i = 0; i < 5; i++) {
+            Collections.shuffle( stmts, new Random( i ) );
+            assertEquals( expected, write( new SortedNTriplesWriter(), stmts ) );
+        }
+    }
+
+    @Test
+    public void testWriteModel() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SortedNTriplesWriter().write( m, out );
+        assertEquals( write( new SortedNTriplesWriter(), m.listStatements().toList() ), out.toString( "US-ASCII" ) );
+    }
+
+    @Test
+    public void testDistinct() throws Exception {
+        List<Statement> stmts = m.listStatements().toList();
+        List<Statement> doubled = new ArrayList<Statement>( stmts );
+        doubled.addAll( m.listStatements().toList() );
+
+        SortedNTriplesWriter writer = new SortedNTriplesWriter();
+        assertEquals( 10, lines( write( writer, doubled ) ) );
+        writer.setDistinct( true );
+        assertEquals( write( writer, stmts ), write( writer, doubled ) );
+    }
+
+    @Test
+    public void testSmallBuffer() throws Exception {
+        SortedNTriplesWriter writer = new SortedNTriplesWriter( new RDFStatementStandardOrder( TripleLayout.OPS ) );
+        String expected = write( writer, m.listStatements().toList() );
+        writer.setBufferSize( 16 );
+        assertEquals( expected, write( writer, m.listStatements().toList() ) );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private String write( SortedNTriplesWriter writer, List<Statement> stmts ) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write( stmts.iterator(), Channels.newChannel( out ) );
+        return out.toString( "US-ASCII" );
+    }
+
+    private int lines( String s ) {
+        return s.split( "\n" ).length;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,167 @@
+/*****************************************************************************
+ * File:    SortedTripleFileTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.*;
+
+import com.epimorphics.rdfutil.order.RandomStatements.Kind;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link SortedTripleFile}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class SortedTripleFileTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+    private Resource[] bnodes;
+
+    private File file;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        bnodes = new Resource[] {m.createResource(), m.createResource()};
+        new RandomStatements( 13 ).subjects( 30 ).plain( "caf\u00e9 ", "fr" ).bNodes( bnodes, 10 )
+                                  .objects( Kind.INTEGER, Kind.PLAIN, Kind.RESOURCE )
+                                  .addTo( m, 400 );
+        file = File.createTempFile( "rdf-order-test", ".srt" );
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testWriteAndReadInOrder() throws Exception {
+        for (TripleLayout layout : TripleLayout.values()) {
+            assertEquals( m.size(), SortedTripleFile.write( m.getGraph(), layout, file ) );
+            // a small segment size, so that the file is mapped as many segments
+            SortedTripleFile f = new SortedTripleFile( file, 256 );
+            assertEquals( layout, f.getLayout() );
+            assertEquals( m.size(), f.size() );
+
+            List<Triple> read = toList( f.find( null, null, null ) );
+            assertEquals( m.getGraph().find( Triple.ANY ).toSet(), new HashSet<Triple>( read ) );
+            TripleOrder order = new TripleStandardOrder( layout );
+            for (int i = 1; i < read.size(); i++) {
+                assertTrue( order.compare( read.get( i - 1 ), read.get( i ) ) <= 0 );
+            }
+            assertEquals( read.get( 17 ), f.get( 17 ) );
+            f.close();
+        }
+    }
+
+    @Test
+    public void testFind() throws Exception {
+        SortedTripleFile.write( m.getGraph(), TripleLayout.SPO, file );
+        SortedTripleFile f = new SortedTripleFile( file, 256 );
+
+        Triple t = m.listStatements().toList().get( 100 ).asTriple();
+        Node s = t.getSubject();
+        Node p = t.getPredicate();
+        Node o = t.getObject();
+        assertFind( f, s, null, null );
+        assertFind( f, s, p, null );
+        assertFind( f, s, p, o );
+        assertFind( f, null, p, o );
+        assertFind( f, s, Node.ANY, o );
+        assertFind( f, bnodes[1].asNode(), null, null );
+        assertTrue( f.find( bnodes[1].asNode(), null, null ).hasNext() );
+
+        // bNodes sort first, and are read back with the labels Jena allocated
+        Node first = f.get( 0 ).getSubject();
+        assertTrue( first.equals( bnodes[0].asNode() ) || first.equals( bnodes[1].asNode() ) );
+        assertFalse( f.find( Node.createURI( NS + "none" ), null, null ).hasNext() );
+        f.close();
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        SortedTripleFile.write( m.getGraph(), TripleLayout.POS, file );
+        SortedTripleFile f = SortedTripleFile.open( file );
+        List<Triple> all = toList( f.find( null, null, null ) );
+
+        assertEquals( all.subList( 50, 151 ), toList( f.range( all.get( 50 ), true, all.get( 150 ), true ) ) );
+        assertEquals( all.subList( 51, 150 ), toList( f.range( all.get( 50 ), false, all.get( 150 ), false ) ) );
+        assertFalse( f.range( all.get( 150 ), true, all.get( 50 ), true ).hasNext() );
+        f.close();
+    }
+
+    @Test( expected = IOException.class )
+    public void testNotASortedTripleFile() throws Exception {
+        OutputStream out = new FileOutputStream( file );
+        out.write( "<http://example.com/a> <http://example.com/b> <http://example.com/c> .\n".getBytes( "UTF-8" ) );
+        out.close();
+        SortedTripleFile.open( file );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    private void assertFind( SortedTripleFile f, Node s, Node p, Node o ) {
+        Set<Triple> expected = m.getGraph().find( s == null ? Node.ANY : s, p == null ? Node.ANY : p, o == null ? Node.ANY : o ).toSet();
+        assertFalse( expected.isEmpty() );
+        assertEquals( expected, new HashSet<Triple>( toList( f.find( s, p, o ) ) ) );
+    }
+
+    private List<Triple> toList( Iterator<Triple> i ) {
+        List<Triple> l = new ArrayList<Triple>();
+        while (i.hasNext()) {
+            l.add( i.next() );
+        }
+        return l;
+    }
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
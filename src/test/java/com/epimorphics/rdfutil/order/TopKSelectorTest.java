@@ -0,0 +1,124 @@
+/*****************************************************************************
+ * File:    TopKSelectorTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link TopKSelector}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class TopKSelectorTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        new RandomStatements( 11 ).values( 0, 50 ).addTo( m, 500 );
+    }
+
+    @Test
+    public void testStatementPages() {
+        RDFStatementOrder order = new RDFStatementStandardOrder( TripleLayout.OPS );
+        List<Statement> all = m.listStatements().toList();
+        Collections.sort( all, order );
+
+        for (int offset = 0; offset < all.size() + 50; offset += 50) {
+            List<Statement> page = TopKSelector.select( m.listStatements(), order, offset, 50 );
+            assertEquals( all.subList( Math.min( offset, all.size() ), Math.min( offset + 50, all.size() ) ), page );
+        }
+    }
+
+    @Test
+    public void testSelectionIsStable() {
+        // compare only the objects, so that many statements are equal in the order
+        final RDFNodeOrder nodeOrder = new RDFNodeStandardOrder();
+        Comparator<Statement> byObject = new Comparator<Statement>() {
+            @Override
+            public int compare( Statement s1, Statement s2 ) {
+                return nodeOrder.compare( s1.getObject(), s2.getObject() );
+            }
+        };
+        List<Statement> input = m.listStatements().toList();
+        List<Statement> all = new ArrayList<Statement>( input );
+        Collections.sort( all, byObject );
+
+        assertEquals( all.subList( 37, 74 ), TopKSelector.select( input.iterator(), byObject, 37, 37 ) );
+    }
+
+    @Test
+    public void testNodes() {
+        List<RDFNode> nodes = new ArrayList<RDFNode>();
+        for (StmtIterator i = m.listStatements(); i.hasNext(); ) {
+            nodes.add( i.nextStatement().getSubject() );
+        }
+        TopKSelector<RDFNode> selector = new TopKSelector<RDFNode>( new RDFNodeStandardOrder(), 0, 5 );
+        selector.addAll( nodes.iterator() );
+        assertEquals( nodes.size(), selector.getCount() );
+
+        List<RDFNode> page = selector.getPage();
+        assertEquals( 5, page.size() );
+        assertEquals( Collections.min( nodes, new RDFNodeStandardOrder() ), page.get( 0 ) );
+    }
+
+    @Test
+    public void testEmptyPage() {
+        assertTrue( TopKSelector.select( m.listStatements(), new RDFStatementStandardOrder(), 10, 0 ).isEmpty() );
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+
@@ -0,0 +1,111 @@
+/*****************************************************************************
+ * File:    TripleStandardOrderTest.java
+ * Project: rdf-order
+ * Created: 16 Oct 2026
+ * By:      ian
+ *
+ * Copyright (c) 2026 Epimorphics Ltd. All rights reserved.
+ *****************************************************************************/
+
+// Package
+///////////////
+
+package com.epimorphics.rdfutil.order;
+
+
+// Imports
+///////////////
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.*;
+
+/**
+ * <p>Unit tests for {@link TripleStandardOrder}</p>
+ *
+ * @author Ian Dickinson, Epimorphics (mailto:ian@epimorphics.com)
+ */
+public class TripleStandardOrderTest
+{
+    /***********************************/
+    /* Constants                       */
+    /***********************************/
+
+    /***********************************/
+    /* Static variables                */
+    /***********************************/
+
+    /***********************************/
+    /* Instance variables              */
+    /***********************************/
+
+    private String NS = "http://example.com/rdf#";
+
+    private Model m;
+
+    /***********************************/
+    /* Constructors                    */
+    /***********************************/
+
+    /***********************************/
+    /* External signature methods      */
+    /***********************************/
+
+    @Before
+    public void setUp() throws Exception {
+        m = ModelFactory.createDefaultModel();
+        Resource[] subjects = {m.createResource( NS + "r0" ), m.createResource( NS + "r1" ), m.createResource()};
+        Property[] predicates = {m.createProperty( NS + "p0" ), m.createProperty( NS + "p1" )};
+        RDFNode[] objects = {m.createResource( NS + "r0" ), m.createLiteral( "l0" ), m.createTypedLiteral( 42 )};
+        for (Resource s : subjects) {
+            for (Property p : predicates) {
+                for (RDFNode o : objects) {
+                    m.add( s, p, o );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultLayoutIsSPO() {
+        assertEquals( TripleLayout.SPO, new TripleStandardOrder().getLayout() );
+    }
+
+    @Test
+    public void testSameOrderAsStatementOrder() {
+        for (TripleLayout layout : TripleLayout.values()) {
+            List<Statement> stmts = m.listStatements().toList();
+            Collections.shuffle( stmts );
+            List<Triple> triples = new ArrayList<Triple>();
+            for (Statement s : stmts) {
+                triples.add( s.asTriple() );
+            }
+
+            Collections.sort( stmts, new RDFStatementStandardOrder( layout ) );
+            Collections.sort( triples, new TripleStandardOrder( layout ) );
+
+            assertEquals( stmts.size(), triples.size() );
+            for (int i = 0; i < stmts.size(); i++) {
+                assertEquals( layout.toString(), stmts.get( i ).asTriple(), triples.get( i ) );
+            }
+        }
+    }
+
+    /***********************************/
+    /* Internal implementation methods */
+    /***********************************/
+
+    /***********************************/
+    /* Inner class definitions         */
+    /***********************************/
+
+}
+